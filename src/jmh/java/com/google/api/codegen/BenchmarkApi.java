@@ -0,0 +1,160 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen;
+
+import com.google.api.codegen.common.TargetLanguage;
+import com.google.api.codegen.config.ApiDefaultsConfig;
+import com.google.api.codegen.config.DependenciesConfig;
+import com.google.api.codegen.config.GapicProductConfig;
+import com.google.api.codegen.config.PackageMetadataConfig;
+import com.google.api.codegen.config.PackagingConfig;
+import com.google.api.tools.framework.model.Diag;
+import com.google.api.tools.framework.model.Model;
+import com.google.api.tools.framework.model.testing.TestDataLocator;
+import com.google.common.base.Preconditions;
+import java.io.File;
+import java.io.IOException;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * An API from the test data, loaded as the generator loads it: the model with its service config,
+ * and the GAPIC config. Benchmarks share these APIs so that their numbers can be compared.
+ *
+ * <p>Besides the test APIs, which have a handful of interfaces, the {@code synthetic} API has
+ * {@value #SYNTHETIC_SERVICES} services, to measure costs that depend on the number of generated
+ * files.
+ */
+public final class BenchmarkApi implements AutoCloseable {
+
+  /** The number of services of the {@code synthetic} API. */
+  public static final int SYNTHETIC_SERVICES = 60;
+
+  private final TemporaryFolder tempDir;
+  private final Model model;
+  private final ConfigProto gapicConfig;
+
+  private BenchmarkApi(TemporaryFolder tempDir, Model model, ConfigProto gapicConfig) {
+    this.tempDir = tempDir;
+    this.model = model;
+    this.gapicConfig = gapicConfig;
+  }
+
+  /** Loads an API by name: {@code library}, {@code showcase} or {@code synthetic}. */
+  public static BenchmarkApi load(String name) throws IOException {
+    switch (name) {
+      case "library":
+        return load(
+            "testsrc/common",
+            new String[] {"library.proto", "another_service.proto"},
+            new String[] {"library.yaml"},
+            new String[] {"library_gapic.yaml"});
+      case "showcase":
+        return load(
+            "testsrc/showcase",
+            new String[] {"echo.proto"},
+            new String[] {"showcase.yaml"},
+            new String[] {"showcase_gapic.yaml"});
+      case "synthetic":
+        return loadSynthetic(
+            SyntheticApi.newBuilder()
+                .setServices(SYNTHETIC_SERVICES)
+                .setMethodsPerService(10)
+                .setMessageDepth(2)
+                .setResourcePatterns(2)
+                .build());
+      default:
+        throw new IllegalArgumentException("Unknown benchmark API: " + name);
+    }
+  }
+
+  private static BenchmarkApi load(
+      String testDataDir, String[] protoFiles, String[] yamlFiles, String[] gapicConfigFiles)
+      throws IOException {
+    TestDataLocator locator = TestDataLocator.create(CodegenTestUtil.class);
+    locator.addTestDataSource(CodegenTestUtil.class, testDataDir);
+    locator.addTestDataSource(CodegenTestUtil.class, "testsrc/common");
+    TemporaryFolder tempDir = new TemporaryFolder();
+    tempDir.create();
+    return load(locator, tempDir, protoFiles, yamlFiles, gapicConfigFiles);
+  }
+
+  /** Writes the sources of api to a temporary directory and loads them. */
+  private static BenchmarkApi loadSynthetic(SyntheticApi api) throws IOException {
+    TemporaryFolder tempDir = new TemporaryFolder();
+    tempDir.create();
+    File apiDir = tempDir.newFolder("api");
+    api.writeTo(apiDir);
+    TestDataLocator locator = new MixedPathTestDataLocator(SyntheticApi.class, apiDir.getPath());
+    return load(
+        locator,
+        tempDir,
+        new String[] {SyntheticApi.PROTO_FILE},
+        new String[] {SyntheticApi.SERVICE_CONFIG_FILE},
+        new String[] {SyntheticApi.GAPIC_CONFIG_FILE});
+  }
+
+  private static BenchmarkApi load(
+      TestDataLocator locator,
+      TemporaryFolder tempDir,
+      String[] protoFiles,
+      String[] yamlFiles,
+      String[] gapicConfigFiles) {
+    Model model = CodegenTestUtil.readModel(locator, tempDir, protoFiles, yamlFiles);
+    ConfigProto gapicConfig =
+        CodegenTestUtil.readConfig(
+            model.getDiagReporter().getDiagCollector(), locator, gapicConfigFiles);
+    checkNoErrors(model);
+    return new BenchmarkApi(tempDir, model, gapicConfig);
+  }
+
+  public Model getModel() {
+    return model;
+  }
+
+  public ConfigProto getGapicConfig() {
+    return gapicConfig;
+  }
+
+  /** Creates the product config of the API for the given language. */
+  public GapicProductConfig createProductConfig(TargetLanguage language) {
+    GapicProductConfig productConfig = GapicProductConfig.create(model, gapicConfig, language);
+    checkNoErrors(model);
+    return Preconditions.checkNotNull(productConfig);
+  }
+
+  /** Creates the package metadata config, from the bundled defaults and the product config. */
+  public PackageMetadataConfig createPackageConfig(GapicProductConfig productConfig)
+      throws IOException {
+    return PackageMetadataConfig.createFromPackaging(
+        ApiDefaultsConfig.load(),
+        DependenciesConfig.load(),
+        PackagingConfig.loadFromProductConfig(productConfig.getInterfaceConfigMap()));
+  }
+
+  @Override
+  public void close() {
+    tempDir.delete();
+  }
+
+  private static void checkNoErrors(Model model) {
+    if (model.getDiagReporter().getDiagCollector().getErrorCount() > 0) {
+      StringBuilder errors = new StringBuilder();
+      for (Diag diag : model.getDiagReporter().getDiagCollector().getDiags()) {
+        errors.append(diag).append('\n');
+      }
+      throw new IllegalStateException("Cannot load the benchmark API:\n" + errors);
+    }
+  }
+}
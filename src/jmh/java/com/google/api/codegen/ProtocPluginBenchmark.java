@@ -0,0 +1,117 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen;
+
+import com.google.api.codegen.util.ProtoParser;
+import com.google.api.tools.framework.tools.FileWrapper;
+import com.google.api.tools.framework.tools.ToolOptions;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
+import com.google.protobuf.ExtensionRegistry;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorRequest;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how the protoc plugin hands the descriptors of a request to the tool framework, from
+ * the {@link CodeGeneratorRequest} to the parsed descriptor set the model is built from.
+ *
+ * <p>{@link #throughTempFile} is the former hand-off, which wrote the descriptor set to a temporary
+ * file for the framework to read back; {@link #inMemory} is the current one, through {@link
+ * ProtocGeneratorMain#parseOptions}. Run with {@code -PjmhArgs='ProtocPluginBenchmark -prof gc'}
+ * to compare the bytes allocated per hand-off ({@code gc.alloc.rate.norm}) as well as the latency.
+ * The request is a {@link SyntheticApi} with the given number of services.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProtocPluginBenchmark {
+
+  @Param({"10", "100"})
+  public int services;
+
+  private File workDir;
+  private CodeGeneratorRequest request;
+  private ExtensionRegistry extensionRegistry;
+
+  @Setup
+  public void setUp() throws IOException {
+    workDir = Files.createTempDirectory("protoc-plugin-benchmark").toFile();
+    extensionRegistry = ExtensionRegistry.newInstance();
+    ProtoParser.registerAllExtensions(extensionRegistry);
+
+    SyntheticApi.Inputs inputs =
+        SyntheticApi.newBuilder().setServices(services).build().writeTo(workDir);
+    FileDescriptorSet descriptorSet;
+    try (InputStream in = new FileInputStream(inputs.getDescriptorSet())) {
+      descriptorSet = FileDescriptorSet.parseFrom(in, extensionRegistry);
+    }
+    request =
+        CodeGeneratorRequest.newBuilder()
+            .addAllProtoFile(descriptorSet.getFileList())
+            .addFileToGenerate(SyntheticApi.PROTO_FILE)
+            .setParameter("language=java")
+            .build();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    MoreFiles.deleteRecursively(workDir.toPath(), RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  @Benchmark
+  public FileDescriptorSet throughTempFile() throws IOException {
+    File descriptorFile = File.createTempFile("api", ".desc", workDir);
+    try {
+      try (OutputStream out = new FileOutputStream(descriptorFile)) {
+        FileDescriptorSet.newBuilder().addAllFile(request.getProtoFileList()).build().writeTo(out);
+      }
+      try (InputStream in = new FileInputStream(descriptorFile)) {
+        return FileDescriptorSet.parseFrom(in, extensionRegistry);
+      }
+    } finally {
+      descriptorFile.delete();
+    }
+  }
+
+  @Benchmark
+  public FileDescriptorSet inMemory() throws Exception {
+    ToolOptions toolOptions = ProtocGeneratorMain.parseOptions(request);
+    FileWrapper contents = toolOptions.get(ToolOptions.DESCRIPTOR_SET_CONTENTS);
+    return FileDescriptorSet.parseFrom(contents.getFileContents(), extensionRegistry);
+  }
+}
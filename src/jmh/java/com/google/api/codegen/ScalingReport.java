@@ -0,0 +1,304 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen;
+
+import com.google.api.codegen.gapic.FileGapicWriter;
+import com.google.api.codegen.gapic.GapicGeneratorApp;
+import com.google.common.base.Splitter;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import java.io.File;
+import java.io.IOException;
+import com.google.api.tools.framework.tools.ToolOptions;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+/**
+ * Reports how the end-to-end generation time and allocation of each language grow with the size of
+ * a {@link SyntheticApi}, and flags super-linear growth.
+ *
+ * <p>The API grows by {@code --factor} in {@code --steps} steps, either in the number of services
+ * or in the number of methods per service. Each size is generated {@code --repeats} times per
+ * language, after a warm-up run, and the median wall time and median allocated bytes are reported.
+ * The growth exponent between two steps is {@code log(y2 / y1) / log(n2 / n1)}, where {@code n} is
+ * the number of methods; an exponent above {@code --threshold} is flagged, and makes the report
+ * exit with status 1. The exponent is not computed when either measurement is zero.
+ *
+ * <p>The allocation is the number of bytes allocated by the generating thread, as counted by the
+ * JVM, so it does not depend on when the garbage collector runs. Generation and rendering are
+ * sequential here, so the generating thread does all the work. The report requires a JVM that
+ * counts thread allocation, such as HotSpot.
+ */
+public class ScalingReport {
+
+  private static final Option LANGUAGES_OPTION =
+      option("languages", "Comma-separated languages to generate.", "LANGUAGES");
+  private static final Option SERVICES_OPTION =
+      option("services", "The number of services of the smallest API.", "N");
+  private static final Option METHODS_OPTION =
+      option("methods", "The number of methods per service of the smallest API.", "N");
+  private static final Option DEPTH_OPTION =
+      option("message_depth", "The depth of nested messages below each resource.", "N");
+  private static final Option RESOURCES_OPTION =
+      option("resource_patterns", "The number of resource name patterns per service.", "N");
+  private static final Option LONG_RUNNING_OPTION =
+      option("long_running_percent", "The percentage of long-running methods.", "PERCENT");
+  private static final Option PAGED_OPTION =
+      option("paged_percent", "The percentage of paged methods.", "PERCENT");
+  private static final Option STREAMING_OPTION =
+      option("streaming_percent", "The percentage of streaming methods.", "PERCENT");
+  private static final Option GROW_OPTION =
+      option("grow", "What grows between steps: services or methods.", "DIMENSION");
+  private static final Option STEPS_OPTION = option("steps", "The number of sizes.", "N");
+  private static final Option FACTOR_OPTION =
+      option("factor", "The growth factor between sizes.", "N");
+  private static final Option REPEATS_OPTION =
+      option("repeats", "The number of runs per size and language.", "N");
+  private static final Option THRESHOLD_OPTION =
+      option("threshold", "The growth exponent above which growth is flagged.", "EXPONENT");
+
+  public static void main(String[] args) throws Exception {
+    Options options = new Options();
+    for (Option option :
+        Arrays.asList(
+            LANGUAGES_OPTION,
+            SERVICES_OPTION,
+            METHODS_OPTION,
+            DEPTH_OPTION,
+            RESOURCES_OPTION,
+            LONG_RUNNING_OPTION,
+            PAGED_OPTION,
+            STREAMING_OPTION,
+            GROW_OPTION,
+            STEPS_OPTION,
+            FACTOR_OPTION,
+            REPEATS_OPTION,
+            THRESHOLD_OPTION)) {
+      options.addOption(option);
+    }
+    CommandLine cl;
+    try {
+      cl = new DefaultParser().parse(options, args);
+    } catch (ParseException e) {
+      System.err.println(e.getMessage());
+      new HelpFormatter().printHelp("ScalingReport", options);
+      System.exit(2);
+      return;
+    }
+
+    List<String> languages =
+        Splitter.on(',')
+            .omitEmptyStrings()
+            .trimResults()
+            .splitToList(
+                cl.getOptionValue(
+                    LANGUAGES_OPTION.getLongOpt(), "java,python,go,csharp,nodejs,php,ruby"));
+    SyntheticApi baseApi =
+        SyntheticApi.newBuilder()
+            .setServices(intValue(cl, SERVICES_OPTION, 2))
+            .setMethodsPerService(intValue(cl, METHODS_OPTION, 25))
+            .setMessageDepth(intValue(cl, DEPTH_OPTION, 2))
+            .setResourcePatterns(intValue(cl, RESOURCES_OPTION, 2))
+            .setLongRunningPercent(intValue(cl, LONG_RUNNING_OPTION, 10))
+            .setPagedPercent(intValue(cl, PAGED_OPTION, 20))
+            .setStreamingPercent(intValue(cl, STREAMING_OPTION, 10))
+            .build();
+    String grow = cl.getOptionValue(GROW_OPTION.getLongOpt(), "services");
+    if (!grow.equals("services") && !grow.equals("methods")) {
+      System.err.println("--grow must be services or methods, not " + grow);
+      System.exit(2);
+    }
+    boolean growServices = grow.equals("services");
+    int steps = intValue(cl, STEPS_OPTION, 4);
+    int factor = intValue(cl, FACTOR_OPTION, 2);
+    int repeats = intValue(cl, REPEATS_OPTION, 3);
+    double threshold = Double.parseDouble(cl.getOptionValue(THRESHOLD_OPTION.getLongOpt(), "1.3"));
+
+    boolean flagged = false;
+    File workDir = Files.createTempDirectory("scaling-report").toFile();
+    try {
+      List<SyntheticApi> apis = new ArrayList<>();
+      List<SyntheticApi.Inputs> inputs = new ArrayList<>();
+      for (int step = 0, scale = 1; step < steps; step++, scale *= factor) {
+        SyntheticApi api =
+            growServices
+                ? baseApi.toBuilder().setServices(baseApi.getServiceCount() * scale).build()
+                : baseApi
+                    .toBuilder()
+                    .setMethodsPerService(
+                        baseApi.getMethodCount() / baseApi.getServiceCount() * scale)
+                    .build();
+        File apiDir = new File(workDir, "api" + step);
+        apiDir.mkdirs();
+        apis.add(api);
+        inputs.add(api.writeTo(apiDir));
+      }
+
+      List<String> rows = new ArrayList<>();
+      for (String language : languages) {
+        // Warm up the JIT and the process-wide caches, as a long-running generator would be.
+        generate(inputs.get(0), language, workDir);
+
+        Measurement previous = null;
+        for (int step = 0; step < steps; step++) {
+          List<Measurement> runs = new ArrayList<>();
+          for (int repeat = 0; repeat < repeats; repeat++) {
+            runs.add(generate(inputs.get(step), language, workDir));
+          }
+          Measurement measurement = Measurement.median(apis.get(step).getMethodCount(), runs);
+
+          String timeExponent = "";
+          String allocationExponent = "";
+          String flag = "";
+          if (previous != null) {
+            double sizeRatio = (double) measurement.methods / previous.methods;
+            double time = exponent(previous.wallNanos, measurement.wallNanos, sizeRatio);
+            double allocation =
+                exponent(previous.allocatedBytes, measurement.allocatedBytes, sizeRatio);
+            timeExponent = formatExponent(time);
+            allocationExponent = formatExponent(allocation);
+            if (time > threshold || allocation > threshold) {
+              flag = "SUPER-LINEAR";
+              flagged = true;
+            }
+          }
+          rows.add(
+              String.format(
+                  "%-8s %8d %10.1f %10.1f %9s %9s  %s",
+                  language,
+                  measurement.methods,
+                  measurement.wallNanos / 1e6,
+                  measurement.allocatedBytes / (1024.0 * 1024.0),
+                  timeExponent,
+                  allocationExponent,
+                  flag));
+          previous = measurement;
+        }
+      }
+
+      System.out.println(baseApi + ", growing " + grow);
+      System.out.println(
+          String.format(
+              "%-8s %8s %10s %10s %9s %9s",
+              "language", "methods", "time_ms", "alloc_mb", "time_exp", "alloc_exp"));
+      for (String row : rows) {
+        System.out.println(row);
+      }
+    } finally {
+      MoreFiles.deleteRecursively(workDir.toPath(), RecursiveDeleteOption.ALLOW_INSECURE);
+    }
+    System.exit(flagged ? 1 : 0);
+  }
+
+  private static Measurement generate(SyntheticApi.Inputs inputs, String language, File workDir)
+      throws IOException {
+    File outputDir = Files.createTempDirectory(workDir.toPath(), language).toFile();
+    try {
+      ToolOptions toolOptions = inputs.createToolOptions(language, outputDir.getPath());
+      toolOptions.set(GapicGeneratorApp.GENERATOR_THREADS, 1);
+      toolOptions.set(GapicGeneratorApp.RENDER_THREADS, 1);
+      com.sun.management.ThreadMXBean threadBean = allocationBean();
+      long threadId = Thread.currentThread().getId();
+
+      long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+      long start = System.nanoTime();
+      GapicGeneratorApp generator =
+          new GapicGeneratorApp(
+              toolOptions,
+              ArtifactType.LEGACY_GAPIC_AND_PACKAGE,
+              new FileGapicWriter(outputDir.getPath()));
+      int exitCode = generator.run();
+      long wallNanos = System.nanoTime() - start;
+      long allocatedBytes = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+      if (exitCode != 0 || generator.getDiagCollector().getErrorCount() > 0) {
+        throw new IllegalStateException(
+            "Generating " + language + " failed:\n" + generator.getDiagCollector());
+      }
+      return new Measurement(0, wallNanos, allocatedBytes);
+    } finally {
+      MoreFiles.deleteRecursively(outputDir.toPath(), RecursiveDeleteOption.ALLOW_INSECURE);
+    }
+  }
+
+  private static com.sun.management.ThreadMXBean allocationBean() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (!(bean instanceof com.sun.management.ThreadMXBean)
+        || !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+      throw new IllegalStateException("This JVM does not count the bytes allocated by threads.");
+    }
+    com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+    allocationBean.setThreadAllocatedMemoryEnabled(true);
+    return allocationBean;
+  }
+
+  /** Returns the growth exponent, or NaN if either measurement is not positive. */
+  private static double exponent(double before, double after, double sizeRatio) {
+    if (before <= 0 || after <= 0) {
+      return Double.NaN;
+    }
+    return Math.log(after / before) / Math.log(sizeRatio);
+  }
+
+  private static String formatExponent(double exponent) {
+    return Double.isNaN(exponent) ? "n/a" : String.format("%.2f", exponent);
+  }
+
+  private static Option option(String name, String description, String argName) {
+    return Option.builder().longOpt(name).desc(description).hasArg().argName(argName).build();
+  }
+
+  private static int intValue(CommandLine cl, Option option, int defaultValue) {
+    String value = cl.getOptionValue(option.getLongOpt());
+    return value == null ? defaultValue : Integer.parseInt(value);
+  }
+
+  private static class Measurement {
+    private final int methods;
+    private final long wallNanos;
+    private final long allocatedBytes;
+
+    Measurement(int methods, long wallNanos, long allocatedBytes) {
+      this.methods = methods;
+      this.wallNanos = wallNanos;
+      this.allocatedBytes = allocatedBytes;
+    }
+
+    /** Returns the median wall time and the median allocation of the runs. */
+    static Measurement median(int methods, List<Measurement> runs) {
+      long[] wallNanos = new long[runs.size()];
+      long[] allocatedBytes = new long[runs.size()];
+      for (int i = 0; i < runs.size(); i++) {
+        wallNanos[i] = runs.get(i).wallNanos;
+        allocatedBytes[i] = runs.get(i).allocatedBytes;
+      }
+      Arrays.sort(wallNanos);
+      Arrays.sort(allocatedBytes);
+      return new Measurement(
+          methods,
+          wallNanos[wallNanos.length / 2],
+          allocatedBytes[allocatedBytes.length / 2]);
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.config;
+
+import com.google.api.codegen.BenchmarkApi;
+import com.google.api.codegen.common.TargetLanguage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures building the product config of an API, which every generation run does first. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GapicProductConfigBenchmark {
+
+  @Param({"library", "showcase"})
+  public String api;
+
+  @Param({"java", "python"})
+  public String language;
+
+  private BenchmarkApi benchmarkApi;
+  private TargetLanguage targetLanguage;
+
+  @Setup
+  public void setUp() throws IOException {
+    benchmarkApi = BenchmarkApi.load(api);
+    targetLanguage = TargetLanguage.fromString(language.toUpperCase());
+  }
+
+  @TearDown
+  public void tearDown() {
+    benchmarkApi.close();
+  }
+
+  @Benchmark
+  public GapicProductConfig create() {
+    return benchmarkApi.createProductConfig(targetLanguage);
+  }
+}
@@ -0,0 +1,104 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.discovery;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.api.codegen.CodegenTestUtil;
+import com.google.api.tools.framework.model.testing.TestDataLocator;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing a Discovery document into the model. Large documents are synthesized by copying
+ * the resources and schemas of the simplecompute test document under new names.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DocumentBenchmark {
+
+  /** The minimum size of the document, in megabytes. 0 parses the test document as is. */
+  @Param({"0", "5"})
+  public int megabytes;
+
+  private String json;
+
+  @Setup
+  public void setUp() throws IOException {
+    TestDataLocator locator = TestDataLocator.create(CodegenTestUtil.class);
+    locator.addTestDataSource(CodegenTestUtil.class, "discogapic/testdata");
+    URL url = Preconditions.checkNotNull(locator.findTestData("simplecompute.v1.json"));
+    ObjectMapper mapper = new ObjectMapper();
+    ObjectNode document = (ObjectNode) mapper.readTree(url);
+    String original = mapper.writeValueAsString(document);
+    ObjectNode resources = (ObjectNode) document.get("resources");
+    ObjectNode schemas = (ObjectNode) document.get("schemas");
+    ObjectNode originalResources = resources.deepCopy();
+    ObjectNode originalSchemas = schemas.deepCopy();
+
+    int copies = megabytes * 1024 * 1024 / original.length();
+    for (int i = 1; i <= copies; i++) {
+      copyFields(originalResources, resources, "Copy" + i);
+      copyFields(originalSchemas, schemas, "Copy" + i);
+    }
+    json = mapper.writeValueAsString(document);
+  }
+
+  @Benchmark
+  public Document parse() throws IOException {
+    return Document.from(new StringReader(json));
+  }
+
+  private static void copyFields(ObjectNode from, ObjectNode to, String suffix) {
+    for (Iterator<Map.Entry<String, JsonNode>> fields = from.fields(); fields.hasNext(); ) {
+      Map.Entry<String, JsonNode> field = fields.next();
+      ObjectNode copy = field.getValue().deepCopy();
+      renameId(copy, suffix);
+      if (copy.has("methods")) {
+        for (JsonNode method : copy.get("methods")) {
+          renameId((ObjectNode) method, suffix);
+        }
+      }
+      to.set(field.getKey() + suffix, copy);
+    }
+  }
+
+  private static void renameId(ObjectNode node, String suffix) {
+    if (node.has("id")) {
+      node.put("id", node.get("id").asText() + suffix);
+    }
+  }
+}
@@ -0,0 +1,159 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.rendering;
+
+import com.google.api.codegen.BenchmarkApi;
+import com.google.api.codegen.common.GeneratedResult;
+import com.google.api.codegen.common.TargetLanguage;
+import com.google.api.codegen.config.GapicProductConfig;
+import com.google.api.codegen.config.ProtoApiModel;
+import com.google.api.codegen.transformer.SurfaceTransformerBenchmark;
+import com.google.api.codegen.util.csharp.CSharpRenderingUtil;
+import com.google.api.codegen.util.java.JavaRenderingUtil;
+import com.google.api.codegen.util.py.PythonRenderingUtil;
+import com.google.api.codegen.viewmodel.ViewModel;
+import com.google.api.tools.framework.snippet.Doc;
+import com.google.api.tools.framework.snippet.SnippetSet;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures rendering the client surface view models of an API into documents, with and without
+ * pretty-printing them.
+ *
+ * <p>The {@code renderFile} benchmarks render one file per operation, cycling through the view
+ * models, so their scores are the average cost of a file. {@code renderFileCached} binds the
+ * template parsed by {@link SnippetSetCache}, as the generator does, and {@code
+ * renderFileUncached} parses it for every file with {@link SnippetSet#createSnippetInterface}. The
+ * {@code synthetic} API has {@value BenchmarkApi#SYNTHETIC_SERVICES} services, so one parse is
+ * shared by many more files than in the test APIs. Compare them with:
+ *
+ * <pre>
+ * ./gradlew jmh -PjmhArgs='SnippetRenderingBenchmark.renderFile -p api=library,synthetic'
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SnippetRenderingBenchmark {
+
+  @Param({"library", "showcase", "synthetic"})
+  public String api;
+
+  @Param({"java", "python", "csharp"})
+  public String language;
+
+  private BenchmarkApi benchmarkApi;
+  private List<ViewModel> viewModels;
+  private CommonSnippetSetRunner snippetSetRunner;
+  private Map<String, Object> globals;
+  private int nextViewModel;
+
+  @Setup
+  public void setUp() throws IOException {
+    benchmarkApi = BenchmarkApi.load(api);
+    GapicProductConfig productConfig =
+        benchmarkApi.createProductConfig(TargetLanguage.fromString(language.toUpperCase()));
+    viewModels =
+        SurfaceTransformerBenchmark.createSurfaceTransformer(benchmarkApi, language, productConfig)
+            .transform(new ProtoApiModel(benchmarkApi.getModel()), productConfig);
+    Object renderingUtil = createRenderingUtil(language);
+    snippetSetRunner = new CommonSnippetSetRunner(renderingUtil);
+    globals = ImmutableMap.of("util", renderingUtil);
+  }
+
+  @TearDown
+  public void tearDown() {
+    benchmarkApi.close();
+  }
+
+  @Benchmark
+  public void render(Blackhole blackhole) {
+    for (ViewModel viewModel : viewModels) {
+      blackhole.consume(snippetSetRunner.generate(viewModel));
+    }
+  }
+
+  @Benchmark
+  public void renderAndPrint(Blackhole blackhole) {
+    for (ViewModel viewModel : viewModels) {
+      for (Map.Entry<String, GeneratedResult<Doc>> file :
+          snippetSetRunner.generate(viewModel).entrySet()) {
+        blackhole.consume(file.getValue().getBody().prettyPrint());
+      }
+    }
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Doc renderFileCached() {
+    ViewModel viewModel = nextViewModel();
+    return SnippetSetCache.createSnippetInterface(
+            FileSnippetSet.class, viewModel.resourceRoot(), viewModel.templateFileName(), globals)
+        .generate(viewModel);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Doc renderFileUncached() {
+    ViewModel viewModel = nextViewModel();
+    return SnippetSet.createSnippetInterface(
+            FileSnippetSet.class, viewModel.resourceRoot(), viewModel.templateFileName(), globals)
+        .generate(viewModel);
+  }
+
+  private ViewModel nextViewModel() {
+    ViewModel viewModel = viewModels.get(nextViewModel);
+    nextViewModel = (nextViewModel + 1) % viewModels.size();
+    return viewModel;
+  }
+
+  private static Object createRenderingUtil(String language) {
+    switch (language) {
+      case "java":
+        return new JavaRenderingUtil();
+      case "python":
+        return new PythonRenderingUtil();
+      case "csharp":
+        return new CSharpRenderingUtil();
+      default:
+        throw new IllegalArgumentException("Unsupported benchmark language: " + language);
+    }
+  }
+
+  /** The snippet interface of a template rendering a surface view model into one file. */
+  private interface FileSnippetSet {
+    Doc generate(ViewModel input);
+  }
+}
@@ -0,0 +1,107 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.transformer;
+
+import com.google.api.codegen.BenchmarkApi;
+import com.google.api.codegen.common.TargetLanguage;
+import com.google.api.codegen.config.GapicProductConfig;
+import com.google.api.codegen.config.ProtoApiModel;
+import com.google.api.codegen.gapic.CommonGapicCodePathMapper;
+import com.google.api.codegen.java.JavaGapicCodePathMapper;
+import com.google.api.codegen.transformer.csharp.CSharpGapicClientTransformer;
+import com.google.api.codegen.transformer.java.JavaGapicSurfaceTransformer;
+import com.google.api.codegen.transformer.py.PythonGapicSurfaceTransformer;
+import com.google.api.codegen.util.csharp.CSharpNameFormatter;
+import com.google.api.codegen.viewmodel.ViewModel;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures transforming an API into the view models of its client surface. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SurfaceTransformerBenchmark {
+
+  @Param({"library", "showcase"})
+  public String api;
+
+  @Param({"java", "python", "csharp"})
+  public String language;
+
+  private BenchmarkApi benchmarkApi;
+  private ProtoApiModel apiModel;
+  private GapicProductConfig productConfig;
+  private ModelToViewTransformer<ProtoApiModel> transformer;
+
+  @Setup
+  public void setUp() throws IOException {
+    benchmarkApi = BenchmarkApi.load(api);
+    apiModel = new ProtoApiModel(benchmarkApi.getModel());
+    productConfig =
+        benchmarkApi.createProductConfig(TargetLanguage.fromString(language.toUpperCase()));
+    transformer = createSurfaceTransformer(benchmarkApi, language, productConfig);
+  }
+
+  @TearDown
+  public void tearDown() {
+    benchmarkApi.close();
+  }
+
+  @Benchmark
+  public List<ViewModel> transform() {
+    return transformer.transform(apiModel, productConfig);
+  }
+
+  /** Creates the client surface transformer of a language, as GapicGeneratorFactory does. */
+  public static ModelToViewTransformer<ProtoApiModel> createSurfaceTransformer(
+      BenchmarkApi benchmarkApi, String language, GapicProductConfig productConfig)
+      throws IOException {
+    switch (language) {
+      case "java":
+        return new JavaGapicSurfaceTransformer(
+            JavaGapicCodePathMapper.newBuilder().prefix("src/main/java").build());
+      case "python":
+        return new PythonGapicSurfaceTransformer(
+            CommonGapicCodePathMapper.newBuilder().setShouldAppendPackage(true).build(),
+            benchmarkApi.createPackageConfig(productConfig));
+      case "csharp":
+        String packageName = productConfig.getPackageName();
+        return new CSharpGapicClientTransformer(
+            CommonGapicCodePathMapper.newBuilder()
+                .setPrefix(packageName + File.separator + packageName)
+                .setPackageFilePathNameFormatter(new CSharpNameFormatter())
+                .build());
+      default:
+        throw new IllegalArgumentException("Unsupported benchmark language: " + language);
+    }
+  }
+}
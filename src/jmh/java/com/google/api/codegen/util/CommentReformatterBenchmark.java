@@ -0,0 +1,140 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import com.google.api.codegen.BenchmarkApi;
+import com.google.api.codegen.util.csharp.CSharpCommentReformatter;
+import com.google.api.codegen.util.go.GoCommentReformatter;
+import com.google.api.codegen.util.java.JavaCommentReformatter;
+import com.google.api.codegen.util.js.JSCommentReformatter;
+import com.google.api.codegen.util.php.PhpCommentReformatter;
+import com.google.api.codegen.util.ruby.RubyCommentReformatter;
+import com.google.api.tools.framework.aspects.documentation.model.DocumentationUtil;
+import com.google.api.tools.framework.model.Field;
+import com.google.api.tools.framework.model.Interface;
+import com.google.api.tools.framework.model.MessageType;
+import com.google.api.tools.framework.model.Method;
+import com.google.api.tools.framework.model.ProtoElement;
+import com.google.api.tools.framework.model.ProtoFile;
+import com.google.common.base.Strings;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures reformatting the comments of all the interfaces, methods, messages and fields of an API
+ * for a target language. Python is left out, since its comments are reformatted before generation.
+ *
+ * <p>Some reformatters, such as Go's, parse markdown through {@link CommentCache}. With {@code
+ * cached=false} the cache is emptied before every invocation, so each comment is parsed again;
+ * with {@code cached=true} it is left warm, as in a run that reformats the same comment for several
+ * files.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CommentReformatterBenchmark {
+
+  @Param({"library", "showcase"})
+  public String api;
+
+  @Param({"csharp", "go", "java", "js", "php", "ruby"})
+  public String language;
+
+  @Param({"false", "true"})
+  public boolean cached;
+
+  private List<String> comments;
+  private CommentReformatter reformatter;
+
+  @Setup
+  public void setUp() throws IOException {
+    try (BenchmarkApi benchmarkApi = BenchmarkApi.load(api)) {
+      comments = new ArrayList<>();
+      for (ProtoFile file : benchmarkApi.getModel().getFiles()) {
+        for (Interface apiInterface : file.getInterfaces()) {
+          addComment(apiInterface);
+          for (Method method : apiInterface.getMethods()) {
+            addComment(method);
+          }
+        }
+        for (MessageType message : file.getMessages()) {
+          addComment(message);
+          for (Field field : message.getFields()) {
+            addComment(field);
+          }
+        }
+      }
+    }
+    reformatter = createReformatter(language);
+  }
+
+  @Setup(Level.Invocation)
+  public void clearCache() {
+    if (!cached) {
+      CommentCache.clear();
+    }
+  }
+
+  @Benchmark
+  public void reformat(Blackhole blackhole) {
+    for (String comment : comments) {
+      blackhole.consume(reformatter.reformat(comment));
+    }
+  }
+
+  private void addComment(ProtoElement element) {
+    String comment = DocumentationUtil.getScopedDescription(element);
+    if (!Strings.isNullOrEmpty(comment)) {
+      comments.add(comment);
+    }
+  }
+
+  private static CommentReformatter createReformatter(String language) {
+    switch (language) {
+      case "csharp":
+        return new CSharpCommentReformatter();
+      case "go":
+        return new GoCommentReformatter();
+      case "java":
+        return new JavaCommentReformatter();
+      case "js":
+        return new JSCommentReformatter();
+      case "php":
+        return new PhpCommentReformatter();
+      case "ruby":
+        return new RubyCommentReformatter();
+      default:
+        throw new IllegalArgumentException("Unsupported benchmark language: " + language);
+    }
+  }
+}
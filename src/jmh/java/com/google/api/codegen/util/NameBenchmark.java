@@ -0,0 +1,74 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures creating names from the identifier styles found in protos and configs, and converting
+ * them to the case forms the surface namers ask for.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class NameBenchmark {
+
+  private static final ImmutableList<String> CAMEL_IDENTIFIERS =
+      ImmutableList.of(
+          "LibraryService",
+          "ListShelvesRequest",
+          "getBigBook",
+          "HTTPRequest",
+          "IAMPolicy",
+          "streamShelves",
+          "UpdateBookIndex");
+
+  private static final ImmutableList<String> UNDERSCORE_IDENTIFIERS =
+      ImmutableList.of(
+          "page_token", "shelf_name", "book_id", "max_results", "update_mask", "http_request");
+
+  @Benchmark
+  @OperationsPerInvocation(13)
+  public void createAndConvert(Blackhole blackhole) {
+    for (String identifier : CAMEL_IDENTIFIERS) {
+      convert(Name.anyCamel(identifier), blackhole);
+    }
+    for (String identifier : UNDERSCORE_IDENTIFIERS) {
+      convert(Name.from(identifier), blackhole);
+    }
+  }
+
+  private static void convert(Name name, Blackhole blackhole) {
+    blackhole.consume(name.toUpperCamel());
+    blackhole.consume(name.toLowerCamel());
+    blackhole.consume(name.toUpperUnderscore());
+    blackhole.consume(name.toLowerUnderscore());
+  }
+}
@@ -0,0 +1,89 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import com.google.api.codegen.BenchmarkApi;
+import com.google.api.tools.framework.model.Field;
+import com.google.api.tools.framework.model.Interface;
+import com.google.api.tools.framework.model.MessageType;
+import com.google.api.tools.framework.model.Method;
+import com.google.api.tools.framework.model.ProtoFile;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures reading the proto annotations of every interface, method, message and field of an API,
+ * as the config and transformer code does through new parsers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProtoParserBenchmark {
+
+  @Param({"library", "showcase"})
+  public String api;
+
+  private BenchmarkApi benchmarkApi;
+
+  @Setup
+  public void setUp() throws IOException {
+    benchmarkApi = BenchmarkApi.load(api);
+  }
+
+  @TearDown
+  public void tearDown() {
+    benchmarkApi.close();
+  }
+
+  @Benchmark
+  public void readAnnotations(Blackhole blackhole) {
+    ProtoParser protoParser = new ProtoParser(true);
+    for (ProtoFile file : benchmarkApi.getModel().getFiles()) {
+      for (Interface apiInterface : file.getInterfaces()) {
+        blackhole.consume(protoParser.getServiceAddress(apiInterface));
+        blackhole.consume(protoParser.getAuthScopes(apiInterface));
+        for (Method method : apiInterface.getMethods()) {
+          blackhole.consume(protoParser.getMethodSignatures(method));
+          blackhole.consume(protoParser.getRequiredFields(method));
+          blackhole.consume(protoParser.getLongRunningOperation(method));
+          blackhole.consume(protoParser.getHeaderParams(method));
+          blackhole.consume(protoParser.isHttpGetMethod(method));
+        }
+      }
+      for (MessageType message : file.getMessages()) {
+        blackhole.consume(protoParser.getResourceDescriptor(message));
+        for (Field field : message.getFields()) {
+          blackhole.consume(protoParser.getResourceReference(field));
+        }
+      }
+    }
+  }
+}
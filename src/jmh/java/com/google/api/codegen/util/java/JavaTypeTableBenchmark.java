@@ -0,0 +1,81 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util.java;
+
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures saving the imports of a generated Java file: a new type table resolves the nicknames of
+ * a mix of java.lang, library and API types, including clashing simple names.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JavaTypeTableBenchmark {
+
+  private static final ImmutableList<String> FULL_NAMES =
+      ImmutableList.of(
+          "java.lang.String",
+          "java.lang.Integer",
+          "java.lang.Object",
+          "java.lang.Override",
+          "java.io.IOException",
+          "java.util.List",
+          "java.util.Map",
+          "java.util.concurrent.TimeUnit",
+          "com.google.api.core.ApiFuture",
+          "com.google.api.gax.core.BackgroundResource",
+          "com.google.api.gax.rpc.UnaryCallable",
+          "com.google.api.gax.rpc.ServerStreamingCallable",
+          "com.google.api.gax.longrunning.OperationFuture",
+          "com.google.longrunning.Operation",
+          "com.google.protobuf.Empty",
+          "com.google.protobuf.FieldMask",
+          "com.google.example.library.v1.Book",
+          "com.google.example.library.v1.Shelf",
+          "com.google.example.library.v1.ListShelvesRequest",
+          "com.google.example.library.v1.ListShelvesResponse",
+          "com.google.example.library.v1.stub.LibraryServiceStub",
+          "com.google.example.library.v1.Process",
+          "com.google.example.tagger.v1.Book",
+          "com.google.example.library.v1.String",
+          "java.lang.String",
+          "com.google.example.library.v1.Book");
+
+  @Benchmark
+  @OperationsPerInvocation(26)
+  public void getAndSaveNicknameFor(Blackhole blackhole) {
+    JavaTypeTable typeTable = new JavaTypeTable("com.google.example.library.v1");
+    for (String fullName : FULL_NAMES) {
+      blackhole.consume(typeTable.getAndSaveNicknameFor(fullName));
+    }
+    blackhole.consume(typeTable.getImports());
+  }
+}
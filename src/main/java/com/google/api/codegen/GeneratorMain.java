@@ -21,6 +21,7 @@ import com.google.api.codegen.gapic.FileGapicWriter;
 import com.google.api.codegen.gapic.GapicGeneratorApp;
 import com.google.api.codegen.packagegen.PackageGeneratorApp;
 import com.google.api.codegen.packagegen.PackagingArtifactType;
+import com.google.api.tools.framework.tools.FileWrapper;
 import com.google.api.tools.framework.tools.ToolOptions;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
@@ -92,6 +93,17 @@ public class GeneratorMain {
           .argName("LANGUAGE")
           .required(false)
           .build();
+  private static final Option LANGUAGES_NONREQUIRED_OPTION =
+      Option.builder("l")
+          .longOpt("language")
+          .desc(
+              "The target programming language for generated output, or a comma-separated list "
+                  + "of languages. With several languages, each language is generated into its "
+                  + "own subdirectory of the output.")
+          .hasArg()
+          .argName("LANGUAGE")
+          .required(false)
+          .build();
   private static final Option OUTPUT_OPTION =
       Option.builder("o")
           .longOpt("output")
@@ -141,6 +153,64 @@ public class GeneratorMain {
           .hasArgs()
           .argName("SAMPLE-YAMLS")
           .build();
+  private static final Option RENDER_THREADS_OPTION =
+      Option.builder()
+          .longOpt("render_threads")
+          .desc(
+              "Optional. The number of threads used to render generated files. "
+                  + "Rendering is sequential by default.")
+          .hasArg()
+          .argName("RENDER-THREADS")
+          .required(false)
+          .build();
+  private static final Option STREAMING_OUTPUT_OPTION =
+      Option.builder()
+          .longOpt("streaming_output")
+          .desc(
+              "Optional. Write each generated file as soon as it is rendered, instead of after "
+                  + "all generators have finished.")
+          .argName("STREAMING-OUTPUT")
+          .required(false)
+          .build();
+  private static final Option SKIP_UNCHANGED_FILES_OPTION =
+      Option.builder()
+          .longOpt("skip_unchanged_files")
+          .desc(
+              "Optional. Leave output files whose content is unchanged untouched instead of "
+                  + "rewriting them. Requires output to a directory.")
+          .argName("SKIP-UNCHANGED-FILES")
+          .required(false)
+          .build();
+  private static final Option CONFIG_CACHE_DIR_OPTION =
+      Option.builder()
+          .longOpt("config_cache_dir")
+          .desc(
+              "Optional. A directory in which to cache configs parsed from YAML, shared between "
+                  + "invocations.")
+          .hasArg()
+          .argName("CONFIG-CACHE-DIR")
+          .required(false)
+          .build();
+  private static final Option PROFILE_OUT_OPTION =
+      Option.builder()
+          .longOpt("profile_out")
+          .desc(
+              "Optional. The path of a JSON report of the time and memory spent in each "
+                  + "generation stage, generator and output file. A summary is printed to stderr.")
+          .hasArg()
+          .argName("PROFILE-OUT")
+          .required(false)
+          .build();
+  private static final Option GENERATOR_THREADS_OPTION =
+      Option.builder()
+          .longOpt("generator_threads")
+          .desc(
+              "Optional. The number of code generators to run concurrently. "
+                  + "Generators run sequentially by default.")
+          .hasArg()
+          .argName("GENERATOR-THREADS")
+          .required(false)
+          .build();
   private static final Option GRPC_SERVICE_CONFIG_OPTION =
       Option.builder()
           .longOpt("grpc_service_config")
@@ -242,13 +312,19 @@ public class GeneratorMain {
     options.addOption(DESCRIPTOR_SET_OPTION);
     options.addOption(SERVICE_YAML_NONREQUIRED_OPTION);
     // TODO make required after artman passes this in
-    options.addOption(LANGUAGE_NONREQUIRED_OPTION);
+    options.addOption(LANGUAGES_NONREQUIRED_OPTION);
     options.addOption(GAPIC_YAML_NONREQUIRED_OPTION);
     options.addOption(PACKAGE_YAML2_OPTION);
     options.addOption(TARGET_API_PROTO_PACKAGE);
     options.addOption(OUTPUT_OPTION);
     options.addOption(SAMPLE_YAML_NONREQUIRED_OPTION);
     options.addOption(GRPC_SERVICE_CONFIG_OPTION);
+    options.addOption(RENDER_THREADS_OPTION);
+    options.addOption(GENERATOR_THREADS_OPTION);
+    options.addOption(STREAMING_OUTPUT_OPTION);
+    options.addOption(SKIP_UNCHANGED_FILES_OPTION);
+    options.addOption(CONFIG_CACHE_DIR_OPTION);
+    options.addOption(PROFILE_OUT_OPTION);
     Option enabledArtifactsOption =
         Option.builder()
             .longOpt("enabled_artifacts")
@@ -287,7 +363,7 @@ public class GeneratorMain {
     toolOptions.set(
         GapicGeneratorApp.PROTO_PACKAGE, cl.getOptionValue(TARGET_API_PROTO_PACKAGE.getLongOpt()));
     toolOptions.set(
-        GapicGeneratorApp.LANGUAGE, cl.getOptionValue(LANGUAGE_NONREQUIRED_OPTION.getLongOpt()));
+        GapicGeneratorApp.LANGUAGE, cl.getOptionValue(LANGUAGES_NONREQUIRED_OPTION.getLongOpt()));
     toolOptions.set(
         GapicGeneratorApp.OUTPUT_FILE, cl.getOptionValue(OUTPUT_OPTION.getLongOpt(), ""));
     toolOptions.set(
@@ -331,6 +407,18 @@ public class GeneratorMain {
     }
 
     toolOptions.set(GapicGeneratorApp.DEV_SAMPLES, cl.hasOption(devSamplesOption.getLongOpt()));
+    toolOptions.set(
+        GapicGeneratorApp.STREAMING_OUTPUT, cl.hasOption(STREAMING_OUTPUT_OPTION.getLongOpt()));
+    toolOptions.set(
+        GapicGeneratorApp.SKIP_UNCHANGED_FILES,
+        cl.hasOption(SKIP_UNCHANGED_FILES_OPTION.getLongOpt()));
+    toolOptions.set(
+        GapicGeneratorApp.CONFIG_CACHE_DIR,
+        cl.getOptionValue(CONFIG_CACHE_DIR_OPTION.getLongOpt(), ""));
+    toolOptions.set(
+        GapicGeneratorApp.PROFILE_OUT, cl.getOptionValue(PROFILE_OUT_OPTION.getLongOpt(), ""));
+    setThreadOption(cl, RENDER_THREADS_OPTION, GapicGeneratorApp.RENDER_THREADS, toolOptions);
+    setThreadOption(cl, GENERATOR_THREADS_OPTION, GapicGeneratorApp.GENERATOR_THREADS, toolOptions);
 
     String outputPath = toolOptions.get(GapicGeneratorApp.OUTPUT_FILE);
     GapicGeneratorApp codeGen =
@@ -339,25 +427,30 @@ public class GeneratorMain {
     System.exit(exitCode);
   }
 
-  public static ToolOptions createCodeGeneratorOptionsFromProtoc(String[] args)
-      throws ParseException {
+  /**
+   * Creates the code generator options for a protoc plugin invocation. The descriptor set is passed
+   * in memory rather than through a file, since protoc already hands the compiled protos to the
+   * plugin.
+   */
+  public static ToolOptions createCodeGeneratorOptionsFromProtoc(
+      String[] args, FileWrapper descriptorSetContents) throws ParseException {
     Options options = new Options();
     // We can add more options as they become needed.
-    options.addOption(DESCRIPTOR_SET_OPTION);
     options.addOption(LANGUAGE_OPTION);
     options.addOption(TARGET_API_PROTO_PACKAGE);
+    options.addOption(RENDER_THREADS_OPTION);
+    options.addOption(GENERATOR_THREADS_OPTION);
 
     CommandLine cl = (new DefaultParser()).parse(options, args);
 
     ToolOptions toolOptions = ToolOptions.create();
-    toolOptions.set(
-        ToolOptions.DESCRIPTOR_SET, cl.getOptionValue(DESCRIPTOR_SET_OPTION.getLongOpt()));
+    toolOptions.set(ToolOptions.DESCRIPTOR_SET_CONTENTS, descriptorSetContents);
 
     toolOptions.set(
         GapicGeneratorApp.PROTO_PACKAGE, cl.getOptionValue(TARGET_API_PROTO_PACKAGE.getLongOpt()));
     toolOptions.set(GapicGeneratorApp.LANGUAGE, cl.getOptionValue(LANGUAGE_OPTION.getLongOpt()));
-
-    checkFile(toolOptions.get(ToolOptions.DESCRIPTOR_SET));
+    setThreadOption(cl, RENDER_THREADS_OPTION, GapicGeneratorApp.RENDER_THREADS, toolOptions);
+    setThreadOption(cl, GENERATOR_THREADS_OPTION, GapicGeneratorApp.GENERATOR_THREADS, toolOptions);
 
     return toolOptions;
   }
@@ -505,6 +598,29 @@ public class GeneratorMain {
     System.exit(exitCode);
   }
 
+  private static void setThreadOption(
+      CommandLine cl,
+      Option cliOption,
+      ToolOptions.Option<Integer> toolOption,
+      ToolOptions toolOptions) {
+    String value = cl.getOptionValue(cliOption.getLongOpt());
+    if (Strings.isNullOrEmpty(value)) {
+      return;
+    }
+    int threads;
+    try {
+      threads = Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          String.format("Invalid --%s value: %s", cliOption.getLongOpt(), value));
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException(
+          String.format("--%s must be at least 1: %s", cliOption.getLongOpt(), value));
+    }
+    toolOptions.set(toolOption, threads);
+  }
+
   private static void checkFiles(List<String> files) {
     for (String filePath : files) {
       checkFile(filePath);
@@ -0,0 +1,100 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen;
+
+import com.google.common.base.Strings;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorRequest;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Forwards protoc plugin requests to a running {@link ProtocGeneratorDaemon}.
+ *
+ * <p>{@link ProtocGeneratorMain} uses this when the {@value #DAEMON_PORT_FILE_ENV} environment
+ * variable is set, so the plugin jar is a drop-in client: protoc invokes it as usual, and the
+ * generation runs in the warm daemon. If the daemon cannot be reached, the plugin generates in
+ * process.
+ *
+ * <p>The plugin parameter takes no file paths, so the request is forwarded unchanged and the
+ * working directory of the daemon does not matter. Each connection starts with the token the daemon
+ * wrote to its port file, which only the user running the daemon can read.
+ */
+public class ProtocGeneratorClient {
+
+  /** The environment variable holding the path of the port file written by the daemon. */
+  public static final String DAEMON_PORT_FILE_ENV = "GAPIC_GENERATOR_DAEMON_PORT_FILE";
+
+  private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+
+  private ProtocGeneratorClient() {}
+
+  /**
+   * Returns the daemon's response to request, or null if {@value #DAEMON_PORT_FILE_ENV} is not set
+   * or the daemon cannot be reached.
+   */
+  @Nullable
+  public static CodeGeneratorResponse forwardIfConfigured(CodeGeneratorRequest request) {
+    String portFile = System.getenv(DAEMON_PORT_FILE_ENV);
+    if (Strings.isNullOrEmpty(portFile)) {
+      return null;
+    }
+    try {
+      List<String> lines = Files.readAllLines(Paths.get(portFile), StandardCharsets.UTF_8);
+      if (lines.size() != 2) {
+        throw new IOException("Malformed port file " + portFile);
+      }
+      return forward(request, Integer.parseInt(lines.get(0).trim()), lines.get(1).trim());
+    } catch (IOException | NumberFormatException e) {
+      System.err.println(
+          "Cannot use the generator daemon of " + portFile + ", generating in process: " + e);
+      return null;
+    }
+  }
+
+  /**
+   * Sends request to the daemon listening on the given loopback port, authenticated with token,
+   * and returns its response.
+   */
+  public static CodeGeneratorResponse forward(
+      CodeGeneratorRequest request, int port, String token) throws IOException {
+    try (Socket socket = new Socket()) {
+      socket.connect(
+          new InetSocketAddress(InetAddress.getLoopbackAddress(), port), CONNECT_TIMEOUT_MILLIS);
+      DataOutputStream output =
+          new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      output.writeUTF(token);
+      request.writeDelimitedTo(output);
+      output.flush();
+      CodeGeneratorResponse response =
+          CodeGeneratorResponse.parseDelimitedFrom(
+              new BufferedInputStream(socket.getInputStream()));
+      if (response == null) {
+        throw new IOException("The generator daemon closed the connection without a response.");
+      }
+      return response;
+    }
+  }
+}
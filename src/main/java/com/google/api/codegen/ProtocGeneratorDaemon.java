@@ -0,0 +1,216 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.BaseEncoding;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorRequest;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+
+/**
+ * A long-lived process that serves protoc plugin requests, so that repeated generations share a
+ * warm JVM and the process-wide caches (parsed templates, bundled configs, reformatted comments).
+ *
+ * <p>Requests and responses are length-delimited {@link CodeGeneratorRequest} and {@link
+ * CodeGeneratorResponse} messages, as written by {@code writeDelimitedTo}. The daemon reads them
+ * either from stdin and stdout, or from connections to a loopback port; a connection may carry any
+ * number of requests. Each request is generated by {@link ProtocGeneratorMain#generate} with its
+ * own options, model and diagnostics, exactly as a fresh plugin process would. Requests are
+ * generated one at a time; the generator itself runs multithreaded.
+ *
+ * <p>Prefer {@code --stdio}, which is only reachable by the process that started the daemon. A
+ * loopback port is reachable by every local user, so in that mode the daemon writes its port and a
+ * random token to a port file that only its owner can read, and each connection must start with
+ * that token, as written by {@link java.io.DataOutputStream#writeUTF}. Connections that do not are
+ * closed without being served.
+ *
+ * <p>{@link ProtocGeneratorClient} forwards plugin invocations to the daemon.
+ */
+public class ProtocGeneratorDaemon {
+
+  private static final Option PORT_OPTION =
+      Option.builder()
+          .longOpt("port")
+          .desc("The loopback port to listen on. 0 picks a free port.")
+          .hasArg()
+          .argName("PORT")
+          .required(false)
+          .build();
+  private static final Option PORT_FILE_OPTION =
+      Option.builder()
+          .longOpt("port_file")
+          .desc(
+              "Required with --port. A file, readable only by its owner, to which the port and"
+                  + " the connection token are written once the daemon is listening.")
+          .hasArg()
+          .argName("PORT-FILE")
+          .required(false)
+          .build();
+  private static final Option STDIO_OPTION =
+      Option.builder()
+          .longOpt("stdio")
+          .desc("Serve requests from stdin and write responses to stdout until stdin is closed.")
+          .required(false)
+          .build();
+
+  private static final Object GENERATION_LOCK = new Object();
+
+  public static void main(String[] args) throws Exception {
+    Options options = new Options();
+    options.addOption("h", "help", false, "show usage");
+    options.addOption(PORT_OPTION);
+    options.addOption(PORT_FILE_OPTION);
+    options.addOption(STDIO_OPTION);
+
+    CommandLine cl = (new DefaultParser()).parse(options, args);
+    if (cl.hasOption("help")
+        || cl.hasOption(STDIO_OPTION.getLongOpt()) == cl.hasOption(PORT_OPTION.getLongOpt())
+        || cl.hasOption(PORT_OPTION.getLongOpt()) != cl.hasOption(PORT_FILE_OPTION.getLongOpt())) {
+      HelpFormatter formatter = new HelpFormatter();
+      formatter.printHelp(
+          "ProtocGeneratorDaemon (--stdio | --port PORT --port_file PORT-FILE)", options);
+      return;
+    }
+
+    if (cl.hasOption(STDIO_OPTION.getLongOpt())) {
+      serve(System.in, System.out);
+      return;
+    }
+
+    int port = Integer.parseInt(cl.getOptionValue(PORT_OPTION.getLongOpt()));
+    String token = newToken();
+    try (ServerSocket serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+      writePortFile(
+          Paths.get(cl.getOptionValue(PORT_FILE_OPTION.getLongOpt())),
+          serverSocket.getLocalPort(),
+          token);
+      System.err.println(
+          "Serving protoc plugin requests on port " + serverSocket.getLocalPort() + ".");
+      listen(serverSocket, token);
+    }
+  }
+
+  /**
+   * Accepts connections until the server socket is closed, serving each that starts with token on
+   * its own thread.
+   */
+  @VisibleForTesting
+  static void listen(ServerSocket serverSocket, String token) throws IOException {
+    ExecutorService connections =
+        Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                .setNameFormat("gapic-daemon-connection-%d")
+                .setDaemon(true)
+                .build());
+    try {
+      while (!serverSocket.isClosed()) {
+        Socket socket;
+        try {
+          socket = serverSocket.accept();
+        } catch (IOException e) {
+          if (serverSocket.isClosed()) {
+            return;
+          }
+          throw e;
+        }
+        connections.execute(() -> serveConnection(socket, token));
+      }
+    } finally {
+      connections.shutdownNow();
+    }
+  }
+
+  private static void serveConnection(Socket socket, String token) {
+    try (Socket connection = socket) {
+      // DataInputStream does not buffer, so the requests that follow the token stay unread.
+      String clientToken = new DataInputStream(connection.getInputStream()).readUTF();
+      if (!MessageDigest.isEqual(
+          clientToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+        System.err.println("Rejected a client connection with a wrong token.");
+        return;
+      }
+      serve(connection.getInputStream(), connection.getOutputStream());
+    } catch (IOException e) {
+      // The client went away; its request, if any, is abandoned.
+      System.err.println("Dropped a client connection: " + e);
+    }
+  }
+
+  /** Serves length-delimited requests read from in until end of stream. */
+  @VisibleForTesting
+  static void serve(InputStream in, OutputStream out) throws IOException {
+    InputStream input = new BufferedInputStream(in);
+    OutputStream output = new BufferedOutputStream(out);
+    while (true) {
+      CodeGeneratorRequest request = CodeGeneratorRequest.parseDelimitedFrom(input);
+      if (request == null) {
+        return;
+      }
+      CodeGeneratorResponse response;
+      synchronized (GENERATION_LOCK) {
+        response = ProtocGeneratorMain.generate(request);
+      }
+      response.writeDelimitedTo(output);
+      output.flush();
+    }
+  }
+
+  private static String newToken() {
+    byte[] token = new byte[32];
+    new SecureRandom().nextBytes(token);
+    return BaseEncoding.base16().lowerCase().encode(token);
+  }
+
+  /** Writes the port and token to portFile, readable and writable only by its owner. */
+  private static void writePortFile(Path portFile, int port, String token) throws IOException {
+    Path absolutePortFile = portFile.toAbsolutePath();
+    Path tempFile =
+        Files.createTempFile(
+            absolutePortFile.getParent(), absolutePortFile.getFileName().toString(), ".tmp");
+    PosixFileAttributeView attributes =
+        Files.getFileAttributeView(tempFile, PosixFileAttributeView.class);
+    if (attributes != null) {
+      attributes.setPermissions(PosixFilePermissions.fromString("rw-------"));
+    }
+    Files.write(tempFile, (port + "\n" + token + "\n").getBytes(StandardCharsets.UTF_8));
+    Files.move(tempFile, absolutePortFile, StandardCopyOption.REPLACE_EXISTING);
+  }
+}
@@ -19,18 +19,16 @@ import static com.google.api.codegen.ArtifactType.GAPIC_CODE;
 import com.google.api.codegen.gapic.GapicGeneratorApp;
 import com.google.api.codegen.gapic.ProtocGapicWriter;
 import com.google.api.tools.framework.model.Diag;
+import com.google.api.tools.framework.tools.FileWrapper;
 import com.google.api.tools.framework.tools.ToolOptions;
 import com.google.api.tools.framework.tools.ToolUtil;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
-import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
 import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
 import com.google.protobuf.compiler.PluginProtos;
 import com.google.protobuf.compiler.PluginProtos.CodeGeneratorRequest;
 import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
@@ -40,11 +38,17 @@ import java.util.List;
 /**
  * Entrypoint for protoc-plugin invoked generation. Protoc passes input via std.in as a serialized
  * CodeGeneratorRequest, and expects to read a CodeGeneratorResponse from std.out.
+ *
+ * <p>If a {@link ProtocGeneratorDaemon} is configured through {@link
+ * ProtocGeneratorClient#DAEMON_PORT_FILE_ENV}, the request is generated by the daemon instead.
  */
 public class ProtocGeneratorMain {
 
   private static final ArtifactType DEFAULT_ARTIFACT_TYPE = GAPIC_CODE;
 
+  // The name reported in diagnostics about the in-memory descriptor set.
+  private static final String DESCRIPTOR_SET_NAME = "<CodeGeneratorRequest>";
+
   public static void main(String[] args) {
     CodeGeneratorResponse response;
     CodeGeneratorRequest request;
@@ -65,7 +69,10 @@ public class ProtocGeneratorMain {
     }
 
     try {
-      response = generate(request);
+      response = ProtocGeneratorClient.forwardIfConfigured(request);
+      if (response == null) {
+        response = generate(request);
+      }
     } catch (Exception e) {
       StringWriter sw = new StringWriter();
       PrintWriter pw = new PrintWriter(sw);
@@ -113,23 +120,20 @@ public class ProtocGeneratorMain {
     }
   }
 
-  private static ToolOptions parseOptions(CodeGeneratorRequest request) throws Exception {
-    List<FileDescriptorProto> fileDescriptorProtoList = request.getProtoFileList();
-    FileDescriptorSet descriptorSet =
-        FileDescriptorSet.newBuilder().addAllFile(fileDescriptorProtoList).build();
-
-    // Write out DescriptorSet to temp file.
-    File descriptorSetFile;
-
-    descriptorSetFile = File.createTempFile("api", ".desc");
-    FileOutputStream fileoutput = new FileOutputStream(descriptorSetFile);
-    descriptorSet.writeTo(fileoutput);
-    fileoutput.close();
-    descriptorSetFile.deleteOnExit();
+  @VisibleForTesting
+  public static ToolOptions parseOptions(CodeGeneratorRequest request) throws Exception {
+    // Hand the compiled protos to the tool framework in memory. The framework parses the
+    // descriptor set again with the platform extension registry, which resolves the API
+    // annotations that protoc passed through as unknown fields.
+    FileWrapper descriptorSetContents =
+        FileWrapper.create(
+            DESCRIPTOR_SET_NAME,
+            FileDescriptorSet.newBuilder()
+                .addAllFile(request.getProtoFileList())
+                .build()
+                .toByteString());
 
     List<String> parsedArgs = new LinkedList<>();
-    parsedArgs.add("--descriptor_set");
-    parsedArgs.add(descriptorSetFile.getAbsolutePath());
 
     List<String> protoPackages = getProtoPackageList(request);
     if (protoPackages.size() > 1) {
@@ -155,7 +159,7 @@ public class ProtocGeneratorMain {
 
     String[] argsArray = parsedArgs.toArray(new String[] {});
 
-    return GeneratorMain.createCodeGeneratorOptionsFromProtoc(argsArray);
+    return GeneratorMain.createCodeGeneratorOptionsFromProtoc(argsArray, descriptorSetContents);
   }
 
   // Return the list of unique proto packages of the proto files to be generated.
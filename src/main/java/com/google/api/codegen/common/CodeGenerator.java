@@ -33,4 +33,30 @@ public interface CodeGenerator<T> {
 
   /** Runs code generation and returns a map from relative file paths to generated files. */
   Map<String, GeneratedResult<T>> generate() throws IOException;
+
+  /**
+   * Runs code generation and passes each generated file to {@code output} as soon as it is
+   * available, so that callers need not hold all generated files in memory at once. The files are
+   * those that {@link #generate()} would return, though not necessarily in the same order; a path
+   * may be passed more than once, in which case the last file wins. Returns false if generation
+   * failed.
+   *
+   * <p>The default implementation generates all files first. Generators that produce files
+   * incrementally override it.
+   */
+  default boolean generate(OutputConsumer<T> output) throws IOException {
+    Map<String, GeneratedResult<T>> results = generate();
+    if (results == null) {
+      return false;
+    }
+    for (Map.Entry<String, GeneratedResult<T>> entry : results.entrySet()) {
+      output.accept(entry.getKey(), entry.getValue());
+    }
+    return true;
+  }
+
+  /** Receives generated files from {@link #generate(OutputConsumer)}. */
+  interface OutputConsumer<T> {
+    void accept(String path, GeneratedResult<T> result) throws IOException;
+  }
 }
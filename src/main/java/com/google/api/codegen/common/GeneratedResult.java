@@ -14,8 +14,10 @@
  */
 package com.google.api.codegen.common;
 
+import com.google.api.tools.framework.snippet.Doc;
 import com.google.auto.value.AutoValue;
 import com.google.common.collect.ImmutableMap;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Objects;
 
@@ -63,6 +65,23 @@ public abstract class GeneratedResult<T> {
     return extractedResults.build();
   }
 
+  /**
+   * Returns the content of a result body as bytes, pretty-printing it if it is a {@code Doc}.
+   *
+   * @param body result body, one of {@code Doc}, {@code String} or {@code byte[]}
+   */
+  public static byte[] toBytes(Object body) {
+    if (body instanceof Doc) {
+      return ((Doc) body).prettyPrint().getBytes(StandardCharsets.UTF_8);
+    } else if (body instanceof String) {
+      return ((String) body).getBytes(StandardCharsets.UTF_8);
+    } else if (body instanceof byte[]) {
+      return (byte[]) body;
+    } else {
+      throw new IllegalArgumentException("Expected one of Doc, String, or byte[]");
+    }
+  }
+
   /** Returns the body (content) of the result. */
   public abstract T getBody();
 
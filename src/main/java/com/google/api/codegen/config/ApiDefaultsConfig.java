@@ -47,6 +47,9 @@ public abstract class ApiDefaultsConfig {
 
   protected abstract Map<TargetLanguage, VersionBound> generatedNonGAPackageVersionBound();
 
+  // Parsing the same classpath resource twice yields equal configs, so racing loads are harmless.
+  private static volatile ApiDefaultsConfig bundledConfig;
+
   private static Builder newBuilder() {
     return new AutoValue_ApiDefaultsConfig.Builder();
   }
@@ -84,10 +87,17 @@ public abstract class ApiDefaultsConfig {
     return builder.build();
   }
 
+  /** Returns the bundled API defaults. They are parsed once per process. */
   public static ApiDefaultsConfig load() throws IOException {
-    URL apiDefaultsUrl =
-        ApiDefaultsConfig.class.getResource("/com/google/api/codegen/packaging/api_defaults.yaml");
-    String contents = Resources.toString(apiDefaultsUrl, StandardCharsets.UTF_8);
-    return createFromString(contents);
+    ApiDefaultsConfig config = bundledConfig;
+    if (config == null) {
+      URL apiDefaultsUrl =
+          ApiDefaultsConfig.class.getResource(
+              "/com/google/api/codegen/packaging/api_defaults.yaml");
+      String contents = Resources.toString(apiDefaultsUrl, StandardCharsets.UTF_8);
+      config = createFromString(contents);
+      bundledConfig = config;
+    }
+    return config;
   }
 }
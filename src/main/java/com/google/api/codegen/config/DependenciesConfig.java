@@ -124,6 +124,9 @@ public abstract class DependenciesConfig {
     abstract DependenciesConfig build();
   }
 
+  // Parsing the same classpath resource twice yields equal configs, so racing loads are harmless.
+  private static volatile DependenciesConfig bundledConfig;
+
   @SuppressWarnings("unchecked")
   public static DependenciesConfig createFromString(String yamlContents) {
     Yaml yaml = new Yaml();
@@ -159,10 +162,17 @@ public abstract class DependenciesConfig {
     return builder.build();
   }
 
+  /** Returns the bundled dependency versions. They are parsed once per process. */
   public static DependenciesConfig load() throws IOException {
-    URL dependenciesUrl =
-        DependenciesConfig.class.getResource("/com/google/api/codegen/packaging/dependencies.yaml");
-    return loadFromURL(dependenciesUrl);
+    DependenciesConfig config = bundledConfig;
+    if (config == null) {
+      URL dependenciesUrl =
+          DependenciesConfig.class.getResource(
+              "/com/google/api/codegen/packaging/dependencies.yaml");
+      config = loadFromURL(dependenciesUrl);
+      bundledConfig = config;
+    }
+    return config;
   }
 
   public static DependenciesConfig loadFromURL(URL url) throws IOException {
@@ -34,8 +34,11 @@ import com.google.api.tools.framework.model.*;
 import com.google.auto.value.AutoValue;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableTable;
 import com.google.common.collect.Iterables;
@@ -176,100 +179,53 @@ public abstract class GapicProductConfig implements ProductConfig {
       @Nullable String clientPackage,
       TargetLanguage language,
       @Nullable ServiceConfig grpcServiceConfig) {
+    return create(
+        LanguageIndependentInputs.create(model, configProto, protoPackage, grpcServiceConfig),
+        sampleConfigProto,
+        clientPackage,
+        language);
+  }
 
-    final String defaultPackage;
+  /**
+   * Creates an instance of GapicProductConfig for one language from inputs shared by all languages.
+   * On errors, null will be returned, and diagnostics are reported to the model.
+   *
+   * @param inputs The language-independent inputs, created once per model.
+   * @param sampleConfigProto The parsed set of sample config files from the input
+   * @param clientPackage The desired package name for the generated client.
+   * @param language The language that this config will be used to generate a client in.
+   */
+  @Nullable
+  public static GapicProductConfig create(
+      LanguageIndependentInputs inputs,
+      @Nullable SampleConfigProto sampleConfigProto,
+      @Nullable String clientPackage,
+      TargetLanguage language) {
+    Model model = inputs.model;
+    ConfigProto configProto = inputs.configProto;
+    String protoPackage = inputs.protoPackage;
+    String defaultPackage = inputs.defaultPackage;
     SymbolTable symbolTable = model.getSymbolTable();
-
-    if (protoPackage != null) {
-      // Default to using --package option for value of default package and first API protoFile.
-      defaultPackage = protoPackage;
-    } else if (configProto != null) {
-      // Otherwise use configProto to get the proto file containing the first interface listed in
-      // the config proto, and use it as
-      // the assigned file for generated resource names, and to get the default message namespace.
-      ProtoFile file =
-          symbolTable.lookupInterface(configProto.getInterfaces(0).getName()).getFile();
-      defaultPackage = file.getProto().getPackage();
-    } else {
-      throw new NullPointerException("configProto and protoPackage cannot both be null.");
-    }
-
-    List<ProtoFile> sourceProtos =
-        model
-            .getFiles()
-            .stream()
-            .filter(f -> f.getProto().getPackage().equals(defaultPackage))
-            .collect(Collectors.toList());
-
-    if (protoPackage != null && configProto == null) {
-      if (sourceProtos.isEmpty()) {
-        model
-            .getDiagReporter()
-            .getDiagCollector()
-            .addDiag(
-                Diag.error(
-                    SimpleLocation.TOPLEVEL,
-                    "There are no source proto files with package %s",
-                    defaultPackage));
-      }
-      sourceProtos.forEach(model::addRoot);
-    }
-
-    // Toggle on/off proto annotations parsing.
-    ProtoParser protoParser;
-    ConfigVersionValidator versionValidator = new ConfigVersionValidator();
-    if (versionValidator.isV2Config(configProto)) {
-      versionValidator.validateV2Config(configProto);
-      protoParser = new ProtoParser(true);
-
-      if (configProto == null) {
-        configProto = ConfigProto.getDefaultInstance();
-      }
-    } else {
-      protoParser = new ProtoParser(false);
-    }
-
+    ProtoParser protoParser = inputs.protoParser;
     DiagCollector diagCollector = model.getDiagReporter().getDiagCollector();
 
-    ProtoFile packageProtoFile = sourceProtos.isEmpty() ? null : sourceProtos.get(0);
-
     ImmutableMap<String, ResourceNameConfig> resourceNameConfigs;
-    ResourceNameMessageConfigs messageConfigs;
     if (protoParser.isProtoAnnotationsEnabled()) {
-      Map<String, ResourceDescriptorConfig> descriptorConfigMap =
-          protoParser.getResourceDescriptorConfigMap(sourceProtos, diagCollector);
-
-      Set<String> configsWithChildTypeReferences =
-          sourceProtos
-              .stream()
-              .flatMap(protoFile -> protoFile.getMessages().stream())
-              .flatMap(messageType -> messageType.getFields().stream())
-              .filter(protoParser::hasResourceReference)
-              .map(field -> protoParser.getResourceReference(field).getChildType())
-              .filter(type -> !Strings.isNullOrEmpty(type))
-              .collect(Collectors.toSet());
-
       resourceNameConfigs =
           createResourceNameConfigsFromAnnotationsAndGapicConfig(
               model,
               diagCollector,
               configProto,
-              packageProtoFile,
+              inputs.packageProtoFile,
               language,
-              descriptorConfigMap,
-              configsWithChildTypeReferences);
-
-      messageConfigs =
-          ResourceNameMessageConfigs.createFromAnnotations(
-              diagCollector, sourceProtos, protoParser, descriptorConfigMap);
+              inputs.descriptorConfigMap,
+              inputs.configsWithChildTypeReferences);
     } else {
       resourceNameConfigs =
           createResourceNameConfigsFromGapicConfigOnly(
-              model, diagCollector, configProto, packageProtoFile, language);
-      messageConfigs =
-          ResourceNameMessageConfigs.createFromGapicConfigOnly(
-              sourceProtos, configProto, defaultPackage);
+              model, diagCollector, configProto, inputs.packageProtoFile, language);
     }
+    ResourceNameMessageConfigs messageConfigs = inputs.getMessageConfigs();
 
     if (resourceNameConfigs == null) {
       return null;
@@ -294,8 +250,7 @@ public abstract class GapicProductConfig implements ProductConfig {
       clientPackageName = settings.getPackageName();
     }
 
-    ImmutableMap<String, Interface> protoInterfaces =
-        getInterfacesFromProtoFile(diagCollector, sourceProtos, symbolTable);
+    ImmutableMap<String, Interface> protoInterfaces = inputs.getProtoInterfaces();
 
     ImmutableList<GapicInterfaceInput> interfaceInputs;
     if (protoParser.isProtoAnnotationsEnabled()) {
@@ -315,10 +270,7 @@ public abstract class GapicProductConfig implements ProductConfig {
       return null;
     }
 
-    GrpcGapicRetryMapping grpcGapicRetryMapping = null;
-    if (grpcServiceConfig != null) {
-      grpcGapicRetryMapping = GrpcGapicRetryMapping.create(grpcServiceConfig, protoInterfaces);
-    }
+    GrpcGapicRetryMapping grpcGapicRetryMapping = inputs.getGrpcGapicRetryMapping();
 
     ImmutableMap<String, InterfaceConfig> interfaceConfigMap =
         createInterfaceConfigMap(
@@ -465,6 +417,185 @@ public abstract class GapicProductConfig implements ProductConfig {
         new Date());
   }
 
+  /**
+   * The parts of a GapicProductConfig that do not depend on the target language: the source protos,
+   * the proto parser, resource descriptors, resource name message configs, the proto interfaces and
+   * the gRPC retry mapping. Creating these once per model lets a single run derive the product
+   * configs of several languages.
+   *
+   * <p>Message configs, interfaces and the retry mapping are computed on first use, so the
+   * diagnostics of the first language are reported in the same order as for a single-language run.
+   */
+  public static final class LanguageIndependentInputs {
+    private final Model model;
+    private final ConfigProto configProto;
+    @Nullable private final String protoPackage;
+    private final String defaultPackage;
+    private final List<ProtoFile> sourceProtos;
+    @Nullable private final ProtoFile packageProtoFile;
+    private final ProtoParser protoParser;
+    private final Map<String, ResourceDescriptorConfig> descriptorConfigMap;
+    private final Set<String> configsWithChildTypeReferences;
+    private final Supplier<ResourceNameMessageConfigs> messageConfigs;
+    private final Supplier<ImmutableMap<String, Interface>> protoInterfaces;
+    private final Supplier<GrpcGapicRetryMapping> grpcGapicRetryMapping;
+
+    private LanguageIndependentInputs(
+        Model model,
+        ConfigProto configProto,
+        @Nullable String protoPackage,
+        String defaultPackage,
+        List<ProtoFile> sourceProtos,
+        ProtoParser protoParser,
+        Map<String, ResourceDescriptorConfig> descriptorConfigMap,
+        Set<String> configsWithChildTypeReferences,
+        @Nullable ServiceConfig grpcServiceConfig) {
+      this.model = model;
+      this.configProto = configProto;
+      this.protoPackage = protoPackage;
+      this.defaultPackage = defaultPackage;
+      this.sourceProtos = sourceProtos;
+      this.packageProtoFile = sourceProtos.isEmpty() ? null : sourceProtos.get(0);
+      this.protoParser = protoParser;
+      this.descriptorConfigMap = descriptorConfigMap;
+      this.configsWithChildTypeReferences = configsWithChildTypeReferences;
+
+      DiagCollector diagCollector = model.getDiagReporter().getDiagCollector();
+      this.messageConfigs =
+          Suppliers.memoize(
+              () ->
+                  protoParser.isProtoAnnotationsEnabled()
+                      ? ResourceNameMessageConfigs.createFromAnnotations(
+                          diagCollector, sourceProtos, protoParser, descriptorConfigMap)
+                      : ResourceNameMessageConfigs.createFromGapicConfigOnly(
+                          sourceProtos, configProto, defaultPackage));
+      this.protoInterfaces =
+          Suppliers.memoize(
+              () ->
+                  getInterfacesFromProtoFile(diagCollector, sourceProtos, model.getSymbolTable()));
+      this.grpcGapicRetryMapping =
+          Suppliers.memoize(
+              () ->
+                  grpcServiceConfig == null
+                      ? null
+                      : GrpcGapicRetryMapping.create(grpcServiceConfig, getProtoInterfaces()));
+    }
+
+    /**
+     * Creates the language-independent inputs for the given model and configs. Diagnostics are
+     * reported to the model.
+     *
+     * @param model The protobuf model for which we are creating a config.
+     * @param configProto The parsed set of library config files from input
+     * @param protoPackage The source proto package, as opposed to imported protos, that we will
+     *     generate clients for.
+     */
+    public static LanguageIndependentInputs create(
+        Model model,
+        @Nullable ConfigProto configProto,
+        @Nullable String protoPackage,
+        @Nullable ServiceConfig grpcServiceConfig) {
+      final String defaultPackage;
+      SymbolTable symbolTable = model.getSymbolTable();
+
+      if (protoPackage != null) {
+        // Default to using --package option for value of default package and first API protoFile.
+        defaultPackage = protoPackage;
+      } else if (configProto != null) {
+        // Otherwise use configProto to get the proto file containing the first interface listed
+        // in the config proto, and use it as the assigned file for generated resource names, and
+        // to get the default message namespace.
+        ProtoFile file =
+            symbolTable.lookupInterface(configProto.getInterfaces(0).getName()).getFile();
+        defaultPackage = file.getProto().getPackage();
+      } else {
+        throw new NullPointerException("configProto and protoPackage cannot both be null.");
+      }
+
+      List<ProtoFile> sourceProtos =
+          model
+              .getFiles()
+              .stream()
+              .filter(f -> f.getProto().getPackage().equals(defaultPackage))
+              .collect(Collectors.toList());
+
+      if (protoPackage != null && configProto == null) {
+        if (sourceProtos.isEmpty()) {
+          model
+              .getDiagReporter()
+              .getDiagCollector()
+              .addDiag(
+                  Diag.error(
+                      SimpleLocation.TOPLEVEL,
+                      "There are no source proto files with package %s",
+                      defaultPackage));
+        }
+        sourceProtos.forEach(model::addRoot);
+      }
+
+      // Toggle on/off proto annotations parsing.
+      ProtoParser protoParser;
+      ConfigVersionValidator versionValidator = new ConfigVersionValidator();
+      if (versionValidator.isV2Config(configProto)) {
+        versionValidator.validateV2Config(configProto);
+        protoParser = new ProtoParser(true);
+
+        if (configProto == null) {
+          configProto = ConfigProto.getDefaultInstance();
+        }
+      } else {
+        protoParser = new ProtoParser(false);
+      }
+
+      DiagCollector diagCollector = model.getDiagReporter().getDiagCollector();
+
+      Map<String, ResourceDescriptorConfig> descriptorConfigMap = ImmutableMap.of();
+      Set<String> configsWithChildTypeReferences = ImmutableSet.of();
+      if (protoParser.isProtoAnnotationsEnabled()) {
+        descriptorConfigMap =
+            protoParser.getResourceDescriptorConfigMap(sourceProtos, diagCollector);
+
+        configsWithChildTypeReferences =
+            sourceProtos
+                .stream()
+                .flatMap(protoFile -> protoFile.getMessages().stream())
+                .flatMap(messageType -> messageType.getFields().stream())
+                .filter(protoParser::hasResourceReference)
+                .map(field -> protoParser.getResourceReference(field).getChildType())
+                .filter(type -> !Strings.isNullOrEmpty(type))
+                .collect(Collectors.toSet());
+      }
+
+      return new LanguageIndependentInputs(
+          model,
+          configProto,
+          protoPackage,
+          defaultPackage,
+          sourceProtos,
+          protoParser,
+          descriptorConfigMap,
+          configsWithChildTypeReferences,
+          grpcServiceConfig);
+    }
+
+    public Model getModel() {
+      return model;
+    }
+
+    ResourceNameMessageConfigs getMessageConfigs() {
+      return messageConfigs.get();
+    }
+
+    ImmutableMap<String, Interface> getProtoInterfaces() {
+      return protoInterfaces.get();
+    }
+
+    @Nullable
+    GrpcGapicRetryMapping getGrpcGapicRetryMapping() {
+      return grpcGapicRetryMapping.get();
+    }
+  }
+
   /** Creates an GapicProductConfig with no content. Exposed for testing. */
   @VisibleForTesting
   public static GapicProductConfig createDummyInstance() {
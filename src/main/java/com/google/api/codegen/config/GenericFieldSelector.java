@@ -14,10 +14,15 @@
  */
 package com.google.api.codegen.config;
 
+import java.util.List;
+
 /** API source-agnostic interface for FieldSelectors. */
 public interface GenericFieldSelector {
 
   String getParamName();
 
   FieldModel getLastField();
+
+  /** The fields along the path of the selector, from the outermost to the last field. */
+  List<FieldModel> getFields();
 }
@@ -14,8 +14,6 @@
  */
 package com.google.api.codegen.discogapic;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.api.codegen.ArtifactType;
 import com.google.api.codegen.ConfigProto;
 import com.google.api.codegen.common.CodeGenerator;
@@ -27,9 +25,9 @@ import com.google.api.codegen.config.DiscoApiModel;
 import com.google.api.codegen.config.GapicProductConfig;
 import com.google.api.codegen.config.PackageMetadataConfig;
 import com.google.api.codegen.config.PackagingConfig;
-import com.google.api.codegen.discovery.DiscoveryNode;
 import com.google.api.codegen.discovery.Document;
 import com.google.api.codegen.gapic.ArtifactFlags;
+import com.google.api.codegen.gapic.FileGapicWriter;
 import com.google.api.codegen.util.MultiYamlReader;
 import com.google.api.tools.framework.model.ConfigSource;
 import com.google.api.tools.framework.model.DiagCollector;
@@ -41,7 +39,6 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Maps;
 import com.google.inject.TypeLiteral;
 import com.google.protobuf.Message;
 import java.io.File;
@@ -50,6 +47,7 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -111,10 +109,10 @@ public class DiscoGapicGeneratorApp {
     if (!new File(discoveryDocPath).exists()) {
       throw new IOException("File not found: " + discoveryDocPath);
     }
-    Reader reader = new InputStreamReader(new FileInputStream(new File(discoveryDocPath)));
-
-    ObjectMapper mapper = new ObjectMapper();
-    JsonNode root = mapper.readTree(reader);
+    Document document;
+    try (Reader reader = new InputStreamReader(new FileInputStream(new File(discoveryDocPath)))) {
+      document = Document.from(reader);
+    }
 
     // Read the YAML config and convert it to proto.
     if (configFileNames.size() == 0) {
@@ -152,8 +150,7 @@ public class DiscoGapicGeneratorApp {
     String defaultPackageName =
         configProto.getLanguageSettingsMap().get(languageStr).getPackageName();
 
-    DiscoApiModel model =
-        new DiscoApiModel(Document.from(new DiscoveryNode(root)), defaultPackageName);
+    DiscoApiModel model = new DiscoApiModel(document, defaultPackageName);
 
     GapicProductConfig productConfig = GapicProductConfig.create(model, configProto, language);
 
@@ -180,21 +177,15 @@ public class DiscoGapicGeneratorApp {
             enabledArtifacts,
             artifactType);
 
-    Map<String, Object> outputFiles = Maps.newHashMap();
+    Map<String, GeneratedResult<?>> generatedResults = new LinkedHashMap<>();
     for (CodeGenerator<?> generator : generators) {
-      outputFiles.putAll(GeneratedResult.extractBodies(generator.generate()));
-    }
-    writeCodeGenOutput(outputFiles, options.get(OUTPUT_FILE));
-    return 0;
-  }
-
-  private void writeCodeGenOutput(Map<String, ?> outputFiles, String outputPath)
-      throws IOException {
-    if (outputPath.endsWith(".jar") || outputPath.endsWith(".srcjar")) {
-      ToolUtil.writeJar(outputFiles, outputPath);
-    } else {
-      ToolUtil.writeFiles(outputFiles, outputPath);
+      generatedResults.putAll(generator.generate());
     }
+    DiagCollector diagCollector = new SimpleDiagCollector();
+    new FileGapicWriter(options.get(OUTPUT_FILE))
+        .writeCodeGenOutput(generatedResults, diagCollector);
+    ToolUtil.reportDiags(diagCollector, true);
+    return diagCollector.hasErrors() ? 1 : 0;
   }
 
   private static List<File> pathsToFiles(List<String> configFileNames) {
@@ -61,9 +61,15 @@ public class DiscoGapicGeneratorFactory {
                   .setPrefix("src/main/java")
                   .setShouldAppendPackage(true)
                   .build();
+          GapicCodePathMapper javaBenchmarkPathMapper =
+              CommonGapicCodePathMapper.newBuilder()
+                  .setPrefix("src/jmh/java")
+                  .setShouldAppendPackage(true)
+                  .build();
           List<ModelToViewTransformer<DiscoApiModel>> transformers =
               Arrays.asList(
-                  new JavaDiscoGapicResourceNameToViewTransformer(javaPathMapper),
+                  new JavaDiscoGapicResourceNameToViewTransformer(
+                      javaPathMapper, javaBenchmarkPathMapper),
                   new JavaDiscoGapicSchemaToViewTransformer(javaPathMapper),
                   new JavaDiscoGapicRequestToViewTransformer(javaPathMapper),
                   new JavaDiscoGapicSurfaceTransformer(javaPathMapper));
@@ -31,6 +31,7 @@ import com.google.api.codegen.gapic.GapicCodePathMapper;
 import com.google.api.codegen.transformer.FileHeaderTransformer;
 import com.google.api.codegen.transformer.ImportTypeTable;
 import com.google.api.codegen.transformer.ModelToViewTransformer;
+import com.google.api.codegen.transformer.PathTemplateTransformer;
 import com.google.api.codegen.transformer.SchemaTypeTable;
 import com.google.api.codegen.transformer.StandardImportSectionTransformer;
 import com.google.api.codegen.transformer.SurfaceNamer;
@@ -41,10 +42,14 @@ import com.google.api.codegen.util.Name;
 import com.google.api.codegen.util.SymbolTable;
 import com.google.api.codegen.util.java.JavaNameFormatter;
 import com.google.api.codegen.util.java.JavaTypeTable;
+import com.google.api.codegen.viewmodel.PathTemplatePartView;
+import com.google.api.codegen.viewmodel.StaticLangApiResourceNameBenchmarkFileView;
 import com.google.api.codegen.viewmodel.StaticLangApiResourceNameFileView;
 import com.google.api.codegen.viewmodel.StaticLangApiResourceNameView;
 import com.google.api.codegen.viewmodel.StaticLangMemberView;
 import com.google.api.codegen.viewmodel.ViewModel;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -61,11 +66,13 @@ import java.util.Set;
 public class JavaDiscoGapicResourceNameToViewTransformer
     implements ModelToViewTransformer<DiscoApiModel> {
   private final GapicCodePathMapper pathMapper;
+  private final GapicCodePathMapper benchmarkPathMapper;
   private final StandardImportSectionTransformer importSectionTransformer =
       new StandardImportSectionTransformer();
   private final FileHeaderTransformer fileHeaderTransformer =
       new FileHeaderTransformer(importSectionTransformer);
   private final JavaNameFormatter nameFormatter = new JavaNameFormatter();
+  private final PathTemplateTransformer pathTemplateTransformer = new PathTemplateTransformer();
   private static Set<String> reservedKeywords = new HashSet<>();
 
   static {
@@ -74,14 +81,22 @@ public class JavaDiscoGapicResourceNameToViewTransformer
   }
 
   private static final String RESOURCE_NAME_TEMPLATE_FILENAME = "java/resource_name.snip";
+  private static final String RESOURCE_NAME_BENCHMARK_TEMPLATE_FILENAME =
+      "java/resource_name_benchmark.snip";
+  private static final String RESOURCE_NAME_BENCHMARK_CLASS_NAME = "ResourceNameBenchmark";
+  private static final Set<String> PARSE_LOCAL_NAMES =
+      ImmutableSet.of("resourcePath", "resourceName", "start", "end");
 
-  public JavaDiscoGapicResourceNameToViewTransformer(GapicCodePathMapper pathMapper) {
+  public JavaDiscoGapicResourceNameToViewTransformer(
+      GapicCodePathMapper pathMapper, GapicCodePathMapper benchmarkPathMapper) {
     this.pathMapper = pathMapper;
+    this.benchmarkPathMapper = benchmarkPathMapper;
   }
 
   @Override
   public List<String> getTemplateFileNames() {
-    return Arrays.asList(RESOURCE_NAME_TEMPLATE_FILENAME);
+    return Arrays.asList(
+        RESOURCE_NAME_TEMPLATE_FILENAME, RESOURCE_NAME_BENCHMARK_TEMPLATE_FILENAME);
   }
 
   @Override
@@ -100,6 +115,7 @@ public class JavaDiscoGapicResourceNameToViewTransformer
 
     // Keep track of which name patterns have been generated to avoid duplicate classes.
     Set<String> namePatterns = new HashSet<>();
+    List<StaticLangApiResourceNameView> specializedResourceNames = new ArrayList<>();
 
     for (String interfaceName : productConfig.getInterfaceConfigMap().keySet()) {
       SchemaTransformationContext requestContext =
@@ -122,6 +138,9 @@ public class JavaDiscoGapicResourceNameToViewTransformer
         StaticLangApiResourceNameView resourceNameView =
             generateResourceNameClass(requestContext, method, nameConfig);
         surfaceRequests.add(generateResourceNameFile(requestContext, resourceNameView));
+        if (resourceNameView.hasSpecializedPath()) {
+          specializedResourceNames.add(resourceNameView);
+        }
 
         namePatterns.add(nameConfig.getNamePattern());
       }
@@ -135,9 +154,36 @@ public class JavaDiscoGapicResourceNameToViewTransformer
             return String.CASE_INSENSITIVE_ORDER.compare(o1.outputPath(), o2.outputPath());
           }
         });
+    if (!specializedResourceNames.isEmpty()) {
+      Collections.sort(specializedResourceNames);
+      surfaceRequests.add(generateResourceNameBenchmarkFile(context, specializedResourceNames));
+    }
     return surfaceRequests;
   }
 
+  /* Creates a JMH benchmark that compares the specialized parse and format of the ResourceName
+   * classes with the equivalent PathTemplate calls. */
+  private StaticLangApiResourceNameBenchmarkFileView generateResourceNameBenchmarkFile(
+      DiscoGapicInterfaceContext context, List<StaticLangApiResourceNameView> resourceNames) {
+    SchemaTransformationContext benchmarkContext =
+        SchemaTransformationContext.create(
+            RESOURCE_NAME_BENCHMARK_CLASS_NAME,
+            context.getSchemaTypeTable().cloneEmpty(),
+            context);
+    addResourceNameBenchmarkImports(benchmarkContext.getImportTypeTable());
+
+    String outputPath = benchmarkPathMapper.getOutputPath(null, context.getProductConfig());
+    return StaticLangApiResourceNameBenchmarkFileView.newBuilder()
+        .templateFileName(RESOURCE_NAME_BENCHMARK_TEMPLATE_FILENAME)
+        .outputPath(outputPath + File.separator + RESOURCE_NAME_BENCHMARK_CLASS_NAME + ".java")
+        .name(RESOURCE_NAME_BENCHMARK_CLASS_NAME)
+        .resourceNames(resourceNames)
+        .fileHeader(
+            fileHeaderTransformer.generateFileHeader(
+                benchmarkContext, RESOURCE_NAME_BENCHMARK_CLASS_NAME))
+        .build();
+  }
+
   /* Given a ResourceName view, creates a top-level ResourceName file view. */
   private StaticLangApiResourceNameFileView generateResourceNameFile(
       SchemaTransformationContext context, StaticLangApiResourceNameView messageView) {
@@ -178,10 +224,34 @@ public class JavaDiscoGapicResourceNameToViewTransformer
     }
     Collections.sort(properties);
     resourceNameView.pathParams(properties);
+    resourceNameView.pathParts(generatePathParts(nameConfig.getNamePattern(), properties));
 
     return resourceNameView.build();
   }
 
+  // The specialized parse and format code binds each template variable to the path param of the
+  // same name, so it is only generated when the variables and the path params match exactly and
+  // do not clash with the locals of the parse code.
+  private List<PathTemplatePartView> generatePathParts(
+      String pathTemplate, List<StaticLangMemberView> pathParams) {
+    List<PathTemplatePartView> parts =
+        pathTemplateTransformer.generatePathTemplateParts(pathTemplate);
+    Set<String> variables = new HashSet<>();
+    for (PathTemplatePartView part : parts) {
+      if (part.isVariable()) {
+        variables.add(part.variable());
+      }
+    }
+    Set<String> paramNames = new HashSet<>();
+    for (StaticLangMemberView param : pathParams) {
+      paramNames.add(param.name());
+    }
+    if (!variables.equals(paramNames) || !Collections.disjoint(paramNames, PARSE_LOCAL_NAMES)) {
+      return ImmutableList.of();
+    }
+    return parts;
+  }
+
   // Transforms a request/response Schema object into a StaticLangApiResourceNameView.
   private StaticLangMemberView schemaToParamView(
       SchemaTransformationContext context, Schema schema, SymbolTable symbolTable) {
@@ -206,6 +276,7 @@ public class JavaDiscoGapicResourceNameToViewTransformer
 
   private void addResourceNameClassImports(ImportTypeTable typeTable) {
     typeTable.getAndSaveNicknameFor("com.google.api.core.BetaApi");
+    typeTable.getAndSaveNicknameFor("com.google.common.base.CharMatcher");
     typeTable.getAndSaveNicknameFor("com.google.common.base.Preconditions");
     typeTable.getAndSaveNicknameFor("com.google.common.collect.ImmutableMap");
     typeTable.getAndSaveNicknameFor("com.google.api.pathtemplate.PathTemplate");
@@ -221,6 +292,20 @@ public class JavaDiscoGapicResourceNameToViewTransformer
     typeTable.getAndSaveNicknameFor("javax.annotation.Generated");
   }
 
+  private void addResourceNameBenchmarkImports(ImportTypeTable typeTable) {
+    typeTable.getAndSaveNicknameFor("com.google.api.pathtemplate.PathTemplate");
+    typeTable.getAndSaveNicknameFor("java.util.Map");
+    typeTable.getAndSaveNicknameFor("java.util.concurrent.TimeUnit");
+    typeTable.getAndSaveNicknameFor("javax.annotation.Generated");
+    typeTable.getAndSaveNicknameFor("org.openjdk.jmh.annotations.Benchmark");
+    typeTable.getAndSaveNicknameFor("org.openjdk.jmh.annotations.BenchmarkMode");
+    typeTable.getAndSaveNicknameFor("org.openjdk.jmh.annotations.Mode");
+    typeTable.getAndSaveNicknameFor("org.openjdk.jmh.annotations.OutputTimeUnit");
+    typeTable.getAndSaveNicknameFor("org.openjdk.jmh.annotations.Scope");
+    typeTable.getAndSaveNicknameFor("org.openjdk.jmh.annotations.Setup");
+    typeTable.getAndSaveNicknameFor("org.openjdk.jmh.annotations.State");
+  }
+
   private SchemaTypeTable createTypeTable(String implicitPackageName, SurfaceNamer languageNamer) {
     return new SchemaTypeTable(
         new JavaTypeTable(implicitPackageName, IGNORE_JAVA_LANG_CLASH),
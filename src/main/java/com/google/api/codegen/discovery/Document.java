@@ -19,8 +19,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.auto.value.AutoValue;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableList.Builder;
 import com.google.gson.internal.LinkedTreeMap;
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -49,31 +50,15 @@ public abstract class Document implements Node {
    * @return a document.
    */
   public static Document from(DiscoveryNode root) {
-    AuthType authType;
     DiscoveryNode scopesNode = root.getObject("auth").getObject("oauth2").getObject("scopes");
-
-    ImmutableList.Builder<String> authScopes = new Builder<>();
-    if (scopesNode.isEmpty()) {
-      authType = AuthType.API_KEY;
-    } else {
-      authScopes.addAll(scopesNode.getFieldNames());
-      if (scopesNode.has(CLOUD_PLATFORM_SCOPE)) {
-        authType = AuthType.ADC;
-      } else {
-        authType = AuthType.OAUTH_3L;
-      }
-    }
+    List<String> authScopes = scopesNode.getFieldNames();
     String canonicalName = root.getString("canonicalName");
     String description = root.getString("description");
     String id = root.getString("id");
     Map<String, Schema> schemas = parseSchemas(root);
     List<Method> methods = parseMethods(root);
-    Collections.sort(methods); // Ensure methods are ordered alphabetically by their ID.
     String ownerDomain = root.getString("ownerDomain");
     String name = root.getString("name");
-    if (canonicalName.isEmpty()) {
-      canonicalName = name;
-    }
     Map<String, List<Method>> resources = parseResources(root);
     String revision = root.getString("revision");
     String rootUrl = root.getString("rootUrl");
@@ -87,10 +72,75 @@ public abstract class Document implements Node {
             ? root.getString("baseUrl")
             : (rootUrl + Strings.nullToEmpty(root.getString("basePath")));
 
+    return create(
+        authScopes,
+        baseUrl,
+        canonicalName,
+        description,
+        id,
+        methods,
+        name,
+        ownerDomain,
+        resources,
+        revision,
+        rootUrl,
+        schemas,
+        servicePath,
+        title,
+        version,
+        versionModule);
+  }
+
+  /**
+   * Returns a document read from reader.
+   *
+   * <p>The document is built while the JSON is streamed, without first loading it into a JSON tree.
+   *
+   * @param reader the source of the Discovery document.
+   * @return a document.
+   */
+  public static Document from(Reader reader) throws IOException {
+    return DocumentParser.parse(reader);
+  }
+
+  /**
+   * Returns a document constructed from its parsed properties. Methods are sorted by ID, and the
+   * document becomes the parent of its schemas and methods.
+   */
+  static Document create(
+      List<String> authScopes,
+      String baseUrl,
+      String canonicalName,
+      String description,
+      String id,
+      List<Method> methods,
+      String name,
+      String ownerDomain,
+      Map<String, List<Method>> resources,
+      String revision,
+      String rootUrl,
+      Map<String, Schema> schemas,
+      String servicePath,
+      String title,
+      String version,
+      boolean versionModule) {
+    AuthType authType;
+    if (authScopes.isEmpty()) {
+      authType = AuthType.API_KEY;
+    } else if (authScopes.contains(CLOUD_PLATFORM_SCOPE)) {
+      authType = AuthType.ADC;
+    } else {
+      authType = AuthType.OAUTH_3L;
+    }
+    Collections.sort(methods); // Ensure methods are ordered alphabetically by their ID.
+    if (canonicalName.isEmpty()) {
+      canonicalName = name;
+    }
+
     Document thisDocument =
         new AutoValue_Document(
             "", // authInstructionsUrl (only intended to be overridden).
-            authScopes.build(),
+            ImmutableList.copyOf(authScopes),
             authType,
             baseUrl,
             canonicalName,
@@ -120,10 +170,42 @@ public abstract class Document implements Node {
         method.setParent(thisDocument);
       }
     }
+    resolveReferences(thisDocument);
 
     return thisDocument;
   }
 
+  /**
+   * Resolves every schema reference in the document once, so that {@link Schema#dereference} does
+   * not have to walk back to the document on each call.
+   */
+  private static void resolveReferences(Document document) {
+    Map<String, Schema> schemas = document.schemas();
+    for (Schema schema : schemas.values()) {
+      schema.resolveReferences(schemas);
+    }
+    for (Method method : document.methods()) {
+      resolveReferences(method, schemas);
+    }
+    for (List<Method> resourceMethods : document.resources().values()) {
+      for (Method method : resourceMethods) {
+        resolveReferences(method, schemas);
+      }
+    }
+  }
+
+  private static void resolveReferences(Method method, Map<String, Schema> schemas) {
+    for (Schema parameter : method.parameters().values()) {
+      parameter.resolveReferences(schemas);
+    }
+    if (method.request() != null) {
+      method.request().resolveReferences(schemas);
+    }
+    if (method.response() != null) {
+      method.response().resolveReferences(schemas);
+    }
+  }
+
   private static Map<String, List<Method>> parseResources(DiscoveryNode root) {
     List<Method> methods = new ArrayList<>();
     DiscoveryNode methodsNode = root.getObject("methods");
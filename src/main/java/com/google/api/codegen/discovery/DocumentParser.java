@@ -0,0 +1,469 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.discovery;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds a {@link Document} directly from a stream of JSON tokens.
+ *
+ * <p>Unlike {@link Document#from(DiscoveryNode)}, no JSON tree is held in memory while the document
+ * is built: each schema and method is constructed as soon as its JSON object has been read, and
+ * fields that the model does not use are skipped. The resulting document is equal to the one built
+ * from a JSON tree of the same source, and invalid values are rejected with the same exceptions.
+ */
+final class DocumentParser {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final JsonParser parser;
+
+  private DocumentParser(JsonParser parser) {
+    this.parser = parser;
+  }
+
+  /** Returns the document read from reader. */
+  static Document parse(Reader reader) throws IOException {
+    try (JsonParser parser = JSON_FACTORY.createParser(reader)) {
+      parser.nextToken();
+      return new DocumentParser(parser).parseDocument();
+    }
+  }
+
+  private Document parseDocument() throws IOException {
+    checkObject();
+    List<String> authScopes = new ArrayList<>();
+    String basePath = "";
+    String baseUrl = null;
+    String canonicalName = "";
+    String description = "";
+    String id = "";
+    MethodGroup methods = new MethodGroup();
+    String name = "";
+    String ownerDomain = "";
+    String revision = "";
+    String rootUrl = "";
+    Map<String, Schema> schemas = new HashMap<>();
+    String servicePath = "";
+    String title = "";
+    String version = "";
+    boolean versionModule = false;
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      parser.nextToken();
+      switch (field) {
+        case "auth":
+          authScopes = parseAuthScopes();
+          break;
+        case "basePath":
+          basePath = readString();
+          break;
+        case "baseUrl":
+          baseUrl = readString();
+          break;
+        case "canonicalName":
+          canonicalName = readString();
+          break;
+        case "description":
+          description = readString();
+          break;
+        case "id":
+          id = readString();
+          break;
+        case "methods":
+          methods.methods = parseMethods();
+          break;
+        case "name":
+          name = readString();
+          break;
+        case "ownerDomain":
+          ownerDomain = readString();
+          break;
+        case "resources":
+          methods.resources = parseResources();
+          break;
+        case "revision":
+          revision = readString();
+          break;
+        case "rootUrl":
+          rootUrl = readString();
+          break;
+        case "schemas":
+          checkObject();
+          schemas.clear();
+          while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.getCurrentName();
+            parser.nextToken();
+            schemas.put(key, parseSchema(key));
+          }
+          break;
+        case "servicePath":
+          servicePath = readString();
+          break;
+        case "title":
+          title = readString();
+          break;
+        case "version":
+          version = readString();
+          break;
+        case "version_module":
+          versionModule = readBoolean();
+          break;
+        default:
+          parser.skipChildren();
+      }
+    }
+
+    Map<String, List<Method>> resources = new LinkedHashMap<>();
+    for (Map.Entry<String, MethodGroup> resource : methods.resources.entrySet()) {
+      resources.put(resource.getKey(), resource.getValue().flatten());
+    }
+    return Document.create(
+        authScopes,
+        baseUrl != null ? baseUrl : rootUrl + basePath,
+        canonicalName,
+        description,
+        id,
+        methods.flatten(),
+        name,
+        ownerDomain,
+        resources,
+        revision,
+        rootUrl,
+        schemas,
+        servicePath,
+        title,
+        version,
+        versionModule);
+  }
+
+  /** Returns the OAuth2 scope names of the "auth" object. */
+  private List<String> parseAuthScopes() throws IOException {
+    Set<String> scopes = new LinkedHashSet<>();
+    checkObject();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String authField = parser.getCurrentName();
+      parser.nextToken();
+      if (!authField.equals("oauth2")) {
+        parser.skipChildren();
+        continue;
+      }
+      checkObject();
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String oauth2Field = parser.getCurrentName();
+        parser.nextToken();
+        if (!oauth2Field.equals("scopes")) {
+          parser.skipChildren();
+          continue;
+        }
+        checkObject();
+        scopes.clear();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          scopes.add(parser.getCurrentName());
+          parser.nextToken();
+          parser.skipChildren();
+        }
+      }
+    }
+    return new ArrayList<>(scopes);
+  }
+
+  /** Returns the methods of a "methods" object, in the order they are defined. */
+  private Map<String, Method> parseMethods() throws IOException {
+    checkObject();
+    Map<String, Method> methods = new LinkedHashMap<>();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String key = parser.getCurrentName();
+      parser.nextToken();
+      methods.put(key, parseMethod());
+    }
+    return methods;
+  }
+
+  /** Returns the method groups of a "resources" object, in the order they are defined. */
+  private Map<String, MethodGroup> parseResources() throws IOException {
+    checkObject();
+    Map<String, MethodGroup> resources = new LinkedHashMap<>();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String key = parser.getCurrentName();
+      parser.nextToken();
+      checkObject();
+      MethodGroup resource = new MethodGroup();
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.getCurrentName();
+        parser.nextToken();
+        if (field.equals("methods")) {
+          resource.methods = parseMethods();
+        } else if (field.equals("resources")) {
+          resource.resources = parseResources();
+        } else {
+          parser.skipChildren();
+        }
+      }
+      resources.put(key, resource);
+    }
+    return resources;
+  }
+
+  private Method parseMethod() throws IOException {
+    checkObject();
+    String description = "";
+    String flatPath = null;
+    String httpMethod = "";
+    String id = "";
+    Map<String, Schema> parameters = new HashMap<>();
+    String path = "";
+    Schema request = null;
+    Schema response = null;
+    List<String> scopes = new ArrayList<>();
+    boolean supportsMediaDownload = false;
+    boolean supportsMediaUpload = false;
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      parser.nextToken();
+      switch (field) {
+        case "description":
+          description = readString();
+          break;
+        case "flatPath":
+          flatPath = readString();
+          break;
+        case "httpMethod":
+          httpMethod = readString();
+          break;
+        case "id":
+          id = readString();
+          break;
+        case "parameters":
+          checkObject();
+          parameters.clear();
+          while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.getCurrentName();
+            parser.nextToken();
+            parameters.put(key, parseSchema(key));
+          }
+          break;
+        case "path":
+          path = readString();
+          break;
+        case "request":
+          request = parseSchema("request");
+          break;
+        case "response":
+          response = parseSchema("response");
+          break;
+        case "scopes":
+          checkArray();
+          scopes.clear();
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            scopes.add(readString());
+          }
+          break;
+        case "supportsMediaDownload":
+          supportsMediaDownload = readBoolean();
+          break;
+        case "supportsMediaUpload":
+          supportsMediaUpload = readBoolean();
+          break;
+        default:
+          parser.skipChildren();
+      }
+    }
+
+    return Method.create(
+        description,
+        flatPath != null ? flatPath : path,
+        httpMethod,
+        id,
+        parameters,
+        path,
+        request,
+        response,
+        scopes,
+        supportsMediaDownload,
+        supportsMediaUpload,
+        null);
+  }
+
+  /** Returns the schema at the current object, or an empty schema if the object has no fields. */
+  private Schema parseSchema(String key) throws IOException {
+    checkObject();
+    int fieldCount = 0;
+    Schema additionalProperties = null;
+    String defaultValue = "";
+    String description = "";
+    Schema.Format format = Schema.Format.EMPTY;
+    String id = "";
+    boolean isEnum = false;
+    Schema items = null;
+    String location = "";
+    String pattern = "";
+    Map<String, Schema> properties = new LinkedHashMap<>();
+    String reference = "";
+    boolean repeated = false;
+    boolean required = false;
+    Schema.Type type = Schema.Type.EMPTY;
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      parser.nextToken();
+      fieldCount++;
+      switch (field) {
+        case "additionalProperties":
+          additionalProperties = Schema.emptyToNull(parseSchema(""));
+          break;
+        case "default":
+          defaultValue = readString();
+          break;
+        case "description":
+          description = readString();
+          break;
+        case "enum":
+          checkArray();
+          isEnum = false;
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            isEnum = true;
+            parser.skipChildren();
+          }
+          break;
+        case "format":
+          format = Schema.Format.getEnum(readString());
+          break;
+        case "id":
+          id = readString();
+          break;
+        case "items":
+          items = Schema.emptyToNull(parseSchema(key));
+          break;
+        case "location":
+          location = readString();
+          break;
+        case "pattern":
+          pattern = readString();
+          break;
+        case "properties":
+          checkObject();
+          properties.clear();
+          while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            properties.put(name, parseSchema(name));
+          }
+          break;
+        case "$ref":
+          reference = readString();
+          break;
+        case "repeated":
+          repeated = readBoolean();
+          break;
+        case "required":
+          required = readBoolean();
+          break;
+        case "type":
+          type = Schema.Type.getEnum(readString());
+          break;
+        default:
+          parser.skipChildren();
+      }
+    }
+    if (fieldCount == 0) {
+      return Schema.empty();
+    }
+
+    Schema schema =
+        Schema.newBuilder()
+            .setAdditionalProperties(additionalProperties)
+            .setDefaultValue(defaultValue)
+            .setDescription(description)
+            .setFormat(format)
+            .setId(id)
+            .setIsEnum(isEnum)
+            .setIsMap(additionalProperties != null)
+            .setItems(items)
+            .setKey(key)
+            .setLocation(location)
+            .setPattern(pattern)
+            .setProperties(ImmutableMap.copyOf(properties))
+            .setReference(reference)
+            .setRepeated(repeated)
+            .setRequired(required)
+            .setType(type)
+            .build();
+    schema.attach(null);
+    return schema;
+  }
+
+  /** Returns the current string value. */
+  private String readString() throws IOException {
+    Preconditions.checkArgument(parser.currentToken() == JsonToken.VALUE_STRING);
+    return parser.getText();
+  }
+
+  /**
+   * Returns the current boolean value. As in {@link DiscoveryNode#getBoolean}, the strings "True"
+   * and "False" are accepted as well.
+   */
+  private boolean readBoolean() throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.VALUE_STRING) {
+      String text = parser.getText();
+      if (text.equals("True")) {
+        return true;
+      } else if (text.equals("False")) {
+        return false;
+      }
+    }
+    Preconditions.checkArgument(token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE);
+    return token == JsonToken.VALUE_TRUE;
+  }
+
+  private void checkObject() {
+    Preconditions.checkArgument(parser.currentToken() == JsonToken.START_OBJECT);
+  }
+
+  private void checkArray() {
+    Preconditions.checkArgument(parser.currentToken() == JsonToken.START_ARRAY);
+  }
+
+  /** The methods and nested resources of the document or of one of its resources. */
+  private static class MethodGroup {
+    private Map<String, Method> methods = ImmutableMap.of();
+    private Map<String, MethodGroup> resources = ImmutableMap.of();
+
+    /** Returns the methods of this group followed by those of its resources, recursively. */
+    private List<Method> flatten() {
+      List<Method> flattened = new ArrayList<>(methods.values());
+      for (MethodGroup resource : resources.values()) {
+        flattened.addAll(resource.flatten());
+      }
+      return flattened;
+    }
+  }
+}
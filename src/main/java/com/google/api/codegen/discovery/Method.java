@@ -45,39 +45,77 @@ public abstract class Method implements Comparable<Method>, Node {
 
     DiscoveryNode parametersNode = root.getObject("parameters");
     Map<String, Schema> parameters = new HashMap<>();
+    for (String name : parametersNode.getFieldNames()) {
+      parameters.put(name, Schema.from(parametersNode.getObject(name), name, null));
+    }
+
+    Schema request = Schema.from(root.getObject("request"), "request", null);
+    Schema response = Schema.from(root.getObject("response"), "response", null);
+    List<String> scopes = new ArrayList<>();
+    for (DiscoveryNode scopeNode : root.getArray("scopes").getElements()) {
+      scopes.add(scopeNode.asText());
+    }
+    boolean supportsMediaDownload = root.getBoolean("supportsMediaDownload");
+    boolean supportsMediaUpload = root.getBoolean("supportsMediaUpload");
+
+    return create(
+        description,
+        flatPath,
+        httpMethod,
+        id,
+        parameters,
+        path,
+        request,
+        response,
+        scopes,
+        supportsMediaDownload,
+        supportsMediaUpload,
+        parent);
+  }
+
+  /**
+   * Returns a method constructed from its parsed properties, and makes it the parent of its
+   * parameter, request and response schemas.
+   *
+   * <p>A request or response schema that references no other schema is dropped. The parent may be
+   * null when it is set later, as {@link Document} does for the methods it is created with.
+   */
+  static Method create(
+      String description,
+      String flatPath,
+      String httpMethod,
+      String id,
+      Map<String, Schema> parameters,
+      String path,
+      @Nullable Schema request,
+      @Nullable Schema response,
+      List<String> scopes,
+      boolean supportsMediaDownload,
+      boolean supportsMediaUpload,
+      @Nullable Node parent) {
     Map<String, Schema> queryParams = new HashMap<>();
     Map<String, Schema> pathParams = new HashMap<>();
-
-    for (String name : root.getObject("parameters").getFieldNames()) {
-      Schema schema = Schema.from(parametersNode.getObject(name), name, null);
+    for (Map.Entry<String, Schema> parameter : parameters.entrySet()) {
+      Schema schema = parameter.getValue();
       // TODO: Remove these checks once we're sure that parameters can't be objects/arrays.
       // This is based on the assumption that these types can't be serialized as a query or path
       // parameter.
       Preconditions.checkState(schema.type() != Schema.Type.ANY);
       Preconditions.checkState(schema.type() != Schema.Type.ARRAY);
       Preconditions.checkState(schema.type() != Schema.Type.OBJECT);
-      parameters.put(name, schema);
       if (schema.location().toLowerCase().equals("path")) {
-        pathParams.put(name, schema);
+        pathParams.put(parameter.getKey(), schema);
       } else if (schema.location().toLowerCase().equals("query")) {
-        queryParams.put(name, schema);
+        queryParams.put(parameter.getKey(), schema);
       }
     }
 
-    Schema request = Schema.from(root.getObject("request"), "request", null);
-    if (request.reference().isEmpty()) {
+    if (request != null && request.reference().isEmpty()) {
       request = null;
     }
-    Schema response = Schema.from(root.getObject("response"), "response", null);
-    if (response.reference().isEmpty()) {
+    if (response != null && response.reference().isEmpty()) {
       response = null;
     }
-    List<String> scopes = new ArrayList<>();
-    for (DiscoveryNode scopeNode : root.getArray("scopes").getElements()) {
-      scopes.add(scopeNode.asText());
-    }
-    boolean supportsMediaDownload = root.getBoolean("supportsMediaDownload");
-    boolean supportsMediaUpload = root.getBoolean("supportsMediaUpload");
 
     Method thisMethod =
         new AutoValue_Method(
@@ -114,13 +152,14 @@ public abstract class Method implements Comparable<Method>, Node {
   }
 
   /** @return the parent Node. */
-  private Node parent;
+  @Nullable private Node parent;
 
   void setParent(Node parent) {
     this.parent = parent;
   }
 
   @Override
+  @Nullable
   public Node parent() {
     return parent;
   }
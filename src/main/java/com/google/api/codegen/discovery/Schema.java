@@ -18,15 +18,19 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.auto.value.AutoValue;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.annotation.Nullable;
 
 /**
@@ -41,39 +45,79 @@ public abstract class Schema implements Node {
    * Returns the schema this schema references, or this if this schema references no other.
    *
    * <p>If the reference property of a schema is non-empty, then it references another schema. This
-   * method returns the schema that this schema eventually references by walking back to a parent
-   * document. If the given schema does not reference another schema, this schema is returned.
+   * method returns the schema that this schema eventually references in its parent document. If the
+   * given schema does not reference another schema, this schema is returned.
+   *
+   * <p>References of schemas that belong to a document are resolved once by {@link Document#from};
+   * other schemas are resolved by walking back to a parent document.
    *
    * @return the first non-reference schema, or this if this schema references no other.
    */
   public Schema dereference() {
-    if (!Strings.isNullOrEmpty(reference())) {
-      Node document = parent;
-      while (document != null && !(document instanceof Document)) {
-        document = document.parent();
-      }
-      if (document != null) {
-        Schema schema = ((Document) document).schemas().get(reference());
-        // If a document is an eventual parent of this schema, then reference() must be a key in the
-        // document's "schemas" object.
-        Preconditions.checkState(schema != null);
-        return schema;
-      }
+    if (Strings.isNullOrEmpty(reference())) {
+      return this;
+    }
+    if (dereferenced != null) {
+      return dereferenced;
+    }
+    Node document = parent;
+    while (document != null && !(document instanceof Document)) {
+      document = document.parent();
+    }
+    if (document != null) {
+      Schema schema = ((Document) document).schemas().get(reference());
+      // If a document is an eventual parent of this schema, then reference() must be a key in the
+      // document's "schemas" object.
+      Preconditions.checkState(schema != null);
+      return schema;
     }
     return this;
   }
 
+  /**
+   * Resolves the references of this schema and of all its nested schemas against the given document
+   * schemas. References to missing schemas are left unresolved.
+   */
+  void resolveReferences(Map<String, Schema> documentSchemas) {
+    if (!Strings.isNullOrEmpty(reference())) {
+      dereferenced = documentSchemas.get(reference());
+    }
+    if (items() != null) {
+      items().resolveReferences(documentSchemas);
+    }
+    for (Schema property : properties().values()) {
+      property.resolveReferences(documentSchemas);
+    }
+    if (additionalProperties() != null) {
+      additionalProperties().resolveReferences(documentSchemas);
+    }
+  }
+
   /**
    * Traverses the schema's child nodes to find a Schema with the given childName. Returns a schema
    * traversal path to the target; this path will include the starting node if the target was found.
    * Returns an empty list if the target is not found.
+   *
+   * <p>Paths are computed once per child name and shared by subsequent calls.
    */
   public List<Schema> findChild(String childName) {
+    List<Schema> path = childPaths.get(childName);
+    if (path == null) {
+      path = computeChildPath(childName);
+      List<Schema> existing = childPaths.putIfAbsent(childName, path);
+      if (existing != null) {
+        path = existing;
+      }
+    }
+    return path;
+  }
+
+  private ImmutableList<Schema> computeChildPath(String childName) {
     Set<Schema> visitedNodes = new HashSet<>();
     Map<Schema, Schema> nodeToPrevNode = new HashMap<>();
 
     Schema currentNode = this;
-    Queue<Schema> queue = new LinkedList<>();
+    Queue<Schema> queue = new ArrayDeque<>();
     queue.add(this);
     visitedNodes.add(this);
 
@@ -81,17 +125,15 @@ public abstract class Schema implements Node {
     while (queue.size() != 0 && !currentNode.getIdentifier().equals(childName)) {
       currentNode = queue.poll().dereference();
 
-      // Add all direct children of current node to local queue.
-      Queue<Schema> localQueue = new LinkedList<>();
-      if (currentNode.properties() != null && currentNode.properties().size() > 0) {
-        localQueue.addAll(currentNode.properties().values());
-      }
+      // Add all direct children of current node to local list.
+      List<Schema> children = new ArrayList<>(currentNode.properties().size() + 1);
+      children.addAll(currentNode.properties().values());
       if (currentNode.additionalProperties() != null) {
-        localQueue.add(currentNode.additionalProperties());
+        children.add(currentNode.additionalProperties());
       }
 
-      while (localQueue.peek() != null) {
-        Schema next = localQueue.poll().dereference();
+      for (Schema child : children) {
+        Schema next = child.dereference();
 
         if (next.getIdentifier().equals(childName)) {
           // Success.
@@ -99,25 +141,24 @@ public abstract class Schema implements Node {
           currentNode = next;
           break;
         }
-        if (!visitedNodes.contains(next)) {
+        if (visitedNodes.add(next)) {
           nodeToPrevNode.put(next, currentNode);
-          visitedNodes.add(next);
           queue.add(next);
         }
       }
     }
 
+    if (!currentNode.getIdentifier().equals(childName)) {
+      return ImmutableList.of();
+    }
     // Get the path to the schema.
-    List<Schema> pathToChild = new LinkedList<>();
-    if (currentNode.getIdentifier().equals(childName)) {
-      while (!currentNode.equals(this)) {
-        pathToChild.add(0, currentNode);
-        currentNode = nodeToPrevNode.get(currentNode);
-      }
-      pathToChild.add(0, currentNode);
+    List<Schema> pathToChild = new ArrayList<>();
+    while (!currentNode.equals(this)) {
+      pathToChild.add(currentNode);
+      currentNode = nodeToPrevNode.get(currentNode);
     }
-
-    return pathToChild;
+    pathToChild.add(currentNode);
+    return ImmutableList.copyOf(pathToChild).reverse();
   }
 
   /**
@@ -132,19 +173,14 @@ public abstract class Schema implements Node {
     if (root.isEmpty()) {
       return empty();
     }
-    Schema additionalProperties = Schema.from(root.getObject("additionalProperties"), "", null);
-    if (additionalProperties.type() == Type.EMPTY && additionalProperties.reference().isEmpty()) {
-      additionalProperties = null;
-    }
+    Schema additionalProperties =
+        emptyToNull(Schema.from(root.getObject("additionalProperties"), "", null));
     String defaultValue = root.getString("default");
     String description = root.getString("description");
     Format format = Format.getEnum(root.getString("format"));
     String id = root.getString("id");
     boolean isEnum = !root.getArray("enum").isEmpty();
-    Schema items = Schema.from(root.getObject("items"), key, null);
-    if (items.type() == Type.EMPTY && items.reference().isEmpty()) {
-      items = null;
-    }
+    Schema items = emptyToNull(Schema.from(root.getObject("items"), key, null));
     String location = root.getString("location");
     String pattern = root.getString("pattern");
 
@@ -182,18 +218,31 @@ public abstract class Schema implements Node {
             .setRequired(required)
             .setType(type)
             .build();
-    thisSchema.parent = parent;
-    if (items != null) {
-      items.setParent(thisSchema);
+    thisSchema.attach(parent);
+    return thisSchema;
+  }
+
+  /** Returns null if schema has neither a type nor a reference, or schema otherwise. */
+  @Nullable
+  static Schema emptyToNull(Schema schema) {
+    if (schema.type() == Type.EMPTY && schema.reference().isEmpty()) {
+      return null;
     }
-    for (Schema schema : properties.values()) {
-      schema.setParent(thisSchema);
+    return schema;
+  }
+
+  /** Sets the parent of this schema, and makes this schema the parent of its nested schemas. */
+  void attach(Node parent) {
+    this.parent = parent;
+    if (items() != null) {
+      items().setParent(this);
     }
-    if (additionalProperties != null) {
-      additionalProperties.setParent(thisSchema);
+    for (Schema schema : properties().values()) {
+      schema.setParent(this);
+    }
+    if (additionalProperties() != null) {
+      additionalProperties().setParent(this);
     }
-
-    return thisSchema;
   }
 
   /** @return a non-null identifier for this schema. */
@@ -216,6 +265,12 @@ public abstract class Schema implements Node {
 
   @JsonIgnore @Nullable private Node parent;
 
+  // The schema this schema references, resolved by Document#from.
+  @JsonIgnore @Nullable private Schema dereferenced;
+
+  @JsonIgnore
+  private final ConcurrentMap<String, List<Schema>> childPaths = new ConcurrentHashMap<>();
+
   /** @return the {@link Node} that contains this Schema. */
   @Nullable
   public Node parent() {
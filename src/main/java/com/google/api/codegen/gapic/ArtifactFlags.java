@@ -15,6 +15,8 @@
 package com.google.api.codegen.gapic;
 
 import com.google.api.codegen.ArtifactType;
+import com.google.api.codegen.util.Profiler;
+import com.google.common.base.Preconditions;
 import java.util.List;
 
 public class ArtifactFlags {
@@ -24,12 +26,34 @@ public class ArtifactFlags {
   private final List<String> enabledArtifacts;
   private final ArtifactType artifactType;
   private final boolean devSamples;
+  private final int renderThreads;
+  private final Profiler profiler;
 
   public ArtifactFlags(
       List<String> enabledArtifacts, ArtifactType artifactType, boolean devSamples) {
+    this(enabledArtifacts, artifactType, devSamples, 1);
+  }
+
+  public ArtifactFlags(
+      List<String> enabledArtifacts,
+      ArtifactType artifactType,
+      boolean devSamples,
+      int renderThreads) {
+    this(enabledArtifacts, artifactType, devSamples, renderThreads, Profiler.disabled());
+  }
+
+  public ArtifactFlags(
+      List<String> enabledArtifacts,
+      ArtifactType artifactType,
+      boolean devSamples,
+      int renderThreads,
+      Profiler profiler) {
+    Preconditions.checkArgument(renderThreads > 0, "renderThreads must be positive");
     this.enabledArtifacts = enabledArtifacts;
     this.artifactType = artifactType;
     this.devSamples = devSamples;
+    this.renderThreads = renderThreads;
+    this.profiler = Preconditions.checkNotNull(profiler);
   }
 
   public boolean surfaceGeneratorEnabled() {
@@ -56,4 +80,14 @@ public class ArtifactFlags {
   public boolean devSamplesEnabled() {
     return devSamples;
   }
+
+  /** The number of threads used to render the view models of a single generator. */
+  public int renderThreads() {
+    return renderThreads;
+  }
+
+  /** The profiler that records the time spent transforming and rendering. */
+  public Profiler profiler() {
+    return profiler;
+  }
 }
@@ -0,0 +1,198 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.gapic;
+
+import com.google.api.codegen.common.CodeGenerator;
+import com.google.api.codegen.common.GeneratedResult;
+import com.google.api.codegen.util.ConcurrencyUtil;
+import com.google.api.codegen.util.Profiler;
+import com.google.api.tools.framework.model.Diag;
+import com.google.api.tools.framework.model.DiagCollector;
+import com.google.api.tools.framework.model.SimpleLocation;
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nullable;
+
+/**
+ * Runs a list of independent CodeGenerators, possibly concurrently, and merges their results.
+ *
+ * <p>Generators running in parallel share the following objects, which callers must prepare before
+ * calling {@code generate}:
+ *
+ * <ul>
+ *   <li>The model, with its {@code Merged} stage established. Generators establish the stage
+ *       again under the model's lock, which only reads it. The protobuf annotation index is
+ *       attached to the model under the same lock on first use.
+ *   <li>The product config, fully created. Creating it resolves the language-independent inputs
+ *       and reports config errors, so no diagnostics are added to the model's diag collector,
+ *       which is not thread-safe, while generators run; generators only read its error count.
+ *   <li>The process-wide snippet and comment caches, which are concurrent.
+ * </ul>
+ *
+ * <p>Each generator creates its own view models, type tables and namers. The merged results are
+ * ordered by generator and then by each generator's own output order, which is the same order
+ * sequential generation produces regardless of the number of threads. Diagnostics produced by the
+ * scheduler itself are reported on the calling thread in generator order.
+ */
+public class CodeGeneratorScheduler {
+
+  private final int threads;
+  private final Profiler profiler;
+
+  public CodeGeneratorScheduler(int threads) {
+    this(threads, Profiler.disabled());
+  }
+
+  /** Creates a scheduler that records the time each generator runs to {@code profiler}. */
+  public CodeGeneratorScheduler(int threads, Profiler profiler) {
+    Preconditions.checkArgument(threads > 0, "threads must be positive");
+    this.threads = threads;
+    this.profiler = Preconditions.checkNotNull(profiler);
+  }
+
+  /**
+   * Runs the generators and returns the merged results, or null if any generator failed or if two
+   * generators produced the same output path. Errors are reported to {@code diagCollector}.
+   */
+  @Nullable
+  public Map<String, GeneratedResult<?>> generate(
+      List<CodeGenerator<?>> generators, DiagCollector diagCollector) throws IOException {
+    List<Callable<Map<String, ? extends GeneratedResult<?>>>> tasks = new ArrayList<>();
+    for (CodeGenerator<?> generator : generators) {
+      tasks.add(
+          () -> {
+            try (Profiler.Span span = profiler.start(Profiler.GENERATOR, describe(generator))) {
+              return generator.generate();
+            }
+          });
+    }
+
+    List<Map<String, ? extends GeneratedResult<?>>> generatorResults;
+    try {
+      generatorResults = ConcurrencyUtil.invokeAllInOrder(tasks, threads, "gapic-generator-%d");
+    } catch (ExecutionException e) {
+      Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    }
+
+    boolean hasErrors = false;
+    Map<String, CodeGenerator<?>> outputOwners = new HashMap<>();
+    ImmutableMap.Builder<String, GeneratedResult<?>> mergedResults = ImmutableMap.builder();
+    for (int i = 0; i < generators.size(); i++) {
+      CodeGenerator<?> generator = generators.get(i);
+      Map<String, ? extends GeneratedResult<?>> generatorResult = generatorResults.get(i);
+      if (generatorResult == null) {
+        // The generator has already reported why it produced no output.
+        hasErrors = true;
+        continue;
+      }
+      for (Map.Entry<String, ? extends GeneratedResult<?>> entry : generatorResult.entrySet()) {
+        CodeGenerator<?> owner = outputOwners.putIfAbsent(entry.getKey(), generator);
+        if (owner != null) {
+          diagCollector.addDiag(
+              Diag.error(
+                  SimpleLocation.TOPLEVEL,
+                  "Output file '%s' is generated by both %s and %s.",
+                  entry.getKey(),
+                  describe(owner),
+                  describe(generator)));
+          hasErrors = true;
+          continue;
+        }
+        mergedResults.put(entry.getKey(), entry.getValue());
+      }
+    }
+
+    return hasErrors ? null : mergedResults.build();
+  }
+
+  /**
+   * Runs the generators and passes each generated file to {@code writer} as soon as it is
+   * generated, with {@code pathPrefix} prepended to its path. Returns false if any generator failed
+   * or if two generators produced the same output path. Errors are reported to {@code
+   * diagCollector} once all generators have finished; a file generated by a second generator is not
+   * written.
+   */
+  public boolean generate(
+      List<CodeGenerator<?>> generators,
+      StreamingGapicWriter writer,
+      String pathPrefix,
+      DiagCollector diagCollector)
+      throws IOException {
+    Map<String, Integer> outputOwners = new ConcurrentHashMap<>();
+    Map<String, Integer> duplicateOwners = new ConcurrentSkipListMap<>();
+    List<Callable<Boolean>> tasks = new ArrayList<>();
+    for (int i = 0; i < generators.size(); i++) {
+      int generatorIndex = i;
+      CodeGenerator<?> generator = generators.get(i);
+      tasks.add(
+          () -> {
+            try (Profiler.Span span = profiler.start(Profiler.GENERATOR, describe(generator))) {
+              return generator.generate(
+                  (path, result) -> {
+                    Integer owner = outputOwners.putIfAbsent(path, generatorIndex);
+                    if (owner != null && owner != generatorIndex) {
+                      duplicateOwners.put(path, generatorIndex);
+                      return;
+                    }
+                    writer.writeGeneratedFile(pathPrefix + path, result);
+                  });
+            }
+          });
+    }
+
+    List<Boolean> generatorResults;
+    try {
+      generatorResults = ConcurrencyUtil.invokeAllInOrder(tasks, threads, "gapic-generator-%d");
+    } catch (ExecutionException e) {
+      Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    }
+
+    // Generators that ran concurrently may have claimed a path in any order, so report each
+    // duplicate by generator order, as sequential generation would.
+    for (Map.Entry<String, Integer> duplicate : duplicateOwners.entrySet()) {
+      int first = Math.min(outputOwners.get(duplicate.getKey()), duplicate.getValue());
+      int second = Math.max(outputOwners.get(duplicate.getKey()), duplicate.getValue());
+      diagCollector.addDiag(
+          Diag.error(
+              SimpleLocation.TOPLEVEL,
+              "Output file '%s' is generated by both %s and %s.",
+              duplicate.getKey(),
+              describe(generators.get(first)),
+              describe(generators.get(second))));
+    }
+    return !generatorResults.contains(false) && duplicateOwners.isEmpty();
+  }
+
+  private static String describe(CodeGenerator<?> generator) {
+    return String.format(
+        "%s(%s)",
+        generator.getClass().getSimpleName(), Joiner.on(", ").join(generator.getInputFileNames()));
+  }
+}
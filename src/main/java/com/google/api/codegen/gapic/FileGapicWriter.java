@@ -15,29 +15,67 @@
 package com.google.api.codegen.gapic;
 
 import com.google.api.codegen.common.GeneratedResult;
+import com.google.api.codegen.util.ArchiveWriter;
+import com.google.api.codegen.util.Profiler;
 import com.google.api.tools.framework.model.Diag;
 import com.google.api.tools.framework.model.DiagCollector;
 import com.google.api.tools.framework.model.SimpleLocation;
 import com.google.api.tools.framework.tools.ToolUtil;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Files;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 
-/** A class that writes Gapic output to disk. */
-public class FileGapicWriter implements GapicWriter {
+/**
+ * A class that writes Gapic output to disk, either as files in a directory or into a zip, jar,
+ * srcjar or tar.gz archive.
+ */
+public class FileGapicWriter implements StreamingGapicWriter {
 
   private final String outputPath;
   private boolean isDone = false;
+  private boolean skipUnchangedFiles = false;
+  private Profiler profiler = Profiler.disabled();
+
+  // State of a streamed write; guarded by this.
+  private ArchiveWriter streamedArchive;
+  private final List<Diag> streamedDiags = new ArrayList<>();
 
   public FileGapicWriter(String outputPath) {
     this.outputPath = outputPath;
   }
 
+  /**
+   * Sets whether files whose content is identical to the file already on disk are left untouched
+   * instead of rewritten, so that their modification times are kept. Only supported for output to
+   * a directory.
+   */
+  public void setSkipUnchangedFiles(boolean skipUnchangedFiles) {
+    Preconditions.checkArgument(
+        !skipUnchangedFiles || !ArchiveWriter.isArchive(outputPath),
+        "Skipping unchanged files requires output to a directory: %s",
+        outputPath);
+    this.skipUnchangedFiles = skipUnchangedFiles;
+  }
+
+  /**
+   * Sets the profiler that records the time spent pretty-printing and writing each file. Files
+   * written to an archive are measured together with the archive.
+   */
+  public void setProfiler(Profiler profiler) {
+    this.profiler = Preconditions.checkNotNull(profiler);
+  }
+
   @Override
   public boolean isDone() {
     return isDone;
@@ -49,8 +87,6 @@ public class FileGapicWriter implements GapicWriter {
       throws IOException {
     Map<String, Object> outputFiles = GeneratedResult.extractBodiesGeneric(generatedResults);
 
-    writeCodeGenOutput(outputFiles, outputPath);
-
     Set<String> executables =
         generatedResults
             .entrySet()
@@ -58,6 +94,14 @@ public class FileGapicWriter implements GapicWriter {
             .filter(e -> e.getValue().isExecutable())
             .map(Map.Entry::getKey)
             .collect(Collectors.toSet());
+
+    if (skipUnchangedFiles || (profiler.isEnabled() && !ArchiveWriter.isArchive(outputPath))) {
+      for (Map.Entry<String, Object> outputFile : outputFiles.entrySet()) {
+        writeFile(outputFile.getKey(), print(outputFile.getKey(), outputFile.getValue()));
+      }
+    } else {
+      writeCodeGenOutput(outputFiles, executables, outputPath);
+    }
     setOutputFilesPermissions(executables, outputPath, diagCollector);
 
     isDone = true;
@@ -65,18 +109,96 @@ public class FileGapicWriter implements GapicWriter {
 
   @VisibleForTesting
   void writeCodeGenOutput(Map<String, Object> outputFiles, String outputPath) throws IOException {
-    // TODO: Support zip output.
-    if (outputPath.endsWith(".jar") || outputPath.endsWith(".srcjar")) {
-      ToolUtil.writeJar(outputFiles, outputPath);
+    writeCodeGenOutput(outputFiles, ImmutableSet.of(), outputPath);
+  }
+
+  private static void writeCodeGenOutput(
+      Map<String, Object> outputFiles, Set<String> executables, String outputPath)
+      throws IOException {
+    if (ArchiveWriter.isArchive(outputPath)) {
+      try (ArchiveWriter archive = new ArchiveWriter(outputPath)) {
+        for (Map.Entry<String, Object> outputFile : outputFiles.entrySet()) {
+          archive.add(
+              outputFile.getKey(),
+              GeneratedResult.toBytes(outputFile.getValue()),
+              executables.contains(outputFile.getKey()));
+        }
+      }
     } else {
       ToolUtil.writeFiles(outputFiles, outputPath);
     }
   }
 
+  @Override
+  public synchronized void writeGeneratedFile(String path, GeneratedResult<?> result)
+      throws IOException {
+    byte[] content = print(path, result.getBody());
+    if (ArchiveWriter.isArchive(outputPath)) {
+      if (streamedArchive == null) {
+        streamedArchive = new ArchiveWriter(outputPath);
+      }
+      // Only the compressed entry is kept until the archive is written.
+      streamedArchive.add(path, content, result.isExecutable());
+      return;
+    }
+
+    File file = writeFile(path, content);
+    if (result.isExecutable() && !file.setExecutable(true, false)) {
+      streamedDiags.add(
+          Diag.warning(
+              SimpleLocation.TOPLEVEL,
+              "Failed to set output file as executable. Probably running on a non-POSIX system."));
+    }
+  }
+
+  private byte[] print(String path, Object body) {
+    try (Profiler.Span span = profiler.start(Profiler.PRINT, path)) {
+      return GeneratedResult.toBytes(body);
+    }
+  }
+
+  /** Writes one file to the output directory, unless skipped because its content is unchanged. */
+  private File writeFile(String path, byte[] content) throws IOException {
+    try (Profiler.Span span = profiler.start(Profiler.WRITE, path)) {
+      return writeFileContent(path, content);
+    }
+  }
+
+  private File writeFileContent(String path, byte[] content) throws IOException {
+    File file = Strings.isNullOrEmpty(outputPath) ? new File(path) : new File(outputPath, path);
+    if (skipUnchangedFiles
+        && file.isFile()
+        && file.length() == content.length
+        && Arrays.equals(Files.toByteArray(file), content)) {
+      return file;
+    }
+    file.getParentFile().mkdirs();
+    Files.write(content, file);
+    return file;
+  }
+
+  @Override
+  public synchronized void finishGeneratedFiles(DiagCollector diagCollector) throws IOException {
+    if (streamedArchive == null && ArchiveWriter.isArchive(outputPath)) {
+      // Write an empty archive, as for non-streamed output without any files.
+      streamedArchive = new ArchiveWriter(outputPath);
+    }
+    if (streamedArchive != null) {
+      streamedArchive.close();
+      streamedArchive = null;
+    }
+    for (Diag diag : streamedDiags) {
+      diagCollector.addDiag(diag);
+    }
+    streamedDiags.clear();
+    isDone = true;
+  }
+
   @VisibleForTesting
   void setOutputFilesPermissions(
       Set<String> executables, String outputPath, DiagCollector diagCollector) {
-    if (outputPath.endsWith(".jar")) {
+    if (ArchiveWriter.isArchive(outputPath)) {
+      // Archives record the executable bit of their entries.
       return;
     }
 
@@ -20,14 +20,23 @@ import com.google.api.codegen.config.GapicProductConfig;
 import com.google.api.codegen.config.ProtoApiModel;
 import com.google.api.codegen.rendering.CommonSnippetSetRunner;
 import com.google.api.codegen.transformer.ModelToViewTransformer;
+import com.google.api.codegen.util.ConcurrencyUtil;
+import com.google.api.codegen.util.Profiler;
 import com.google.api.codegen.viewmodel.ViewModel;
 import com.google.api.tools.framework.model.Model;
 import com.google.api.tools.framework.model.stages.Merged;
 import com.google.api.tools.framework.snippet.Doc;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nullable;
 
 /* CodeGenerator for proto-based GAPIC libraries that uses ViewModels to render the templates. */
 public class GapicGenerator implements CodeGenerator<Doc> {
@@ -35,16 +44,22 @@ public class GapicGenerator implements CodeGenerator<Doc> {
   private final GapicProductConfig productConfig;
   private final CommonSnippetSetRunner snippetSetRunner;
   private final ModelToViewTransformer<ProtoApiModel> modelToViewTransformer;
+  private final int renderThreads;
+  private final Profiler profiler;
 
   private GapicGenerator(
       Model model,
       GapicProductConfig productConfig,
       CommonSnippetSetRunner snippetSetRunner,
-      ModelToViewTransformer<ProtoApiModel> modelToViewTransformer) {
+      ModelToViewTransformer<ProtoApiModel> modelToViewTransformer,
+      int renderThreads,
+      Profiler profiler) {
     this.model = model;
     this.productConfig = productConfig;
     this.snippetSetRunner = snippetSetRunner;
     this.modelToViewTransformer = modelToViewTransformer;
+    this.renderThreads = renderThreads;
+    this.profiler = profiler;
   }
 
   @Override
@@ -54,24 +69,100 @@ public class GapicGenerator implements CodeGenerator<Doc> {
 
   @Override
   public Map<String, GeneratedResult<Doc>> generate() {
-    // Establish required stage for generation.
-    model.establishStage(Merged.KEY);
+    List<ViewModel> surfaceDocs = transform();
+    if (surfaceDocs == null) {
+      return null;
+    }
+
+    Map<String, GeneratedResult<Doc>> results = new TreeMap<>();
+    for (Map<String, GeneratedResult<Doc>> renderedDoc : render(surfaceDocs)) {
+      results.putAll(renderedDoc);
+    }
+
+    return results;
+  }
+
+  /**
+   * Renders the view models one at a time and passes each rendered document to {@code output} in
+   * view model order, so that only the documents waiting to be written are held in memory.
+   */
+  @Override
+  public boolean generate(OutputConsumer<Doc> output) throws IOException {
+    List<ViewModel> surfaceDocs = transform();
+    if (surfaceDocs == null) {
+      return false;
+    }
+
+    List<Callable<Map<String, GeneratedResult<Doc>>>> renderTasks = renderTasks(surfaceDocs);
+    try {
+      ConcurrencyUtil.forEachInOrder(
+          renderTasks,
+          renderThreads,
+          "gapic-render-%d",
+          renderedDoc -> {
+            for (Map.Entry<String, GeneratedResult<Doc>> entry : renderedDoc.entrySet()) {
+              output.accept(entry.getKey(), entry.getValue());
+            }
+          });
+    } catch (ExecutionException e) {
+      Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    }
+    return true;
+  }
+
+  /** Transforms the model into view models, or returns null if there were errors. */
+  @Nullable
+  private List<ViewModel> transform() {
+    // Establish required stage for generation. The model is shared with generators running
+    // concurrently; once the stage is established this only reads it.
+    synchronized (model) {
+      model.establishStage(Merged.KEY);
+    }
     if (model.getDiagReporter().getDiagCollector().getErrorCount() > 0) {
       return null;
     }
 
-    List<ViewModel> surfaceDocs =
-        modelToViewTransformer.transform(new ProtoApiModel(model), productConfig);
+    List<ViewModel> surfaceDocs;
+    try (Profiler.Span span =
+        profiler.start(Profiler.TRANSFORM, modelToViewTransformer.getClass().getName())) {
+      surfaceDocs = modelToViewTransformer.transform(new ProtoApiModel(model), productConfig);
+    }
     if (model.getDiagReporter().getDiagCollector().getErrorCount() > 0) {
       return null;
     }
+    return surfaceDocs;
+  }
 
-    Map<String, GeneratedResult<Doc>> results = new TreeMap<>();
+  /**
+   * Renders each view model, returning the rendered documents in the same order as the view models.
+   * If more than one render thread is configured, the view models are rendered concurrently; the
+   * first failure in view model order is rethrown, as in sequential rendering.
+   */
+  private List<Map<String, GeneratedResult<Doc>>> render(List<ViewModel> surfaceDocs) {
+    try {
+      return ConcurrencyUtil.invokeAllInOrder(
+          renderTasks(surfaceDocs), renderThreads, "gapic-render-%d");
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  private List<Callable<Map<String, GeneratedResult<Doc>>>> renderTasks(
+      List<ViewModel> surfaceDocs) {
+    List<Callable<Map<String, GeneratedResult<Doc>>>> renderTasks = new ArrayList<>();
     for (ViewModel surfaceDoc : surfaceDocs) {
-      results.putAll(snippetSetRunner.generate(surfaceDoc));
+      renderTasks.add(() -> render(surfaceDoc));
     }
+    return renderTasks;
+  }
 
-    return results;
+  private Map<String, GeneratedResult<Doc>> render(ViewModel surfaceDoc) {
+    try (Profiler.Span span = profiler.start(Profiler.RENDER, surfaceDoc.outputPath())) {
+      return snippetSetRunner.generate(surfaceDoc);
+    }
   }
 
   public static Builder newBuilder() {
@@ -83,6 +174,8 @@ public class GapicGenerator implements CodeGenerator<Doc> {
     private GapicProductConfig productConfig;
     private CommonSnippetSetRunner snippetSetRunner;
     private ModelToViewTransformer<ProtoApiModel> modelToViewTransformer;
+    private int renderThreads = 1;
+    private Profiler profiler = Profiler.disabled();
 
     private Builder() {}
 
@@ -107,8 +200,27 @@ public class GapicGenerator implements CodeGenerator<Doc> {
       return this;
     }
 
+    /** Sets the number of threads used to render view models. Defaults to 1 (sequential). */
+    public Builder setRenderThreads(int renderThreads) {
+      Preconditions.checkArgument(renderThreads > 0, "renderThreads must be positive");
+      this.renderThreads = renderThreads;
+      return this;
+    }
+
+    /** Sets the profiler that records transformation and rendering. Defaults to disabled. */
+    public Builder setProfiler(Profiler profiler) {
+      this.profiler = Preconditions.checkNotNull(profiler);
+      return this;
+    }
+
     public GapicGenerator build() {
-      return new GapicGenerator(model, productConfig, snippetSetRunner, modelToViewTransformer);
+      return new GapicGenerator(
+          model,
+          productConfig,
+          snippetSetRunner,
+          modelToViewTransformer,
+          renderThreads,
+          profiler);
     }
   }
 }
@@ -26,9 +26,12 @@ import com.google.api.codegen.config.PackageMetadataConfig;
 import com.google.api.codegen.config.PackagingConfig;
 import com.google.api.codegen.grpc.ServiceConfig;
 import com.google.api.codegen.samplegen.v1p2.SampleConfigProto;
+import com.google.api.codegen.util.ArchiveWriter;
 import com.google.api.codegen.util.MultiYamlReader;
+import com.google.api.codegen.util.Profiler;
 import com.google.api.codegen.util.ProtoParser;
 import com.google.api.codegen.util.SampleConfigSanitizer;
+import com.google.api.codegen.util.YamlConfigCache;
 import com.google.api.tools.framework.model.ConfigSource;
 import com.google.api.tools.framework.model.Diag;
 import com.google.api.tools.framework.model.SimpleLocation;
@@ -37,6 +40,7 @@ import com.google.api.tools.framework.tools.ToolDriverBase;
 import com.google.api.tools.framework.tools.ToolOptions;
 import com.google.api.tools.framework.tools.ToolOptions.Option;
 import com.google.api.tools.framework.tools.ToolUtil;
+import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -45,15 +49,26 @@ import com.google.protobuf.ExtensionRegistry;
 import com.google.protobuf.Message;
 import com.google.protobuf.util.JsonFormat;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import javax.annotation.Nullable;
 
 /** Main class for the code generator. */
 public class GapicGeneratorApp extends ToolDriverBase {
   public static final Option<String> LANGUAGE =
-      ToolOptions.createOption(String.class, "language", "The target language.", "");
+      ToolOptions.createOption(
+          String.class,
+          "language",
+          "The target language, or a comma-separated list of target languages. With several "
+              + "languages, the output of each language is put in its own directory.",
+          "");
   public static final Option<String> OUTPUT_FILE =
       ToolOptions.createOption(
           String.class,
@@ -112,10 +127,66 @@ public class GapicGeneratorApp extends ToolDriverBase {
           "The filepath of the JSON gRPC Service Config file.",
           "");
 
+  public static final Option<Integer> RENDER_THREADS =
+      ToolOptions.createOption(
+          Integer.class,
+          "render_threads",
+          "The number of threads used to render the view models of each generator. "
+              + "Rendering is sequential by default.",
+          1);
+
+  public static final Option<Integer> GENERATOR_THREADS =
+      ToolOptions.createOption(
+          Integer.class,
+          "generator_threads",
+          "The number of code generators to run concurrently. "
+              + "Generators run sequentially by default.",
+          1);
+
+  public static final Option<Boolean> STREAMING_OUTPUT =
+      ToolOptions.createOption(
+          Boolean.class,
+          "streaming_output",
+          "Whether to write each generated file as soon as it is rendered, instead of after all "
+              + "generators have finished. This bounds memory use for large APIs. Ignored if the "
+              + "output writer does not support streaming.",
+          false);
+
+  public static final Option<Boolean> SKIP_UNCHANGED_FILES =
+      ToolOptions.createOption(
+          Boolean.class,
+          "skip_unchanged_files",
+          "Whether to leave output files whose content is unchanged untouched, instead of "
+              + "rewriting them, so that their modification times are kept. Every file is still "
+              + "generated. Requires output to a directory.",
+          false);
+
+  public static final Option<String> CONFIG_CACHE_DIR =
+      ToolOptions.createOption(
+          String.class,
+          "config_cache_dir",
+          "A directory in which to cache GAPIC and sample configs parsed from YAML. Invocations "
+              + "that share the directory parse each distinct YAML file only once.",
+          "");
+
+  public static final Option<String> PROFILE_OUT =
+      ToolOptions.createOption(
+          String.class,
+          "profile_out",
+          "The path of a JSON report of the wall time, CPU time and allocated bytes of each "
+              + "generation stage, generator and output file. If given, a summary of the report is "
+              + "also printed to stderr.",
+          "");
+
   private ArtifactType artifactType;
 
   private final GapicWriter gapicWriter;
 
+  private final Profiler profiler;
+
+  // Measures the model setup done by the tool driver before process() is called.
+  @Nullable private Profiler.Span setupSpan;
+
   /**
    * Constructs a code generator api based on given options.
    *
@@ -126,6 +197,32 @@ public class GapicGeneratorApp extends ToolDriverBase {
     super(options);
     this.artifactType = artifactType;
     this.gapicWriter = gapicWriter;
+    this.profiler =
+        Strings.isNullOrEmpty(options.get(PROFILE_OUT)) ? Profiler.disabled() : Profiler.create();
+    if (gapicWriter instanceof FileGapicWriter) {
+      ((FileGapicWriter) gapicWriter).setProfiler(profiler);
+    }
+  }
+
+  @Override
+  public int run() {
+    setupSpan = profiler.start(Profiler.STAGE, "setup_model");
+    int exitCode;
+    try {
+      exitCode = super.run();
+    } finally {
+      // Closes the span if the setup failed before process() was called; closing is idempotent.
+      setupSpan.close();
+    }
+    if (profiler.isEnabled()) {
+      try (OutputStream out = new FileOutputStream(options.get(PROFILE_OUT))) {
+        profiler.writeReport(out);
+      } catch (IOException e) {
+        System.err.println("Failed to write the profile: " + e.getMessage());
+      }
+      System.err.print(profiler.summary());
+    }
+    return exitCode;
   }
 
   @Override
@@ -137,58 +234,65 @@ public class GapicGeneratorApp extends ToolDriverBase {
 
   @Override
   protected void process() throws Exception {
+    if (setupSpan != null) {
+      setupSpan.close();
+    }
 
     String protoPackage = Strings.emptyToNull(options.get(PROTO_PACKAGE));
 
-    // Read the GAPIC config, if it was given, and convert it to proto.
-    List<String> configFileNames = options.get(GENERATOR_CONFIG_FILES);
     ConfigProto configProto = null;
-    if (configFileNames.size() > 0) {
-      // Read the YAML config and convert it to proto.
-      ConfigSource configSource =
-          loadConfigFromFiles(
-              configFileNames,
-              ConfigProto.getDescriptor().getFullName(),
-              ConfigProto.getDefaultInstance());
-      if (configSource == null) {
-        return;
+    ServiceConfig gRPCServiceConfig = null;
+    SampleConfigProto sampleConfigProto = null;
+    try (Profiler.Span span = profiler.start(Profiler.STAGE, "load_configs")) {
+      // Read the GAPIC config, if it was given, and convert it to proto.
+      List<String> configFileNames = options.get(GENERATOR_CONFIG_FILES);
+      if (configFileNames.size() > 0) {
+        // Read the YAML config and convert it to proto.
+        ConfigSource configSource =
+            loadConfigFromFiles(
+                configFileNames,
+                ConfigProto.getDescriptor().getFullName(),
+                ConfigProto.getDefaultInstance());
+        if (configSource == null) {
+          return;
+        }
+
+        configProto = (ConfigProto) configSource.getConfig();
+        if (configProto == null) {
+          return;
+        }
       }
 
-      configProto = (ConfigProto) configSource.getConfig();
-      if (configProto == null) {
-        return;
-      }
-    }
+      // if gRPC Service Config is given, consume it
+      String gRPCServiceConfigPath = options.get(GRPC_SERVICE_CONFIG);
+      if (!Strings.isNullOrEmpty(gRPCServiceConfigPath)) {
+        ServiceConfig.Builder builder = ServiceConfig.newBuilder();
+        FileReader file = new FileReader(gRPCServiceConfigPath);
+        JsonFormat.parser().merge(file, builder);
 
-    // if gRPC Service Config is given, consume it
-    String gRPCServiceConfigPath = options.get(GRPC_SERVICE_CONFIG);
-    ServiceConfig gRPCServiceConfig = null;
-    if (!Strings.isNullOrEmpty(gRPCServiceConfigPath)) {
-      ServiceConfig.Builder builder = ServiceConfig.newBuilder();
-      FileReader file = new FileReader(gRPCServiceConfigPath);
-      JsonFormat.parser().merge(file, builder);
+        gRPCServiceConfig = builder.build();
+      }
 
-      gRPCServiceConfig = builder.build();
+      // Read the sample configs, if they are given, and convert them to protos.
+      List<String> sampleConfigFileNames = options.get(SAMPLE_CONFIG_FILES);
+      if (sampleConfigFileNames.size() > 0) {
+        ConfigSource configSource =
+            loadConfigFromFiles(
+                SampleConfigSanitizer.sanitize(sampleConfigFileNames),
+                SampleConfigProto.getDescriptor().getFullName(),
+                SampleConfigProto.getDefaultInstance());
+
+        // TODO(hzyi): Verify this works for repeated fields as well
+        // TODO(hzyi): Allow users to put arbitrary top-level directives not
+        // used by gapic-generator
+        sampleConfigProto = (SampleConfigProto) configSource.getConfig();
+      }
     }
 
-    // Read the sample configs, if they are given, and convert them to protos.
-    SampleConfigProto sampleConfigProto = null;
-    List<String> sampleConfigFileNames = options.get(SAMPLE_CONFIG_FILES);
-    if (sampleConfigFileNames.size() > 0) {
-      ConfigSource configSource =
-          loadConfigFromFiles(
-              SampleConfigSanitizer.sanitize(sampleConfigFileNames),
-              SampleConfigProto.getDescriptor().getFullName(),
-              SampleConfigProto.getDefaultInstance());
-
-      // TODO(hzyi): Verify this works for repeated fields as well
-      // TODO(hzyi): Allow users to put arbitrary top-level directives not
-      // used by gapic-generator
-      sampleConfigProto = (SampleConfigProto) configSource.getConfig();
+    try (Profiler.Span span = profiler.start(Profiler.STAGE, "establish_stage")) {
+      model.establishStage(Merged.KEY);
     }
 
-    model.establishStage(Merged.KEY);
-
     if (model.getDiagReporter().getDiagCollector().getErrorCount() > 0) {
       for (Diag diag : model.getDiagReporter().getDiagCollector().getDiags()) {
         System.err.println(diag.toString());
@@ -199,27 +303,122 @@ public class GapicGeneratorApp extends ToolDriverBase {
     ApiDefaultsConfig apiDefaultsConfig = ApiDefaultsConfig.load();
     DependenciesConfig dependenciesConfig = DependenciesConfig.load();
 
-    TargetLanguage language;
-    if (!Strings.isNullOrEmpty(options.get(LANGUAGE))) {
-      language = TargetLanguage.fromString(options.get(LANGUAGE).toUpperCase());
-    } else {
-      throw new IllegalArgumentException("Language not set by --language option.");
+    List<TargetLanguage> languages = parseLanguages(options.get(LANGUAGE));
+    String clientPackage = Strings.emptyToNull(options.get(CLIENT_PACKAGE));
+
+    // The source protos, resource descriptors and retry settings do not depend on the target
+    // language, so they are computed once and shared by all requested languages.
+    GapicProductConfig.LanguageIndependentInputs productConfigInputs;
+    try (Profiler.Span span = profiler.start(Profiler.STAGE, "product_config_inputs")) {
+      productConfigInputs =
+          GapicProductConfig.LanguageIndependentInputs.create(
+              model, configProto, protoPackage, gRPCServiceConfig);
     }
 
-    String clientPackage = Strings.emptyToNull(options.get(CLIENT_PACKAGE));
+    if (options.get(SKIP_UNCHANGED_FILES)) {
+      if (!(gapicWriter instanceof FileGapicWriter)
+          || ArchiveWriter.isArchive(options.get(OUTPUT_FILE))) {
+        error("Skipping unchanged files requires output to a directory.");
+        return;
+      }
+      ((FileGapicWriter) gapicWriter).setSkipUnchangedFiles(true);
+    }
+
+    if (options.get(STREAMING_OUTPUT) && gapicWriter instanceof StreamingGapicWriter) {
+      StreamingGapicWriter streamingWriter = (StreamingGapicWriter) gapicWriter;
+      try {
+        for (TargetLanguage language : languages) {
+          List<CodeGenerator<?>> generators =
+              createGenerators(
+                  productConfigInputs,
+                  sampleConfigProto,
+                  clientPackage,
+                  language,
+                  apiDefaultsConfig,
+                  dependenciesConfig);
+          if (generators == null) {
+            return;
+          }
+          try (Profiler.Span span =
+              profiler.start(Profiler.STAGE, "generate_" + language.toString().toLowerCase())) {
+            if (!new CodeGeneratorScheduler(options.get(GENERATOR_THREADS), profiler)
+                .generate(
+                    generators,
+                    streamingWriter,
+                    getOutputPrefix(languages, language),
+                    model.getDiagReporter().getDiagCollector())) {
+              return;
+            }
+          }
+        }
+      } finally {
+        try (Profiler.Span span = profiler.start(Profiler.STAGE, "write_output")) {
+          streamingWriter.finishGeneratedFiles(model.getDiagReporter().getDiagCollector());
+        }
+      }
+      return;
+    }
 
-    GapicProductConfig productConfig =
-        GapicProductConfig.create(
-            model,
-            configProto,
-            sampleConfigProto,
-            protoPackage,
-            clientPackage,
-            language,
-            gRPCServiceConfig);
+    Map<String, GeneratedResult<?>> generatedResults = new LinkedHashMap<>();
+    for (TargetLanguage language : languages) {
+      List<CodeGenerator<?>> generators =
+          createGenerators(
+              productConfigInputs,
+              sampleConfigProto,
+              clientPackage,
+              language,
+              apiDefaultsConfig,
+              dependenciesConfig);
+      if (generators == null) {
+        return;
+      }
+      Map<String, GeneratedResult<?>> languageResults;
+      try (Profiler.Span span =
+          profiler.start(Profiler.STAGE, "generate_" + language.toString().toLowerCase())) {
+        languageResults =
+            new CodeGeneratorScheduler(options.get(GENERATOR_THREADS), profiler)
+                .generate(generators, model.getDiagReporter().getDiagCollector());
+      }
+      if (languageResults == null) {
+        return;
+      }
+
+      String outputPrefix = getOutputPrefix(languages, language);
+      for (Map.Entry<String, GeneratedResult<?>> entry : languageResults.entrySet()) {
+        generatedResults.put(outputPrefix + entry.getKey(), entry.getValue());
+      }
+    }
+
+    try (Profiler.Span span = profiler.start(Profiler.STAGE, "write_output")) {
+      gapicWriter.writeCodeGenOutput(generatedResults, model.getDiagReporter().getDiagCollector());
+    }
+  }
+
+  /** With several languages, each language is written to its own directory. */
+  private static String getOutputPrefix(List<TargetLanguage> languages, TargetLanguage language) {
+    return languages.size() > 1 ? language.toString().toLowerCase() + File.separator : "";
+  }
+
+  /** Creates the generators of one language, or returns null if the product config has errors. */
+  @Nullable
+  private List<CodeGenerator<?>> createGenerators(
+      GapicProductConfig.LanguageIndependentInputs productConfigInputs,
+      @Nullable SampleConfigProto sampleConfigProto,
+      @Nullable String clientPackage,
+      TargetLanguage language,
+      ApiDefaultsConfig apiDefaultsConfig,
+      DependenciesConfig dependenciesConfig)
+      throws IOException {
+    GapicProductConfig productConfig;
+    try (Profiler.Span span =
+        profiler.start(Profiler.STAGE, "product_config_" + language.toString().toLowerCase())) {
+      productConfig =
+          GapicProductConfig.create(
+              productConfigInputs, sampleConfigProto, clientPackage, language);
+    }
     if (productConfig == null) {
       ToolUtil.reportDiags(model.getDiagReporter().getDiagCollector(), true);
-      return;
+      return null;
     }
 
     PackagingConfig packagingConfig;
@@ -238,19 +437,31 @@ public class GapicGeneratorApp extends ToolDriverBase {
     // additional check to generate samples:
     // `sampleConfigProto != null`
     ArtifactFlags artifactFlags =
-        new ArtifactFlags(options.get(ENABLED_ARTIFACTS), artifactType, options.get(DEV_SAMPLES));
-    List<CodeGenerator<?>> generators =
-        GapicGeneratorFactory.create(language, model, productConfig, packageConfig, artifactFlags);
-    ImmutableMap.Builder<String, GeneratedResult<?>> generatedResults = ImmutableMap.builder();
-    for (CodeGenerator<?> generator : generators) {
-      Map<String, ? extends GeneratedResult<?>> generatorResult = generator.generate();
-      for (Map.Entry<String, ? extends GeneratedResult<?>> entry : generatorResult.entrySet()) {
-        generatedResults.put(entry.getKey(), entry.getValue());
+        new ArtifactFlags(
+            options.get(ENABLED_ARTIFACTS),
+            artifactType,
+            options.get(DEV_SAMPLES),
+            options.get(RENDER_THREADS),
+            profiler);
+    return GapicGeneratorFactory.create(
+        language, model, productConfig, packageConfig, artifactFlags);
+  }
+
+  private static List<TargetLanguage> parseLanguages(String languageOption) {
+    List<TargetLanguage> languages = new ArrayList<>();
+    for (String language :
+        Splitter.on(',').trimResults().omitEmptyStrings().split(languageOption)) {
+      TargetLanguage targetLanguage = TargetLanguage.fromString(language.toUpperCase());
+      if (languages.contains(targetLanguage)) {
+        throw new IllegalArgumentException(
+            "Language " + language + " is given more than once by --language option.");
       }
+      languages.add(targetLanguage);
     }
-
-    gapicWriter.writeCodeGenOutput(
-        generatedResults.build(), model.getDiagReporter().getDiagCollector());
+    if (languages.isEmpty()) {
+      throw new IllegalArgumentException("Language not set by --language option.");
+    }
+    return languages;
   }
 
   private ConfigSource loadConfigFromFiles(
@@ -261,8 +472,11 @@ public class GapicGeneratorApp extends ToolDriverBase {
     }
     ImmutableMap<String, Message> supportedConfigTypes =
         ImmutableMap.of(configClassName, defaultConfigInstance);
+    String cacheDir = options.get(CONFIG_CACHE_DIR);
+    YamlConfigCache cache =
+        Strings.isNullOrEmpty(cacheDir) ? null : new YamlConfigCache(Paths.get(cacheDir));
     return MultiYamlReader.read(
-        model.getDiagReporter().getDiagCollector(), configFiles, supportedConfigTypes);
+        model.getDiagReporter().getDiagCollector(), configFiles, supportedConfigTypes, cache);
   }
 
   private List<File> pathsToFiles(List<String> configFileNames) {
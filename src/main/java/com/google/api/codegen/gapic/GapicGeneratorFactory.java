@@ -118,6 +118,8 @@ public class GapicGeneratorFactory {
               GapicGenerator.newBuilder()
                   .setModel(model)
                   .setProductConfig(productConfig)
+                  .setRenderThreads(artifactFlags.renderThreads())
+                  .setProfiler(artifactFlags.profiler())
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CSharpRenderingUtil()))
                   .setModelToViewTransformer(transformer)
                   .build();
@@ -191,6 +193,8 @@ public class GapicGeneratorFactory {
             GapicGenerator.newBuilder()
                 .setModel(model)
                 .setProductConfig(productConfig)
+                .setRenderThreads(artifactFlags.renderThreads())
+                .setProfiler(artifactFlags.profiler())
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                 .setModelToViewTransformer(
                     new GoGapicSurfaceTransformer(new PackageNameCodePathMapper()))
@@ -202,6 +206,8 @@ public class GapicGeneratorFactory {
             GapicGenerator.newBuilder()
                 .setModel(model)
                 .setProductConfig(productConfig)
+                .setRenderThreads(artifactFlags.renderThreads())
+                .setProfiler(artifactFlags.profiler())
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                 .setModelToViewTransformer(new GoGapicSurfaceTestTransformer())
                 .build();
@@ -214,6 +220,8 @@ public class GapicGeneratorFactory {
               GapicGenerator.newBuilder()
                   .setModel(model)
                   .setProductConfig(productConfig)
+                  .setRenderThreads(artifactFlags.renderThreads())
+                  .setProfiler(artifactFlags.profiler())
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new JavaRenderingUtil()))
                   .setModelToViewTransformer(transformer)
                   .build();
@@ -221,9 +229,13 @@ public class GapicGeneratorFactory {
       if (artifactFlags.surfaceGeneratorEnabled()) {
         GapicCodePathMapper javaPathMapper =
             JavaGapicCodePathMapper.newBuilder().prefix("src/main/java").build();
+        GapicCodePathMapper javaBenchmarkPathMapper =
+            JavaGapicCodePathMapper.newBuilder().prefix("src/jmh/java").build();
 
         if (artifactFlags.codeFilesEnabled()) {
-          generators.add(newJavaGenerator.apply(new JavaGapicSurfaceTransformer(javaPathMapper)));
+          generators.add(
+              newJavaGenerator.apply(
+                  new JavaGapicSurfaceTransformer(javaPathMapper, javaBenchmarkPathMapper)));
           if (artifactFlags.devSamplesEnabled()) {
             generators.add(newJavaGenerator.apply(new JavaGapicSamplesTransformer()));
             generators.add(
@@ -276,6 +288,8 @@ public class GapicGeneratorFactory {
             GapicGenerator.newBuilder()
                 .setModel(model)
                 .setProductConfig(productConfig)
+                .setRenderThreads(artifactFlags.renderThreads())
+                .setProfiler(artifactFlags.profiler())
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                 .setModelToViewTransformer(
                     new NodeJSGapicSurfaceTransformer(nodeJSPathMapper, packageConfig))
@@ -285,6 +299,8 @@ public class GapicGeneratorFactory {
             GapicGenerator.newBuilder()
                 .setModel(model)
                 .setProductConfig(productConfig)
+                .setRenderThreads(artifactFlags.renderThreads())
+                .setProfiler(artifactFlags.profiler())
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                 .setModelToViewTransformer(new NodeJSPackageMetadataTransformer(packageConfig))
                 .build();
@@ -310,6 +326,8 @@ public class GapicGeneratorFactory {
               GapicGenerator.newBuilder()
                   .setModel(model)
                   .setProductConfig(productConfig)
+                  .setRenderThreads(artifactFlags.renderThreads())
+                  .setProfiler(artifactFlags.profiler())
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                   .setModelToViewTransformer(nodejsGapicSamplesTransformer)
                   .build();
@@ -317,6 +335,8 @@ public class GapicGeneratorFactory {
               GapicGenerator.newBuilder()
                   .setModel(model)
                   .setProductConfig(productConfig)
+                  .setRenderThreads(artifactFlags.renderThreads())
+                  .setProfiler(artifactFlags.profiler())
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                   .setModelToViewTransformer(
                       new NodeJSSamplePackageMetadataTransformer(packageConfig))
@@ -325,6 +345,8 @@ public class GapicGeneratorFactory {
               GapicGenerator.newBuilder()
                   .setModel(model)
                   .setProductConfig(productConfig)
+                  .setRenderThreads(artifactFlags.renderThreads())
+                  .setProfiler(artifactFlags.profiler())
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                   .setModelToViewTransformer(
                       nodejsGapicSamplesTransformer.createManifestTransformer())
@@ -338,6 +360,8 @@ public class GapicGeneratorFactory {
             GapicGenerator.newBuilder()
                 .setModel(model)
                 .setProductConfig(productConfig)
+                .setRenderThreads(artifactFlags.renderThreads())
+                .setProfiler(artifactFlags.profiler())
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                 .setModelToViewTransformer(new NodeJSGapicSurfaceDocTransformer())
                 .build();
@@ -349,6 +373,8 @@ public class GapicGeneratorFactory {
             GapicGenerator.newBuilder()
                 .setModel(model)
                 .setProductConfig(productConfig)
+                .setRenderThreads(artifactFlags.renderThreads())
+                .setProfiler(artifactFlags.profiler())
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                 .setModelToViewTransformer(new NodeJSGapicSurfaceTestTransformer())
                 .build();
@@ -364,6 +390,8 @@ public class GapicGeneratorFactory {
               GapicGenerator.newBuilder()
                   .setModel(model)
                   .setProductConfig(productConfig)
+                  .setRenderThreads(artifactFlags.renderThreads())
+                  .setProfiler(artifactFlags.profiler())
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                   .setModelToViewTransformer(
                       new PhpGapicSurfaceTransformer(productConfig, phpPathMapper, model))
@@ -388,6 +416,8 @@ public class GapicGeneratorFactory {
               GapicGenerator.newBuilder()
                   .setModel(model)
                   .setProductConfig(productConfig)
+                  .setRenderThreads(artifactFlags.renderThreads())
+                  .setProfiler(artifactFlags.profiler())
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                   .setModelToViewTransformer(new PhpPackageMetadataTransformer(packageConfig))
                   .build();
@@ -402,6 +432,8 @@ public class GapicGeneratorFactory {
               GapicGenerator.newBuilder()
                   .setModel(model)
                   .setProductConfig(productConfig)
+                  .setRenderThreads(artifactFlags.renderThreads())
+                  .setProfiler(artifactFlags.profiler())
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                   .setModelToViewTransformer(phpGapicSamplesTransformer)
                   .build();
@@ -409,6 +441,8 @@ public class GapicGeneratorFactory {
               GapicGenerator.newBuilder()
                   .setModel(model)
                   .setProductConfig(productConfig)
+                  .setRenderThreads(artifactFlags.renderThreads())
+                  .setProfiler(artifactFlags.profiler())
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                   .setModelToViewTransformer(phpGapicSamplesTransformer.createManifestTransformer())
                   .build();
@@ -421,6 +455,8 @@ public class GapicGeneratorFactory {
             GapicGenerator.newBuilder()
                 .setModel(model)
                 .setProductConfig(productConfig)
+                .setRenderThreads(artifactFlags.renderThreads())
+                .setProfiler(artifactFlags.profiler())
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                 .setModelToViewTransformer(new PhpGapicSurfaceTestTransformer())
                 .build();
@@ -434,6 +470,8 @@ public class GapicGeneratorFactory {
             GapicGenerator.newBuilder()
                 .setModel(model)
                 .setProductConfig(productConfig)
+                .setRenderThreads(artifactFlags.renderThreads())
+                .setProfiler(artifactFlags.profiler())
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new PythonRenderingUtil()))
                 .setModelToViewTransformer(
                     new PythonGapicSurfaceTransformer(pythonPathMapper, packageConfig))
@@ -458,6 +496,8 @@ public class GapicGeneratorFactory {
               GapicGenerator.newBuilder()
                   .setModel(model)
                   .setProductConfig(productConfig)
+                  .setRenderThreads(artifactFlags.renderThreads())
+                  .setProfiler(artifactFlags.profiler())
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new PythonRenderingUtil()))
                   .setModelToViewTransformer(pythonGapicSampleTransformer)
                   .build();
@@ -465,6 +505,8 @@ public class GapicGeneratorFactory {
               GapicGenerator.newBuilder()
                   .setModel(model)
                   .setProductConfig(productConfig)
+                  .setRenderThreads(artifactFlags.renderThreads())
+                  .setProfiler(artifactFlags.profiler())
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new PythonRenderingUtil()))
                   .setModelToViewTransformer(
                       pythonGapicSampleTransformer.createManifestTransformer())
@@ -477,6 +519,8 @@ public class GapicGeneratorFactory {
             GapicGenerator.newBuilder()
                 .setModel(model)
                 .setProductConfig(productConfig)
+                .setRenderThreads(artifactFlags.renderThreads())
+                .setProfiler(artifactFlags.profiler())
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new PythonRenderingUtil()))
                 .setModelToViewTransformer(new PythonPackageMetadataTransformer(packageConfig))
                 .build();
@@ -492,6 +536,8 @@ public class GapicGeneratorFactory {
             GapicGenerator.newBuilder()
                 .setModel(model)
                 .setProductConfig(productConfig)
+                .setRenderThreads(artifactFlags.renderThreads())
+                .setProfiler(artifactFlags.profiler())
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                 .setModelToViewTransformer(
                     new PythonGapicSurfaceTestTransformer(pythonTestPathMapper, packageConfig))
@@ -511,6 +557,8 @@ public class GapicGeneratorFactory {
             GapicGenerator.newBuilder()
                 .setModel(model)
                 .setProductConfig(productConfig)
+                .setRenderThreads(artifactFlags.renderThreads())
+                .setProfiler(artifactFlags.profiler())
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                 .setModelToViewTransformer(
                     new RubyGapicSurfaceTransformer(rubyPathMapper, packageConfig))
@@ -528,6 +576,8 @@ public class GapicGeneratorFactory {
             GapicGenerator.newBuilder()
                 .setModel(model)
                 .setProductConfig(productConfig)
+                .setRenderThreads(artifactFlags.renderThreads())
+                .setProfiler(artifactFlags.profiler())
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                 .setModelToViewTransformer(new RubyPackageMetadataTransformer(packageConfig))
                 .build();
@@ -539,6 +589,8 @@ public class GapicGeneratorFactory {
               GapicGenerator.newBuilder()
                   .setModel(model)
                   .setProductConfig(productConfig)
+                  .setRenderThreads(artifactFlags.renderThreads())
+                  .setProfiler(artifactFlags.profiler())
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                   .setModelToViewTransformer(rubyGapicSamplesTransformer)
                   .build();
@@ -546,6 +598,8 @@ public class GapicGeneratorFactory {
               GapicGenerator.newBuilder()
                   .setModel(model)
                   .setProductConfig(productConfig)
+                  .setRenderThreads(artifactFlags.renderThreads())
+                  .setProfiler(artifactFlags.profiler())
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                   .setModelToViewTransformer(
                       new RubySamplePackageMetadataTransformer(packageConfig))
@@ -554,6 +608,8 @@ public class GapicGeneratorFactory {
               GapicGenerator.newBuilder()
                   .setModel(model)
                   .setProductConfig(productConfig)
+                  .setRenderThreads(artifactFlags.renderThreads())
+                  .setProfiler(artifactFlags.profiler())
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                   .setModelToViewTransformer(
                       rubyGapicSamplesTransformer.createManifestTransformer())
@@ -570,6 +626,8 @@ public class GapicGeneratorFactory {
             GapicGenerator.newBuilder()
                 .setModel(model)
                 .setProductConfig(productConfig)
+                .setRenderThreads(artifactFlags.renderThreads())
+                .setProfiler(artifactFlags.profiler())
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                 .setModelToViewTransformer(
                     new RubyGapicSurfaceDocTransformer(rubyPathMapper, packageConfig))
@@ -585,6 +643,8 @@ public class GapicGeneratorFactory {
             GapicGenerator.newBuilder()
                 .setModel(model)
                 .setProductConfig(productConfig)
+                .setRenderThreads(artifactFlags.renderThreads())
+                .setProfiler(artifactFlags.profiler())
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
                 .setModelToViewTransformer(
                     new RubyGapicSurfaceTestTransformer(
@@ -66,8 +66,11 @@ public class LegacyGapicGenerator implements CodeGenerator<Doc> {
   }
 
   private Map<String, GeneratedResult<Doc>> generate(String snippetFileName) {
-    // Establish required stage for generation.
-    model.establishStage(Merged.KEY);
+    // Establish required stage for generation. The model is shared with generators running
+    // concurrently; once the stage is established this only reads it.
+    synchronized (model) {
+      model.establishStage(Merged.KEY);
+    }
     if (model.getDiagReporter().getDiagCollector().getErrorCount() > 0) {
       return ImmutableMap.of();
     }
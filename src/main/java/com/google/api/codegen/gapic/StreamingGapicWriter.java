@@ -0,0 +1,38 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.gapic;
+
+import com.google.api.codegen.common.GeneratedResult;
+import com.google.api.tools.framework.model.DiagCollector;
+import java.io.IOException;
+
+/**
+ * A GapicWriter that can also write the generator output one file at a time, as soon as each file
+ * is generated, instead of waiting for all generators to finish.
+ */
+public interface StreamingGapicWriter extends GapicWriter {
+
+  /**
+   * Writes one generated file. If the same path is written more than once, the last file wins. May
+   * be called concurrently by several generators.
+   */
+  void writeGeneratedFile(String path, GeneratedResult<?> result) throws IOException;
+
+  /**
+   * Finishes writing files passed to {@link #writeGeneratedFile}, and reports any problems
+   * encountered while writing them.
+   */
+  void finishGeneratedFiles(DiagCollector diagCollector) throws IOException;
+}
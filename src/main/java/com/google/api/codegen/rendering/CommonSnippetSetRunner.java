@@ -17,7 +17,6 @@ package com.google.api.codegen.rendering;
 import com.google.api.codegen.common.GeneratedResult;
 import com.google.api.codegen.viewmodel.ViewModel;
 import com.google.api.tools.framework.snippet.Doc;
-import com.google.api.tools.framework.snippet.SnippetSet;
 import com.google.common.collect.ImmutableMap;
 import java.util.Map;
 
@@ -41,7 +40,7 @@ public class CommonSnippetSetRunner {
 
   public Map<String, GeneratedResult<Doc>> generate(ViewModel input) {
     SurfaceSnippetSet snippets =
-        SnippetSet.createSnippetInterface(
+        SnippetSetCache.createSnippetInterface(
             SurfaceSnippetSet.class,
             input.resourceRoot(),
             input.templateFileName(),
@@ -0,0 +1,87 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.rendering;
+
+import com.google.api.tools.framework.snippet.SnippetSet;
+import com.google.auto.value.AutoValue;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A process-wide cache of parsed snippet templates.
+ *
+ * <p>Parsing and linking a template (including the templates it extends or imports) dominates the
+ * cost of {@link SnippetSet#createSnippetInterface}, and the same handful of templates is rendered
+ * once per interface or file. Parsed snippet sets are immutable, so they are shared between all
+ * runners and threads. Bound snippet interfaces hold mutable evaluation state and are therefore
+ * created per call; binding is cheap compared to parsing.
+ */
+public final class SnippetSetCache {
+
+  private static final ConcurrentMap<TemplateKey, SnippetSet> SNIPPET_SETS =
+      new ConcurrentHashMap<>();
+
+  private SnippetSetCache() {}
+
+  /**
+   * Equivalent to {@link SnippetSet#createSnippetInterface(Class, String, String, Map)}, except
+   * that the template is parsed at most once per process.
+   */
+  public static <T> T createSnippetInterface(
+      Class<T> snippetInterface,
+      String resourceRoot,
+      String templateFileName,
+      Map<String, Object> globals) {
+    Preconditions.checkNotNull(snippetInterface);
+    return getSnippetSet(resourceRoot, templateFileName).bind(snippetInterface, globals);
+  }
+
+  private static SnippetSet getSnippetSet(String resourceRoot, String templateFileName) {
+    TemplateKey key = TemplateKey.create(resourceRoot, templateFileName);
+    SnippetSet snippetSet = SNIPPET_SETS.get(key);
+    if (snippetSet != null) {
+      return snippetSet;
+    }
+    try {
+      snippetSet =
+          SnippetSet.parse(SnippetSet.resourceInputSupplier(resourceRoot), templateFileName);
+    } catch (SnippetSet.ParseException e) {
+      throw new RuntimeException(e);
+    }
+    // Concurrent misses may parse the same template twice; the first parsed set wins.
+    SnippetSet existing = SNIPPET_SETS.putIfAbsent(key, snippetSet);
+    return existing != null ? existing : snippetSet;
+  }
+
+  @VisibleForTesting
+  static int size() {
+    return SNIPPET_SETS.size();
+  }
+
+  @AutoValue
+  abstract static class TemplateKey {
+    abstract String resourceRoot();
+
+    abstract String templateFileName();
+
+    static TemplateKey create(String resourceRoot, String templateFileName) {
+      return new AutoValue_SnippetSetCache_TemplateKey(
+          Preconditions.checkNotNull(resourceRoot), Preconditions.checkNotNull(templateFileName));
+    }
+  }
+}
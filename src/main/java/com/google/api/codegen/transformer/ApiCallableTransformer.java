@@ -396,6 +396,7 @@ public class ApiCallableTransformer {
     methodDescriptorBuilder.protoMethodName(method.getSimpleName());
     methodDescriptorBuilder.fullServiceName(context.getTargetInterface().getFullName());
     methodDescriptorBuilder.transportSettingsVar(namer.getTransportSettingsVar(method));
+    methodDescriptorBuilder.paramsExtractorName(namer.getParamsExtractorName(method));
 
     methodDescriptorBuilder.headerRequestParams(
         headerRequestParamTransformer.generateHeaderRequestParams(context));
@@ -75,6 +75,8 @@ public class BatchingTransformer {
 
     batchingConfigView.elementCountThreshold(batchingConfig.getElementCountThreshold());
     batchingConfigView.requestByteThreshold(batchingConfig.getRequestByteThreshold());
+    batchingConfigView.elementCountLimit(batchingConfig.getElementCountLimit());
+    batchingConfigView.requestByteLimit(batchingConfig.getRequestByteLimit());
     batchingConfigView.delayThresholdMillis(batchingConfig.getDelayThresholdMillis());
     batchingConfigView.flowControlElementLimit(batchingConfig.getFlowControlElementLimit());
     batchingConfigView.flowControlByteLimit(batchingConfig.getFlowControlByteLimit());
@@ -92,7 +94,7 @@ public class BatchingTransformer {
     return fieldNames.build();
   }
 
-  private BatchingDescriptorClassView generateDescriptorClass(MethodContext context) {
+  public BatchingDescriptorClassView generateDescriptorClass(MethodContext context) {
     SurfaceNamer namer = context.getNamer();
     MethodModel method = context.getMethodModel();
     BatchingConfig batching = context.getMethodConfig().getBatching();
@@ -117,6 +119,7 @@ public class BatchingTransformer {
 
     if (subresponseField != null) {
       desc.subresponseTypeName(context.getTypeTable().getAndSaveNicknameFor(subresponseField));
+      desc.subresponseGetFunction(namer.getFieldGetFunctionName(subresponseField));
       desc.subresponseByIndexGetFunction(namer.getByIndexGetFunctionName(subresponseField));
       desc.subresponseSetFunction(namer.getFieldSetFunctionName(subresponseField));
     }
@@ -129,9 +132,14 @@ public class BatchingTransformer {
     BatchingConfig batching = context.getMethodConfig().getBatching();
     for (GenericFieldSelector fieldSelector : batching.getDiscriminatorFields()) {
       FieldModel selectedType = fieldSelector.getLastField();
+      ImmutableList.Builder<String> getFunctionChain = ImmutableList.builder();
+      for (FieldModel field : fieldSelector.getFields()) {
+        getFunctionChain.add(context.getNamer().getFieldGetFunctionName(field));
+      }
       BatchingPartitionKeyView key =
           BatchingPartitionKeyView.newBuilder()
               .fieldGetFunction(context.getNamer().getFieldGetFunctionName(selectedType))
+              .fieldGetFunctionChain(getFunctionChain.build())
               .build();
       keys.add(key);
     }
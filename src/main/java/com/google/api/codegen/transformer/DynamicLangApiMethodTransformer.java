@@ -52,6 +52,7 @@ public class DynamicLangApiMethodTransformer {
   private final HeaderRequestParamTransformer headerRequestParamTransformer =
       new HeaderRequestParamTransformer();
   private final PageStreamingTransformer pageStreamingTransformer = new PageStreamingTransformer();
+  private final BatchingTransformer batchingTransformer = new BatchingTransformer();
   private final SampleTransformer sampleTransformer;
 
   public DynamicLangApiMethodTransformer(ApiMethodParamTransformer apiMethodParamTransformer) {
@@ -149,6 +150,9 @@ public class DynamicLangApiMethodTransformer {
     OptionalArrayMethodView.Builder apiMethod = OptionalArrayMethodView.newBuilder();
 
     apiMethod.type(ClientMethodType.OptionalArrayMethod);
+    if (context.getMethodConfig().isBatching()) {
+      apiMethod.batchingConfig(batchingTransformer.generateBatchingConfig(context));
+    }
     generateMethodCommon(
         context,
         initContext,
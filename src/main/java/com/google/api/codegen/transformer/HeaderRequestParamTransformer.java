@@ -56,6 +56,7 @@ public class HeaderRequestParamTransformer {
     ImmutableList.Builder<String> gettersChain = ImmutableList.builder();
 
     MessageType subMessageType = inputMessageType;
+    boolean isStringField = false;
     for (String fieldNameToken : fieldNameTokens) {
       Field matchingField = subMessageType.lookupField(fieldNameToken);
       if (matchingField == null) {
@@ -67,8 +68,10 @@ public class HeaderRequestParamTransformer {
                 + "'");
       }
 
-      String matchingFieldGetter = namer.getFieldGetFunctionName(new ProtoField(matchingField));
+      ProtoField protoField = new ProtoField(matchingField);
+      String matchingFieldGetter = namer.getFieldGetFunctionName(protoField);
       gettersChain.add(matchingFieldGetter);
+      isStringField = protoField.isString();
       if (matchingField.getType() != null && matchingField.getType().isMessage()) {
         subMessageType = matchingField.getType().getMessageType();
       }
@@ -77,7 +80,8 @@ public class HeaderRequestParamTransformer {
     HeaderRequestParamView.Builder headerParam =
         HeaderRequestParamView.newBuilder()
             .fullyQualifiedName(headerRequestParam)
-            .gettersChain(gettersChain.build());
+            .gettersChain(gettersChain.build())
+            .isStringField(isStringField);
 
     return headerParam.build();
   }
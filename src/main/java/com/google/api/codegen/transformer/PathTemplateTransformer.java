@@ -27,6 +27,7 @@ import com.google.api.codegen.config.SingleResourceNameConfig;
 import com.google.api.codegen.viewmodel.FormatResourceFunctionView;
 import com.google.api.codegen.viewmodel.ParseResourceFunctionView;
 import com.google.api.codegen.viewmodel.PathTemplateGetterFunctionView;
+import com.google.api.codegen.viewmodel.PathTemplatePartView;
 import com.google.api.codegen.viewmodel.PathTemplateView;
 import com.google.api.codegen.viewmodel.ResourceIdParamView;
 import com.google.api.codegen.viewmodel.ResourceNameFixedView;
@@ -40,11 +41,17 @@ import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /** PathTemplateTransformer generates view objects for path templates from a service model. */
 public class PathTemplateTransformer {
   private static final String VAR_PLACE_HOLDER = "__GAPIC_VARIABLE__";
 
+  private static final Pattern SINGLE_SEGMENT_VARIABLE =
+      Pattern.compile("\\{([a-zA-Z_][a-zA-Z0-9_]*)(=\\*)?\\}");
+  private static final Pattern PLAIN_LITERAL_SEGMENT = Pattern.compile("[a-zA-Z0-9_.~-]+");
+
   public List<PathTemplateView> generatePathTemplates(InterfaceContext context) {
     List<PathTemplateView> pathTemplates = new ArrayList<>();
     if (!context.getFeatureConfig().enableStringFormatFunctions()) {
@@ -291,4 +298,47 @@ public class PathTemplateTransformer {
 
     return functions;
   }
+
+  /**
+   * Splits a path template into literal and variable parts, so that its matching and instantiation
+   * can be unrolled into segment-by-segment code. Returns an empty list unless every segment is
+   * either a plain literal or a variable binding exactly one segment, and there is at least one
+   * variable. Other templates (wildcards, multi-segment bindings, custom verbs, ...) must keep
+   * going through PathTemplate.
+   */
+  public List<PathTemplatePartView> generatePathTemplateParts(String pattern) {
+    List<PathTemplatePartView> parts = new ArrayList<>();
+    Set<String> variables = new HashSet<>();
+    StringBuilder literal = new StringBuilder();
+    String[] segments = pattern.split("/", -1);
+    for (int i = 0; i < segments.length; i++) {
+      if (i > 0) {
+        literal.append('/');
+      }
+      Matcher variable = SINGLE_SEGMENT_VARIABLE.matcher(segments[i]);
+      if (variable.matches()) {
+        if (!variables.add(variable.group(1))) {
+          return ImmutableList.of();
+        }
+        if (literal.length() > 0) {
+          parts.add(PathTemplatePartView.newBuilder().literal(literal.toString()).build());
+          literal.setLength(0);
+        }
+        parts.add(PathTemplatePartView.newBuilder().variable(variable.group(1)).build());
+      } else if (PLAIN_LITERAL_SEGMENT.matcher(segments[i]).matches()) {
+        literal.append(segments[i]);
+      } else {
+        return ImmutableList.of();
+      }
+    }
+    if (literal.length() > 0) {
+      parts.add(PathTemplatePartView.newBuilder().literal(literal.toString()).build());
+    }
+    if (variables.isEmpty()) {
+      return ImmutableList.of();
+    }
+    int last = parts.size() - 1;
+    parts.set(last, parts.get(last).toBuilder().isLast(true).build());
+    return parts;
+  }
 }
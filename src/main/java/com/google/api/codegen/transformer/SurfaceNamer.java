@@ -35,6 +35,7 @@ import com.google.api.codegen.config.TypeModel;
 import com.google.api.codegen.config.VisibilityConfig;
 import com.google.api.codegen.discovery.Document;
 import com.google.api.codegen.discovery.Schema;
+import com.google.api.codegen.util.CommentCache;
 import com.google.api.codegen.util.CommentReformatter;
 import com.google.api.codegen.util.CommonRenderingUtil;
 import com.google.api.codegen.util.Name;
@@ -617,6 +618,11 @@ public class SurfaceNamer extends NameFormatterDelegator {
     return privateFieldName(Name.anyCamel(method.getSimpleName(), "MethodDescriptor"));
   }
 
+  /** The name of the constant holding the RequestParamsExtractor for the given method. */
+  public String getParamsExtractorName(MethodModel method) {
+    return privateFieldName(Name.anyCamel(method.getSimpleName(), "ParamsExtractor"));
+  }
+
   public String getTransportSettingsVar(MethodModel method) {
     return localVarName(Name.anyCamel(method.getSimpleName(), "TransportSettings"));
   }
@@ -626,6 +632,36 @@ public class SurfaceNamer extends NameFormatterDelegator {
     return publicMethodName(method.asName().join("settings"));
   }
 
+  /** The name of the batching settings member for the given method. */
+  public String getBatchingSettingsMemberName(MethodModel method) {
+    return publicMethodName(method.asName().join("batching").join("settings"));
+  }
+
+  /** The name of the method that creates a batcher for the given method. */
+  public String getBatcherMethodName(MethodModel method) {
+    return publicMethodName(Name.from("create").join(method.asName()).join("batcher"));
+  }
+
+  /** The type name of the batcher for the given method. */
+  public String getBatcherTypeName(MethodModel method) {
+    return publicClassName(method.asName().join("batcher"));
+  }
+
+  /** The type name of the result of a request added to the batcher for the given method. */
+  public String getBatcherResultTypeName(MethodModel method) {
+    return getNotImplementedString("SurfaceNamer.getBatcherResultTypeName");
+  }
+
+  /** The type name of the partition key of the batcher for the given method. */
+  public String getBatcherPartitionKeyTypeName(MethodModel method) {
+    return getNotImplementedString("SurfaceNamer.getBatcherPartitionKeyTypeName");
+  }
+
+  /** The type name of an element queued in the batcher for the given method. */
+  public String getBatcherItemTypeName(MethodModel method) {
+    return getNotImplementedString("SurfaceNamer.getBatcherItemTypeName");
+  }
+
   /** The name of the settings member name for the given method. */
   public String getOperationSettingsMemberName(MethodModel method) {
     return getSettingsMemberName(method);
@@ -1379,7 +1415,7 @@ public class SurfaceNamer extends NameFormatterDelegator {
 
   /** Converts the given text to doc lines in the format of the current language. */
   public List<String> getDocLines(String text) {
-    return CommonRenderingUtil.getDocLines(commentReformatter.reformat(text));
+    return CommentCache.getDocLines(commentReformatter, text);
   }
 
   /**
@@ -1392,7 +1428,7 @@ public class SurfaceNamer extends NameFormatterDelegator {
 
   protected List<String> getWrappedDocLines(String text, boolean reformat, int maxWidth) {
     if (reformat) {
-      return CommonRenderingUtil.getDocLines(getCommentReformatter().reformat(text), maxWidth);
+      return CommentCache.getDocLines(getCommentReformatter(), text, maxWidth);
     }
     return CommonRenderingUtil.getDocLines(text, maxWidth);
   }
@@ -1407,7 +1443,7 @@ public class SurfaceNamer extends NameFormatterDelegator {
           .append("\nThe key for the map is: ")
           .append(schema.additionalProperties().description());
     }
-    return CommonRenderingUtil.getDocLines(commentReformatter.reformat(description.toString()));
+    return CommentCache.getDocLines(commentReformatter, description.toString());
   }
 
   /** Provides the doc lines for the given field in the current language. */
@@ -60,6 +60,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /** TestCaseTransformer contains helper methods useful for creating test views. */
 public class TestCaseTransformer {
@@ -497,4 +498,24 @@ public class TestCaseTransformer {
         .orElseThrow(
             () -> new IllegalArgumentException("No available flattening for smoke test to use."));
   }
+
+  /**
+   * Returns the kind of value a test can change to move a request to another partition, or null if
+   * the field is not a singular scalar.
+   */
+  @Nullable
+  public static String getPartitionFieldKind(FieldModel field) {
+    if (field.isRepeated() || field.isMap() || field.isMessage()) {
+      return null;
+    }
+    TypeModel type = field.getType();
+    if (type.isBooleanType()) {
+      return "Boolean";
+    } else if (type.isBytesType()) {
+      return "Bytes";
+    } else if (type.isStringType()) {
+      return "String";
+    }
+    return "Number";
+  }
 }
@@ -30,11 +30,13 @@ import com.google.api.codegen.config.ProtoApiModel;
 import com.google.api.codegen.config.ResourceNameConfig;
 import com.google.api.codegen.config.ResourceNameMessageConfigs;
 import com.google.api.codegen.config.ResourceNameType;
+import com.google.api.codegen.config.VisibilityConfig;
 import com.google.api.codegen.gapic.GapicCodePathMapper;
 import com.google.api.codegen.transformer.ApiCallableTransformer;
 import com.google.api.codegen.transformer.BatchingTransformer;
 import com.google.api.codegen.transformer.FileHeaderTransformer;
 import com.google.api.codegen.transformer.ModelToViewTransformer;
+import com.google.api.codegen.transformer.ModelTypeTable;
 import com.google.api.codegen.transformer.PageStreamingTransformer;
 import com.google.api.codegen.transformer.PathTemplateTransformer;
 import com.google.api.codegen.transformer.RetryDefinitionsTransformer;
@@ -48,6 +50,7 @@ import com.google.api.codegen.util.csharp.CSharpTypeTable;
 import com.google.api.codegen.viewmodel.ApiCallSettingsView;
 import com.google.api.codegen.viewmodel.ApiCallableImplType;
 import com.google.api.codegen.viewmodel.ApiCallableView;
+import com.google.api.codegen.viewmodel.BatcherMethodView;
 import com.google.api.codegen.viewmodel.ClientMethodType;
 import com.google.api.codegen.viewmodel.ModifyMethodView;
 import com.google.api.codegen.viewmodel.ResourceNameSingleView;
@@ -62,6 +65,7 @@ import com.google.api.codegen.viewmodel.StaticLangApiView;
 import com.google.api.codegen.viewmodel.StaticLangResourceNamesView;
 import com.google.api.codegen.viewmodel.StaticLangSettingsView;
 import com.google.api.codegen.viewmodel.ViewModel;
+import com.google.api.codegen.viewmodel.metadata.SimpleInitFileView;
 import com.google.common.collect.ListMultimap;
 import java.io.File;
 import java.util.ArrayList;
@@ -81,6 +85,7 @@ public class CSharpGapicClientTransformer implements ModelToViewTransformer<Prot
 
   private static final String API_TEMPLATE_FILENAME = "csharp/gapic_client.snip";
   private static final String RESOURCENAMES_TEMPLATE_FILENAME = "csharp/gapic_resourcenames.snip";
+  private static final String BATCHING_TEMPLATE_FILENAME = "csharp/gapic_batching.snip";
 
   private static final CSharpAliasMode ALIAS_MODE = CSharpAliasMode.Global;
 
@@ -110,6 +115,7 @@ public class CSharpGapicClientTransformer implements ModelToViewTransformer<Prot
     CSharpFeatureConfig featureConfig = new CSharpFeatureConfig();
 
     InterfaceModel lastApiInterface = null;
+    boolean hasBatchingMethods = false;
     for (InterfaceModel apiInterface : model.getInterfaces(productConfig)) {
       if (!productConfig.hasInterfaceConfig(apiInterface)) {
         continue;
@@ -125,6 +131,7 @@ public class CSharpGapicClientTransformer implements ModelToViewTransformer<Prot
 
       surfaceDocs.add(generateApiAndSettingsView(context));
       lastApiInterface = apiInterface;
+      hasBatchingMethods |= !context.getBatchingMethods().isEmpty();
     }
 
     GapicInterfaceContext context =
@@ -135,13 +142,41 @@ public class CSharpGapicClientTransformer implements ModelToViewTransformer<Prot
             namer,
             featureConfig);
     surfaceDocs.add(generateResourceNamesView(context));
+    if (hasBatchingMethods) {
+      surfaceDocs.add(generateBatchingView(lastApiInterface, productConfig, namer));
+    }
 
     return surfaceDocs;
   }
 
   @Override
   public List<String> getTemplateFileNames() {
-    return Arrays.asList(API_TEMPLATE_FILENAME, RESOURCENAMES_TEMPLATE_FILENAME);
+    return Arrays.asList(
+        API_TEMPLATE_FILENAME, RESOURCENAMES_TEMPLATE_FILENAME, BATCHING_TEMPLATE_FILENAME);
+  }
+
+  /** Generates the batcher shared by the clients of the package that have batching methods. */
+  private SimpleInitFileView generateBatchingView(
+      InterfaceModel apiInterface, GapicProductConfig productConfig, SurfaceNamer namer) {
+    GapicInterfaceContext context =
+        GapicInterfaceContext.create(
+            apiInterface,
+            productConfig,
+            csharpCommonTransformer.createTypeTable(productConfig.getPackageName(), ALIAS_MODE),
+            namer,
+            new CSharpFeatureConfig());
+    String outputPath = pathMapper.getOutputPath(apiInterface.getFullName(), productConfig);
+    ModelTypeTable typeTable = context.getImportTypeTable();
+    typeTable.saveNicknameFor("Google.Api.Gax.GaxPreconditions");
+    typeTable.saveNicknameFor("Google.Protobuf.IMessage");
+    typeTable.saveNicknameFor("System.Exception");
+    typeTable.saveNicknameFor("System.Collections.Generic.List");
+    typeTable.saveNicknameFor("System.Threading.Monitor");
+    typeTable.saveNicknameFor("System.Threading.Tasks.Task");
+    return SimpleInitFileView.create(
+        BATCHING_TEMPLATE_FILENAME,
+        outputPath + File.separator + "Batching.cs",
+        fileHeaderTransformer.generateFileHeader(context));
   }
 
   private StaticLangResourceNamesView generateResourceNamesView(GapicInterfaceContext context) {
@@ -317,6 +352,7 @@ public class CSharpGapicClientTransformer implements ModelToViewTransformer<Prot
     apiClass.hasLongRunningOperations(context.getInterfaceConfig().hasLongRunningOperations());
     apiClass.reroutedGrpcClients(csharpCommonTransformer.generateReroutedGrpcView(context));
     apiClass.modifyMethods(generateModifyMethods(context));
+    apiClass.batcherMethods(generateBatcherMethods(context));
     apiClass.apiHasUnaryMethod(
         methods.stream().anyMatch(m -> m.grpcStreamingType() == GrpcStreamingType.NonStreaming));
     apiClass.apiHasServerStreamingMethod(
@@ -405,6 +441,40 @@ public class CSharpGapicClientTransformer implements ModelToViewTransformer<Prot
     return modifyMethods;
   }
 
+  private List<BatcherMethodView> generateBatcherMethods(GapicInterfaceContext context) {
+    SurfaceNamer namer = context.getNamer();
+    List<BatcherMethodView> batcherMethods = new ArrayList<>();
+    for (MethodModel method : csharpCommonTransformer.getSupportedMethods(context)) {
+      MethodConfig methodConfig = context.getMethodConfig(method);
+      if (!methodConfig.isBatching() || methodConfig.isGrpcStreaming()) {
+        continue;
+      }
+      MethodContext methodContext = context.asRequestMethodContext(method);
+      BatcherMethodView.Builder builder = BatcherMethodView.newBuilder();
+      builder.name(namer.getBatcherMethodName(method));
+      builder.methodName(namer.getApiMethodName(method, VisibilityConfig.PUBLIC));
+      builder.requestTypeName(
+          method.getAndSaveRequestTypeName(context.getImportTypeTable(), namer));
+      builder.responseTypeName(
+          method.getAndSaveResponseTypeName(context.getImportTypeTable(), namer));
+      builder.callableName(namer.getCallableName(method));
+      builder.modifyMethodName(namer.getModifyMethodName(methodContext));
+      builder.batchingSettingsName(namer.getBatchingSettingsMemberName(method));
+      builder.batchingSettingsFieldName(
+          namer.privateFieldName(Name.upperCamel(method.getSimpleName(), "BatchingSettings")));
+      builder.batchingConfig(batchingTransformer.generateBatchingConfig(methodContext));
+      builder.descriptor(batchingTransformer.generateDescriptorClass(methodContext));
+      batcherMethods.add(builder.build());
+    }
+    if (!batcherMethods.isEmpty()) {
+      ModelTypeTable typeTable = context.getImportTypeTable();
+      typeTable.saveNicknameFor("System.Tuple");
+      typeTable.saveNicknameFor("System.Collections.Generic.IReadOnlyList");
+      typeTable.saveNicknameFor("System.Linq.Enumerable");
+    }
+    return batcherMethods;
+  }
+
   public SettingsDocView generateSettingsDoc(GapicInterfaceContext context) {
     SurfaceNamer namer = context.getNamer();
     SettingsDocView.Builder settingsDoc = SettingsDocView.newBuilder();
@@ -14,11 +14,14 @@
  */
 package com.google.api.codegen.transformer.csharp;
 
+import com.google.api.codegen.config.BatchingConfig;
 import com.google.api.codegen.config.FieldConfig;
+import com.google.api.codegen.config.FieldModel;
 import com.google.api.codegen.config.FlatteningConfig;
 import com.google.api.codegen.config.GapicInterfaceContext;
 import com.google.api.codegen.config.GapicMethodContext;
 import com.google.api.codegen.config.GapicProductConfig;
+import com.google.api.codegen.config.GenericFieldSelector;
 import com.google.api.codegen.config.InterfaceModel;
 import com.google.api.codegen.config.MethodConfig;
 import com.google.api.codegen.config.MethodContext;
@@ -27,6 +30,7 @@ import com.google.api.codegen.config.ProtoApiModel;
 import com.google.api.codegen.gapic.GapicCodePathMapper;
 import com.google.api.codegen.metacode.InitCodeContext;
 import com.google.api.codegen.metacode.InitCodeContext.InitCodeOutputType;
+import com.google.api.codegen.metacode.InitCodeNode;
 import com.google.api.codegen.transformer.FileHeaderTransformer;
 import com.google.api.codegen.transformer.InitCodeTransformer;
 import com.google.api.codegen.transformer.MockServiceTransformer;
@@ -45,9 +49,11 @@ import com.google.api.codegen.util.testing.ValueProducer;
 import com.google.api.codegen.viewmodel.ClientMethodType;
 import com.google.api.codegen.viewmodel.FileHeaderView;
 import com.google.api.codegen.viewmodel.ViewModel;
+import com.google.api.codegen.viewmodel.testing.BatchingTestView;
 import com.google.api.codegen.viewmodel.testing.ClientTestClassView;
 import com.google.api.codegen.viewmodel.testing.ClientTestFileView;
 import com.google.api.codegen.viewmodel.testing.TestCaseView;
+import com.google.common.collect.ImmutableList;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -204,6 +210,9 @@ public class CSharpGapicUnitTestTransformer implements ModelToViewTransformer<Pr
         testCaseViews.add(
             createRequestObjectTestCase(
                 requestContext, methodConfig, testNameTable, Synchronicity.Async));
+        if (methodConfig.isBatching()) {
+          testCaseViews.add(createBatcherTestCase(requestContext, methodConfig, testNameTable));
+        }
       } else {
         if (methodConfig.isPageStreaming()
             || defaultMethodContext.isLongRunningMethodContext()
@@ -218,6 +227,9 @@ public class CSharpGapicUnitTestTransformer implements ModelToViewTransformer<Pr
         testCaseViews.add(
             createRequestObjectTestCase(
                 requestContext, methodConfig, testNameTable, Synchronicity.Async));
+        if (methodConfig.isBatching()) {
+          testCaseViews.add(createBatcherTestCase(requestContext, methodConfig, testNameTable));
+        }
       }
     }
     return testCaseViews;
@@ -247,6 +259,70 @@ public class CSharpGapicUnitTestTransformer implements ModelToViewTransformer<Pr
         null);
   }
 
+  /**
+   * Returns a test case for the batcher of a batching method. Its request holds one batched
+   * element, so that merged requests and split responses can be told apart.
+   */
+  private TestCaseView createBatcherTestCase(
+      GapicMethodContext requestContext, MethodConfig methodConfig, SymbolTable testNameTable) {
+    BatchingConfig batching = methodConfig.getBatching();
+    SurfaceNamer namer = requestContext.getNamer();
+    MethodModel method = requestContext.getMethodModel();
+    Collection<FieldConfig> fieldConfigs = methodConfig.getRequiredFieldConfigs();
+    InitCodeContext initCodeContext =
+        InitCodeContext.newBuilder()
+            .initObjectType(method.getInputType())
+            .symbolTable(new SymbolTable())
+            .suggestedName(Name.from("request"))
+            .initFieldConfigStrings(methodConfig.getSampleCodeInitFields())
+            .initValueConfigMap(InitCodeTransformer.createCollectionMap(requestContext))
+            .initFields(FieldConfig.toFieldTypeIterable(fieldConfigs))
+            .fieldConfigMap(FieldConfig.toFieldConfigMap(fieldConfigs))
+            .outputType(InitCodeOutputType.SingleObject)
+            .valueGenerator(valueGenerator)
+            .additionalInitCodeNodes(
+                ImmutableList.of(
+                    InitCodeNode.createSingletonList(batching.getBatchedField().getSimpleName())))
+            .build();
+    TestCaseView testCase =
+        testCaseTransformer.createTestCaseView(
+            requestContext,
+            new SymbolTable(),
+            initCodeContext,
+            ClientMethodType.AsyncRequestObjectCallSettingsMethod,
+            Synchronicity.Async,
+            null,
+            null);
+
+    BatchingTestView.Builder batchingView =
+        BatchingTestView.newBuilder()
+            .batchedFieldName(namer.getFieldGetFunctionName(batching.getBatchedField()));
+    if (batching.hasSubresponseField()) {
+      batchingView.subresponseFieldName(
+          namer.getFieldGetFunctionName(batching.getSubresponseField()));
+    }
+    for (GenericFieldSelector discriminator : batching.getDiscriminatorFields()) {
+      String kind = TestCaseTransformer.getPartitionFieldKind(discriminator.getLastField());
+      if (kind != null) {
+        List<String> getters = new ArrayList<>();
+        for (FieldModel field : discriminator.getFields()) {
+          getters.add(namer.getFieldGetFunctionName(field));
+        }
+        batchingView.partitionFieldName(String.join(".", getters));
+        batchingView.partitionFieldKind(kind);
+        break;
+      }
+    }
+
+    String name = namer.getBatcherMethodName(method);
+    return testCase
+        .toBuilder()
+        .name(testNameTable.getNewSymbol(name))
+        .clientMethodName(name)
+        .batchingView(batchingView.build())
+        .build();
+  }
+
   private TestCaseView createFlattenedTestCase(
       MethodContext methodContext,
       GapicMethodContext requestContext,
@@ -473,6 +473,11 @@ public class CSharpSurfaceNamer extends SurfaceNamer {
     return publicClassName(Name.upperCamel(getInterfaceName(interfaceConfig), "ClientImpl"));
   }
 
+  @Override
+  public String getBatchingDescriptorConstName(MethodModel method) {
+    return publicClassName(Name.upperCamel(method.getSimpleName(), "BatchingDescriptor"));
+  }
+
   @Override
   public String getPageStreamingDescriptorConstName(MethodModel method) {
     return inittedConstantName(Name.upperCamel(method.getSimpleName()));
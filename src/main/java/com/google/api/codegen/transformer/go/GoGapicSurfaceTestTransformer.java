@@ -15,17 +15,23 @@
 package com.google.api.codegen.transformer.go;
 
 import com.google.api.codegen.config.ApiModel;
+import com.google.api.codegen.config.BatchingConfig;
+import com.google.api.codegen.config.FieldConfig;
+import com.google.api.codegen.config.FieldModel;
 import com.google.api.codegen.config.GapicInterfaceContext;
 import com.google.api.codegen.config.GapicMethodContext;
 import com.google.api.codegen.config.GapicProductConfig;
+import com.google.api.codegen.config.GenericFieldSelector;
 import com.google.api.codegen.config.InterfaceConfig;
 import com.google.api.codegen.config.InterfaceContext;
 import com.google.api.codegen.config.InterfaceModel;
+import com.google.api.codegen.config.MethodConfig;
 import com.google.api.codegen.config.MethodContext;
 import com.google.api.codegen.config.MethodModel;
 import com.google.api.codegen.config.ProtoApiModel;
 import com.google.api.codegen.metacode.InitCodeContext;
 import com.google.api.codegen.metacode.InitCodeContext.InitCodeOutputType;
+import com.google.api.codegen.metacode.InitCodeNode;
 import com.google.api.codegen.transformer.DefaultFeatureConfig;
 import com.google.api.codegen.transformer.FeatureConfig;
 import com.google.api.codegen.transformer.FileHeaderTransformer;
@@ -36,6 +42,7 @@ import com.google.api.codegen.transformer.ModelTypeTable;
 import com.google.api.codegen.transformer.StaticLangApiMethodTransformer;
 import com.google.api.codegen.transformer.SurfaceNamer;
 import com.google.api.codegen.transformer.TestCaseTransformer;
+import com.google.api.codegen.util.Name;
 import com.google.api.codegen.util.SymbolTable;
 import com.google.api.codegen.util.testing.StandardValueProducer;
 import com.google.api.codegen.util.testing.TestValueGenerator;
@@ -46,14 +53,17 @@ import com.google.api.codegen.viewmodel.ImportSectionView;
 import com.google.api.codegen.viewmodel.InitCodeView;
 import com.google.api.codegen.viewmodel.StaticLangApiMethodView;
 import com.google.api.codegen.viewmodel.ViewModel;
+import com.google.api.codegen.viewmodel.testing.BatchingTestView;
 import com.google.api.codegen.viewmodel.testing.ClientTestClassView;
 import com.google.api.codegen.viewmodel.testing.MockCombinedView;
 import com.google.api.codegen.viewmodel.testing.MockServiceImplView;
 import com.google.api.codegen.viewmodel.testing.SmokeTestClassView;
 import com.google.api.codegen.viewmodel.testing.TestCaseView;
+import com.google.common.collect.ImmutableList;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -184,10 +194,79 @@ public class GoGapicSurfaceTestTransformer implements ModelToViewTransformer<Pro
       testCaseViews.add(
           testCaseTransformer.createTestCaseView(
               methodContext, testNameTable, initCodeContext, clientMethodType));
+      if (GoGapicSurfaceTransformer.hasBundler(methodContext)) {
+        testCaseViews.add(createBundlerTestCaseView(methodContext, testNameTable));
+      }
     }
     return testCaseViews;
   }
 
+  private TestCaseView createBundlerTestCaseView(
+      GapicMethodContext methodContext, SymbolTable testNameTable) {
+    SurfaceNamer namer = methodContext.getNamer();
+    MethodModel method = methodContext.getMethodModel();
+    MethodConfig methodConfig = methodContext.getMethodConfig();
+    BatchingConfig batching = methodConfig.getBatching();
+    Collection<FieldConfig> fieldConfigs = methodConfig.getRequiredFieldConfigs();
+    InitCodeContext initCodeContext =
+        InitCodeContext.newBuilder()
+            .initObjectType(method.getInputType())
+            .symbolTable(new SymbolTable())
+            .suggestedName(Name.from("request"))
+            .initFieldConfigStrings(methodConfig.getSampleCodeInitFields())
+            .initValueConfigMap(InitCodeTransformer.createCollectionMap(methodContext))
+            .initFields(FieldConfig.toFieldTypeIterable(fieldConfigs))
+            .fieldConfigMap(FieldConfig.toFieldConfigMap(fieldConfigs))
+            .outputType(InitCodeOutputType.SingleObject)
+            .valueGenerator(valueGenerator)
+            .additionalInitCodeNodes(
+                ImmutableList.of(
+                    InitCodeNode.createSingletonList(batching.getBatchedField().getSimpleName())))
+            .build();
+    TestCaseView testCase =
+        testCaseTransformer.createTestCaseView(
+            methodContext,
+            new SymbolTable(),
+            initCodeContext,
+            ClientMethodType.RequestObjectMethod);
+
+    BatchingTestView.Builder batchingView =
+        BatchingTestView.newBuilder()
+            .batchedFieldName(namer.getFieldGetFunctionName(batching.getBatchedField()))
+            .resultTypeName(namer.getBatcherResultTypeName(method));
+    if (batching.hasSubresponseField()) {
+      batchingView.subresponseFieldName(
+          namer.getFieldGetFunctionName(batching.getSubresponseField()));
+    }
+    // Oneof fields are not plain struct fields in Go, so the test cannot change them directly.
+    for (GenericFieldSelector discriminator : batching.getDiscriminatorFields()) {
+      String kind = TestCaseTransformer.getPartitionFieldKind(discriminator.getLastField());
+      boolean inOneof = discriminator.getFields().stream().anyMatch(f -> f.getOneof() != null);
+      if (kind != null && !inOneof) {
+        List<String> fieldNames = new ArrayList<>();
+        for (FieldModel field : discriminator.getFields()) {
+          fieldNames.add(namer.getFieldGetFunctionName(field));
+        }
+        batchingView.partitionFieldName(String.join(".", fieldNames));
+        batchingView.partitionFieldKind(kind);
+        break;
+      }
+    }
+
+    // The test only sends batches when it flushes the bundler.
+    methodContext.getTypeTable().saveNicknameFor("time;;;");
+    return testCase
+        .toBuilder()
+        .name(
+            namer.publicMethodName(
+                testNameTable.getNewSymbol(
+                    Name.upperCamel(
+                        "Test", method.getParentSimpleName(), method.getSimpleName(), "Bundler"))))
+        .clientMethodName(namer.getBatcherMethodName(method))
+        .batchingView(batchingView.build())
+        .build();
+  }
+
   private SmokeTestClassView createSmokeTestClassView(InterfaceContext context) {
     SurfaceNamer namer = context.getNamer();
 
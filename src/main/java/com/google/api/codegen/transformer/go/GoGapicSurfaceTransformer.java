@@ -16,9 +16,12 @@ package com.google.api.codegen.transformer.go;
 
 import com.google.api.codegen.RetryParamsDefinitionProto;
 import com.google.api.codegen.config.ApiModel;
+import com.google.api.codegen.config.BatchingConfig;
+import com.google.api.codegen.config.FieldModel;
 import com.google.api.codegen.config.GapicInterfaceConfig;
 import com.google.api.codegen.config.GapicInterfaceContext;
 import com.google.api.codegen.config.GapicProductConfig;
+import com.google.api.codegen.config.GenericFieldSelector;
 import com.google.api.codegen.config.InterfaceConfig;
 import com.google.api.codegen.config.InterfaceContext;
 import com.google.api.codegen.config.InterfaceModel;
@@ -29,8 +32,10 @@ import com.google.api.codegen.config.ProductConfig;
 import com.google.api.codegen.config.ProductServiceConfig;
 import com.google.api.codegen.config.ProtoApiModel;
 import com.google.api.codegen.config.ProtoInterfaceModel;
+import com.google.api.codegen.config.VisibilityConfig;
 import com.google.api.codegen.gapic.GapicCodePathMapper;
 import com.google.api.codegen.transformer.ApiCallableTransformer;
+import com.google.api.codegen.transformer.BatchingTransformer;
 import com.google.api.codegen.transformer.DefaultFeatureConfig;
 import com.google.api.codegen.transformer.FeatureConfig;
 import com.google.api.codegen.transformer.FileHeaderTransformer;
@@ -43,8 +48,12 @@ import com.google.api.codegen.transformer.PathTemplateTransformer;
 import com.google.api.codegen.transformer.ServiceTransformer;
 import com.google.api.codegen.transformer.StaticLangApiMethodTransformer;
 import com.google.api.codegen.transformer.SurfaceNamer;
+import com.google.api.codegen.transformer.TestCaseTransformer;
 import com.google.api.codegen.util.CommonRenderingUtil;
+import com.google.api.codegen.util.Name;
 import com.google.api.codegen.util.go.GoTypeTable;
+import com.google.api.codegen.viewmodel.BatchingBundlerView;
+import com.google.api.codegen.viewmodel.BatchingPartitionKeyView;
 import com.google.api.codegen.viewmodel.ImportSectionView;
 import com.google.api.codegen.viewmodel.LongRunningOperationDetailView;
 import com.google.api.codegen.viewmodel.PackageInfoView;
@@ -83,6 +92,7 @@ public class GoGapicSurfaceTransformer implements ModelToViewTransformer<ProtoAp
   private static final Pattern versionPattern = Pattern.compile("v\\d.*beta");
 
   private final ApiCallableTransformer apiCallableTransformer = new ApiCallableTransformer();
+  private final BatchingTransformer batchingTransformer = new BatchingTransformer();
   private final StaticLangApiMethodTransformer apiMethodTransformer =
       new StaticLangApiMethodTransformer();
   private final FeatureConfig featureConfig = new DefaultFeatureConfig();
@@ -187,6 +197,21 @@ public class GoGapicSurfaceTransformer implements ModelToViewTransformer<ProtoAp
     }
     view.lroDetailViews(new ArrayList<>(lros.values()));
 
+    List<BatchingBundlerView> bundlers = generateBundlers(context);
+    view.bundlers(bundlers);
+    if (!bundlers.isEmpty()) {
+      ImportTypeTable typeTable = context.getImportTypeTable();
+      typeTable.saveNicknameFor("sync;;;");
+      typeTable.saveNicknameFor("time;;;");
+      typeTable.saveNicknameFor("github.com/golang/protobuf/proto;;;");
+      typeTable.saveNicknameFor("google.golang.org/api/support/bundler;;;");
+    }
+    // "fmt" reports subresponses missing from a batch response and formats keys that are not
+    // comparable.
+    if (bundlers.stream().anyMatch(b -> b.hasSubresponse() || hasFormattedKey(b))) {
+      context.getImportTypeTable().saveNicknameFor("fmt;;;");
+    }
+
     view.serviceHostname(productServiceConfig.getServiceHostname(context.getServiceAddress()));
     view.servicePort(productServiceConfig.getServicePort(context.getServiceAddress()));
 
@@ -282,6 +307,104 @@ public class GoGapicSurfaceTransformer implements ModelToViewTransformer<ProtoAp
     return apiMethods;
   }
 
+  /**
+   * Returns whether a bundler is generated for the method. Streaming, paged and long running
+   * methods are not batched.
+   */
+  static boolean hasBundler(MethodContext context) {
+    MethodConfig methodConfig = context.getMethodConfig();
+    return methodConfig.isBatching()
+        && !methodConfig.isGrpcStreaming()
+        && !methodConfig.isPageStreaming()
+        && !context.isLongRunningMethodContext();
+  }
+
+  private List<BatchingBundlerView> generateBundlers(GapicInterfaceContext context) {
+    SurfaceNamer namer = context.getNamer();
+    ImportTypeTable typeTable = context.getImportTypeTable();
+    List<BatchingBundlerView> bundlers = new ArrayList<>();
+    for (MethodModel method : context.getSupportedMethods()) {
+      MethodContext methodContext = context.asRequestMethodContext(method);
+      if (!hasBundler(methodContext)) {
+        continue;
+      }
+      BatchingConfig batching = methodContext.getMethodConfig().getBatching();
+      FieldModel batchedField = batching.getBatchedField();
+
+      BatchingBundlerView.Builder bundler = BatchingBundlerView.newBuilder();
+      bundler.typeName(namer.getBatcherTypeName(method));
+      bundler.constructorName(namer.getBatcherMethodName(method));
+      bundler.resultTypeName(namer.getBatcherResultTypeName(method));
+      bundler.keyTypeName(namer.getBatcherPartitionKeyTypeName(method));
+      bundler.itemTypeName(namer.getBatcherItemTypeName(method));
+      bundler.methodName(namer.getApiMethodName(method, VisibilityConfig.PUBLIC));
+      bundler.requestTypeName(method.getAndSaveRequestTypeName(typeTable, namer));
+      bundler.responseTypeName(method.getAndSaveResponseTypeName(typeTable, namer));
+      bundler.hasReturnValue(!method.isOutputTypeEmpty());
+      bundler.batchedFieldName(namer.getFieldGetFunctionName(batchedField));
+      bundler.batchedElementTypeName(typeTable.getAndSaveNicknameForElementType(batchedField));
+      bundler.batchedElementSizeKind(getElementSizeKind(batchedField));
+      if (batching.hasSubresponseField()) {
+        FieldModel subresponseField = batching.getSubresponseField();
+        bundler.subresponseFieldName(namer.getFieldGetFunctionName(subresponseField));
+        bundler.subresponseTypeName(typeTable.getAndSaveNicknameFor(subresponseField));
+        bundler.subresponseElementTypeName(
+            typeTable.getAndSaveNicknameForElementType(subresponseField));
+      }
+      bundler.partitionKeys(generatePartitionKeys(methodContext));
+      bundler.batchingConfig(batchingTransformer.generateBatchingConfig(methodContext));
+      bundlers.add(bundler.build());
+    }
+    return bundlers;
+  }
+
+  private List<BatchingPartitionKeyView> generatePartitionKeys(MethodContext context) {
+    SurfaceNamer namer = context.getNamer();
+    List<GenericFieldSelector> discriminators =
+        context.getMethodConfig().getBatching().getDiscriminatorFields();
+    List<BatchingPartitionKeyView> keys =
+        batchingTransformer.generateDescriptorClass(context).partitionKeys();
+    List<BatchingPartitionKeyView> goKeys = new ArrayList<>();
+    for (int i = 0; i < keys.size(); i++) {
+      List<FieldModel> fields = discriminators.get(i).getFields();
+      Name keyFieldName = fields.get(0).getNameAsParameterName();
+      for (FieldModel field : fields.subList(1, fields.size())) {
+        keyFieldName = keyFieldName.join(field.getNameAsParameterName());
+      }
+      FieldModel lastField = fields.get(fields.size() - 1);
+      BatchingPartitionKeyView.Builder key =
+          keys.get(i).toBuilder().keyFieldName(namer.privateFieldName(keyFieldName));
+      // Map keys must be comparable: bytes are converted to a string and repeated or message
+      // values are formatted.
+      String kind = TestCaseTransformer.getPartitionFieldKind(lastField);
+      if (kind == null) {
+        key.keyTypeName("string").keyConversionFunction("fmt.Sprint");
+      } else if (kind.equals("Bytes")) {
+        key.keyTypeName("string").keyConversionFunction("string");
+      } else {
+        key.keyTypeName(context.getTypeTable().getAndSaveNicknameFor(lastField));
+      }
+      goKeys.add(key.build());
+    }
+    return goKeys;
+  }
+
+  private static String getElementSizeKind(FieldModel field) {
+    if (field.isMessage()) {
+      return "Message";
+    } else if (field.getType().isStringType() || field.getType().isBytesType()) {
+      return "Length";
+    }
+    return "Fixed";
+  }
+
+  private static boolean hasFormattedKey(BatchingBundlerView bundler) {
+    return bundler
+        .partitionKeys()
+        .stream()
+        .anyMatch(k -> "fmt.Sprint".equals(k.keyConversionFunction()));
+  }
+
   @VisibleForTesting
   List<RetryConfigDefinitionView> generateRetryConfigDefinitions(
       InterfaceContext context, List<MethodModel> methods) {
@@ -371,6 +371,31 @@ public class GoSurfaceNamer extends SurfaceNamer {
     return publicFieldName(Name.upperCamel(method.getSimpleName()));
   }
 
+  @Override
+  public String getBatcherMethodName(MethodModel method) {
+    return publicMethodName(Name.from("new").join(method.asName()).join("bundler"));
+  }
+
+  @Override
+  public String getBatcherTypeName(MethodModel method) {
+    return publicClassName(method.asName().join("bundler"));
+  }
+
+  @Override
+  public String getBatcherResultTypeName(MethodModel method) {
+    return publicClassName(method.asName().join("bundle").join("result"));
+  }
+
+  @Override
+  public String getBatcherPartitionKeyTypeName(MethodModel method) {
+    return privateClassName(method.asName().join("bundle").join("key"));
+  }
+
+  @Override
+  public String getBatcherItemTypeName(MethodModel method) {
+    return privateClassName(method.asName().join("bundle").join("item"));
+  }
+
   private String exampleFunction(InterfaceConfig interfaceConfig, String functionName) {
     // We use "unsafe" string concatenation here.
     // Godoc expects the name to be in format "ExampleMyType_MyMethod";
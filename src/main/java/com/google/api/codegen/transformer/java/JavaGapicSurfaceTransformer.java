@@ -37,6 +37,7 @@ public class JavaGapicSurfaceTransformer
     implements ModelToViewTransformer<ProtoApiModel>, SurfaceTransformer {
 
   private final GapicCodePathMapper pathMapper;
+  private final GapicCodePathMapper benchmarkPathMapper;
 
   private static final String API_TEMPLATE_FILENAME = "java/main.snip";
   private static final String SETTINGS_TEMPLATE_FILENAME = "java/settings.snip";
@@ -48,9 +49,21 @@ public class JavaGapicSurfaceTransformer
   private static final String PACKAGE_INFO_TEMPLATE_FILENAME = "java/package-info.snip";
   private static final String PAGE_STREAMING_RESPONSE_TEMPLATE_FILENAME =
       "java/page_streaming_response.snip";
+  private static final String REQUEST_PARAMS_BENCHMARK_TEMPLATE_FILENAME =
+      "java/request_params_benchmark.snip";
 
   public JavaGapicSurfaceTransformer(GapicCodePathMapper pathMapper) {
+    this(pathMapper, null);
+  }
+
+  /**
+   * Creates a transformer that also generates JMH benchmarks of the gRPC stubs, with paths from the
+   * given benchmarkPathMapper.
+   */
+  public JavaGapicSurfaceTransformer(
+      GapicCodePathMapper pathMapper, GapicCodePathMapper benchmarkPathMapper) {
     this.pathMapper = Preconditions.checkNotNull(pathMapper);
+    this.benchmarkPathMapper = benchmarkPathMapper;
   }
 
   @Override
@@ -63,14 +76,19 @@ public class JavaGapicSurfaceTransformer
         GRPC_STUB_TEMPLATE_FILENAME,
         GRPC_CALLABLE_FACTORY_TEMPLATE_FILENAME,
         PACKAGE_INFO_TEMPLATE_FILENAME,
-        PAGE_STREAMING_RESPONSE_TEMPLATE_FILENAME);
+        PAGE_STREAMING_RESPONSE_TEMPLATE_FILENAME,
+        REQUEST_PARAMS_BENCHMARK_TEMPLATE_FILENAME);
   }
 
   @Override
   public List<ViewModel> transform(ProtoApiModel model, GapicProductConfig productConfig) {
     JavaSurfaceTransformer commonSurfaceTransformer =
         new JavaSurfaceTransformer(
-            pathMapper, this, GRPC_STUB_TEMPLATE_FILENAME, GRPC_CALLABLE_FACTORY_TEMPLATE_FILENAME);
+            pathMapper,
+            benchmarkPathMapper,
+            this,
+            GRPC_STUB_TEMPLATE_FILENAME,
+            GRPC_CALLABLE_FACTORY_TEMPLATE_FILENAME);
     return commonSurfaceTransformer.transform(model, productConfig);
   }
 
@@ -32,6 +32,7 @@ import com.google.api.codegen.gapic.GapicCodePathMapper;
 import com.google.api.codegen.transformer.ApiCallableTransformer;
 import com.google.api.codegen.transformer.BatchingTransformer;
 import com.google.api.codegen.transformer.FileHeaderTransformer;
+import com.google.api.codegen.transformer.HeaderRequestParamTransformer;
 import com.google.api.codegen.transformer.ImportTypeTable;
 import com.google.api.codegen.transformer.PageStreamingTransformer;
 import com.google.api.codegen.transformer.PathTemplateTransformer;
@@ -40,13 +41,16 @@ import com.google.api.codegen.transformer.ServiceTransformer;
 import com.google.api.codegen.transformer.StandardImportSectionTransformer;
 import com.google.api.codegen.transformer.SurfaceNamer;
 import com.google.api.codegen.transformer.SurfaceTransformer;
+import com.google.api.codegen.util.Name;
 import com.google.api.codegen.util.TypeAlias;
 import com.google.api.codegen.viewmodel.ApiCallSettingsView;
 import com.google.api.codegen.viewmodel.ApiMethodView;
 import com.google.api.codegen.viewmodel.ClientMethodType;
+import com.google.api.codegen.viewmodel.HeaderRequestParamView;
 import com.google.api.codegen.viewmodel.ImportSectionView;
 import com.google.api.codegen.viewmodel.PackageInfoView;
 import com.google.api.codegen.viewmodel.PagedResponseIterateMethodView;
+import com.google.api.codegen.viewmodel.RequestParamsBenchmarkView;
 import com.google.api.codegen.viewmodel.ServiceDocView;
 import com.google.api.codegen.viewmodel.SettingsDocView;
 import com.google.api.codegen.viewmodel.StaticLangApiMethodView;
@@ -54,6 +58,7 @@ import com.google.api.codegen.viewmodel.StaticLangApiView;
 import com.google.api.codegen.viewmodel.StaticLangCallableFactoryView;
 import com.google.api.codegen.viewmodel.StaticLangFileView;
 import com.google.api.codegen.viewmodel.StaticLangPagedResponseView;
+import com.google.api.codegen.viewmodel.StaticLangRequestParamsBenchmarkFileView;
 import com.google.api.codegen.viewmodel.StaticLangRpcStubView;
 import com.google.api.codegen.viewmodel.StaticLangSettingsView;
 import com.google.api.codegen.viewmodel.StaticLangStubInterfaceView;
@@ -68,6 +73,7 @@ import java.util.List;
 /** A transformer to transform an ApiModel into the standard GAPIC surface in Java. */
 public class JavaSurfaceTransformer {
   private final GapicCodePathMapper pathMapper;
+  private final GapicCodePathMapper benchmarkPathMapper;
 
   // TODO: Figure out a way to simplify the transformers in a way that reduces duplication and makes
   // it easy to follow the code.
@@ -78,6 +84,8 @@ public class JavaSurfaceTransformer {
   private final ServiceTransformer serviceTransformer = new ServiceTransformer();
   private final PathTemplateTransformer pathTemplateTransformer = new PathTemplateTransformer();
   private final ApiCallableTransformer apiCallableTransformer = new ApiCallableTransformer();
+  private final HeaderRequestParamTransformer headerRequestParamTransformer =
+      new HeaderRequestParamTransformer();
   private final JavaApiMethodTransformer javaApiMethodTransformer = new JavaApiMethodTransformer();
   private final PageStreamingTransformer pageStreamingTransformer = new PageStreamingTransformer();
   private final BatchingTransformer batchingTransformer = new BatchingTransformer();
@@ -95,13 +103,34 @@ public class JavaSurfaceTransformer {
   private static final String STUB_INTERFACE_TEMPLATE_FILENAME = "java/stub_interface.snip";
 
   private static final String PACKAGE_INFO_TEMPLATE_FILENAME = "java/package-info.snip";
+  private static final String REQUEST_PARAMS_BENCHMARK_TEMPLATE_FILENAME =
+      "java/request_params_benchmark.snip";
 
   public JavaSurfaceTransformer(
       GapicCodePathMapper pathMapper,
       SurfaceTransformer surfaceTransformer,
       String rpcStubSnippetFileName,
       String callableFactoryTemplateFilename) {
+    this(
+        pathMapper,
+        null,
+        surfaceTransformer,
+        rpcStubSnippetFileName,
+        callableFactoryTemplateFilename);
+  }
+
+  /**
+   * Creates a transformer that also generates JMH benchmarks of the generated code, with paths from
+   * the given benchmarkPathMapper.
+   */
+  public JavaSurfaceTransformer(
+      GapicCodePathMapper pathMapper,
+      GapicCodePathMapper benchmarkPathMapper,
+      SurfaceTransformer surfaceTransformer,
+      String rpcStubSnippetFileName,
+      String callableFactoryTemplateFilename) {
     this.pathMapper = Preconditions.checkNotNull(pathMapper);
+    this.benchmarkPathMapper = benchmarkPathMapper;
     this.surfaceTransformer = Preconditions.checkNotNull(surfaceTransformer);
     this.rpcStubTemplateFilename = Preconditions.checkNotNull(rpcStubSnippetFileName);
     this.callableFactoryTemplateFilename =
@@ -151,6 +180,16 @@ public class JavaSurfaceTransformer {
           generateRpcStubClassFile(context, productConfig);
       surfaceDocs.add(grpcStubFile);
       surfaceDocs.add(generateCallableFactoryClassFile(context, productConfig));
+
+      if (benchmarkPathMapper != null
+          && productConfig.getTransportProtocol().equals(TransportProtocol.GRPC)) {
+        context = context.withNewTypeTable(namer.getStubPackageName());
+        StaticLangRequestParamsBenchmarkFileView benchmarkFile =
+            generateRequestParamsBenchmarkFile(context, grpcStubFile.classView().name());
+        if (!benchmarkFile.methods().isEmpty()) {
+          surfaceDocs.add(benchmarkFile);
+        }
+      }
     }
 
     PackageInfoView packageInfo = generatePackageInfo(model, productConfig, namer, serviceDocs);
@@ -638,6 +677,57 @@ public class JavaSurfaceTransformer {
     return stubClass.build();
   }
 
+  /* Creates a JMH benchmark that compares the RequestParamsExtractors of the methods routed by a
+   * single top-level string field with the equivalent ImmutableMap.Builder code. */
+  private StaticLangRequestParamsBenchmarkFileView generateRequestParamsBenchmarkFile(
+      InterfaceContext context, String stubClassName) {
+    SurfaceNamer namer = context.getNamer();
+    boolean excludeMixins = !context.getFeatureConfig().enableMixins();
+
+    List<RequestParamsBenchmarkView> methods = new ArrayList<>();
+    for (MethodModel method : context.getSupportedMethods()) {
+      if (excludeMixins && context.getMethodConfig(method).getRerouteToGrpcInterface() != null) {
+        continue;
+      }
+      MethodContext methodContext = context.asRequestMethodContext(method);
+      List<HeaderRequestParamView> headerRequestParams =
+          headerRequestParamTransformer.generateHeaderRequestParams(methodContext);
+      if (headerRequestParams.size() != 1
+          || !headerRequestParams.get(0).isStringField()
+          || headerRequestParams.get(0).gettersChain().size() != 1) {
+        continue;
+      }
+      HeaderRequestParamView headerRequestParam = headerRequestParams.get(0);
+      FieldModel field = method.getInputField(headerRequestParam.fullyQualifiedName());
+      String requestTypeName =
+          method.getAndSaveRequestTypeName(context.getImportTypeTable(), namer);
+      methods.add(
+          RequestParamsBenchmarkView.newBuilder()
+              .name(method.getSimpleName())
+              .requestTypeName(requestTypeName)
+              .requestName(namer.privateFieldName(Name.anyCamel(method.getSimpleName(), "Request")))
+              .paramsExtractorName(namer.getParamsExtractorName(method))
+              .paramName(headerRequestParam.fullyQualifiedName())
+              .paramGetter(headerRequestParam.gettersChain().get(0))
+              .paramSetter(namer.getFieldSetFunctionName(field))
+              .build());
+    }
+    addRequestParamsBenchmarkImports(context);
+
+    String className = stubClassName + "Benchmark";
+    String outputPath =
+        benchmarkPathMapper.getOutputPath(
+            context.getInterfaceModel().getFullName(), context.getProductConfig());
+    return StaticLangRequestParamsBenchmarkFileView.newBuilder()
+        .templateFileName(REQUEST_PARAMS_BENCHMARK_TEMPLATE_FILENAME)
+        .outputPath(outputPath + File.separator + className + ".java")
+        .name(className)
+        .stubClassName(stubClassName)
+        .methods(methods)
+        .fileHeader(fileHeaderTransformer.generateFileHeader(context, className))
+        .build();
+  }
+
   private StaticLangFileView<StaticLangCallableFactoryView> generateCallableFactoryClassFile(
       InterfaceContext context, GapicProductConfig productConfig) {
     StaticLangFileView.Builder<StaticLangCallableFactoryView> fileView =
@@ -868,6 +958,22 @@ public class JavaSurfaceTransformer {
     }
   }
 
+  private void addRequestParamsBenchmarkImports(InterfaceContext context) {
+    ImportTypeTable typeTable = context.getImportTypeTable();
+
+    typeTable.saveNicknameFor("com.google.common.collect.ImmutableMap");
+    typeTable.saveNicknameFor("java.util.Map");
+    typeTable.saveNicknameFor("java.util.concurrent.TimeUnit");
+    typeTable.saveNicknameFor("javax.annotation.Generated");
+    typeTable.saveNicknameFor("org.openjdk.jmh.annotations.Benchmark");
+    typeTable.saveNicknameFor("org.openjdk.jmh.annotations.BenchmarkMode");
+    typeTable.saveNicknameFor("org.openjdk.jmh.annotations.Mode");
+    typeTable.saveNicknameFor("org.openjdk.jmh.annotations.OutputTimeUnit");
+    typeTable.saveNicknameFor("org.openjdk.jmh.annotations.Scope");
+    typeTable.saveNicknameFor("org.openjdk.jmh.annotations.Setup");
+    typeTable.saveNicknameFor("org.openjdk.jmh.annotations.State");
+  }
+
   private void addRpcStubImports(InterfaceContext context) {
     ImportTypeTable typeTable = context.getImportTypeTable();
 
@@ -906,6 +1012,7 @@ public class JavaSurfaceTransformer {
         typeTable.saveNicknameFor("com.google.api.gax.grpc.GrpcStubCallableFactory");
         typeTable.saveNicknameFor("com.google.api.gax.grpc.GrpcCallableFactory");
         typeTable.saveNicknameFor("com.google.api.gax.grpc.GrpcCallSettings");
+        typeTable.saveNicknameFor("com.google.common.annotations.VisibleForTesting");
         typeTable.saveNicknameFor("io.grpc.MethodDescriptor");
         typeTable.saveNicknameFor("io.grpc.protobuf.ProtoUtils");
         if (interfaceConfig.hasLongRunningOperations()) {
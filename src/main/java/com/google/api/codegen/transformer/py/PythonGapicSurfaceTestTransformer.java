@@ -15,12 +15,14 @@
 package com.google.api.codegen.transformer.py;
 
 import com.google.api.codegen.config.ApiModel;
+import com.google.api.codegen.config.BatchingConfig;
 import com.google.api.codegen.config.FieldConfig;
 import com.google.api.codegen.config.FlatteningConfig;
 import com.google.api.codegen.config.GapicInterfaceConfig;
 import com.google.api.codegen.config.GapicInterfaceContext;
 import com.google.api.codegen.config.GapicMethodContext;
 import com.google.api.codegen.config.GapicProductConfig;
+import com.google.api.codegen.config.GenericFieldSelector;
 import com.google.api.codegen.config.GrpcStreamingConfig;
 import com.google.api.codegen.config.InterfaceConfig;
 import com.google.api.codegen.config.InterfaceModel;
@@ -30,10 +32,12 @@ import com.google.api.codegen.config.ProtoApiModel;
 import com.google.api.codegen.gapic.GapicCodePathMapper;
 import com.google.api.codegen.metacode.InitCodeContext;
 import com.google.api.codegen.metacode.InitCodeContext.InitCodeOutputType;
+import com.google.api.codegen.metacode.InitCodeNode;
 import com.google.api.codegen.transformer.DefaultFeatureConfig;
 import com.google.api.codegen.transformer.DynamicLangApiMethodTransformer;
 import com.google.api.codegen.transformer.FeatureConfig;
 import com.google.api.codegen.transformer.FileHeaderTransformer;
+import com.google.api.codegen.transformer.HeaderRequestParamTransformer;
 import com.google.api.codegen.transformer.InitCodeTransformer;
 import com.google.api.codegen.transformer.MockServiceTransformer;
 import com.google.api.codegen.transformer.ModelToViewTransformer;
@@ -47,10 +51,13 @@ import com.google.api.codegen.util.testing.PythonValueProducer;
 import com.google.api.codegen.util.testing.TestValueGenerator;
 import com.google.api.codegen.util.testing.ValueProducer;
 import com.google.api.codegen.viewmodel.ClientMethodType;
+import com.google.api.codegen.viewmodel.HeaderRequestParamView;
 import com.google.api.codegen.viewmodel.ImportSectionView;
 import com.google.api.codegen.viewmodel.InitCodeView;
 import com.google.api.codegen.viewmodel.OptionalArrayMethodView;
+import com.google.api.codegen.viewmodel.RoutingHeaderBenchmarkFileView;
 import com.google.api.codegen.viewmodel.ViewModel;
+import com.google.api.codegen.viewmodel.testing.BatchingTestView;
 import com.google.api.codegen.viewmodel.testing.ClientTestClassView;
 import com.google.api.codegen.viewmodel.testing.ClientTestFileView;
 import com.google.api.codegen.viewmodel.testing.MockServiceUsageView;
@@ -60,7 +67,9 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import java.io.File;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Transforms the ProtoApiModel into API tests for Python. Responsible for producing a list of
@@ -69,6 +78,8 @@ import java.util.List;
 public class PythonGapicSurfaceTestTransformer implements ModelToViewTransformer<ProtoApiModel> {
   private static final String SMOKE_TEST_TEMPLATE_FILE = "py/smoke_test.snip";
   private static final String TEST_TEMPLATE_FILE = "py/test.snip";
+  private static final String ROUTING_HEADER_BENCHMARK_TEMPLATE_FILE =
+      "py/routing_header_benchmark.snip";
 
   private final GapicCodePathMapper pathMapper;
   private final PackageMetadataConfig packageConfig;
@@ -80,6 +91,8 @@ public class PythonGapicSurfaceTestTransformer implements ModelToViewTransformer
   private final TestValueGenerator valueGenerator = new TestValueGenerator(valueProducer);
   private final TestCaseTransformer testCaseTransformer = new TestCaseTransformer(valueProducer);
   private final MockServiceTransformer mockServiceTransformer = new MockServiceTransformer();
+  private final HeaderRequestParamTransformer headerRequestParamTransformer =
+      new HeaderRequestParamTransformer();
   private final FeatureConfig featureConfig = new DefaultFeatureConfig();
 
   public PythonGapicSurfaceTestTransformer(
@@ -90,7 +103,8 @@ public class PythonGapicSurfaceTestTransformer implements ModelToViewTransformer
 
   @Override
   public List<String> getTemplateFileNames() {
-    return ImmutableList.<String>of(SMOKE_TEST_TEMPLATE_FILE, TEST_TEMPLATE_FILE);
+    return ImmutableList.<String>of(
+        SMOKE_TEST_TEMPLATE_FILE, TEST_TEMPLATE_FILE, ROUTING_HEADER_BENCHMARK_TEMPLATE_FILE);
   }
 
   @Override
@@ -98,6 +112,7 @@ public class PythonGapicSurfaceTestTransformer implements ModelToViewTransformer
     ImmutableList.Builder<ViewModel> models = ImmutableList.builder();
     models.addAll(createUnitTestViews(model, productConfig));
     models.addAll(createSmokeTestViews(model, productConfig));
+    models.addAll(createRoutingHeaderBenchmarkViews(model, productConfig));
     return models.build();
   }
 
@@ -220,32 +235,85 @@ public class PythonGapicSurfaceTestTransformer implements ModelToViewTransformer
           clientMethodType = ClientMethodType.PagedOptionalArrayMethod;
         }
 
-        Collection<FieldConfig> fieldConfigs =
-            methodContext.getMethodConfig().getRequiredFieldConfigs();
-        InitCodeOutputType initCodeOutputType =
-            method.getRequestStreaming()
-                ? InitCodeOutputType.SingleObject
-                : InitCodeOutputType.FieldList;
         InitCodeContext initCodeContext =
-            InitCodeContext.newBuilder()
-                .initObjectType(methodContext.getMethodModel().getInputType())
-                .suggestedName(Name.from("request"))
-                .initFieldConfigStrings(methodContext.getMethodConfig().getSampleCodeInitFields())
-                .initValueConfigMap(InitCodeTransformer.createCollectionMap(methodContext))
-                .initFields(FieldConfig.toFieldTypeIterable(fieldConfigs))
-                .outputType(initCodeOutputType)
-                .fieldConfigMap(FieldConfig.toFieldConfigMap(fieldConfigs))
-                .valueGenerator(valueGenerator)
-                .build();
-
-        testCaseViews.add(
+            createInitCodeContext(methodContext, ImmutableList.<InitCodeNode>of());
+        TestCaseView testCaseView =
             testCaseTransformer.createTestCaseView(
-                methodContext, testNameTable, initCodeContext, clientMethodType));
+                methodContext, testNameTable, initCodeContext, clientMethodType);
+        testCaseViews.add(testCaseView);
+
+        if (methodContext.getMethodConfig().isBatching()) {
+          testCaseViews.add(createBatchingTestCaseView(methodContext, testCaseView));
+        }
       }
     }
     return testCaseViews.build();
   }
 
+  private InitCodeContext createInitCodeContext(
+      GapicMethodContext methodContext, List<InitCodeNode> additionalInitCodeNodes) {
+    Collection<FieldConfig> fieldConfigs =
+        methodContext.getMethodConfig().getRequiredFieldConfigs();
+    InitCodeOutputType initCodeOutputType =
+        methodContext.getMethodModel().getRequestStreaming()
+            ? InitCodeOutputType.SingleObject
+            : InitCodeOutputType.FieldList;
+    return InitCodeContext.newBuilder()
+        .initObjectType(methodContext.getMethodModel().getInputType())
+        .suggestedName(Name.from("request"))
+        .initFieldConfigStrings(methodContext.getMethodConfig().getSampleCodeInitFields())
+        .initValueConfigMap(InitCodeTransformer.createCollectionMap(methodContext))
+        .initFields(FieldConfig.toFieldTypeIterable(fieldConfigs))
+        .outputType(initCodeOutputType)
+        .fieldConfigMap(FieldConfig.toFieldConfigMap(fieldConfigs))
+        .valueGenerator(valueGenerator)
+        .additionalInitCodeNodes(additionalInitCodeNodes)
+        .build();
+  }
+
+  /**
+   * Returns a test case for the batcher of a batching method. Its request holds one batched
+   * element, so that merged requests and split responses can be told apart.
+   */
+  private TestCaseView createBatchingTestCaseView(
+      GapicMethodContext methodContext, TestCaseView testCaseView) {
+    BatchingConfig batching = methodContext.getMethodConfig().getBatching();
+    SurfaceNamer namer = methodContext.getNamer();
+    InitCodeContext initCodeContext =
+        createInitCodeContext(
+            methodContext,
+            ImmutableList.of(
+                InitCodeNode.createSingletonList(batching.getBatchedField().getSimpleName())));
+    TestCaseView batchingTestCase =
+        testCaseTransformer.createTestCaseView(
+            methodContext,
+            new SymbolTable(),
+            initCodeContext,
+            ClientMethodType.OptionalArrayMethod);
+
+    BatchingTestView.Builder batchingView =
+        BatchingTestView.newBuilder()
+            .batchedFieldName(namer.getFieldName(batching.getBatchedField()));
+    if (batching.hasSubresponseField()) {
+      batchingView.subresponseFieldName(namer.getFieldName(batching.getSubresponseField()));
+    }
+    for (GenericFieldSelector discriminator : batching.getDiscriminatorFields()) {
+      String kind = TestCaseTransformer.getPartitionFieldKind(discriminator.getLastField());
+      if (kind != null) {
+        batchingView.partitionFieldName(discriminator.getParamName());
+        batchingView.partitionFieldKind(kind);
+        break;
+      }
+    }
+
+    return batchingTestCase
+        .toBuilder()
+        .name(testCaseView.name() + "_batcher")
+        .nameWithException(testCaseView.nameWithException() + "_batcher")
+        .batchingView(batchingView.build())
+        .build();
+  }
+
   private List<ViewModel> createSmokeTestViews(ApiModel model, GapicProductConfig productConfig) {
     ImmutableList.Builder<ViewModel> models = ImmutableList.builder();
     SurfaceNamer surfacePackageNamer = new PythonSurfaceNamer(productConfig.getPackageName());
@@ -321,6 +389,61 @@ public class PythonGapicSurfaceTestTransformer implements ModelToViewTransformer
     return apiMethodView.build();
   }
 
+  /* Creates a benchmark that compares the routing headers the clients build for the methods routed
+   * by a single string field with google.api_core.gapic_v1.routing_header.to_grpc_metadata. */
+  private List<ViewModel> createRoutingHeaderBenchmarkViews(
+      ApiModel model, GapicProductConfig productConfig) {
+    ImmutableList.Builder<ViewModel> models = ImmutableList.builder();
+    SurfaceNamer surfacePackageNamer = new PythonSurfaceNamer(productConfig.getPackageName());
+    SurfaceNamer testPackageNamer =
+        new PythonSurfaceNamer(surfacePackageNamer.getTestPackageName());
+    for (InterfaceModel apiInterface : model.getInterfaces(productConfig)) {
+      if (!productConfig.hasInterfaceConfig(apiInterface)) {
+        continue;
+      }
+
+      ModelTypeTable typeTable = createTypeTable(surfacePackageNamer.getTestPackageName());
+      GapicInterfaceContext context =
+          GapicInterfaceContext.create(
+              apiInterface, productConfig, typeTable, surfacePackageNamer, featureConfig);
+      Set<String> routingParams = new LinkedHashSet<>();
+      for (MethodModel method : context.getSupportedMethods()) {
+        List<HeaderRequestParamView> headerRequestParams =
+            headerRequestParamTransformer.generateHeaderRequestParams(
+                context.asRequestMethodContext(method));
+        if (headerRequestParams.size() == 1 && headerRequestParams.get(0).isStringField()) {
+          routingParams.add(headerRequestParams.get(0).fullyQualifiedName());
+        }
+      }
+      if (routingParams.isEmpty()) {
+        continue;
+      }
+
+      String apiClassName =
+          surfacePackageNamer.getApiWrapperClassName(context.getInterfaceConfig());
+      String version = packageConfig.apiVersion();
+      String filename =
+          surfacePackageNamer.classFileNameBase(
+                  Name.upperCamel("BenchmarkRoutingHeader" + apiClassName).join(version))
+              + ".py";
+      String outputPath =
+          Joiner.on(File.separator).join("tests", "benchmark", "gapic", version, filename);
+      ImportSectionView importSection =
+          importSectionTransformer.generateRoutingHeaderBenchmarkImportSection();
+      models.add(
+          RoutingHeaderBenchmarkFileView.newBuilder()
+              .apiClassName(apiClassName)
+              .routingParams(ImmutableList.copyOf(routingParams))
+              .templateFileName(ROUTING_HEADER_BENCHMARK_TEMPLATE_FILE)
+              .outputPath(outputPath)
+              .fileHeader(
+                  fileHeaderTransformer.generateFileHeader(
+                      productConfig, importSection, testPackageNamer))
+              .build());
+    }
+    return models.build();
+  }
+
   private static ModelTypeTable createTypeTable(String packageName) {
     return new ModelTypeTable(
         new PythonTypeTable(packageName), new PythonModelTypeNameConverter(packageName));
@@ -28,6 +28,7 @@ import com.google.api.codegen.config.ProtoApiModel;
 import com.google.api.codegen.config.SampleSpec.SampleType;
 import com.google.api.codegen.gapic.GapicCodePathMapper;
 import com.google.api.codegen.gapic.GapicParser;
+import com.google.api.codegen.transformer.BatchingTransformer;
 import com.google.api.codegen.transformer.DefaultFeatureConfig;
 import com.google.api.codegen.transformer.DynamicLangApiMethodTransformer;
 import com.google.api.codegen.transformer.FeatureConfig;
@@ -76,6 +77,7 @@ public class PythonGapicSurfaceTransformer implements ModelToViewTransformer<Pro
   private static final String TRANSPORT_TEMPLATE_FILENAME = "py/transport.snip";
   private static final String ENUM_TEMPLATE_FILENAME = "py/enum.snip";
   private static final String TYPES_TEMPLATE_FILENAME = "py/types.snip";
+  private static final String BATCHING_TEMPLATE_FILENAME = "py/batching.snip";
   private static final String VERSIONED_INIT_TEMPLATE_FILENAME =
       "py/versioned_directory__init__.py.snip";
   private static final String TOP_LEVEL_ENTRY_POINT_FILENAME = "py/top_level_entry_point.snip";
@@ -95,6 +97,7 @@ public class PythonGapicSurfaceTransformer implements ModelToViewTransformer<Pro
               .build());
   private final ServiceTransformer serviceTransformer = new ServiceTransformer();
   private final PageStreamingTransformer pageStreamingTransformer = new PageStreamingTransformer();
+  private final BatchingTransformer batchingTransformer = new BatchingTransformer();
   private final PathTemplateTransformer pathTemplateTransformer = new PathTemplateTransformer();
   private final GrpcStubTransformer grpcStubTransformer = new GrpcStubTransformer();
   private final GrpcElementDocTransformer elementDocTransformer = new GrpcElementDocTransformer();
@@ -115,6 +118,7 @@ public class PythonGapicSurfaceTransformer implements ModelToViewTransformer<Pro
         TRANSPORT_TEMPLATE_FILENAME,
         ENUM_TEMPLATE_FILENAME,
         TYPES_TEMPLATE_FILENAME,
+        BATCHING_TEMPLATE_FILENAME,
         VERSIONED_INIT_TEMPLATE_FILENAME,
         TOP_LEVEL_ENTRY_POINT_FILENAME);
   }
@@ -137,6 +141,7 @@ public class PythonGapicSurfaceTransformer implements ModelToViewTransformer<Pro
     SurfaceNamer namer = new PythonSurfaceNamer(productConfig.getPackageName());
     FeatureConfig featureConfig = new DefaultFeatureConfig();
     ImmutableList.Builder<ViewModel> serviceSurfaces = ImmutableList.builder();
+    boolean hasBatchingMethods = false;
 
     for (InterfaceModel apiInterface : apiModel.getInterfaces(productConfig)) {
       if (!productConfig.hasInterfaceConfig(apiInterface)) {
@@ -172,6 +177,11 @@ public class PythonGapicSurfaceTransformer implements ModelToViewTransformer<Pro
           fileHeaderTransformer.generateFileHeader(
               productConfig, grpcTransportImportSection, namer));
       serviceSurfaces.add(grpcTransportClass.build());
+      hasBatchingMethods |= context.getInterfaceConfig().hasBatchingMethods();
+    }
+
+    if (hasBatchingMethods) {
+      serviceSurfaces.add(generateBatchingView(productConfig, namer));
     }
 
     GrpcDocView enumFile =
@@ -237,7 +247,7 @@ public class PythonGapicSurfaceTransformer implements ModelToViewTransformer<Pro
     xapiClass.hasDefaultServiceScopes(context.getInterfaceConfig().hasDefaultServiceScopes());
 
     xapiClass.pageStreamingDescriptors(pageStreamingTransformer.generateDescriptors(context));
-    xapiClass.batchingDescriptors(ImmutableList.of());
+    xapiClass.batchingDescriptors(batchingTransformer.generateDescriptors(context));
     xapiClass.longRunningDescriptors(ImmutableList.of());
     xapiClass.grpcStreamingDescriptors(ImmutableList.of());
     xapiClass.hasPageStreamingMethods(context.getInterfaceConfig().hasPageStreamingMethods());
@@ -269,6 +279,21 @@ public class PythonGapicSurfaceTransformer implements ModelToViewTransformer<Pro
     return xapiClass;
   }
 
+  /** Returns the batching module shared by the clients whose methods support batching. */
+  private ViewModel generateBatchingView(GapicProductConfig productConfig, SurfaceNamer namer) {
+    String subPath = pathMapper.getOutputPath(null, productConfig);
+    return VersionIndexView.newBuilder()
+        .templateFileName(BATCHING_TEMPLATE_FILENAME)
+        .outputPath(subPath + File.separator + "batching.py")
+        .requireViews(ImmutableList.<VersionIndexRequireView>of())
+        .apiVersion(namer.getApiWrapperModuleVersion())
+        .namespace(namer.getVersionedDirectoryNamespace())
+        .fileHeader(
+            fileHeaderTransformer.generateFileHeader(
+                productConfig, importSectionTransformer.generateBatchingImportSection(), namer))
+        .build();
+  }
+
   private GrpcDocView generateEnumView(
       GapicProductConfig productConfig,
       ModelTypeTable typeTable,
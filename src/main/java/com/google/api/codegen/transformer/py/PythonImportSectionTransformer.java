@@ -70,7 +70,7 @@ public class PythonImportSectionTransformer implements ImportSectionTransformer
     return ImportSectionView.newBuilder()
         .standardImports(generateTestStandardImports())
         .externalImports(generateTestExternalImports(context))
-        .appImports(generateTestAppImports(context))
+        .appImports(generateUnitTestAppImports(context))
         .build();
   }
 
@@ -83,6 +83,16 @@ public class PythonImportSectionTransformer implements ImportSectionTransformer
         .build();
   }
 
+  public ImportSectionView generateRoutingHeaderBenchmarkImportSection() {
+    return ImportSectionView.newBuilder()
+        .standardImports(ImmutableList.of(createImport("functools"), createImport("timeit")))
+        .externalImports(
+            ImmutableList.of(
+                createImport("google.api_core.gapic_v1.routing_header"), createImport("six")))
+        .appImports(ImmutableList.of())
+        .build();
+  }
+
   public ImportSectionView generateGrpcTransportImportSection(GapicInterfaceContext context) {
     return ImportSectionView.newBuilder()
         .standardImports(ImmutableList.of())
@@ -138,6 +148,10 @@ public class PythonImportSectionTransformer implements ImportSectionTransformer
       imports.add(createImport("google.api_core.gapic_v1.routing_header"));
     }
 
+    if (hasSingleStringHeaderRequestParam(context)) {
+      imports.add(createImport("six"));
+    }
+
     if (context.getInterfaceConfig().hasLongRunningOperations()) {
       imports.add(createImport("google.api_core.operations_v1"));
       imports.add(createImport("google.api_core.operation"));
@@ -167,6 +181,18 @@ public class PythonImportSectionTransformer implements ImportSectionTransformer
         .anyMatch(config -> config.getHeaderRequestParams().iterator().hasNext());
   }
 
+  /* Methods routed by a single string field URL-encode it with six.moves.urllib.parse. */
+  private boolean hasSingleStringHeaderRequestParam(InterfaceContext context) {
+    HeaderRequestParamTransformer headerRequestParamTransformer =
+        new HeaderRequestParamTransformer();
+    return Streams.stream(context.getSupportedMethods())
+        .map(
+            method ->
+                headerRequestParamTransformer.generateHeaderRequestParams(
+                    context.asRequestMethodContext(method)))
+        .anyMatch(params -> params.size() == 1 && params.get(0).isStringField());
+  }
+
   private boolean hasOneOf(InterfaceContext context) {
     return context
         .getInterfaceConfig()
@@ -186,6 +212,9 @@ public class PythonImportSectionTransformer implements ImportSectionTransformer
         createImport(
             namer.getPackageName() + ".transports",
             namer.getGrpcTransportImportName(context.getInterfaceConfig())));
+    if (context.getInterfaceConfig().hasBatchingMethods()) {
+      imports.add(createImport(namer.getPackageName(), "batching"));
+    }
     Collections.sort(imports, importFileViewComparator());
     return imports;
   }
@@ -277,6 +306,15 @@ public class PythonImportSectionTransformer implements ImportSectionTransformer
     return new ArrayList<>(appImports);
   }
 
+  private List<ImportFileView> generateUnitTestAppImports(GapicInterfaceContext context) {
+    List<ImportFileView> appImports = generateTestAppImports(context);
+    if (context.getInterfaceConfig().hasBatchingMethods()) {
+      appImports.add(createImport(context.getNamer().getPackageName(), "batching"));
+      Collections.sort(appImports, importFileViewComparator());
+    }
+    return appImports;
+  }
+
   /**
    * Orders the imports by:
    *
@@ -453,6 +491,14 @@ public class PythonImportSectionTransformer implements ImportSectionTransformer
         new PythonModelTypeNameConverter(productConfig.getPackageName()));
   }
 
+  public ImportSectionView generateBatchingImportSection() {
+    return ImportSectionView.newBuilder()
+        .standardImports(ImmutableList.of(createImport("collections"), createImport("threading")))
+        .externalImports(ImmutableList.of(createImport("concurrent", "futures")))
+        .appImports(ImmutableList.of())
+        .build();
+  }
+
   private List<ImportFileView> generateTypesExternalImports() {
     return ImmutableList.of(createImport("google.api_core.protobuf_helpers", "get_messages"));
   }
@@ -0,0 +1,459 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes generated files into a zip (including jar and srcjar) or tar.gz archive.
+ *
+ * <p>Entries are compressed in parallel as they are added. The archive is written on {@link
+ * #close()}, with entries sorted by path and with a fixed timestamp, so that the same files always
+ * produce a byte-identical archive. Executable files are marked as such in the archive metadata.
+ * Adding a path that was already added replaces the earlier entry.
+ *
+ * <p>Jar and srcjar archives start with a {@code META-INF/MANIFEST.MF} entry, as written by {@link
+ * java.util.jar.JarOutputStream}, unless one was added explicitly. Zip archives with more than
+ * 65535 entries or beyond 4GB use zip64 records.
+ */
+public final class ArchiveWriter implements Closeable {
+
+  private static final int EXECUTABLE_MODE = 0100755;
+  private static final int REGULAR_MODE = 0100644;
+
+  // 1980-01-01 00:00:00, the earliest time representable in a zip file.
+  private static final int ZIP_DOS_TIME = 0;
+  private static final int ZIP_DOS_DATE = (1 << 5) | 1;
+
+  private static final int ZIP_VERSION = 20;
+  private static final int ZIP64_VERSION = 45;
+  private static final long ZIP_MAX_OFFSET = 0xffffffffL;
+  private static final int ZIP_MAX_ENTRIES = 0xffff;
+
+  private static final int TAR_BLOCK_SIZE = 512;
+  private static final int GZIP_CHUNK_SIZE = 1 << 20;
+
+  private enum Format {
+    ZIP,
+    TAR_GZ
+  }
+
+  private final String outputPath;
+  private final Format format;
+  private final boolean jar;
+  private final ExecutorService executor;
+  // Guarded by this.
+  private final Map<String, Future<Entry>> entries = new TreeMap<>();
+  private boolean closed;
+
+  /** Returns whether {@code outputPath} names an archive that this writer can produce. */
+  public static boolean isArchive(String outputPath) {
+    return getFormat(outputPath) != null;
+  }
+
+  /** Creates a writer that compresses entries on all available processors. */
+  public ArchiveWriter(String outputPath) {
+    this(outputPath, Runtime.getRuntime().availableProcessors());
+  }
+
+  /** Creates a writer that compresses entries on at most {@code threads} threads. */
+  public ArchiveWriter(String outputPath, int threads) {
+    Preconditions.checkArgument(isArchive(outputPath), "Not an archive: %s", outputPath);
+    Preconditions.checkArgument(threads > 0, "threads must be positive");
+    this.outputPath = outputPath;
+    this.format = getFormat(outputPath);
+    this.jar = outputPath.endsWith(".jar") || outputPath.endsWith(".srcjar");
+    this.executor =
+        threads == 1
+            ? MoreExecutors.newDirectExecutorService()
+            : Executors.newFixedThreadPool(
+                threads,
+                new ThreadFactoryBuilder()
+                    .setNameFormat("gapic-archive-%d")
+                    .setDaemon(true)
+                    .build());
+  }
+
+  /** Adds a file to the archive, replacing any file previously added with the same path. */
+  public synchronized void add(String path, byte[] content, boolean executable) {
+    Preconditions.checkState(!closed, "Archive %s is already closed", outputPath);
+    Entry entry = new Entry(path, content, executable);
+    entries.put(path, executor.submit(format == Format.ZIP ? entry::deflate : () -> entry));
+  }
+
+  /** Writes the archive, waiting for the compression of all entries. */
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outputPath))) {
+      List<Entry> sortedEntries = new ArrayList<>(entries.size() + 1);
+      if (jar && !entries.containsKey(JarFile.MANIFEST_NAME)) {
+        sortedEntries.add(new Entry(JarFile.MANIFEST_NAME, defaultManifest(), false).deflate());
+      }
+      for (Future<Entry> entry : entries.values()) {
+        sortedEntries.add(getUninterruptibly(entry));
+      }
+      entries.clear();
+      if (format == Format.ZIP) {
+        writeZip(sortedEntries, out);
+      } else {
+        writeTarGz(sortedEntries, out);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static Format getFormat(String outputPath) {
+    if (outputPath.endsWith(".zip")
+        || outputPath.endsWith(".jar")
+        || outputPath.endsWith(".srcjar")) {
+      return Format.ZIP;
+    } else if (outputPath.endsWith(".tar.gz") || outputPath.endsWith(".tgz")) {
+      return Format.TAR_GZ;
+    }
+    return null;
+  }
+
+  private static byte[] defaultManifest() throws IOException {
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    manifest.write(out);
+    return out.toByteArray();
+  }
+
+  /**
+   * Writes a zip archive. Entry sizes always fit the 32-bit header fields since entries are held
+   * in byte arrays, so zip64 records are only needed for offsets beyond 4GB and for more than
+   * 65535 entries.
+   */
+  private static void writeZip(List<Entry> entries, OutputStream out) throws IOException {
+    long offset = 0;
+    ByteArrayOutputStream centralDirectory = new ByteArrayOutputStream();
+    for (Entry entry : entries) {
+      byte[] name = entry.path.getBytes(StandardCharsets.UTF_8);
+
+      ByteBuffer localHeader = littleEndian(30 + name.length);
+      localHeader.putInt(0x04034b50);
+      putZipEntryFields(localHeader, ZIP_VERSION, entry, name);
+      localHeader.putShort((short) 0); // extra field length
+      localHeader.put(name);
+      out.write(localHeader.array());
+      out.write(entry.compressed);
+
+      // The offset of the local header moves to a zip64 extra field when it exceeds 32 bits.
+      boolean zip64 = offset >= ZIP_MAX_OFFSET;
+      int version = zip64 ? ZIP64_VERSION : ZIP_VERSION;
+      int extraLength = zip64 ? 12 : 0;
+      ByteBuffer centralHeader = littleEndian(46 + name.length + extraLength);
+      centralHeader.putInt(0x02014b50);
+      centralHeader.putShort((short) ((3 << 8) | version)); // made by: unix
+      putZipEntryFields(centralHeader, version, entry, name);
+      centralHeader.putShort((short) extraLength);
+      centralHeader.putShort((short) 0); // comment length
+      centralHeader.putShort((short) 0); // disk number
+      centralHeader.putShort((short) 0); // internal attributes
+      centralHeader.putInt(entry.mode() << 16); // external attributes: unix mode
+      centralHeader.putInt((int) Math.min(offset, ZIP_MAX_OFFSET));
+      centralHeader.put(name);
+      if (zip64) {
+        centralHeader.putShort((short) 0x0001); // zip64 extra field
+        centralHeader.putShort((short) 8);
+        centralHeader.putLong(offset);
+      }
+      centralDirectory.write(centralHeader.array());
+
+      offset += localHeader.capacity() + entry.compressed.length;
+    }
+    centralDirectory.writeTo(out);
+
+    long centralDirectorySize = centralDirectory.size();
+    if (entries.size() >= ZIP_MAX_ENTRIES
+        || offset >= ZIP_MAX_OFFSET
+        || centralDirectorySize >= ZIP_MAX_OFFSET) {
+      long zip64EndOffset = offset + centralDirectorySize;
+      ByteBuffer zip64End = littleEndian(56);
+      zip64End.putInt(0x06064b50);
+      zip64End.putLong(44); // size of the remaining record
+      zip64End.putShort((short) ((3 << 8) | ZIP64_VERSION));
+      zip64End.putShort((short) ZIP64_VERSION);
+      zip64End.putInt(0); // disk number
+      zip64End.putInt(0); // disk with central directory
+      zip64End.putLong(entries.size());
+      zip64End.putLong(entries.size());
+      zip64End.putLong(centralDirectorySize);
+      zip64End.putLong(offset);
+      out.write(zip64End.array());
+
+      ByteBuffer zip64Locator = littleEndian(20);
+      zip64Locator.putInt(0x07064b50);
+      zip64Locator.putInt(0); // disk with the zip64 end record
+      zip64Locator.putLong(zip64EndOffset);
+      zip64Locator.putInt(1); // total disks
+      out.write(zip64Locator.array());
+    }
+
+    // Fields that overflow are saturated; readers then take them from the zip64 end record.
+    ByteBuffer end = littleEndian(22);
+    end.putInt(0x06054b50);
+    end.putShort((short) 0); // disk number
+    end.putShort((short) 0); // disk with central directory
+    end.putShort((short) Math.min(entries.size(), ZIP_MAX_ENTRIES));
+    end.putShort((short) Math.min(entries.size(), ZIP_MAX_ENTRIES));
+    end.putInt((int) Math.min(centralDirectorySize, ZIP_MAX_OFFSET));
+    end.putInt((int) Math.min(offset, ZIP_MAX_OFFSET));
+    end.putShort((short) 0); // comment length
+    out.write(end.array());
+  }
+
+  /** Puts the fields shared by the local and central zip headers, up to the name length. */
+  private static void putZipEntryFields(
+      ByteBuffer header, int versionNeeded, Entry entry, byte[] name) {
+    header.putShort((short) versionNeeded);
+    header.putShort((short) 0x0800); // flags: UTF-8 names
+    header.putShort((short) 8); // method: deflate
+    header.putShort((short) ZIP_DOS_TIME);
+    header.putShort((short) ZIP_DOS_DATE);
+    header.putInt((int) entry.crc);
+    header.putInt(entry.compressed.length);
+    header.putInt(entry.size);
+    header.putShort((short) name.length);
+  }
+
+  private static ByteBuffer littleEndian(int size) {
+    return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Writes a tar archive compressed as a sequence of gzip members. Each member holds about {@link
+   * #GZIP_CHUNK_SIZE} bytes of the tar stream and is compressed in parallel; gzip readers treat
+   * concatenated members as a single stream.
+   */
+  private void writeTarGz(List<Entry> entries, OutputStream out) throws IOException {
+    List<Future<byte[]>> chunks = new ArrayList<>();
+    ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+    for (Entry entry : entries) {
+      writeTarEntry(entry, chunk);
+      if (chunk.size() >= GZIP_CHUNK_SIZE) {
+        chunks.add(gzip(chunk.toByteArray()));
+        chunk.reset();
+      }
+    }
+    // The end of a tar archive is marked by two empty blocks.
+    chunk.write(new byte[2 * TAR_BLOCK_SIZE]);
+    chunks.add(gzip(chunk.toByteArray()));
+
+    for (Future<byte[]> compressedChunk : chunks) {
+      out.write(getUninterruptibly(compressedChunk));
+    }
+  }
+
+  private Future<byte[]> gzip(byte[] data) {
+    return executor.submit(
+        () -> {
+          ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 4 + 64);
+          try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(data);
+          }
+          return compressed.toByteArray();
+        });
+  }
+
+  private static void writeTarEntry(Entry entry, ByteArrayOutputStream out) throws IOException {
+    byte[] name = entry.path.getBytes(StandardCharsets.UTF_8);
+    byte[] prefix = new byte[0];
+    if (name.length > 100) {
+      int split = findUstarSplit(entry.path);
+      if (split < 0) {
+        // The path does not fit a ustar header; record it in a pax extended header.
+        writeTarPaxPath(entry.path, out);
+        name = "././@PaxPath".getBytes(StandardCharsets.UTF_8);
+      } else {
+        prefix = entry.path.substring(0, split).getBytes(StandardCharsets.UTF_8);
+        name = entry.path.substring(split + 1).getBytes(StandardCharsets.UTF_8);
+      }
+    }
+    out.write(tarHeader(name, prefix, entry.mode() & 07777, entry.content.length, '0'));
+    writeTarData(entry.content, out);
+  }
+
+  /**
+   * Returns the index of the slash at which a long path can be split into a ustar prefix and name,
+   * or -1 if there is none.
+   */
+  private static int findUstarSplit(String path) {
+    for (int i = path.indexOf('/'); i >= 0; i = path.indexOf('/', i + 1)) {
+      int prefixLength = path.substring(0, i).getBytes(StandardCharsets.UTF_8).length;
+      int nameLength = path.substring(i + 1).getBytes(StandardCharsets.UTF_8).length;
+      if (prefixLength <= 155 && nameLength <= 100 && nameLength > 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static void writeTarPaxPath(String path, ByteArrayOutputStream out) throws IOException {
+    String record = " path=" + path + "\n";
+    int recordLength = record.getBytes(StandardCharsets.UTF_8).length;
+    // The record length includes the digits of the length itself.
+    int length = recordLength + 1;
+    while (length != recordLength + Integer.toString(length).length()) {
+      length = recordLength + Integer.toString(length).length();
+    }
+    byte[] data = (length + record).getBytes(StandardCharsets.UTF_8);
+    out.write(
+        tarHeader(
+            "././@PaxHeader".getBytes(StandardCharsets.UTF_8),
+            new byte[0],
+            0644,
+            data.length,
+            'x'));
+    writeTarData(data, out);
+  }
+
+  private static byte[] tarHeader(byte[] name, byte[] prefix, int mode, long size, char typeFlag) {
+    byte[] header = new byte[TAR_BLOCK_SIZE];
+    System.arraycopy(name, 0, header, 0, name.length);
+    putOctal(header, 100, 8, mode);
+    putOctal(header, 108, 8, 0); // uid
+    putOctal(header, 116, 8, 0); // gid
+    putOctal(header, 124, 12, size);
+    putOctal(header, 136, 12, 0); // mtime
+    header[156] = (byte) typeFlag;
+    System.arraycopy("ustar\0".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 6);
+    header[263] = '0';
+    header[264] = '0';
+    System.arraycopy(prefix, 0, header, 345, prefix.length);
+
+    // The checksum is computed with the checksum field itself filled with spaces.
+    for (int i = 148; i < 156; i++) {
+      header[i] = ' ';
+    }
+    long checksum = 0;
+    for (byte b : header) {
+      checksum += b & 0xff;
+    }
+    putOctal(header, 148, 7, checksum);
+    return header;
+  }
+
+  /** Puts {@code value} as a zero-padded, NUL-terminated octal number in the given field. */
+  private static void putOctal(byte[] header, int offset, int length, long value) {
+    String octal = Long.toOctalString(value);
+    if (octal.length() > length - 1) {
+      throw new IllegalArgumentException("Value too large for tar header: " + value);
+    }
+    for (int i = 0; i < length - 1 - octal.length(); i++) {
+      header[offset + i] = '0';
+    }
+    for (int i = 0; i < octal.length(); i++) {
+      header[offset + length - 1 - octal.length() + i] = (byte) octal.charAt(i);
+    }
+    header[offset + length - 1] = 0;
+  }
+
+  private static void writeTarData(byte[] data, ByteArrayOutputStream out) throws IOException {
+    out.write(data);
+    int padding = (TAR_BLOCK_SIZE - data.length % TAR_BLOCK_SIZE) % TAR_BLOCK_SIZE;
+    out.write(new byte[padding]);
+  }
+
+  private static <T> T getUninterruptibly(Future<T> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while compressing archive entries", e);
+    } catch (ExecutionException e) {
+      Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  private static class Entry {
+    private final String path;
+    private final int size;
+    private final boolean executable;
+    // The uncompressed content; dropped once a zip entry is compressed.
+    private byte[] content;
+    private byte[] compressed;
+    private long crc;
+
+    private Entry(String path, byte[] content, boolean executable) {
+      this.path = path;
+      this.size = content.length;
+      this.executable = executable;
+      this.content = content;
+    }
+
+    private int mode() {
+      return executable ? EXECUTABLE_MODE : REGULAR_MODE;
+    }
+
+    /** Computes the raw deflate data and checksum of a zip entry. */
+    private Entry deflate() {
+      CRC32 checksum = new CRC32();
+      checksum.update(content);
+      crc = checksum.getValue();
+
+      Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+      try {
+        deflater.setInput(content);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4 + 64);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+          out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        compressed = out.toByteArray();
+        content = null;
+      } finally {
+        deflater.end();
+      }
+      return this;
+    }
+  }
+}
@@ -0,0 +1,131 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import org.commonmark.node.Node;
+import org.commonmark.parser.Parser;
+
+/**
+ * A process-wide, bounded cache of reformatted comments and parsed markdown.
+ *
+ * <p>The same proto comment is turned into doc lines many times per run: once for the main client
+ * file, and again for settings, tests and samples. Reformatted doc lines are cached by reformatter
+ * class, comment text and maximum line width, so {@link CommentReformatter} implementations must be
+ * stateless. Parsed markdown documents are shared as well, and must not be modified by visitors.
+ */
+public final class CommentCache {
+
+  private static final int MAX_DOC_LINES = 50_000;
+  private static final int MAX_MARKDOWN_DOCUMENTS = 10_000;
+
+  /** The maxWidth of doc lines that are split on newlines only. */
+  private static final int NO_WRAPPING = 0;
+
+  // Parser is thread-safe.
+  private static final Parser MARKDOWN_PARSER = Parser.builder().build();
+
+  private static final Cache<DocLinesKey, ImmutableList<String>> DOC_LINES =
+      CacheBuilder.newBuilder().maximumSize(MAX_DOC_LINES).recordStats().build();
+
+  private static final Cache<String, Node> MARKDOWN_DOCUMENTS =
+      CacheBuilder.newBuilder().maximumSize(MAX_MARKDOWN_DOCUMENTS).recordStats().build();
+
+  private CommentCache() {}
+
+  /**
+   * Equivalent to {@code CommonRenderingUtil.getDocLines(reformatter.reformat(text))}, except that
+   * the result is computed once per reformatter class and text.
+   */
+  public static List<String> getDocLines(CommentReformatter reformatter, String text) {
+    return getDocLines(reformatter, text, NO_WRAPPING);
+  }
+
+  /**
+   * Equivalent to {@code CommonRenderingUtil.getDocLines(reformatter.reformat(text), maxWidth)},
+   * except that the result is computed once per reformatter class, text and maxWidth. A maxWidth of
+   * 0 splits on newlines only.
+   */
+  public static List<String> getDocLines(
+      CommentReformatter reformatter, String text, int maxWidth) {
+    Preconditions.checkArgument(maxWidth >= 0, "maxWidth must not be negative");
+    DocLinesKey key = DocLinesKey.create(reformatter.getClass(), text, maxWidth);
+    return get(
+        DOC_LINES,
+        key,
+        () -> {
+          String reformatted = reformatter.reformat(text);
+          return ImmutableList.copyOf(
+              maxWidth == NO_WRAPPING
+                  ? CommonRenderingUtil.getDocLines(reformatted)
+                  : CommonRenderingUtil.getDocLines(reformatted, maxWidth));
+        });
+  }
+
+  /** Returns the parsed markdown document of the given text, parsing it at most once. */
+  public static Node parseMarkdown(String markdown) {
+    return get(MARKDOWN_DOCUMENTS, markdown, () -> MARKDOWN_PARSER.parse(markdown));
+  }
+
+  /** Returns the hit and miss counts of the doc lines cache. */
+  public static CacheStats docLinesStats() {
+    return DOC_LINES.stats();
+  }
+
+  /** Returns the hit and miss counts of the markdown document cache. */
+  public static CacheStats markdownStats() {
+    return MARKDOWN_DOCUMENTS.stats();
+  }
+
+  /** Empties both caches, for measurements that must not reuse earlier results. */
+  @VisibleForTesting
+  static void clear() {
+    DOC_LINES.invalidateAll();
+    MARKDOWN_DOCUMENTS.invalidateAll();
+  }
+
+  private static <K, V> V get(Cache<K, V> cache, K key, Callable<V> loader) {
+    try {
+      return cache.get(key, loader);
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  @AutoValue
+  abstract static class DocLinesKey {
+    abstract Class<?> reformatterClass();
+
+    abstract String text();
+
+    abstract int maxWidth();
+
+    static DocLinesKey create(Class<?> reformatterClass, String text, int maxWidth) {
+      return new AutoValue_CommentCache_DocLinesKey(reformatterClass, text, maxWidth);
+    }
+  }
+}
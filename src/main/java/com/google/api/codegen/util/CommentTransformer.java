@@ -14,6 +14,7 @@
  */
 package com.google.api.codegen.util;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.collect.ImmutableList;
 import java.util.regex.Matcher;
@@ -23,19 +24,183 @@ public class CommentTransformer {
 
   public static String CLOUD_URL_PREFIX = "https://cloud.google.com";
 
+  private static final char NO_REQUIRED_CHAR = 0;
+  private static final String REGEX_METACHARS = "[](){}.*+?^$|";
+  private static final String OPTIONAL_QUANTIFIERS = "?*{";
+
   private ImmutableList<Transformation> transformations;
 
   private CommentTransformer(ImmutableList<Transformation> transformations) {
     this.transformations = transformations;
   }
 
+  /**
+   * Applies the transformations in order.
+   *
+   * <p>Most comments contain none of the characters that the transformation patterns start with, so
+   * the comment is scanned once for the ASCII characters it contains, and transformations whose
+   * pattern requires a character that is absent are skipped. The characters are scanned for again
+   * only after a transformation has changed the comment.
+   */
   public String transform(String comment) {
+    long[] presentChars = null;
     for (Transformation transformation : transformations) {
-      comment = transformation.apply(comment);
+      if (transformation.requiredChar != NO_REQUIRED_CHAR) {
+        if (presentChars == null) {
+          presentChars = asciiChars(comment);
+        }
+        if (!contains(presentChars, transformation.requiredChar)) {
+          continue;
+        }
+      }
+      String transformed = transformation.apply(comment);
+      if (transformed != comment) {
+        comment = transformed;
+        presentChars = null;
+      }
     }
     return comment;
   }
 
+  /** Returns a 128-bit set of the ASCII characters in text. */
+  private static long[] asciiChars(String text) {
+    long[] chars = new long[2];
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c < 128) {
+        chars[c >> 6] |= 1L << (c & 63);
+      }
+    }
+    return chars;
+  }
+
+  private static boolean contains(long[] chars, char c) {
+    return (chars[c >> 6] & (1L << (c & 63))) != 0;
+  }
+
+  /**
+   * Returns an ASCII character that every match of pattern contains, or {@link #NO_REQUIRED_CHAR}
+   * if none is found.
+   *
+   * <p>This only recognizes patterns that, after leading anchors and lookaround groups, start with
+   * a mandatory literal character, which is the case for the comment patterns in {@link
+   * CommentPatterns}. Patterns with alternation, quoting or flags other than {@link
+   * Pattern#MULTILINE} are never skipped.
+   */
+  @VisibleForTesting
+  static char requiredChar(Pattern pattern) {
+    if ((pattern.flags() & ~Pattern.MULTILINE) != 0) {
+      return NO_REQUIRED_CHAR;
+    }
+    String regex = pattern.pattern();
+    if (regex.contains("\\Q") || hasAlternation(regex)) {
+      return NO_REQUIRED_CHAR;
+    }
+
+    int i = 0;
+    while (i < regex.length()) {
+      if (regex.charAt(i) == '^') {
+        i++;
+      } else if (regex.startsWith("(?=", i)
+          || regex.startsWith("(?!", i)
+          || regex.startsWith("(?<=", i)
+          || regex.startsWith("(?<!", i)) {
+        i = skipGroup(regex, i);
+        if (i < 0) {
+          return NO_REQUIRED_CHAR;
+        }
+      } else {
+        break;
+      }
+    }
+    if (i >= regex.length()) {
+      return NO_REQUIRED_CHAR;
+    }
+
+    char literal = regex.charAt(i);
+    int next = i + 1;
+    if (literal == '\\') {
+      if (next >= regex.length() || Character.isLetterOrDigit(regex.charAt(next))) {
+        return NO_REQUIRED_CHAR;
+      }
+      literal = regex.charAt(next);
+      next++;
+    } else if (REGEX_METACHARS.indexOf(literal) >= 0) {
+      return NO_REQUIRED_CHAR;
+    }
+    if (literal >= 128
+        || (next < regex.length() && OPTIONAL_QUANTIFIERS.indexOf(regex.charAt(next)) >= 0)) {
+      return NO_REQUIRED_CHAR;
+    }
+    return literal;
+  }
+
+  /**
+   * Returns whether regex has an alternation outside of character classes, at any depth, or has a
+   * character class that cannot be skipped.
+   */
+  private static boolean hasAlternation(String regex) {
+    for (int i = 0; i < regex.length(); i++) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        i++;
+      } else if (c == '[') {
+        i = skipCharClass(regex, i) - 1;
+        if (i < 0) {
+          return true;
+        }
+      } else if (c == '|') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns the index after the group that starts at start, or -1 if it is not closed. */
+  private static int skipGroup(String regex, int start) {
+    int depth = 0;
+    for (int i = start; i < regex.length(); i++) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        i++;
+      } else if (c == '[') {
+        i = skipCharClass(regex, i) - 1;
+        if (i < 0) {
+          return -1;
+        }
+      } else if (c == '(') {
+        depth++;
+      } else if (c == ')') {
+        depth--;
+        if (depth == 0) {
+          return i + 1;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the index after the character class that starts at start, or -1 if it is not closed.
+   */
+  private static int skipCharClass(String regex, int start) {
+    int depth = 0;
+    for (int i = start; i < regex.length(); i++) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        i++;
+      } else if (c == '[') {
+        depth++;
+      } else if (c == ']') {
+        depth--;
+        if (depth == 0) {
+          return i + 1;
+        }
+      }
+    }
+    return -1;
+  }
+
   public static Builder newBuilder() {
     return new Builder();
   }
@@ -68,18 +233,24 @@ public class CommentTransformer {
   public static class Transformation {
     private Pattern pattern;
     private Function<String, String> replacementFunction;
+    private final char requiredChar;
 
     public Transformation(Pattern pattern, Function<String, String> replacementFunction) {
       this.pattern = pattern;
       this.replacementFunction = replacementFunction;
+      this.requiredChar = requiredChar(pattern);
     }
 
+    /** Applies the transformation to comment, returning comment itself if nothing matches. */
     public String apply(String comment) {
-      StringBuffer sb = new StringBuffer();
       Matcher m = pattern.matcher(comment);
-      while (m.find()) {
-        m.appendReplacement(sb, replacementFunction.apply(m.group()));
+      if (!m.find()) {
+        return comment;
       }
+      StringBuffer sb = new StringBuffer(comment.length() + 16);
+      do {
+        m.appendReplacement(sb, replacementFunction.apply(m.group()));
+      } while (m.find());
       m.appendTail(sb);
       return sb.toString();
     }
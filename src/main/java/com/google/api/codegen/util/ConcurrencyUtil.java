@@ -0,0 +1,141 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/** Utilities for running generator work on bounded thread pools. */
+public class ConcurrencyUtil {
+
+  private ConcurrencyUtil() {}
+
+  /**
+   * Runs the given tasks on at most {@code threads} threads and returns their results in task
+   * order. With a single thread (or a single task) the tasks run sequentially on the calling
+   * thread.
+   *
+   * <p>If any task fails, an {@link ExecutionException} wrapping the failure of the first failing
+   * task in task order is thrown, so callers observe the same failure as in sequential execution.
+   *
+   * @param threadNameFormat a {@link String#format} pattern with one integer argument, used to name
+   *     the pool threads
+   */
+  public static <T> List<T> invokeAllInOrder(
+      List<? extends Callable<T>> tasks, int threads, String threadNameFormat)
+      throws ExecutionException {
+    List<T> results = new ArrayList<>(tasks.size());
+    if (threads <= 1 || tasks.size() <= 1) {
+      for (Callable<T> task : tasks) {
+        try {
+          results.add(task.call());
+        } catch (Exception e) {
+          throw new ExecutionException(e);
+        }
+      }
+      return results;
+    }
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(threads, tasks.size()),
+            new ThreadFactoryBuilder().setNameFormat(threadNameFormat).setDaemon(true).build());
+    try {
+      List<Future<T>> futures = new ArrayList<>(tasks.size());
+      for (Callable<T> task : tasks) {
+        futures.add(executor.submit(task));
+      }
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for generator tasks", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Runs the given tasks on at most {@code threads} threads and passes each result to {@code
+   * consumer} on the calling thread, in task order. Unlike {@link #invokeAllInOrder}, results are
+   * not retained: at most {@code 2 * threads} results are held at any time, waiting for the
+   * consumer to take them.
+   *
+   * <p>If a task or the consumer fails, the remaining tasks are cancelled and an {@link
+   * ExecutionException} wrapping the failure is thrown.
+   *
+   * @param threadNameFormat a {@link String#format} pattern with one integer argument, used to name
+   *     the pool threads
+   */
+  public static <T> void forEachInOrder(
+      List<? extends Callable<T>> tasks,
+      int threads,
+      String threadNameFormat,
+      ResultConsumer<? super T> consumer)
+      throws ExecutionException {
+    if (threads <= 1 || tasks.size() <= 1) {
+      for (Callable<T> task : tasks) {
+        try {
+          consumer.accept(task.call());
+        } catch (Exception e) {
+          throw new ExecutionException(e);
+        }
+      }
+      return;
+    }
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(threads, tasks.size()),
+            new ThreadFactoryBuilder().setNameFormat(threadNameFormat).setDaemon(true).build());
+    try {
+      int window = 2 * threads;
+      Deque<Future<T>> pending = new ArrayDeque<>(window);
+      Iterator<? extends Callable<T>> remaining = tasks.iterator();
+      while (remaining.hasNext() || !pending.isEmpty()) {
+        while (remaining.hasNext() && pending.size() < window) {
+          pending.add(executor.submit(remaining.next()));
+        }
+        T result = pending.remove().get();
+        try {
+          consumer.accept(result);
+        } catch (Exception e) {
+          throw new ExecutionException(e);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for generator tasks", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** Receives task results from {@link #forEachInOrder}. */
+  public interface ResultConsumer<T> {
+    void accept(T result) throws Exception;
+  }
+}
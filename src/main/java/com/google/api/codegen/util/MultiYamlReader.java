@@ -38,6 +38,20 @@ public class MultiYamlReader {
       List<String> inputNames,
       List<String> inputs,
       Map<String, Message> supportedConfigTypes) {
+    return read(collector, inputNames, inputs, supportedConfigTypes, null);
+  }
+
+  /**
+   * Reads and merges the given YAML inputs. If cache is non-null, configs parsed by earlier
+   * invocations from the same content are taken from it, and newly parsed configs are added to it.
+   */
+  @Nullable
+  public static ConfigSource read(
+      DiagCollector collector,
+      List<String> inputNames,
+      List<String> inputs,
+      Map<String, Message> supportedConfigTypes,
+      @Nullable YamlConfigCache cache) {
     Preconditions.checkArgument(
         inputNames.size() == inputs.size(),
         "size() of inputNames and inputs not equal: %d != %d",
@@ -48,8 +62,17 @@ public class MultiYamlReader {
       String inputName = inputNames.get(i);
       String input = inputs.get(i);
 
-      ConfigSource source =
-          YamlReader.readConfig(collector, inputName, input, supportedConfigTypes);
+      ConfigSource source = null;
+      Message cachedConfig = cache != null ? cache.get(input, supportedConfigTypes) : null;
+      if (cachedConfig != null) {
+        source = ConfigSource.newBuilder(cachedConfig).build();
+      } else {
+        int diagCount = collector.getDiags().size();
+        source = YamlReader.readConfig(collector, inputName, input, supportedConfigTypes);
+        if (cache != null && source != null && collector.getDiags().size() == diagCount) {
+          cache.put(input, supportedConfigTypes, source.getConfig());
+        }
+      }
 
       if (source != null) {
         if (sourceBuilder == null) {
@@ -70,6 +93,16 @@ public class MultiYamlReader {
   @Nullable
   public static ConfigSource read(
       DiagCollector collector, List<File> files, Map<String, Message> supportedConfigTypes) {
+    return read(collector, files, supportedConfigTypes, null);
+  }
+
+  /** Reads and merges the given YAML files, using cache as in {@link #read}. */
+  @Nullable
+  public static ConfigSource read(
+      DiagCollector collector,
+      List<File> files,
+      Map<String, Message> supportedConfigTypes,
+      @Nullable YamlConfigCache cache) {
     List<String> inputNames = new ArrayList<>();
     List<String> inputs = new ArrayList<>();
     for (File file : files) {
@@ -89,7 +122,7 @@ public class MultiYamlReader {
     if (collector.getErrorCount() > 0) {
       return null;
     } else {
-      return read(collector, inputNames, inputs, supportedConfigTypes);
+      return read(collector, inputNames, inputs, supportedConfigTypes, cache);
     }
   }
 }
@@ -17,14 +17,30 @@ package com.google.api.codegen.util;
 import com.google.api.codegen.util.CommonAcronyms.NamePieceCasingType;
 import com.google.api.codegen.util.CommonAcronyms.SubNamePiece;
 import com.google.common.base.CaseFormat;
-import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
-import java.util.ArrayList;
-import java.util.List;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.util.Objects;
 
-/** Name represents an identifier name which is casing-aware. */
+/**
+ * Name represents an identifier name which is casing-aware.
+ *
+ * <p>Names are immutable. Each case form is computed on first use and cached, and the pieces of all
+ * names are interned, so that the conversion of a piece to a case format is computed once for all
+ * names that contain the piece.
+ */
 public class Name {
-  private List<NamePiece> namePieces;
+  private static final Interner<NamePiece> NAME_PIECES = Interners.newWeakInterner();
+
+  private final ImmutableList<NamePiece> namePieces;
+
+  // Case forms, computed on first use. Strings are immutable, so the cached values can be shared
+  // between threads without synchronization; a race computes the same value twice.
+  private String lowerUnderscore;
+  private String upperUnderscore;
+  private String lowerCamel;
+  private String upperCamel;
 
   /**
    * Creates a Name from a sequence of lower-underscore strings.
@@ -33,15 +49,15 @@ public class Name {
    *     lower case or underscores.
    */
   public static Name from(String... pieces) {
-    List<NamePiece> namePieces = new ArrayList<>();
+    ImmutableList.Builder<NamePiece> namePieces = ImmutableList.builder();
     for (String piece : pieces) {
       if (Strings.isNullOrEmpty(piece)) {
         continue;
       }
       validateLowerUnderscore(piece);
-      namePieces.add(new NamePiece(piece, CaseFormat.LOWER_UNDERSCORE));
+      namePieces.add(NamePiece.create(piece, CaseFormat.LOWER_UNDERSCORE));
     }
-    return new Name(namePieces);
+    return new Name(namePieces.build());
   }
 
   /**
@@ -78,15 +94,15 @@ public class Name {
    *     upper case or underscores.
    */
   public static Name upperUnderscore(String... pieces) {
-    List<NamePiece> namePieces = new ArrayList<>();
+    ImmutableList.Builder<NamePiece> namePieces = ImmutableList.builder();
     for (String piece : pieces) {
       if (Strings.isNullOrEmpty(piece)) {
         continue;
       }
       validateUpperUnderscore(piece);
-      namePieces.add(new NamePiece(piece, CaseFormat.UPPER_UNDERSCORE));
+      namePieces.add(NamePiece.create(piece, CaseFormat.UPPER_UNDERSCORE));
     }
-    return new Name(namePieces);
+    return new Name(namePieces.build());
   }
 
   /**
@@ -134,7 +150,7 @@ public class Name {
 
   private static Name camelInternal(
       CheckCase checkCase, AcronymMode acronymMode, String... pieces) {
-    List<NamePiece> namePieces = new ArrayList<>();
+    ImmutableList.Builder<NamePiece> namePieces = ImmutableList.builder();
     for (String piece : pieces) {
       if (Strings.isNullOrEmpty(piece)) {
         continue;
@@ -147,10 +163,10 @@ public class Name {
           caseFormat = CaseFormat.UPPER_UNDERSCORE;
           casingMode = acronymMode.casingMode;
         }
-        namePieces.add(new NamePiece(subPiece.namePieceString(), caseFormat, casingMode));
+        namePieces.add(NamePiece.create(subPiece.namePieceString(), caseFormat, casingMode));
       }
     }
-    return new Name(namePieces);
+    return new Name(namePieces.build());
   }
 
   private static void validateLowerUnderscore(String identifier) {
@@ -210,36 +226,58 @@ public class Name {
     return true;
   }
 
-  private Name(List<NamePiece> namePieces) {
+  private Name(ImmutableList<NamePiece> namePieces) {
     this.namePieces = namePieces;
   }
 
   /** Returns the identifier in upper-underscore format. */
   public String toUpperUnderscore() {
-    return toUnderscore(CaseFormat.UPPER_UNDERSCORE);
+    String result = upperUnderscore;
+    if (result == null) {
+      result = upperUnderscore = toUnderscore(CaseFormat.UPPER_UNDERSCORE);
+    }
+    return result;
   }
 
   /** Returns the identifier in lower-underscore format. */
   public String toLowerUnderscore() {
-    return toUnderscore(CaseFormat.LOWER_UNDERSCORE);
+    String result = lowerUnderscore;
+    if (result == null) {
+      result = lowerUnderscore = toUnderscore(CaseFormat.LOWER_UNDERSCORE);
+    }
+    return result;
   }
 
   private String toUnderscore(CaseFormat caseFormat) {
-    List<String> newPieces = new ArrayList<>();
-    for (NamePiece namePiece : namePieces) {
-      newPieces.add(namePiece.caseFormat.to(caseFormat, namePiece.identifier));
+    if (namePieces.size() == 1) {
+      return namePieces.get(0).to(caseFormat);
+    }
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < namePieces.size(); i++) {
+      if (i > 0) {
+        builder.append('_');
+      }
+      builder.append(namePieces.get(i).to(caseFormat));
     }
-    return Joiner.on('_').join(newPieces);
+    return builder.toString();
   }
 
   /** Returns the identifier in lower-camel format. */
   public String toLowerCamel() {
-    return toCamel(CaseFormat.LOWER_CAMEL);
+    String result = lowerCamel;
+    if (result == null) {
+      result = lowerCamel = toCamel(CaseFormat.LOWER_CAMEL);
+    }
+    return result;
   }
 
   /** Returns the identifier in upper-camel format. */
   public String toUpperCamel() {
-    return toCamel(CaseFormat.UPPER_CAMEL);
+    String result = upperCamel;
+    if (result == null) {
+      result = upperCamel = toCamel(CaseFormat.UPPER_CAMEL);
+    }
+    return result;
   }
 
   public String toUpperCamelAndDigits() {
@@ -257,21 +295,21 @@ public class Name {
   }
 
   private String toCamel(CaseFormat caseFormat) {
-    StringBuffer buffer = new StringBuffer();
+    StringBuilder builder = new StringBuilder();
     boolean firstPiece = true;
     for (NamePiece namePiece : namePieces) {
       if (firstPiece && caseFormat.equals(CaseFormat.LOWER_CAMEL)) {
-        buffer.append(namePiece.caseFormat.to(CaseFormat.LOWER_CAMEL, namePiece.identifier));
+        builder.append(namePiece.to(CaseFormat.LOWER_CAMEL));
       } else {
         CaseFormat toCaseFormat = CaseFormat.UPPER_CAMEL;
         if (namePiece.casingMode.equals(CasingMode.UPPER_CAMEL_TO_SQUASHED_UPPERCASE)) {
           toCaseFormat = CaseFormat.UPPER_UNDERSCORE;
         }
-        buffer.append(namePiece.caseFormat.to(toCaseFormat, namePiece.identifier));
+        builder.append(namePiece.to(toCaseFormat));
       }
       firstPiece = false;
     }
-    return buffer.toString();
+    return builder.toString();
   }
 
   /** Returns the name in human readable form, useful in comments. */
@@ -290,10 +328,11 @@ public class Name {
    */
   public Name join(String identifier) {
     validateLowerUnderscore(identifier);
-    List<NamePiece> newPieceList = new ArrayList<>();
-    newPieceList.addAll(namePieces);
-    newPieceList.add(new NamePiece(identifier, CaseFormat.LOWER_UNDERSCORE));
-    return new Name(newPieceList);
+    return new Name(
+        ImmutableList.<NamePiece>builder()
+            .addAll(namePieces)
+            .add(NamePiece.create(identifier, CaseFormat.LOWER_UNDERSCORE))
+            .build());
   }
 
   /**
@@ -301,10 +340,8 @@ public class Name {
    * on the end.
    */
   public Name join(Name rhs) {
-    List<NamePiece> newPieceList = new ArrayList<>();
-    newPieceList.addAll(namePieces);
-    newPieceList.addAll(rhs.namePieces);
-    return new Name(newPieceList);
+    return new Name(
+        ImmutableList.<NamePiece>builder().addAll(namePieces).addAll(rhs.namePieces).build());
   }
 
   public String toOriginal() {
@@ -334,13 +371,21 @@ public class Name {
     return this.toLowerUnderscore().hashCode();
   }
 
-  private static class NamePiece {
+  private static final class NamePiece {
     public final String identifier;
     public final CaseFormat caseFormat;
     public final CasingMode casingMode;
 
-    private NamePiece(String identifier, CaseFormat caseFormat) {
-      this(identifier, caseFormat, CasingMode.NORMAL);
+    // The identifier converted to each CaseFormat, indexed by ordinal and computed on first use.
+    private final String[] conversions = new String[CaseFormat.values().length];
+
+    private static NamePiece create(String identifier, CaseFormat caseFormat) {
+      return create(identifier, caseFormat, CasingMode.NORMAL);
+    }
+
+    private static NamePiece create(
+        String identifier, CaseFormat caseFormat, CasingMode casingMode) {
+      return NAME_PIECES.intern(new NamePiece(identifier, caseFormat, casingMode));
     }
 
     private NamePiece(String identifier, CaseFormat caseFormat, CasingMode casingMode) {
@@ -348,6 +393,30 @@ public class Name {
       this.caseFormat = caseFormat;
       this.casingMode = casingMode;
     }
+
+    private String to(CaseFormat format) {
+      String result = conversions[format.ordinal()];
+      if (result == null) {
+        result = conversions[format.ordinal()] = caseFormat.to(format, identifier);
+      }
+      return result;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof NamePiece)) {
+        return false;
+      }
+      NamePiece that = (NamePiece) other;
+      return identifier.equals(that.identifier)
+          && caseFormat == that.caseFormat
+          && casingMode == that.casingMode;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(identifier, caseFormat, casingMode);
+    }
   }
 
   // Represents how acronyms should be rendered
@@ -0,0 +1,326 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.auto.value.AutoValue;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Records the wall time, CPU time and allocated bytes of the stages of a generation run, of each
+ * code generator and of each output file.
+ *
+ * <p>Measurements are taken on the thread that opens a {@link Span}, so a span covers only the work
+ * done on that thread. Spans nest: the time of a generator includes the time spent rendering its
+ * files on the same thread, and a stage that runs generators includes the wall time of the
+ * generators it waited for. The CPU time and allocation of a stage that hands work to other threads
+ * exclude that work, which is recorded by the spans the worker threads open; reports label them as
+ * thread figures for that reason. Spans with the same category and name are summed.
+ *
+ * <p>A disabled profiler takes no measurements. Instances are thread-safe.
+ */
+public final class Profiler {
+  /** Top-level steps of a run, such as building the model or writing the output. */
+  public static final String STAGE = "stage";
+  /** Code generators, named after the inputs they render. */
+  public static final String GENERATOR = "generator";
+  /** Model to view model transformations, named after the transformer class. */
+  public static final String TRANSFORM = "transform";
+  /** Rendering of a view model into a document, named after the output path. */
+  public static final String RENDER = "render";
+  /** Pretty-printing of a document, named after the output path. */
+  public static final String PRINT = "print";
+  /** Writing of an output file, named after the output path. */
+  public static final String WRITE = "write";
+
+  private static final int SUMMARY_ENTRIES_PER_CATEGORY = 10;
+
+  private static final Profiler DISABLED = new Profiler(false);
+  private static final Span NO_OP_SPAN = new Span(null, "", "");
+
+  private final boolean enabled;
+  @Nullable private final ThreadMXBean threadBean;
+  @Nullable private final com.sun.management.ThreadMXBean allocationBean;
+  private final long startNanos;
+
+  // Guarded by this.
+  private final Map<Key, Measurement> measurements = new LinkedHashMap<>();
+
+  private Profiler(boolean enabled) {
+    this.enabled = enabled;
+    this.startNanos = System.nanoTime();
+    if (!enabled) {
+      this.threadBean = null;
+      this.allocationBean = null;
+      return;
+    }
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    this.threadBean =
+        bean.isCurrentThreadCpuTimeSupported() && bean.isThreadCpuTimeEnabled() ? bean : null;
+    if (bean instanceof com.sun.management.ThreadMXBean
+        && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+        && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemoryEnabled()) {
+      this.allocationBean = (com.sun.management.ThreadMXBean) bean;
+    } else {
+      this.allocationBean = null;
+    }
+  }
+
+  /** Creates a profiler that records measurements. */
+  public static Profiler create() {
+    return new Profiler(true);
+  }
+
+  /** Returns a profiler that records nothing. */
+  public static Profiler disabled() {
+    return DISABLED;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Starts measuring the work done on the current thread, until the returned span is closed. The
+   * span must be closed on the thread that started it.
+   */
+  public Span start(String category, String name) {
+    if (!enabled) {
+      return NO_OP_SPAN;
+    }
+    return new Span(this, category, name);
+  }
+
+  /** Returns the recorded measurements, in the order in which they were first recorded. */
+  public synchronized ImmutableList<Measurement> getMeasurements() {
+    return ImmutableList.copyOf(measurements.values());
+  }
+
+  /**
+   * Writes the measurements as a JSON object with the total wall time of the run and one entry per
+   * category and name. The CPU time and allocated bytes of the thread that opened the spans are
+   * written as {@code threadCpuNanos} and {@code threadAllocatedBytes}, and left out if the JVM
+   * cannot measure them.
+   */
+  public void writeReport(OutputStream out) throws IOException {
+    try (JsonGenerator json = new JsonFactory().createGenerator(out, JsonEncoding.UTF8)) {
+      json.useDefaultPrettyPrinter();
+      json.writeStartObject();
+      json.writeNumberField("wallNanos", System.nanoTime() - startNanos);
+      json.writeArrayFieldStart("measurements");
+      for (Measurement measurement : getMeasurements()) {
+        json.writeStartObject();
+        json.writeStringField("category", measurement.category());
+        json.writeStringField("name", measurement.name());
+        json.writeNumberField("count", measurement.count());
+        json.writeNumberField("wallNanos", measurement.wallNanos());
+        if (measurement.cpuNanos() >= 0) {
+          json.writeNumberField("threadCpuNanos", measurement.cpuNanos());
+        }
+        if (measurement.allocatedBytes() >= 0) {
+          json.writeNumberField("threadAllocatedBytes", measurement.allocatedBytes());
+        }
+        json.writeEndObject();
+      }
+      json.writeEndArray();
+      json.writeEndObject();
+    }
+  }
+
+  /**
+   * Returns a human-readable summary: all stages in the order they ran, and the most expensive
+   * entries of every other category. CPU time and allocation are those of the thread that opened
+   * each span.
+   */
+  public String summary() {
+    Map<String, List<Measurement>> byCategory = new LinkedHashMap<>();
+    for (Measurement measurement : getMeasurements()) {
+      byCategory.computeIfAbsent(measurement.category(), k -> new ArrayList<>()).add(measurement);
+    }
+
+    StringBuilder summary = new StringBuilder();
+    summary.append(
+        String.format(
+            "Generation profile: %.1f ms total%n%-10s %10s %14s %16s  %s%n",
+            (System.nanoTime() - startNanos) / 1e6,
+            "category",
+            "wall ms",
+            "thread cpu ms",
+            "thread alloc MB",
+            "name"));
+    for (Map.Entry<String, List<Measurement>> category : byCategory.entrySet()) {
+      List<Measurement> entries = category.getValue();
+      if (!category.getKey().equals(STAGE)) {
+        entries.sort(Comparator.comparingLong(Measurement::wallNanos).reversed());
+      }
+      int shown = category.getKey().equals(STAGE) ? entries.size() : SUMMARY_ENTRIES_PER_CATEGORY;
+      for (Measurement measurement : entries.subList(0, Math.min(shown, entries.size()))) {
+        summary.append(
+            String.format(
+                "%-10s %10.1f %14s %16s  %s%n",
+                measurement.category(),
+                measurement.wallNanos() / 1e6,
+                measurement.cpuNanos() < 0
+                    ? "-"
+                    : String.format("%.1f", measurement.cpuNanos() / 1e6),
+                measurement.allocatedBytes() < 0
+                    ? "-"
+                    : String.format("%.1f", measurement.allocatedBytes() / 1048576.0),
+                measurement.name()));
+      }
+      if (entries.size() > shown) {
+        summary.append(
+            String.format("%-10s (%d more)%n", category.getKey(), entries.size() - shown));
+      }
+    }
+    summary.append(
+        String.format(
+            "Thread CPU and allocation exclude the work a span waited for on other threads.%n"));
+    return summary.toString();
+  }
+
+  @VisibleForTesting
+  synchronized void record(
+      String category, String name, long wallNanos, long cpuNanos, long allocatedBytes) {
+    Key key = Key.create(category, name);
+    Measurement previous = measurements.get(key);
+    measurements.put(
+        key,
+        previous == null
+            ? Measurement.create(category, name, 1, wallNanos, cpuNanos, allocatedBytes)
+            : previous.plus(wallNanos, cpuNanos, allocatedBytes));
+  }
+
+  private long currentThreadCpuNanos() {
+    return threadBean == null ? -1 : threadBean.getCurrentThreadCpuTime();
+  }
+
+  private long currentThreadAllocatedBytes() {
+    return allocationBean == null
+        ? -1
+        : allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /** A measurement in progress. Closing the span records it. */
+  public static final class Span implements AutoCloseable {
+    @Nullable private final Profiler profiler;
+    private final String category;
+    private final String name;
+    private final long startWallNanos;
+    private final long startCpuNanos;
+    private final long startAllocatedBytes;
+    private boolean closed;
+
+    private Span(@Nullable Profiler profiler, String category, String name) {
+      this.profiler = profiler;
+      this.category = Preconditions.checkNotNull(category);
+      this.name = Preconditions.checkNotNull(name);
+      if (profiler == null) {
+        this.startWallNanos = 0;
+        this.startCpuNanos = -1;
+        this.startAllocatedBytes = -1;
+        return;
+      }
+      this.startCpuNanos = profiler.currentThreadCpuNanos();
+      this.startAllocatedBytes = profiler.currentThreadAllocatedBytes();
+      this.startWallNanos = System.nanoTime();
+    }
+
+    @Override
+    public void close() {
+      if (profiler == null || closed) {
+        return;
+      }
+      closed = true;
+      long wallNanos = System.nanoTime() - startWallNanos;
+      long cpuNanos = startCpuNanos < 0 ? -1 : profiler.currentThreadCpuNanos() - startCpuNanos;
+      long allocatedBytes =
+          startAllocatedBytes < 0
+              ? -1
+              : profiler.currentThreadAllocatedBytes() - startAllocatedBytes;
+      profiler.record(category, name, wallNanos, cpuNanos, allocatedBytes);
+    }
+  }
+
+  /** The sum of the spans with the same category and name. */
+  @AutoValue
+  public abstract static class Measurement {
+    public abstract String category();
+
+    public abstract String name();
+
+    public abstract int count();
+
+    public abstract long wallNanos();
+
+    /**
+     * The CPU time of the thread that opened the spans, or -1 if the JVM does not measure the CPU
+     * time of threads.
+     */
+    public abstract long cpuNanos();
+
+    /**
+     * The bytes allocated by the thread that opened the spans, or -1 if the JVM does not measure
+     * the allocations of threads.
+     */
+    public abstract long allocatedBytes();
+
+    static Measurement create(
+        String category,
+        String name,
+        int count,
+        long wallNanos,
+        long cpuNanos,
+        long allocatedBytes) {
+      return new AutoValue_Profiler_Measurement(
+          category, name, count, wallNanos, cpuNanos, allocatedBytes);
+    }
+
+    private Measurement plus(long wallNanos, long cpuNanos, long allocatedBytes) {
+      return create(
+          category(),
+          name(),
+          count() + 1,
+          wallNanos() + wallNanos,
+          cpuNanos() < 0 || cpuNanos < 0 ? -1 : cpuNanos() + cpuNanos,
+          allocatedBytes() < 0 || allocatedBytes < 0 ? -1 : allocatedBytes() + allocatedBytes);
+    }
+  }
+
+  @AutoValue
+  abstract static class Key {
+    abstract String category();
+
+    abstract String name();
+
+    static Key create(String category, String name) {
+      return new AutoValue_Profiler_Key(category, name);
+    }
+  }
+}
@@ -0,0 +1,256 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import com.google.api.AnnotationsProto;
+import com.google.api.ClientProto;
+import com.google.api.FieldBehavior;
+import com.google.api.FieldBehaviorProto;
+import com.google.api.HttpRule;
+import com.google.api.ResourceProto;
+import com.google.api.pathtemplate.PathTemplate;
+import com.google.api.tools.framework.model.Field;
+import com.google.api.tools.framework.model.Interface;
+import com.google.api.tools.framework.model.MessageType;
+import com.google.api.tools.framework.model.Method;
+import com.google.api.tools.framework.model.Model;
+import com.google.api.tools.framework.model.ProtoElement;
+import com.google.api.tools.framework.model.ProtoFile;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Key;
+import com.google.longrunning.OperationInfo;
+import com.google.longrunning.OperationsProto;
+import com.google.protobuf.GeneratedMessage.GeneratedExtension;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * The API annotations of all the proto elements of a model, read in a single pass over the model.
+ *
+ * <p>The index is attached to the model, so that every {@link ProtoParser} of the model shares it,
+ * and the annotations are read, split and parsed once per element instead of once per lookup. The
+ * index holds the raw annotations; whether annotations are used at all is up to each parser.
+ */
+final class ProtoAnnotationIndex {
+  private static final Key<ProtoAnnotationIndex> KEY = Key.get(ProtoAnnotationIndex.class);
+
+  private static final Splitter SIGNATURE_SPLITTER =
+      Splitter.on(',').trimResults().omitEmptyStrings();
+
+  private final Model model;
+  private final ImmutableMap<Interface, InterfaceAnnotations> interfaces;
+  private final ImmutableMap<Method, MethodAnnotations> methods;
+  private final ImmutableMap<MessageType, Object> resourceDescriptors;
+  private final ImmutableMap<Field, FieldAnnotations> fields;
+
+  private ProtoAnnotationIndex(Model model) {
+    this.model = model;
+    ImmutableMap.Builder<Interface, InterfaceAnnotations> interfaces = ImmutableMap.builder();
+    ImmutableMap.Builder<Method, MethodAnnotations> methods = ImmutableMap.builder();
+    ImmutableMap.Builder<MessageType, Object> resourceDescriptors = ImmutableMap.builder();
+    ImmutableMap.Builder<Field, FieldAnnotations> fields = ImmutableMap.builder();
+    for (ProtoFile file : model.getFiles()) {
+      for (Interface service : file.getInterfaces()) {
+        interfaces.put(service, new InterfaceAnnotations(service));
+        for (Method method : service.getMethods()) {
+          methods.put(method, new MethodAnnotations(method, this));
+        }
+      }
+      indexMessages(file.getMessages(), resourceDescriptors, fields);
+    }
+    this.interfaces = interfaces.build();
+    this.methods = methods.build();
+    this.resourceDescriptors = resourceDescriptors.build();
+    this.fields = fields.build();
+  }
+
+  private static void indexMessages(
+      List<MessageType> messages,
+      ImmutableMap.Builder<MessageType, Object> resourceDescriptors,
+      ImmutableMap.Builder<Field, FieldAnnotations> fields) {
+    for (MessageType message : messages) {
+      Object resourceDescriptor = getOption(message, ResourceProto.resource);
+      if (resourceDescriptor != null) {
+        resourceDescriptors.put(message, resourceDescriptor);
+      }
+      for (Field field : message.getFields()) {
+        fields.put(field, new FieldAnnotations(field));
+      }
+      indexMessages(message.getMessages(), resourceDescriptors, fields);
+    }
+  }
+
+  /** Returns the index of the model, creating it on first use. */
+  static ProtoAnnotationIndex of(Model model) {
+    synchronized (model) {
+      ProtoAnnotationIndex index = model.getAttribute(KEY);
+      if (index == null) {
+        index = new ProtoAnnotationIndex(model);
+        model.putAttribute(KEY, index);
+      }
+      return index;
+    }
+  }
+
+  Model getModel() {
+    return model;
+  }
+
+  // Elements that are not part of the model's files when the index is built are read directly.
+
+  InterfaceAnnotations get(Interface service) {
+    InterfaceAnnotations annotations = interfaces.get(service);
+    return annotations != null ? annotations : new InterfaceAnnotations(service);
+  }
+
+  MethodAnnotations get(Method method) {
+    MethodAnnotations annotations = methods.get(method);
+    return annotations != null ? annotations : new MethodAnnotations(method, this);
+  }
+
+  FieldAnnotations get(Field field) {
+    FieldAnnotations annotations = fields.get(field);
+    return annotations != null ? annotations : new FieldAnnotations(field);
+  }
+
+  @Nullable
+  @SuppressWarnings("unchecked")
+  <T> T getResourceDescriptor(MessageType message) {
+    if (resourceDescriptors.containsKey(message)) {
+      return (T) resourceDescriptors.get(message);
+    }
+    return (T) getOption(message, ResourceProto.resource);
+  }
+
+  @Nullable
+  private static Object getOption(ProtoElement element, GeneratedExtension<?, ?> extension) {
+    return element.getOptionFields().get(extension.getDescriptor());
+  }
+
+  static final class InterfaceAnnotations {
+    @Nullable final String defaultHost;
+    final ImmutableList<String> oauthScopes;
+
+    private InterfaceAnnotations(Interface service) {
+      defaultHost = (String) getOption(service, ClientProto.defaultHost);
+      String oauthScopes = (String) getOption(service, ClientProto.oauthScopes);
+      this.oauthScopes =
+          Strings.isNullOrEmpty(oauthScopes)
+              ? ImmutableList.of()
+              : ImmutableList.copyOf(
+                  Arrays.stream(oauthScopes.split(","))
+                      .map(String::trim)
+                      .collect(Collectors.toList()));
+    }
+  }
+
+  static final class MethodAnnotations {
+    final ImmutableList<List<String>> methodSignatures;
+    @Nullable final HttpRule httpRule;
+    @Nullable final OperationInfo operationInfo;
+    final Supplier<ImmutableList<String>> requiredFields;
+    final Supplier<ImmutableSet<String>> headerParams;
+
+    private MethodAnnotations(Method method, ProtoAnnotationIndex index) {
+      @SuppressWarnings("unchecked")
+      List<String> signatures = (List<String>) getOption(method, ClientProto.methodSignature);
+      ImmutableList.Builder<List<String>> methodSignatures = ImmutableList.builder();
+      if (signatures != null) {
+        for (String signature : signatures) {
+          methodSignatures.add(ImmutableList.copyOf(SIGNATURE_SPLITTER.split(signature)));
+        }
+      }
+      this.methodSignatures = methodSignatures.build();
+      httpRule = method.getDescriptor().getMethodAnnotation(AnnotationsProto.http);
+      operationInfo = method.getDescriptor().getMethodAnnotation(OperationsProto.operationInfo);
+      // The input message is only known once the model is resolved, and the header params parse
+      // path templates, which may be invalid in methods that are never generated, so these are
+      // computed on first use.
+      requiredFields = Suppliers.memoize(() -> computeRequiredFields(method, index));
+      headerParams = Suppliers.memoize(() -> computeHeaderParams(httpRule));
+    }
+
+    private static ImmutableList<String> computeRequiredFields(
+        Method method, ProtoAnnotationIndex index) {
+      ImmutableList.Builder<String> requiredFields = ImmutableList.builder();
+      for (Field field : method.getInputMessage().getFields()) {
+        if (index.get(field).required) {
+          requiredFields.add(field.getSimpleName());
+        }
+      }
+      return requiredFields.build();
+    }
+
+    private static ImmutableSet<String> computeHeaderParams(@Nullable HttpRule topRule) {
+      ImmutableSet.Builder<String> allParams = ImmutableSet.builder();
+      if (topRule == null) {
+        return allParams.build();
+      }
+      String firstParam = getHeaderParam(topRule);
+      if (firstParam != null) allParams.add(firstParam);
+
+      // Additional bindings should only be one-deep, according to the API client config spec.
+      // No need to recurse on additional bindings' additional bindings.
+      for (HttpRule rule : topRule.getAdditionalBindingsList()) {
+        String headerParam = getHeaderParam(rule);
+        if (headerParam != null) allParams.add(headerParam);
+      }
+      return allParams.build();
+    }
+
+    // Finds the header param from a HttpRule.
+    @Nullable
+    private static String getHeaderParam(HttpRule httpRule) {
+      String urlVar;
+      if (!Strings.isNullOrEmpty(httpRule.getPost())) {
+        urlVar = httpRule.getPost();
+      } else if (!Strings.isNullOrEmpty(httpRule.getDelete())) {
+        urlVar = httpRule.getDelete();
+      } else if (!Strings.isNullOrEmpty(httpRule.getGet())) {
+        urlVar = httpRule.getGet();
+      } else if (!Strings.isNullOrEmpty(httpRule.getPatch())) {
+        urlVar = httpRule.getPatch();
+      } else if (!Strings.isNullOrEmpty(httpRule.getPut())) {
+        urlVar = httpRule.getPut();
+      } else {
+        return null;
+      }
+
+      PathTemplate pathTemplate = PathTemplate.create(urlVar);
+      return pathTemplate.singleVar();
+    }
+  }
+
+  static final class FieldAnnotations {
+    @Nullable final Object resourceReference;
+    final boolean required;
+
+    private FieldAnnotations(Field field) {
+      resourceReference = getOption(field, ResourceProto.resourceReference);
+      List<?> fieldBehaviors = (List<?>) getOption(field, FieldBehaviorProto.fieldBehavior);
+      required =
+          fieldBehaviors != null
+              && fieldBehaviors.contains(FieldBehavior.REQUIRED.getValueDescriptor());
+    }
+  }
+}
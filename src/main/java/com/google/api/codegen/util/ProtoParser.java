@@ -16,14 +16,12 @@ package com.google.api.codegen.util;
 
 import com.google.api.AnnotationsProto;
 import com.google.api.ClientProto;
-import com.google.api.FieldBehavior;
 import com.google.api.FieldBehaviorProto;
 import com.google.api.HttpRule;
 import com.google.api.ResourceDescriptor;
 import com.google.api.ResourceProto;
 import com.google.api.ResourceReference;
 import com.google.api.codegen.config.ResourceDescriptorConfig;
-import com.google.api.pathtemplate.PathTemplate;
 import com.google.api.tools.framework.model.Diag;
 import com.google.api.tools.framework.model.DiagCollector;
 import com.google.api.tools.framework.model.Field;
@@ -41,19 +39,18 @@ import com.google.common.collect.ImmutableSet;
 import com.google.longrunning.OperationInfo;
 import com.google.longrunning.OperationsProto;
 import com.google.protobuf.*;
-import com.google.protobuf.Descriptors.EnumValueDescriptor;
-import com.google.protobuf.GeneratedMessage.GeneratedExtension;
-import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
 // Utils for parsing possibly-annotated protobuf API IDL.
 public class ProtoParser {
   private final boolean enableProtoAnnotations;
 
+  // The annotation index of the model this parser was last used with.
+  private volatile ProtoAnnotationIndex annotationIndex;
+
   public boolean isProtoAnnotationsEnabled() {
     return enableProtoAnnotations;
   }
@@ -62,112 +59,61 @@ public class ProtoParser {
     this.enableProtoAnnotations = enableProtoAnnotations;
   }
 
-  @SuppressWarnings("unchecked")
-  @Nullable
-  private <T, O extends Message, E extends ProtoElement> T getProtoExtension(
-      E element, GeneratedExtension<O, T> extension) {
-    // Use this method as the chokepoint for all field annotations processing, so we can
-    // toggle on/off annotations processing in one place.
-    if (!enableProtoAnnotations) {
-      return null;
-    }
-    return (T) element.getOptionFields().get(extension.getDescriptor());
-  }
-
-  /** Get a method annotation. */
-  @Nullable
-  private <T extends Message> T getMethodAnnotation(
-      Method method, Extension<DescriptorProtos.MethodOptions, T> extension) {
-    // We may want to parse the annotation even if enableProtoAnnotations is false.
-    return method.getDescriptor().getMethodAnnotation(extension);
-  }
-
-  @SuppressWarnings("unchecked")
-  @Nullable
-  private <T extends ProtocolMessageEnum, O extends Message, E extends ProtoElement>
-      List<EnumValueDescriptor> getProtoExtensionForEnumValue(
-          E element, GeneratedExtension<O, List<T>> extension) {
-    // Use this method as the chokepoint for all annotations processing for enum values
-    // so we can toggle on/off annotations processing in one place.
-    if (!enableProtoAnnotations) {
-      return null;
+  /**
+   * Returns the annotation index of the element's model. All annotations are read through the
+   * index; whether they are used is decided here, by each method, depending on {@link
+   * #isProtoAnnotationsEnabled}.
+   */
+  private ProtoAnnotationIndex getAnnotationIndex(ProtoElement element) {
+    ProtoAnnotationIndex index = annotationIndex;
+    if (index == null || index.getModel() != element.getModel()) {
+      index = ProtoAnnotationIndex.of(element.getModel());
+      annotationIndex = index;
     }
-    return (List<EnumValueDescriptor>) element.getOptionFields().get(extension.getDescriptor());
+    return index;
   }
 
   /* Return the name of the field representing the header parameter. */
   public ImmutableSet<String> getHeaderParams(Method method) {
-    ImmutableSet.Builder<String> allParams = ImmutableSet.builder();
-
     if (!enableProtoAnnotations) {
-      return allParams.build();
-    }
-
-    HttpRule topRule = getHttpRule(method);
-    if (topRule == null) {
-      return allParams.build();
+      return ImmutableSet.of();
     }
-    String firstParam = getHeaderParam(topRule);
-    if (firstParam != null) allParams.add(firstParam);
-
-    // Additional bindings should only be one-deep, according to the API client config spec.
-    // No need to recurse on additional bindings' additional bindings.
-    for (HttpRule rule : topRule.getAdditionalBindingsList()) {
-      String headerParam = getHeaderParam(rule);
-      if (headerParam != null) allParams.add(headerParam);
-    }
-
-    return allParams.build();
+    return getAnnotationIndex(method).get(method).headerParams.get();
   }
 
-  // Finds the header param from a HttpRule and add the non-null value to the running set.
   @Nullable
-  private String getHeaderParam(HttpRule httpRule) {
-
-    String urlVar;
-    if (!Strings.isNullOrEmpty(httpRule.getPost())) {
-      urlVar = httpRule.getPost();
-    } else if (!Strings.isNullOrEmpty(httpRule.getDelete())) {
-      urlVar = httpRule.getDelete();
-    } else if (!Strings.isNullOrEmpty(httpRule.getGet())) {
-      urlVar = httpRule.getGet();
-    } else if (!Strings.isNullOrEmpty(httpRule.getPatch())) {
-      urlVar = httpRule.getPatch();
-    } else if (!Strings.isNullOrEmpty(httpRule.getPut())) {
-      urlVar = httpRule.getPut();
-    } else {
+  public ResourceDescriptor getResourceDescriptor(MessageType element) {
+    if (!enableProtoAnnotations) {
       return null;
     }
-
-    PathTemplate pathTemplate = PathTemplate.create(urlVar);
-    return pathTemplate.singleVar();
-  }
-
-  @Nullable
-  public ResourceDescriptor getResourceDescriptor(MessageType element) {
-    return getProtoExtension(element, ResourceProto.resource);
+    return getAnnotationIndex(element).getResourceDescriptor(element);
   }
 
   @Nullable
   public ResourceReference getResourceReference(Field element) {
-    return getProtoExtension(element, ResourceProto.resourceReference);
+    if (!enableProtoAnnotations) {
+      return null;
+    }
+    return (ResourceReference) getAnnotationIndex(element).get(element).resourceReference;
   }
 
   public boolean hasResourceReference(Field element) {
-    ResourceReference ref = getProtoExtension(element, ResourceProto.resourceReference);
+    ResourceReference ref = getResourceReference(element);
     return ref != null && ref != ResourceReference.getDefaultInstance();
   }
 
   /** Get long running settings. */
   @Nullable
   public OperationInfo getLongRunningOperation(Method method) {
-    return getMethodAnnotation(method, OperationsProto.operationInfo);
+    // We may want to parse the annotation even if enableProtoAnnotations is false.
+    return getAnnotationIndex(method).get(method).operationInfo;
   }
 
   /** Get HTTP settings. */
   @Nullable
   private HttpRule getHttpRule(Method method) {
-    return getMethodAnnotation(method, AnnotationsProto.http);
+    // We may want to parse the annotation even if enableProtoAnnotations is false.
+    return getAnnotationIndex(method).get(method).httpRule;
   }
 
   /** Return a Map of Unified Resource Types to a ResourceDescriptorConfig object. */
@@ -209,40 +155,18 @@ public class ProtoParser {
   /* Return a list of method signatures, aka flattenings, specified on a given method.
    * This flattens the repeated additionalSignatures into the returned list of MethodSignatures. */
   public List<List<String>> getMethodSignatures(Method method) {
-    List<String> commaDelimSignatures = getProtoExtension(method, ClientProto.methodSignature);
-    if (commaDelimSignatures == null) {
+    if (!enableProtoAnnotations) {
       return ImmutableList.of();
     }
-    return ImmutableList.copyOf(
-        commaDelimSignatures
-            .stream()
-            .map(
-                s ->
-                    (Arrays.stream(s.split(","))
-                        .map(String::trim)
-                        .filter(param -> !Strings.isNullOrEmpty(param))
-                        .collect(Collectors.toList())))
-            .collect(Collectors.toList()));
+    return getAnnotationIndex(method).get(method).methodSignatures;
   }
 
   /** Return the names of required parameters of a method. */
   public List<String> getRequiredFields(Method method) {
-    MessageType inputMessage = method.getInputMessage();
-    return inputMessage
-        .getFields()
-        .stream()
-        .filter(this::isFieldRequired)
-        .map(Field::getSimpleName)
-        .collect(Collectors.toList());
-  }
-
-  @SuppressWarnings("unchecked")
-  /* Returns if a field is required, according to the proto annotations. */
-  private boolean isFieldRequired(Field field) {
-    List<EnumValueDescriptor> fieldBehaviors =
-        getProtoExtensionForEnumValue(field, FieldBehaviorProto.fieldBehavior);
-    return fieldBehaviors != null
-        && fieldBehaviors.contains(FieldBehavior.REQUIRED.getValueDescriptor());
+    if (!enableProtoAnnotations) {
+      return ImmutableList.of();
+    }
+    return getAnnotationIndex(method).get(method).requiredFields.get();
   }
 
   /** Return whether the method has the HttpRule for GET. */
@@ -256,17 +180,18 @@ public class ProtoParser {
 
   /** The hostname for this service (e.g. "foo.googleapis.com"). */
   public String getServiceAddress(Interface service) {
-    return getProtoExtension(service, ClientProto.defaultHost);
+    if (!enableProtoAnnotations) {
+      return null;
+    }
+    return getAnnotationIndex(service).get(service).defaultHost;
   }
 
   /** The OAuth scopes for this service (e.g. "https://cloud.google.com/auth/cloud-platform"). */
   public List<String> getAuthScopes(Interface service) {
-    String oAuth = getProtoExtension(service, ClientProto.oauthScopes);
-    if (!Strings.isNullOrEmpty(oAuth)) {
-      return ImmutableList.copyOf(
-          Arrays.stream(oAuth.split(",")).map(String::trim).collect(Collectors.toList()));
+    if (!enableProtoAnnotations) {
+      return ImmutableList.of();
     }
-    return ImmutableList.of();
+    return getAnnotationIndex(service).get(service).oauthScopes;
   }
 
   public String getProtoPackage(ProtoFile file) {
@@ -0,0 +1,131 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.Any;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.Nullable;
+
+/**
+ * An on-disk cache of config protos parsed from YAML, shared between invocations of the generator.
+ *
+ * <p>Entries are keyed by a hash of the YAML content and of the descriptors of the supported config
+ * types, so an entry is never used after the YAML or the config protos change. Only YAML that
+ * parsed without any diagnostics is cached, since a cached config carries no source locations.
+ * Entries are written atomically, so concurrent invocations may share a cache directory. Unreadable
+ * or corrupt entries are treated as missing.
+ */
+public final class YamlConfigCache {
+
+  private static final String FORMAT_VERSION = "1";
+  private static final String ENTRY_SUFFIX = ".pb";
+
+  private final Path directory;
+
+  public YamlConfigCache(Path directory) {
+    this.directory = directory;
+  }
+
+  /** Returns the config previously parsed from the given YAML content, or null if there is none. */
+  @Nullable
+  public Message get(String content, Map<String, Message> supportedConfigTypes) {
+    Path entry = getEntryPath(content, supportedConfigTypes);
+    byte[] bytes;
+    try {
+      bytes = Files.readAllBytes(entry);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      // An unreadable entry is treated as missing, and overwritten by the next put.
+      return null;
+    }
+    try {
+      Any any = Any.parseFrom(bytes);
+      for (Message defaultInstance : supportedConfigTypes.values()) {
+        String typeName = defaultInstance.getDescriptorForType().getFullName();
+        if (any.getTypeUrl().endsWith("/" + typeName)) {
+          return defaultInstance.getParserForType().parseFrom(any.getValue());
+        }
+      }
+    } catch (InvalidProtocolBufferException e) {
+      // Fall through: a corrupt entry is overwritten by the next put.
+    }
+    return null;
+  }
+
+  /** Stores the config parsed from the given YAML content. Failures to write are ignored. */
+  public void put(String content, Map<String, Message> supportedConfigTypes, Message config) {
+    Path entry = getEntryPath(content, supportedConfigTypes);
+    Path tempFile = null;
+    try {
+      Files.createDirectories(directory);
+      tempFile = Files.createTempFile(directory, entry.getFileName().toString(), ".tmp");
+      Files.write(tempFile, Any.pack(config).toByteArray());
+      Files.move(tempFile, entry, StandardCopyOption.REPLACE_EXISTING);
+      tempFile = null;
+    } catch (IOException e) {
+      // The cache only saves work; the config has already been parsed.
+    } finally {
+      if (tempFile != null) {
+        try {
+          Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+          // Ignored, as above.
+        }
+      }
+    }
+  }
+
+  private Path getEntryPath(String content, Map<String, Message> supportedConfigTypes) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(FORMAT_VERSION, StandardCharsets.UTF_8);
+    for (Map.Entry<String, Message> type : new TreeMap<>(supportedConfigTypes).entrySet()) {
+      hasher.putString(type.getKey(), StandardCharsets.UTF_8);
+      putDescriptors(hasher, type.getValue().getDescriptorForType().getFile());
+    }
+    hasher.putString(content, StandardCharsets.UTF_8);
+    return directory.resolve(hasher.hash().toString() + ENTRY_SUFFIX);
+  }
+
+  /** Hashes the given proto file and all the files it depends on. */
+  private static void putDescriptors(Hasher hasher, FileDescriptor file) {
+    Set<String> visited = new HashSet<>();
+    Deque<FileDescriptor> pending = new ArrayDeque<>();
+    pending.add(file);
+    while (!pending.isEmpty()) {
+      FileDescriptor next = pending.remove();
+      if (visited.add(next.getName())) {
+        hasher.putBytes(next.toProto().toByteArray());
+        pending.addAll(next.getDependencies());
+      }
+    }
+  }
+}
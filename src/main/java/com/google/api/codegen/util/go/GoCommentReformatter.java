@@ -14,6 +14,7 @@
  */
 package com.google.api.codegen.util.go;
 
+import com.google.api.codegen.util.CommentCache;
 import com.google.api.codegen.util.CommentReformatter;
 import com.google.api.codegen.util.ErrorMarkdownVisitor;
 import java.util.logging.Level;
@@ -30,18 +31,14 @@ import org.commonmark.node.Node;
 import org.commonmark.node.Paragraph;
 import org.commonmark.node.SoftLineBreak;
 import org.commonmark.node.Text;
-import org.commonmark.parser.Parser;
 
 public class GoCommentReformatter implements CommentReformatter {
 
   private static final Logger LOGGER = Logger.getLogger(GoCommentReformatter.class.getName());
 
-  // Might as well create only one. Parser is thread-safe.
-  private static final Parser PARSER = Parser.builder().build();
-
   @Override
   public String reformat(String comment) {
-    Node root = PARSER.parse(comment);
+    Node root = CommentCache.parseMarkdown(comment);
     GoVisitor visitor = new GoVisitor();
     try {
       root.accept(visitor);
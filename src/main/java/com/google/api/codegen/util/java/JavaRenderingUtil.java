@@ -14,6 +14,7 @@
  */
 package com.google.api.codegen.util.java;
 
+import com.google.api.codegen.util.CommentCache;
 import com.google.api.codegen.util.CommonRenderingUtil;
 import com.google.api.tools.framework.snippet.Doc;
 import java.util.Arrays;
@@ -21,12 +22,14 @@ import java.util.List;
 
 /** Utility class for Java to process text in the templates. */
 public class JavaRenderingUtil {
+  private static final JavaCommentReformatter REFORMATTER = new JavaCommentReformatter();
+
   /**
    * Splits given text into lines and returns a list of strings, each one representing a line.
    * Performs escaping of certain HTML characters.
    */
   public static List<String> getDocLines(String text) {
-    return CommonRenderingUtil.getDocLines(new JavaCommentReformatter().reformat(text));
+    return CommentCache.getDocLines(REFORMATTER, text);
   }
 
   /**
@@ -25,7 +25,7 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Maps;
+import com.google.common.collect.ImmutableSet;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
@@ -39,13 +39,112 @@ public class JavaTypeTable implements TypeTable {
 
   private final Set<String> usedNicknames = new HashSet<>();
 
+  private static final String JAVA_LANG_TYPE_PREFIX = "java.lang.";
+
   /**
-   * A map from simple type name to a boolean, indicating whether its in java.lang or not. If a
-   * simple type name is not in the map, this information is unknown.
+   * The simple names of the public types in java.lang, which are implicitly imported in every Java
+   * file. This is the set of Java 7, the oldest version the generated code targets; types added
+   * later, such as Module and Record, cannot be referred to by generated code, so API types with
+   * those names do not need to be escaped.
    */
-  private final Map<String, Boolean> implicitImports = Maps.newHashMap();
-
-  private static final String JAVA_LANG_TYPE_PREFIX = "java.lang.";
+  private static final ImmutableSet<String> JAVA_LANG_TYPE_NAMES =
+      ImmutableSet.of(
+          "AbstractMethodError",
+          "Appendable",
+          "ArithmeticException",
+          "ArrayIndexOutOfBoundsException",
+          "ArrayStoreException",
+          "AssertionError",
+          "AutoCloseable",
+          "Boolean",
+          "BootstrapMethodError",
+          "Byte",
+          "CharSequence",
+          "Character",
+          "Class",
+          "ClassCastException",
+          "ClassCircularityError",
+          "ClassFormatError",
+          "ClassLoader",
+          "ClassNotFoundException",
+          "ClassValue",
+          "CloneNotSupportedException",
+          "Cloneable",
+          "Comparable",
+          "Compiler",
+          "Deprecated",
+          "Double",
+          "Enum",
+          "EnumConstantNotPresentException",
+          "Error",
+          "Exception",
+          "ExceptionInInitializerError",
+          "Float",
+          "IllegalAccessError",
+          "IllegalAccessException",
+          "IllegalArgumentException",
+          "IllegalMonitorStateException",
+          "IllegalStateException",
+          "IllegalThreadStateException",
+          "IncompatibleClassChangeError",
+          "IndexOutOfBoundsException",
+          "InheritableThreadLocal",
+          "InstantiationError",
+          "InstantiationException",
+          "Integer",
+          "InternalError",
+          "InterruptedException",
+          "Iterable",
+          "LinkageError",
+          "Long",
+          "Math",
+          "NegativeArraySizeException",
+          "NoClassDefFoundError",
+          "NoSuchFieldError",
+          "NoSuchFieldException",
+          "NoSuchMethodError",
+          "NoSuchMethodException",
+          "NullPointerException",
+          "Number",
+          "NumberFormatException",
+          "Object",
+          "OutOfMemoryError",
+          "Override",
+          "Package",
+          "Process",
+          "ProcessBuilder",
+          "Readable",
+          "ReflectiveOperationException",
+          "Runnable",
+          "Runtime",
+          "RuntimeException",
+          "RuntimePermission",
+          "SafeVarargs",
+          "SecurityException",
+          "SecurityManager",
+          "Short",
+          "StackOverflowError",
+          "StackTraceElement",
+          "StrictMath",
+          "String",
+          "StringBuffer",
+          "StringBuilder",
+          "StringIndexOutOfBoundsException",
+          "SuppressWarnings",
+          "System",
+          "Thread",
+          "ThreadDeath",
+          "ThreadGroup",
+          "ThreadLocal",
+          "Throwable",
+          "TypeNotPresentException",
+          "UnknownError",
+          "UnsatisfiedLinkError",
+          "UnsupportedClassVersionError",
+          "UnsupportedOperationException",
+          "VerifyError",
+          "VirtualMachineError",
+          "Void");
 
   /** A map from unboxed Java primitive type name to boxed counterpart. */
   private static final ImmutableMap<String, String> BOXED_TYPE_MAP =
@@ -159,7 +258,7 @@ public class JavaTypeTable implements TypeTable {
       return alias.getFullName();
     } else if (javaLangResolution.equals(ESCAPE_JAVA_LANG_CLASH)
         && !alias.getFullName().startsWith(JAVA_LANG_TYPE_PREFIX)
-        && isImplicitImport(alias.getNickname())) {
+        && isJavaLangImport(alias.getNickname())) {
       // Short name clashes with java.lang; use long name.
       return alias.getFullName();
     }
@@ -197,28 +296,8 @@ public class JavaTypeTable implements TypeTable {
     return new TreeMap<>(imports);
   }
 
-  /**
-   * Checks whether the simple type name is implicitly imported from java.lang and memoizes the
-   * result.
-   */
-  private boolean isImplicitImport(String name) {
-    Boolean yes = implicitImports.get(name);
-    if (yes != null) {
-      return yes;
-    }
-    yes = isJavaLangImport(name);
-    implicitImports.put(name, yes);
-    return yes;
-  }
-
   /** Checks whether the simple type name is implicitly imported from java.lang. */
   public static boolean isJavaLangImport(String name) {
-    // Use reflection to determine whether the name exists in java.lang.
-    try {
-      Class.forName("java.lang." + name);
-      return true;
-    } catch (Exception e) {
-      return false;
-    }
+    return JAVA_LANG_TYPE_NAMES.contains(name);
   }
 }
@@ -0,0 +1,70 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.viewmodel;
+
+import com.google.auto.value.AutoValue;
+
+/** A client method that creates a batcher for a batching API method. */
+@AutoValue
+public abstract class BatcherMethodView {
+  public abstract String name();
+
+  public abstract String methodName();
+
+  public abstract String requestTypeName();
+
+  public abstract String responseTypeName();
+
+  public abstract String callableName();
+
+  public abstract String modifyMethodName();
+
+  public abstract String batchingSettingsName();
+
+  public abstract String batchingSettingsFieldName();
+
+  public abstract BatchingConfigView batchingConfig();
+
+  public abstract BatchingDescriptorClassView descriptor();
+
+  public static Builder newBuilder() {
+    return new AutoValue_BatcherMethodView.Builder();
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+    public abstract Builder name(String val);
+
+    public abstract Builder methodName(String val);
+
+    public abstract Builder requestTypeName(String val);
+
+    public abstract Builder responseTypeName(String val);
+
+    public abstract Builder callableName(String val);
+
+    public abstract Builder modifyMethodName(String val);
+
+    public abstract Builder batchingSettingsName(String val);
+
+    public abstract Builder batchingSettingsFieldName(String val);
+
+    public abstract Builder batchingConfig(BatchingConfigView val);
+
+    public abstract Builder descriptor(BatchingDescriptorClassView val);
+
+    public abstract BatcherMethodView build();
+  }
+}
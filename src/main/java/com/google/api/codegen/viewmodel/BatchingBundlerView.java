@@ -0,0 +1,109 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.viewmodel;
+
+import com.google.auto.value.AutoValue;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/** A bundler type that groups the requests of a batching method into batches. */
+@AutoValue
+public abstract class BatchingBundlerView {
+  public abstract String typeName();
+
+  public abstract String constructorName();
+
+  public abstract String resultTypeName();
+
+  public abstract String keyTypeName();
+
+  public abstract String itemTypeName();
+
+  /** The client method that sends a batch. */
+  public abstract String methodName();
+
+  public abstract String requestTypeName();
+
+  public abstract String responseTypeName();
+
+  public abstract boolean hasReturnValue();
+
+  public abstract String batchedFieldName();
+
+  public abstract String batchedElementTypeName();
+
+  /** How the byte size of a batched element is measured: Message, Length or Fixed. */
+  public abstract String batchedElementSizeKind();
+
+  @Nullable
+  public abstract String subresponseFieldName();
+
+  @Nullable
+  public abstract String subresponseTypeName();
+
+  @Nullable
+  public abstract String subresponseElementTypeName();
+
+  public abstract List<BatchingPartitionKeyView> partitionKeys();
+
+  public abstract BatchingConfigView batchingConfig();
+
+  public boolean hasSubresponse() {
+    return subresponseFieldName() != null;
+  }
+
+  public static Builder newBuilder() {
+    return new AutoValue_BatchingBundlerView.Builder();
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+    public abstract Builder typeName(String val);
+
+    public abstract Builder constructorName(String val);
+
+    public abstract Builder resultTypeName(String val);
+
+    public abstract Builder keyTypeName(String val);
+
+    public abstract Builder itemTypeName(String val);
+
+    public abstract Builder methodName(String val);
+
+    public abstract Builder requestTypeName(String val);
+
+    public abstract Builder responseTypeName(String val);
+
+    public abstract Builder hasReturnValue(boolean val);
+
+    public abstract Builder batchedFieldName(String val);
+
+    public abstract Builder batchedElementTypeName(String val);
+
+    public abstract Builder batchedElementSizeKind(String val);
+
+    public abstract Builder subresponseFieldName(String val);
+
+    public abstract Builder subresponseTypeName(String val);
+
+    public abstract Builder subresponseElementTypeName(String val);
+
+    public abstract Builder partitionKeys(List<BatchingPartitionKeyView> val);
+
+    public abstract Builder batchingConfig(BatchingConfigView val);
+
+    public abstract BatchingBundlerView build();
+  }
+}
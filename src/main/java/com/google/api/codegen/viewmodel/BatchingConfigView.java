@@ -23,6 +23,10 @@ public abstract class BatchingConfigView {
 
   public abstract long requestByteThreshold();
 
+  public abstract int elementCountLimit();
+
+  public abstract long requestByteLimit();
+
   public abstract long delayThresholdMillis();
 
   @Nullable
@@ -33,6 +37,26 @@ public abstract class BatchingConfigView {
 
   public abstract String flowControlLimitExceededBehavior();
 
+  public boolean hasElementCountThreshold() {
+    return elementCountThreshold() > 0;
+  }
+
+  public boolean hasRequestByteThreshold() {
+    return requestByteThreshold() > 0;
+  }
+
+  public boolean hasElementCountLimit() {
+    return elementCountLimit() > 0;
+  }
+
+  public boolean hasRequestByteLimit() {
+    return requestByteLimit() > 0;
+  }
+
+  public boolean hasDelayThreshold() {
+    return delayThresholdMillis() > 0;
+  }
+
   public boolean hasFlowControlElementLimit() {
     return flowControlElementLimit() != null;
   }
@@ -41,6 +65,14 @@ public abstract class BatchingConfigView {
     return flowControlByteLimit() != null;
   }
 
+  public boolean enforcesFlowControl() {
+    return !flowControlLimitExceededBehavior().equals("Ignore");
+  }
+
+  public boolean blocksOnFlowControlLimit() {
+    return flowControlLimitExceededBehavior().equals("Block");
+  }
+
   public static Builder newBuilder() {
     return new AutoValue_BatchingConfigView.Builder();
   }
@@ -51,6 +83,10 @@ public abstract class BatchingConfigView {
 
     public abstract Builder requestByteThreshold(long val);
 
+    public abstract Builder elementCountLimit(int val);
+
+    public abstract Builder requestByteLimit(long val);
+
     public abstract Builder delayThresholdMillis(long val);
 
     public abstract Builder flowControlElementLimit(Long val);
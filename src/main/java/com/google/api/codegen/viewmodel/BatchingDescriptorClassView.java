@@ -38,6 +38,9 @@ public abstract class BatchingDescriptorClassView {
 
   public abstract String batchedFieldCountGetFunction();
 
+  @Nullable
+  public abstract String subresponseGetFunction();
+
   @Nullable
   public abstract String subresponseByIndexGetFunction();
 
@@ -71,6 +74,8 @@ public abstract class BatchingDescriptorClassView {
 
     public abstract Builder batchedFieldCountGetFunction(String val);
 
+    public abstract Builder subresponseGetFunction(String val);
+
     public abstract Builder subresponseByIndexGetFunction(String val);
 
     public abstract Builder subresponseSetFunction(String val);
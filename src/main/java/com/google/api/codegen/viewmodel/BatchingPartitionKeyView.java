@@ -15,21 +15,55 @@
 package com.google.api.codegen.viewmodel;
 
 import com.google.auto.value.AutoValue;
+import java.util.List;
+import javax.annotation.Nullable;
 
 @AutoValue
 public abstract class BatchingPartitionKeyView {
 
   public abstract String fieldGetFunction();
 
+  /** The get functions from the request down to the discriminator field. */
+  public abstract List<String> fieldGetFunctionChain();
+
+  /** The name of the field holding the discriminator value in a partition key struct. */
+  @Nullable // Used in Go
+  public abstract String keyFieldName();
+
+  /** The type of the field holding the discriminator value in a partition key struct. */
+  @Nullable // Used in Go
+  public abstract String keyTypeName();
+
+  /**
+   * The function converting the discriminator value to a comparable key value, or null if the
+   * value is comparable as is.
+   */
+  @Nullable // Used in Go
+  public abstract String keyConversionFunction();
+
+  public boolean hasKeyConversionFunction() {
+    return keyConversionFunction() != null;
+  }
+
   public static Builder newBuilder() {
     return new AutoValue_BatchingPartitionKeyView.Builder();
   }
 
+  public abstract Builder toBuilder();
+
   @AutoValue.Builder
   public abstract static class Builder {
 
     public abstract Builder fieldGetFunction(String val);
 
+    public abstract Builder fieldGetFunctionChain(List<String> val);
+
+    public abstract Builder keyFieldName(String val);
+
+    public abstract Builder keyTypeName(String val);
+
+    public abstract Builder keyConversionFunction(String val);
+
     public abstract BatchingPartitionKeyView build();
   }
 }
@@ -23,6 +23,9 @@ public abstract class HeaderRequestParamView {
 
   public abstract List<String> gettersChain();
 
+  // Whether the field the getters chain ends at is a string field.
+  public abstract boolean isStringField();
+
   public static Builder newBuilder() {
     return new AutoValue_HeaderRequestParamView.Builder();
   }
@@ -33,6 +36,8 @@ public abstract class HeaderRequestParamView {
 
     public abstract HeaderRequestParamView.Builder gettersChain(List<String> val);
 
+    public abstract HeaderRequestParamView.Builder isStringField(boolean val);
+
     public abstract HeaderRequestParamView build();
   }
 }
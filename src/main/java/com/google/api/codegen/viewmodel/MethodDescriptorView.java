@@ -44,6 +44,16 @@ public abstract class MethodDescriptorView {
     return headerRequestParams() != null && !headerRequestParams().isEmpty();
   }
 
+  // Whether the routing header is built from exactly one string field.
+  public boolean hasSingleStringHeaderRequestParam() {
+    return hasHeaderRequestParams()
+        && headerRequestParams().size() == 1
+        && headerRequestParams().get(0).isStringField();
+  }
+
+  // The name of the constant holding the RequestParamsExtractor of the method.
+  public abstract String paramsExtractorName();
+
   @Nullable
   public abstract HttpMethodView httpMethod();
 
@@ -71,6 +81,8 @@ public abstract class MethodDescriptorView {
 
     public abstract Builder transportSettingsVar(String val);
 
+    public abstract Builder paramsExtractorName(String val);
+
     public abstract Builder headerRequestParams(List<HeaderRequestParamView> val);
 
     public abstract Builder httpMethod(HttpMethodView val);
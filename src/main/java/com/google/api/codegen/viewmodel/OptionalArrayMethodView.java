@@ -87,6 +87,13 @@ public abstract class OptionalArrayMethodView implements ApiMethodView {
     return longRunningView() != null;
   }
 
+  @Nullable
+  public abstract BatchingConfigView batchingConfig();
+
+  public boolean isBatching() {
+    return batchingConfig() != null;
+  }
+
   public abstract boolean isSingularRequestMethod();
 
   public abstract String packageName();
@@ -108,6 +115,11 @@ public abstract class OptionalArrayMethodView implements ApiMethodView {
 
   public abstract List<HeaderRequestParamView> headerRequestParams();
 
+  // Whether the routing header is built from exactly one string field.
+  public boolean hasSingleStringHeaderRequestParam() {
+    return headerRequestParams().size() == 1 && headerRequestParams().get(0).isStringField();
+  }
+
   @Nullable
   public abstract List<MethodSampleView> samples();
 
@@ -170,6 +182,8 @@ public abstract class OptionalArrayMethodView implements ApiMethodView {
 
     public abstract Builder pageStreamingView(PageStreamingDescriptorView val);
 
+    public abstract Builder batchingConfig(BatchingConfigView val);
+
     public abstract Builder isSingularRequestMethod(boolean val);
 
     public abstract Builder packageName(String val);
@@ -0,0 +1,59 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.viewmodel;
+
+import com.google.auto.value.AutoValue;
+import javax.annotation.Nullable;
+
+/**
+ * A part of a path template: either a literal run of segments and slashes, e.g.
+ * "/global/addresses/", or a variable that binds a single segment.
+ */
+@AutoValue
+public abstract class PathTemplatePartView {
+  @Nullable
+  public abstract String literal();
+
+  // The name of the template variable, e.g. "project".
+  @Nullable
+  public abstract String variable();
+
+  public abstract boolean isLast();
+
+  public boolean isVariable() {
+    return variable() != null;
+  }
+
+  public int literalLength() {
+    return isVariable() ? 0 : literal().length();
+  }
+
+  public static Builder newBuilder() {
+    return new AutoValue_PathTemplatePartView.Builder().isLast(false);
+  }
+
+  public abstract Builder toBuilder();
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+    public abstract Builder literal(String val);
+
+    public abstract Builder variable(String val);
+
+    public abstract Builder isLast(boolean val);
+
+    public abstract PathTemplatePartView build();
+  }
+}
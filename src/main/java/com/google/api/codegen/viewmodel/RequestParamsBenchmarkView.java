@@ -0,0 +1,61 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.viewmodel;
+
+import com.google.auto.value.AutoValue;
+
+/** The benchmark of the RequestParamsExtractor of a method routed by a single string field. */
+@AutoValue
+public abstract class RequestParamsBenchmarkView {
+  // The name of the method, e.g. "GetShelf".
+  public abstract String name();
+
+  public abstract String requestTypeName();
+
+  // The name of the field holding the benchmarked request.
+  public abstract String requestName();
+
+  public abstract String paramsExtractorName();
+
+  // The fully qualified name of the routing param, e.g. "name".
+  public abstract String paramName();
+
+  public abstract String paramGetter();
+
+  public abstract String paramSetter();
+
+  public static Builder newBuilder() {
+    return new AutoValue_RequestParamsBenchmarkView.Builder();
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+    public abstract Builder name(String val);
+
+    public abstract Builder requestTypeName(String val);
+
+    public abstract Builder requestName(String val);
+
+    public abstract Builder paramsExtractorName(String val);
+
+    public abstract Builder paramName(String val);
+
+    public abstract Builder paramGetter(String val);
+
+    public abstract Builder paramSetter(String val);
+
+    public abstract RequestParamsBenchmarkView build();
+  }
+}
@@ -0,0 +1,64 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.viewmodel;
+
+import com.google.api.codegen.SnippetSetRunner;
+import com.google.auto.value.AutoValue;
+import java.util.List;
+
+/**
+ * ViewModel representing a benchmark of the routing headers that a client builds for the methods
+ * routed by a single string field.
+ */
+@AutoValue
+public abstract class RoutingHeaderBenchmarkFileView implements ViewModel {
+  // The name of the client class, e.g. "LibraryServiceClient".
+  public abstract String apiClassName();
+
+  // The distinct names of the routing params, e.g. "name".
+  public abstract List<String> routingParams();
+
+  public abstract FileHeaderView fileHeader();
+
+  @Override
+  public String resourceRoot() {
+    return SnippetSetRunner.SNIPPET_RESOURCE_ROOT;
+  }
+
+  @Override
+  public abstract String templateFileName();
+
+  @Override
+  public abstract String outputPath();
+
+  public static Builder newBuilder() {
+    return new AutoValue_RoutingHeaderBenchmarkFileView.Builder();
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+    public abstract Builder apiClassName(String val);
+
+    public abstract Builder routingParams(List<String> val);
+
+    public abstract Builder fileHeader(FileHeaderView val);
+
+    public abstract Builder templateFileName(String val);
+
+    public abstract Builder outputPath(String val);
+
+    public abstract RoutingHeaderBenchmarkFileView build();
+  }
+}
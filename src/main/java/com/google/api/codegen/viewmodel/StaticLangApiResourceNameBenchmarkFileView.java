@@ -0,0 +1,64 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.viewmodel;
+
+import com.google.api.codegen.SnippetSetRunner;
+import com.google.auto.value.AutoValue;
+import java.util.List;
+
+/**
+ * ViewModel representing the JMH benchmark of the specialized parse and format methods of the
+ * ResourceName classes.
+ */
+@AutoValue
+public abstract class StaticLangApiResourceNameBenchmarkFileView implements ViewModel {
+  // The name of the benchmark class.
+  public abstract String name();
+
+  // The resource names with specialized parse and format methods.
+  public abstract List<StaticLangApiResourceNameView> resourceNames();
+
+  public abstract FileHeaderView fileHeader();
+
+  @Override
+  public String resourceRoot() {
+    return SnippetSetRunner.SNIPPET_RESOURCE_ROOT;
+  }
+
+  @Override
+  public abstract String templateFileName();
+
+  @Override
+  public abstract String outputPath();
+
+  public static StaticLangApiResourceNameBenchmarkFileView.Builder newBuilder() {
+    return new AutoValue_StaticLangApiResourceNameBenchmarkFileView.Builder();
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+    public abstract Builder name(String val);
+
+    public abstract Builder resourceNames(List<StaticLangApiResourceNameView> val);
+
+    public abstract Builder templateFileName(String val);
+
+    public abstract Builder outputPath(String val);
+
+    public abstract Builder fileHeader(FileHeaderView val);
+
+    public abstract StaticLangApiResourceNameBenchmarkFileView build();
+  }
+}
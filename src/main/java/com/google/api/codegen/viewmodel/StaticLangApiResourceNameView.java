@@ -39,6 +39,23 @@ public abstract class StaticLangApiResourceNameView
   // The list of path parameter views.
   public abstract List<StaticLangMemberView> pathParams();
 
+  // The literal and variable parts of the path template, in template order. Empty if the
+  // template cannot be parsed and formatted segment by segment, in which case PathTemplate is used.
+  public abstract List<PathTemplatePartView> pathParts();
+
+  public boolean hasSpecializedPath() {
+    return !pathParts().isEmpty();
+  }
+
+  // The total length of the literal parts of the path template.
+  public int pathLiteralLength() {
+    int length = 0;
+    for (PathTemplatePartView part : pathParts()) {
+      length += part.literalLength();
+    }
+    return length;
+  }
+
   public static Builder newBuilder() {
     return new AutoValue_StaticLangApiResourceNameView.Builder();
   }
@@ -55,6 +72,8 @@ public abstract class StaticLangApiResourceNameView
 
     public abstract Builder pathParams(List<StaticLangMemberView> val);
 
+    public abstract Builder pathParts(List<PathTemplatePartView> val);
+
     public abstract StaticLangApiResourceNameView build();
   }
 
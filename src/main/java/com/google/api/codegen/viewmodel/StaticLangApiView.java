@@ -61,6 +61,9 @@ public abstract class StaticLangApiView {
   @Nullable // Used in C#
   public abstract List<ModifyMethodView> modifyMethods();
 
+  @Nullable // Used in C#
+  public abstract List<BatcherMethodView> batcherMethods();
+
   public abstract boolean hasDefaultInstance();
 
   public abstract boolean hasLongRunningOperations();
@@ -131,6 +134,8 @@ public abstract class StaticLangApiView {
 
     public abstract Builder modifyMethods(List<ModifyMethodView> val);
 
+    public abstract Builder batcherMethods(List<BatcherMethodView> val);
+
     public abstract Builder hasDefaultInstance(boolean val);
 
     public abstract Builder hasLongRunningOperations(boolean val);
@@ -71,6 +71,8 @@ public abstract class StaticLangClientFileView implements ViewModel {
     return !lroDetailViews().isEmpty();
   }
 
+  public abstract List<BatchingBundlerView> bundlers();
+
   public static Builder newBuilder() {
     return new AutoValue_StaticLangClientFileView.Builder();
   }
@@ -119,6 +121,8 @@ public abstract class StaticLangClientFileView implements ViewModel {
 
     public abstract Builder lroDetailViews(List<LongRunningOperationDetailView> val);
 
+    public abstract Builder bundlers(List<BatchingBundlerView> val);
+
     public abstract StaticLangClientFileView build();
   }
 }
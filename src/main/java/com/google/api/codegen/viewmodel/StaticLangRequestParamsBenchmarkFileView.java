@@ -0,0 +1,67 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.viewmodel;
+
+import com.google.api.codegen.SnippetSetRunner;
+import com.google.auto.value.AutoValue;
+import java.util.List;
+
+/**
+ * ViewModel representing the JMH benchmark of the RequestParamsExtractors of an RPC stub class.
+ */
+@AutoValue
+public abstract class StaticLangRequestParamsBenchmarkFileView implements ViewModel {
+  // The name of the benchmark class.
+  public abstract String name();
+
+  // The name of the stub class holding the extractors.
+  public abstract String stubClassName();
+
+  public abstract List<RequestParamsBenchmarkView> methods();
+
+  public abstract FileHeaderView fileHeader();
+
+  @Override
+  public String resourceRoot() {
+    return SnippetSetRunner.SNIPPET_RESOURCE_ROOT;
+  }
+
+  @Override
+  public abstract String templateFileName();
+
+  @Override
+  public abstract String outputPath();
+
+  public static StaticLangRequestParamsBenchmarkFileView.Builder newBuilder() {
+    return new AutoValue_StaticLangRequestParamsBenchmarkFileView.Builder();
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+    public abstract Builder name(String val);
+
+    public abstract Builder stubClassName(String val);
+
+    public abstract Builder methods(List<RequestParamsBenchmarkView> val);
+
+    public abstract Builder templateFileName(String val);
+
+    public abstract Builder outputPath(String val);
+
+    public abstract Builder fileHeader(FileHeaderView val);
+
+    public abstract StaticLangRequestParamsBenchmarkFileView build();
+  }
+}
@@ -0,0 +1,68 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.viewmodel.testing;
+
+import com.google.auto.value.AutoValue;
+import javax.annotation.Nullable;
+
+/** The batching details of a test case that sends requests through a batcher. */
+@AutoValue
+public abstract class BatchingTestView {
+
+  public abstract String batchedFieldName();
+
+  @Nullable
+  public abstract String subresponseFieldName();
+
+  /** A discriminator field whose value can be changed to put a request in another partition. */
+  @Nullable
+  public abstract String partitionFieldName();
+
+  /** The kind of value of the partition field: Boolean, Bytes, String or Number. */
+  @Nullable
+  public abstract String partitionFieldKind();
+
+  /** The type of the result of a request added to the batcher. */
+  @Nullable // Used in Go
+  public abstract String resultTypeName();
+
+  public boolean hasSubresponseField() {
+    return subresponseFieldName() != null;
+  }
+
+  public boolean hasPartitionField() {
+    return partitionFieldName() != null;
+  }
+
+  public static Builder newBuilder() {
+    return new AutoValue_BatchingTestView.Builder();
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+
+    public abstract Builder batchedFieldName(String val);
+
+    public abstract Builder subresponseFieldName(String val);
+
+    public abstract Builder partitionFieldName(String val);
+
+    public abstract Builder partitionFieldKind(String val);
+
+    public abstract Builder resultTypeName(String val);
+
+    public abstract BatchingTestView build();
+  }
+}
@@ -85,10 +85,19 @@ public abstract class TestCaseView {
 
   public abstract String grpcMethodName();
 
+  @Nullable
+  public abstract BatchingTestView batchingView();
+
+  public boolean isBatching() {
+    return batchingView() != null;
+  }
+
   public static Builder newBuilder() {
     return new AutoValue_TestCaseView.Builder();
   }
 
+  public abstract Builder toBuilder();
+
   @AutoValue.Builder
   public abstract static class Builder {
 
@@ -146,6 +155,8 @@ public abstract class TestCaseView {
 
     public abstract Builder grpcMethodName(String val);
 
+    public abstract Builder batchingView(BatchingTestView val);
+
     public abstract TestCaseView build();
   }
 }
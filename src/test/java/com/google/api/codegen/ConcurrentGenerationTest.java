@@ -0,0 +1,73 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.protoannotations.GapicCodeGeneratorAnnotationsTest;
+import com.google.api.tools.framework.model.Model;
+import com.google.api.tools.framework.model.ProtoFile;
+import com.google.api.tools.framework.model.testing.TestDataLocator;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorRequest;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
+import java.util.stream.Collectors;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Stress test for running code generators and renderers concurrently over a shared model: repeated
+ * concurrent generations must produce exactly the output of sequential generation.
+ */
+public class ConcurrentGenerationTest {
+
+  private static final int RUNS = 10;
+
+  private static Model model;
+  @ClassRule public static TemporaryFolder tempDir = new TemporaryFolder();
+
+  @BeforeClass
+  public static void startUp() {
+    TestDataLocator testDataLocator =
+        TestDataLocator.create(GapicCodeGeneratorAnnotationsTest.class);
+    testDataLocator.addTestDataSource(CodegenTestUtil.class, "testsrc/common");
+    model =
+        CodegenTestUtil.readModel(
+            testDataLocator, tempDir, new String[] {"multiple_services.proto"}, new String[] {});
+  }
+
+  @Test
+  public void concurrentGenerationMatchesSequentialGeneration() {
+    CodeGeneratorResponse sequential = ProtocGeneratorMain.generate(request("language=java"));
+    assertThat(sequential.getError()).isEmpty();
+
+    for (int run = 0; run < RUNS; run++) {
+      assertThat(
+              ProtocGeneratorMain.generate(
+                  request("language=java,generator_threads=8,render_threads=8")))
+          .isEqualTo(sequential);
+    }
+  }
+
+  private static CodeGeneratorRequest request(String parameter) {
+    return CodeGeneratorRequest.newBuilder()
+        .addAllProtoFile(
+            model.getFiles().stream().map(ProtoFile::getProto).collect(Collectors.toList()))
+        .addFileToGenerate("multiple_services.proto")
+        .setParameter(parameter)
+        .build();
+  }
+}
@@ -0,0 +1,130 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.api.codegen.protoannotations.GapicCodeGeneratorAnnotationsTest;
+import com.google.api.tools.framework.model.Model;
+import com.google.api.tools.framework.model.ProtoFile;
+import com.google.api.tools.framework.model.testing.TestDataLocator;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorRequest;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.stream.Collectors;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ProtocGeneratorDaemonTest {
+
+  private static final String TOKEN = "0123456789abcdef";
+
+  private static Model model;
+  @ClassRule public static TemporaryFolder tempDir = new TemporaryFolder();
+
+  @BeforeClass
+  public static void startUp() {
+    TestDataLocator testDataLocator =
+        TestDataLocator.create(GapicCodeGeneratorAnnotationsTest.class);
+    testDataLocator.addTestDataSource(CodegenTestUtil.class, "testsrc/common");
+    model =
+        CodegenTestUtil.readModel(
+            testDataLocator, tempDir, new String[] {"multiple_services.proto"}, new String[] {});
+  }
+
+  @Test
+  public void servesFramedRequestsInOrder() throws IOException {
+    ByteArrayOutputStream requests = new ByteArrayOutputStream();
+    request("fuuuuudge.proto").writeDelimitedTo(requests);
+    request("multiple_services.proto").writeDelimitedTo(requests);
+    ByteArrayOutputStream responses = new ByteArrayOutputStream();
+
+    ProtocGeneratorDaemon.serve(new ByteArrayInputStream(requests.toByteArray()), responses);
+
+    InputStream in = new ByteArrayInputStream(responses.toByteArray());
+    CodeGeneratorResponse failed = CodeGeneratorResponse.parseDelimitedFrom(in);
+    CodeGeneratorResponse generated = CodeGeneratorResponse.parseDelimitedFrom(in);
+    assertThat(CodeGeneratorResponse.parseDelimitedFrom(in)).isNull();
+
+    // A failing request does not leak diagnostics into the next one.
+    assertThat(failed.getError()).isNotEmpty();
+    assertThat(generated.getError()).isEmpty();
+    assertThat(generated)
+        .isEqualTo(ProtocGeneratorMain.generate(request("multiple_services.proto")));
+  }
+
+  @Test
+  public void clientForwardsToListeningDaemon() throws Exception {
+    try (ServerSocket serverSocket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+      startListening(serverSocket);
+
+      CodeGeneratorRequest request = request("multiple_services.proto");
+      CodeGeneratorResponse first =
+          ProtocGeneratorClient.forward(request, serverSocket.getLocalPort(), TOKEN);
+      CodeGeneratorResponse second =
+          ProtocGeneratorClient.forward(request, serverSocket.getLocalPort(), TOKEN);
+
+      assertThat(first.getError()).isEmpty();
+      assertThat(first.getFileCount()).isEqualTo(15);
+      assertThat(second).isEqualTo(first);
+    }
+  }
+
+  @Test
+  public void daemonRejectsWrongToken() throws Exception {
+    try (ServerSocket serverSocket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+      startListening(serverSocket);
+
+      try {
+        ProtocGeneratorClient.forward(
+            request("multiple_services.proto"), serverSocket.getLocalPort(), "wrong-token");
+        fail("expected the daemon to close the connection");
+      } catch (IOException expected) {
+        // The daemon closes the connection without generating.
+      }
+    }
+  }
+
+  private static void startListening(ServerSocket serverSocket) {
+    Thread listener =
+        new Thread(
+            () -> {
+              try {
+                ProtocGeneratorDaemon.listen(serverSocket, TOKEN);
+              } catch (IOException e) {
+                throw new IllegalStateException(e);
+              }
+            });
+    listener.setDaemon(true);
+    listener.start();
+  }
+
+  private static CodeGeneratorRequest request(String fileToGenerate) {
+    return CodeGeneratorRequest.newBuilder()
+        .addAllProtoFile(
+            model.getFiles().stream().map(ProtoFile::getProto).collect(Collectors.toList()))
+        .addFileToGenerate(fileToGenerate)
+        .setParameter("language=java")
+        .build();
+  }
+}
@@ -0,0 +1,701 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen;
+
+import com.google.api.codegen.gapic.GapicGeneratorApp;
+import com.google.api.codegen.gapic.GapicTestConfig;
+import com.google.api.tools.framework.tools.ToolOptions;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * A synthetic API of a configurable size, for stress testing the generator.
+ *
+ * <p>The test inputs are small, while production APIs have dozens of services and thousands of
+ * methods. A synthetic API is made of {@code services} services of {@code methodsPerService}
+ * methods each. Every service defines {@code resourcePatterns} resources, each with a chain of
+ * {@code messageDepth} nested detail messages, and its methods cycle through the resources. The
+ * given percentages of each service's methods are long-running, paged and streaming (server, client
+ * and bidirectional in turn); the rest are unary.
+ *
+ * <p>{@link #writeTo} writes the proto, the service config, the GAPIC config, and optionally a
+ * sample config, and compiles the descriptor set, so that the generator can run on the API as it
+ * runs on a real one.
+ */
+public final class SyntheticApi {
+
+  public static final String PROTO_PACKAGE = "google.example.synthetic.v1";
+
+  static final String PROTO_FILE = "synthetic.proto";
+  static final String SERVICE_CONFIG_FILE = "synthetic.yaml";
+  static final String GAPIC_CONFIG_FILE = "synthetic_gapic.yaml";
+  static final String SAMPLE_CONFIG_FILE = "synthetic.sample.yaml";
+  static final String DESCRIPTOR_SET_FILE = "synthetic.desc";
+
+  private static final String HOST = "synthetic.example.com";
+
+  /** The kinds of methods of a synthetic API. */
+  public enum MethodKind {
+    UNARY,
+    PAGED,
+    LONG_RUNNING,
+    SERVER_STREAMING,
+    CLIENT_STREAMING,
+    BIDI_STREAMING
+  }
+
+  private final int services;
+  private final int methodsPerService;
+  private final int messageDepth;
+  private final int resourcePatterns;
+  private final int longRunningPercent;
+  private final int pagedPercent;
+  private final int streamingPercent;
+  private final boolean samples;
+
+  private SyntheticApi(Builder builder) {
+    this.services = builder.services;
+    this.methodsPerService = builder.methodsPerService;
+    this.messageDepth = builder.messageDepth;
+    this.resourcePatterns = builder.resourcePatterns;
+    this.longRunningPercent = builder.longRunningPercent;
+    this.pagedPercent = builder.pagedPercent;
+    this.streamingPercent = builder.streamingPercent;
+    this.samples = builder.samples;
+  }
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  public Builder toBuilder() {
+    return newBuilder()
+        .setServices(services)
+        .setMethodsPerService(methodsPerService)
+        .setMessageDepth(messageDepth)
+        .setResourcePatterns(resourcePatterns)
+        .setLongRunningPercent(longRunningPercent)
+        .setPagedPercent(pagedPercent)
+        .setStreamingPercent(streamingPercent)
+        .setSamples(samples);
+  }
+
+  public int getServiceCount() {
+    return services;
+  }
+
+  public int getMethodCount() {
+    return services * methodsPerService;
+  }
+
+  public List<String> getServiceNames() {
+    List<String> serviceNames = new ArrayList<>();
+    for (int service = 0; service < services; service++) {
+      serviceNames.add(PROTO_PACKAGE + "." + serviceName(service));
+    }
+    return serviceNames;
+  }
+
+  /**
+   * Returns the kind of the given method of a service. The long-running methods come first, then
+   * the paged and the streaming ones; every service has the same mix.
+   */
+  public MethodKind getMethodKind(int method) {
+    Preconditions.checkElementIndex(method, methodsPerService);
+    int longRunning = methodsPerService * longRunningPercent / 100;
+    int paged = methodsPerService * pagedPercent / 100;
+    int streaming = methodsPerService * streamingPercent / 100;
+    if (method < longRunning) {
+      return MethodKind.LONG_RUNNING;
+    }
+    if (method < longRunning + paged) {
+      return MethodKind.PAGED;
+    }
+    if (method < longRunning + paged + streaming) {
+      switch ((method - longRunning - paged) % 3) {
+        case 0:
+          return MethodKind.SERVER_STREAMING;
+        case 1:
+          return MethodKind.CLIENT_STREAMING;
+        default:
+          return MethodKind.BIDI_STREAMING;
+      }
+    }
+    return MethodKind.UNARY;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "SyntheticApi(services=%d, methodsPerService=%d, messageDepth=%d, resourcePatterns=%d, "
+            + "longRunning=%d%%, paged=%d%%, streaming=%d%%, samples=%s)",
+        services,
+        methodsPerService,
+        messageDepth,
+        resourcePatterns,
+        longRunningPercent,
+        pagedPercent,
+        streamingPercent,
+        samples);
+  }
+
+  /**
+   * Writes the sources of the API to {@code dir} and compiles its descriptor set with protoc, which
+   * is found as in the baseline tests.
+   */
+  public Inputs writeTo(File dir) throws IOException {
+    write(new File(dir, PROTO_FILE), createProto());
+    write(new File(dir, SERVICE_CONFIG_FILE), createServiceConfig());
+    write(new File(dir, GAPIC_CONFIG_FILE), createGapicConfig());
+    if (samples) {
+      write(new File(dir, SAMPLE_CONFIG_FILE), createSampleConfig());
+    }
+
+    File protocDir = new File(dir, "protoc");
+    Preconditions.checkState(protocDir.isDirectory() || protocDir.mkdirs());
+    GapicTestConfig testConfig =
+        new GapicTestConfig(
+            new MixedPathTestDataLocator(SyntheticApi.class, dir.getPath()),
+            protocDir.getPath(),
+            ImmutableList.of(PROTO_FILE));
+    File descriptorSet = new File(dir, DESCRIPTOR_SET_FILE);
+    Files.copy(testConfig.getDescriptorFile().toFile(), descriptorSet);
+    return new Inputs(dir, samples);
+  }
+
+  /** The files of a synthetic API written to a directory. */
+  public static final class Inputs {
+    private final File dir;
+    private final boolean samples;
+
+    private Inputs(File dir, boolean samples) {
+      this.dir = dir;
+      this.samples = samples;
+    }
+
+    public File getDir() {
+      return dir;
+    }
+
+    public File getDescriptorSet() {
+      return new File(dir, DESCRIPTOR_SET_FILE);
+    }
+
+    public File getServiceConfig() {
+      return new File(dir, SERVICE_CONFIG_FILE);
+    }
+
+    public File getGapicConfig() {
+      return new File(dir, GAPIC_CONFIG_FILE);
+    }
+
+    @Nullable
+    public File getSampleConfig() {
+      return samples ? new File(dir, SAMPLE_CONFIG_FILE) : null;
+    }
+
+    /**
+     * Returns the options GeneratorMain would pass to generate the API in one language, with the
+     * standalone samples enabled if the API has a sample config.
+     */
+    public ToolOptions createToolOptions(String language, String outputPath) {
+      ToolOptions toolOptions = ToolOptions.create();
+      toolOptions.set(ToolOptions.DESCRIPTOR_SET, getDescriptorSet().getPath());
+      toolOptions.set(ToolOptions.CONFIG_FILES, ImmutableList.of(getServiceConfig().getPath()));
+      toolOptions.set(
+          GapicGeneratorApp.GENERATOR_CONFIG_FILES, ImmutableList.of(getGapicConfig().getPath()));
+      if (samples) {
+        toolOptions.set(
+            GapicGeneratorApp.SAMPLE_CONFIG_FILES, ImmutableList.of(getSampleConfig().getPath()));
+        toolOptions.set(GapicGeneratorApp.DEV_SAMPLES, true);
+      }
+      toolOptions.set(GapicGeneratorApp.LANGUAGE, language);
+      toolOptions.set(GapicGeneratorApp.OUTPUT_FILE, outputPath);
+      return toolOptions;
+    }
+  }
+
+  String createProto() {
+    SourceWriter proto = new SourceWriter();
+    proto.line("syntax = \"proto3\";");
+    proto.line();
+    proto.line("package %s;", PROTO_PACKAGE);
+    proto.line();
+    proto.line("import \"google/api/annotations.proto\";");
+    proto.line("import \"google/api/client.proto\";");
+    proto.line("import \"google/longrunning/operations.proto\";");
+    proto.line();
+    proto.line(
+        "option go_package = \"%s\";",
+        "google.golang.org/genproto/googleapis/example/synthetic/v1;synthetic");
+    proto.line("option java_multiple_files = true;");
+    proto.line("option java_package = \"com.google.example.synthetic.v1\";");
+    for (int service = 0; service < services; service++) {
+      writeService(proto, service);
+      for (int resource = 0; resource < resourcePatterns; resource++) {
+        writeResourceMessages(proto, service, resource);
+      }
+      proto.line();
+      proto.line("message %sOperationMetadata {", serviceName(service));
+      proto.line("  int32 progress_percent = 1;");
+      proto.line("}");
+      for (int method = 0; method < methodsPerService; method++) {
+        writeMethodMessages(proto, service, method);
+      }
+    }
+    return proto.toString();
+  }
+
+  private void writeService(SourceWriter proto, int service) {
+    proto.line();
+    proto.line("// Synthetic service %d.", service);
+    proto.line("service %s {", serviceName(service));
+    proto.line("  option (google.api.default_host) = \"%s\";", HOST);
+    for (int method = 0; method < methodsPerService; method++) {
+      String methodName = methodName(method);
+      String request = serviceName(service) + methodName + "Request";
+      String resourcePath = resourcePath(service, method);
+      proto.line();
+      proto.line("  // Synthetic method %d.", method);
+      switch (getMethodKind(method)) {
+        case UNARY:
+          proto.line("  rpc %s(%s) returns (%s) {", methodName, request, resource(service, method));
+          proto.line(
+              "    option (google.api.http) = { get: \"/v1/{name=%s/*}:%s\" };",
+              resourcePath, lowerCamel(methodName));
+          proto.line("  }");
+          break;
+        case PAGED:
+          proto.line(
+              "  rpc %s(%s) returns (%s%sResponse) {",
+              methodName, request, serviceName(service), methodName);
+          proto.line(
+              "    option (google.api.http) = { get: \"/v1/{parent=projects/*}/%s:%s\" };",
+              resourceCollection(service, method), lowerCamel(methodName));
+          proto.line("  }");
+          break;
+        case LONG_RUNNING:
+          proto.line("  rpc %s(%s) returns (google.longrunning.Operation) {", methodName, request);
+          proto.line(
+              "    option (google.api.http) = { post: \"/v1/{parent=projects/*}/%s:%s\" "
+                  + "body: \"thing\" };",
+              resourceCollection(service, method), lowerCamel(methodName));
+          proto.line("    option (google.longrunning.operation_info) = {");
+          proto.line("      response_type: \"%s.%s\"", PROTO_PACKAGE, resource(service, method));
+          proto.line(
+              "      metadata_type: \"%s.%sOperationMetadata\"",
+              PROTO_PACKAGE, serviceName(service));
+          proto.line("    };");
+          proto.line("  }");
+          break;
+        case SERVER_STREAMING:
+          proto.line(
+              "  rpc %s(%s) returns (stream %s);", methodName, request, resource(service, method));
+          break;
+        case CLIENT_STREAMING:
+          proto.line(
+              "  rpc %s(stream %s) returns (%s%sResponse);",
+              methodName, request, serviceName(service), methodName);
+          break;
+        case BIDI_STREAMING:
+          proto.line(
+              "  rpc %s(stream %s) returns (stream %s);",
+              methodName, request, resource(service, method));
+          break;
+      }
+    }
+    proto.line("}");
+  }
+
+  private void writeResourceMessages(SourceWriter proto, int service, int resource) {
+    String message = serviceName(service) + "Thing" + resource;
+    proto.line();
+    proto.line("message %s {", message);
+    proto.line("  string name = 1;");
+    proto.line("  string display_name = 2;");
+    if (messageDepth > 0) {
+      proto.line("  %sDetail1 detail = 3;", message);
+    }
+    proto.line("}");
+    for (int level = 1; level <= messageDepth; level++) {
+      proto.line();
+      proto.line("message %sDetail%d {", message, level);
+      proto.line("  string value = 1;");
+      proto.line("  int64 count = 2;");
+      if (level < messageDepth) {
+        proto.line("  %sDetail%d detail = 3;", message, level + 1);
+      }
+      proto.line("}");
+    }
+  }
+
+  private void writeMethodMessages(SourceWriter proto, int service, int method) {
+    String prefix = serviceName(service) + methodName(method);
+    proto.line();
+    proto.line("message %sRequest {", prefix);
+    switch (getMethodKind(method)) {
+      case UNARY:
+      case SERVER_STREAMING:
+        proto.line("  string name = 1;");
+        break;
+      case PAGED:
+        proto.line("  string parent = 1;");
+        proto.line("  int32 page_size = 2;");
+        proto.line("  string page_token = 3;");
+        break;
+      case LONG_RUNNING:
+        proto.line("  string parent = 1;");
+        proto.line("  %s thing = 2;", resource(service, method));
+        break;
+      case CLIENT_STREAMING:
+      case BIDI_STREAMING:
+        proto.line("  string name = 1;");
+        proto.line("  %s thing = 2;", resource(service, method));
+        break;
+    }
+    proto.line("}");
+
+    if (getMethodKind(method) == MethodKind.PAGED) {
+      proto.line();
+      proto.line("message %sResponse {", prefix);
+      proto.line("  repeated %s things = 1;", resource(service, method));
+      proto.line("  string next_page_token = 2;");
+      proto.line("}");
+    } else if (getMethodKind(method) == MethodKind.CLIENT_STREAMING) {
+      proto.line();
+      proto.line("message %sResponse {", prefix);
+      proto.line("  int32 count = 1;");
+      proto.line("}");
+    }
+  }
+
+  String createServiceConfig() {
+    SourceWriter yaml = new SourceWriter();
+    yaml.line("type: google.api.Service");
+    yaml.line("config_version: 1");
+    yaml.line("name: %s", HOST);
+    yaml.line("title: Synthetic Example API");
+    yaml.line();
+    yaml.line("apis:");
+    for (String serviceName : getServiceNames()) {
+      yaml.line("- name: %s", serviceName);
+    }
+    yaml.line();
+    yaml.line("documentation:");
+    yaml.line("  summary:");
+    yaml.line("    A synthetic API for stress testing the generator.");
+    return yaml.toString();
+  }
+
+  String createGapicConfig() {
+    SourceWriter yaml = new SourceWriter();
+    yaml.line("type: com.google.api.codegen.ConfigProto");
+    yaml.line("config_schema_version: 1.0.0");
+    yaml.line("language_settings:");
+    yaml.line("  java:");
+    yaml.line("    package_name: com.google.example.synthetic.v1");
+    yaml.line("  python:");
+    yaml.line("    package_name: google.example.synthetic_v1.gapic");
+    yaml.line("  go:");
+    yaml.line("    package_name: cloud.google.com/go/example/synthetic/apiv1");
+    yaml.line("  csharp:");
+    yaml.line("    package_name: Google.Example.Synthetic.V1");
+    yaml.line("  ruby:");
+    yaml.line("    package_name: Google::Example::Synthetic::V1");
+    yaml.line("  php:");
+    yaml.line("    package_name: Google\\Example\\Synthetic\\V1");
+    yaml.line("  nodejs:");
+    yaml.line("    package_name: synthetic.v1");
+    yaml.line("license_header:");
+    yaml.line("  copyright_file: copyright-google.txt");
+    yaml.line("  license_file: license-header-apache-2.0.txt");
+    yaml.line("collections:");
+    yaml.line("- name_pattern: projects/{project}");
+    yaml.line("  entity_name: project");
+    yaml.line("interfaces:");
+    for (int service = 0; service < services; service++) {
+      yaml.line("- name: %s.%s", PROTO_PACKAGE, serviceName(service));
+      yaml.line("  collections:");
+      for (int resource = 0; resource < resourcePatterns; resource++) {
+        yaml.line(
+            "  - name_pattern: projects/{project}/%s/things%d/{thing}",
+            lowerCamel(serviceName(service)), resource);
+        yaml.line("    entity_name: %s", entityName(service, resource));
+      }
+      yaml.line("  retry_codes_def:");
+      yaml.line("  - name: idempotent");
+      yaml.line("    retry_codes:");
+      yaml.line("    - UNAVAILABLE");
+      yaml.line("    - DEADLINE_EXCEEDED");
+      yaml.line("  - name: non_idempotent");
+      yaml.line("    retry_codes: []");
+      yaml.line("  retry_params_def:");
+      yaml.line("  - name: default");
+      yaml.line("    initial_retry_delay_millis: 100");
+      yaml.line("    retry_delay_multiplier: 1.3");
+      yaml.line("    max_retry_delay_millis: 60000");
+      yaml.line("    initial_rpc_timeout_millis: 20000");
+      yaml.line("    rpc_timeout_multiplier: 1");
+      yaml.line("    max_rpc_timeout_millis: 20000");
+      yaml.line("    total_timeout_millis: 600000");
+      yaml.line("  methods:");
+      for (int method = 0; method < methodsPerService; method++) {
+        writeMethodConfig(yaml, service, method);
+      }
+    }
+    return yaml.toString();
+  }
+
+  private void writeMethodConfig(SourceWriter yaml, int service, int method) {
+    MethodKind kind = getMethodKind(method);
+    yaml.line("  - name: %s", methodName(method));
+    switch (kind) {
+      case UNARY:
+      case SERVER_STREAMING:
+        yaml.line("    flattening:");
+        yaml.line("      groups:");
+        yaml.line("      - parameters:");
+        yaml.line("        - name");
+        yaml.line("    required_fields:");
+        yaml.line("    - name");
+        break;
+      case PAGED:
+      case LONG_RUNNING:
+        yaml.line("    flattening:");
+        yaml.line("      groups:");
+        yaml.line("      - parameters:");
+        yaml.line("        - parent");
+        yaml.line("    required_fields:");
+        yaml.line("    - parent");
+        break;
+      default:
+        break;
+    }
+    if (kind == MethodKind.PAGED) {
+      yaml.line("    page_streaming:");
+      yaml.line("      request:");
+      yaml.line("        page_size_field: page_size");
+      yaml.line("        token_field: page_token");
+      yaml.line("      response:");
+      yaml.line("        token_field: next_page_token");
+      yaml.line("        resources_field: things");
+    }
+    yaml.line(
+        "    retry_codes_name: %s",
+        kind == MethodKind.LONG_RUNNING ? "non_idempotent" : "idempotent");
+    yaml.line("    retry_params_name: default");
+    yaml.line("    field_name_patterns:");
+    if (kind == MethodKind.PAGED || kind == MethodKind.LONG_RUNNING) {
+      yaml.line("      parent: project");
+    } else {
+      yaml.line("      name: %s", entityName(service, method % resourcePatterns));
+    }
+    yaml.line("    timeout_millis: 60000");
+    if (kind == MethodKind.LONG_RUNNING) {
+      yaml.line("    long_running:");
+      yaml.line("      return_type: %s.%s", PROTO_PACKAGE, resource(service, method));
+      yaml.line("      metadata_type: %s.%sOperationMetadata", PROTO_PACKAGE, serviceName(service));
+      yaml.line("      initial_poll_delay_millis: 500");
+      yaml.line("      poll_delay_multiplier: 1.5");
+      yaml.line("      max_poll_delay_millis: 5000");
+      yaml.line("      total_poll_timeout_millis: 300000");
+    }
+  }
+
+  /** Writes one sample for each unary, paged and long-running method. */
+  String createSampleConfig() {
+    SourceWriter yaml = new SourceWriter();
+    yaml.line("---");
+    yaml.line("type: com.google.api.codegen.samplegen.v1p2.SampleConfigProto");
+    yaml.line("schema_version: 1.2.0");
+    yaml.line("samples:");
+    for (int service = 0; service < services; service++) {
+      for (int method = 0; method < methodsPerService; method++) {
+        MethodKind kind = getMethodKind(method);
+        String field;
+        if (kind == MethodKind.UNARY) {
+          field = "name";
+        } else if (kind == MethodKind.PAGED || kind == MethodKind.LONG_RUNNING) {
+          field = "parent";
+        } else {
+          continue;
+        }
+        String regionTag =
+            lowerUnderscore(serviceName(service)) + "_" + lowerUnderscore(methodName(method));
+        yaml.line("- service: %s.%s", PROTO_PACKAGE, serviceName(service));
+        yaml.line("  rpc: %s", methodName(method));
+        yaml.line("  region_tag: %s", regionTag);
+        yaml.line("  title: %s", regionTag);
+        yaml.line("  description: \"Calls %s.\"", methodName(method));
+        yaml.line("  request:");
+        yaml.line("  - field: %s%%project", field);
+        yaml.line("    value: \"my-project\"");
+        if (kind == MethodKind.UNARY) {
+          yaml.line("  - field: name%%thing");
+          yaml.line("    value: \"my-thing\"");
+        }
+        yaml.line("  response:");
+        yaml.line("  - print:");
+        yaml.line("    - \"Name: %%s\"");
+        yaml.line("    - $resp.name");
+      }
+    }
+    return yaml.toString();
+  }
+
+  private static String serviceName(int service) {
+    return "Service" + service;
+  }
+
+  private String methodName(int method) {
+    switch (getMethodKind(method)) {
+      case PAGED:
+        return "ListThings" + method;
+      case LONG_RUNNING:
+        return "CreateThing" + method;
+      case SERVER_STREAMING:
+        return "WatchThings" + method;
+      case CLIENT_STREAMING:
+        return "UploadThings" + method;
+      case BIDI_STREAMING:
+        return "SyncThings" + method;
+      default:
+        return "GetThing" + method;
+    }
+  }
+
+  private String resource(int service, int method) {
+    return serviceName(service) + "Thing" + (method % resourcePatterns);
+  }
+
+  private String resourceCollection(int service, int method) {
+    return lowerCamel(serviceName(service)) + "/things" + (method % resourcePatterns);
+  }
+
+  private String resourcePath(int service, int method) {
+    return "projects/*/" + resourceCollection(service, method);
+  }
+
+  private static String entityName(int service, int resource) {
+    return "service" + service + "_thing" + resource;
+  }
+
+  private static String lowerCamel(String name) {
+    return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+  }
+
+  private static String lowerUnderscore(String name) {
+    return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+  }
+
+  private static void write(File file, String content) throws IOException {
+    Files.asCharSink(file, StandardCharsets.UTF_8).write(content);
+  }
+
+  /** Accumulates formatted source lines. */
+  private static class SourceWriter {
+    private final StringBuilder source = new StringBuilder();
+
+    void line() {
+      source.append('\n');
+    }
+
+    void line(String format, Object... args) {
+      source.append(String.format(format, args)).append('\n');
+    }
+
+    @Override
+    public String toString() {
+      return source.toString();
+    }
+  }
+
+  public static final class Builder {
+    private int services = 1;
+    private int methodsPerService = 10;
+    private int messageDepth = 1;
+    private int resourcePatterns = 1;
+    private int longRunningPercent = 10;
+    private int pagedPercent = 20;
+    private int streamingPercent = 10;
+    private boolean samples = true;
+
+    private Builder() {}
+
+    public Builder setServices(int services) {
+      this.services = services;
+      return this;
+    }
+
+    public Builder setMethodsPerService(int methodsPerService) {
+      this.methodsPerService = methodsPerService;
+      return this;
+    }
+
+    /** Sets the number of nested detail messages below each resource message. */
+    public Builder setMessageDepth(int messageDepth) {
+      this.messageDepth = messageDepth;
+      return this;
+    }
+
+    /** Sets the number of resource name patterns, and of resource messages, of each service. */
+    public Builder setResourcePatterns(int resourcePatterns) {
+      this.resourcePatterns = resourcePatterns;
+      return this;
+    }
+
+    public Builder setLongRunningPercent(int longRunningPercent) {
+      this.longRunningPercent = longRunningPercent;
+      return this;
+    }
+
+    public Builder setPagedPercent(int pagedPercent) {
+      this.pagedPercent = pagedPercent;
+      return this;
+    }
+
+    public Builder setStreamingPercent(int streamingPercent) {
+      this.streamingPercent = streamingPercent;
+      return this;
+    }
+
+    /** Sets whether a sample config is written for the unary, paged and long-running methods. */
+    public Builder setSamples(boolean samples) {
+      this.samples = samples;
+      return this;
+    }
+
+    public SyntheticApi build() {
+      Preconditions.checkArgument(services > 0, "services must be positive");
+      Preconditions.checkArgument(methodsPerService > 0, "methodsPerService must be positive");
+      Preconditions.checkArgument(messageDepth >= 0, "messageDepth must not be negative");
+      Preconditions.checkArgument(resourcePatterns > 0, "resourcePatterns must be positive");
+      Preconditions.checkArgument(
+          longRunningPercent >= 0
+              && pagedPercent >= 0
+              && streamingPercent >= 0
+              && longRunningPercent + pagedPercent + streamingPercent <= 100,
+          "the method kind percentages must add up to at most 100");
+      return new SyntheticApi(this);
+    }
+  }
+}
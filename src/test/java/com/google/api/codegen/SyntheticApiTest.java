@@ -0,0 +1,97 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.SyntheticApi.MethodKind;
+import com.google.api.codegen.gapic.FileGapicWriter;
+import com.google.api.codegen.gapic.GapicGeneratorApp;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SyntheticApiTest {
+  @Rule public TemporaryFolder tempDir = new TemporaryFolder();
+
+  @Test
+  public void mixesMethodKinds() {
+    SyntheticApi api =
+        SyntheticApi.newBuilder()
+            .setServices(3)
+            .setMethodsPerService(10)
+            .setLongRunningPercent(20)
+            .setPagedPercent(20)
+            .setStreamingPercent(30)
+            .build();
+
+    List<MethodKind> kinds = new ArrayList<>();
+    for (int method = 0; method < 10; method++) {
+      kinds.add(api.getMethodKind(method));
+    }
+
+    assertThat(api.getMethodCount()).isEqualTo(30);
+    assertThat(api.getServiceNames())
+        .containsExactly(
+            "google.example.synthetic.v1.Service0",
+            "google.example.synthetic.v1.Service1",
+            "google.example.synthetic.v1.Service2")
+        .inOrder();
+    assertThat(kinds)
+        .containsExactly(
+            MethodKind.LONG_RUNNING,
+            MethodKind.LONG_RUNNING,
+            MethodKind.PAGED,
+            MethodKind.PAGED,
+            MethodKind.SERVER_STREAMING,
+            MethodKind.CLIENT_STREAMING,
+            MethodKind.BIDI_STREAMING,
+            MethodKind.UNARY,
+            MethodKind.UNARY,
+            MethodKind.UNARY)
+        .inOrder();
+  }
+
+  @Test
+  public void generatesJava() throws Exception {
+    SyntheticApi api =
+        SyntheticApi.newBuilder()
+            .setServices(2)
+            .setMethodsPerService(10)
+            .setMessageDepth(2)
+            .setResourcePatterns(2)
+            .setLongRunningPercent(20)
+            .setPagedPercent(20)
+            .setStreamingPercent(30)
+            .build();
+    SyntheticApi.Inputs inputs = api.writeTo(tempDir.newFolder("api"));
+    String outputDir = tempDir.newFolder("java").getPath();
+
+    GapicGeneratorApp generator =
+        new GapicGeneratorApp(
+            inputs.createToolOptions("java", outputDir),
+            ArtifactType.LEGACY_GAPIC_AND_PACKAGE,
+            new FileGapicWriter(outputDir));
+
+    assertThat(generator.run()).isEqualTo(0);
+    assertThat(generator.getDiagCollector().getErrorCount()).isEqualTo(0);
+    File clientDir = new File(outputDir, "src/main/java/com/google/example/synthetic/v1");
+    assertThat(new File(clientDir, "Service0Client.java").exists()).isTrue();
+    assertThat(new File(clientDir, "Service1Client.java").exists()).isTrue();
+  }
+}
@@ -130,4 +130,38 @@ public class GapicConfigProducerTest {
     assertThat(codes.get("no_retry_1_codes")).isNotNull();
     assertThat(codes.get("no_retry_codes")).isNotNull();
   }
+
+  @Test
+  public void testCreateProductsFromSharedInputs() {
+    TestDataLocator locator = MixedPathTestDataLocator.create(this.getClass());
+    locator.addTestDataSource(CodegenTestUtil.class, "testsrc/common");
+
+    Model model =
+        CodegenTestUtil.readModel(
+            locator,
+            tempDir,
+            new String[] {"library.proto", "another_service.proto"},
+            new String[] {"library.yaml"});
+
+    ConfigProto configProto =
+        CodegenTestUtil.readConfig(
+            model.getDiagReporter().getDiagCollector(),
+            locator,
+            new String[] {"library_v2_gapic.yaml"});
+
+    GapicProductConfig.LanguageIndependentInputs inputs =
+        GapicProductConfig.LanguageIndependentInputs.create(
+            model, configProto, "google.example.library.v1", null);
+    GapicProductConfig javaProduct =
+        GapicProductConfig.create(inputs, null, null, TargetLanguage.JAVA);
+    GapicProductConfig goProduct = GapicProductConfig.create(inputs, null, null, TargetLanguage.GO);
+
+    assertThat(model.getDiagReporter().getDiagCollector().hasErrors()).isFalse();
+    assertThat(javaProduct.getPackageName()).isNotEqualTo(goProduct.getPackageName());
+    assertThat(javaProduct.getInterfaceConfigMap().keySet())
+        .containsExactlyElementsIn(goProduct.getInterfaceConfigMap().keySet());
+    // Message configs are language-independent and computed once for all languages.
+    assertThat(javaProduct.getResourceNameMessageConfigs())
+        .isSameAs(goProduct.getResourceNameMessageConfigs());
+  }
 }
@@ -0,0 +1,102 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.discovery;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import org.junit.Test;
+
+public class DocumentParserTest {
+  private static final String[] DOCUMENTS = {
+    "src/test/java/com/google/api/codegen/discovery/testdata/array.json",
+    "src/test/java/com/google/api/codegen/discovery/testdata/graph.json",
+    "src/test/java/com/google/api/codegen/discogapic/testdata/simplecompute.v1.json",
+  };
+
+  @Test
+  public void testStreamedDocumentsMatchTreeDocuments() throws IOException {
+    ObjectMapper mapper = new ObjectMapper();
+    for (String file : DOCUMENTS) {
+      Document fromTree;
+      try (Reader reader = new FileReader(new File(file))) {
+        fromTree = Document.from(new DiscoveryNode(mapper.readTree(reader)));
+      }
+      Document streamed;
+      try (Reader reader = new FileReader(new File(file))) {
+        streamed = Document.from(reader);
+      }
+
+      assertThat(streamed).isEqualTo(fromTree);
+      assertThat(streamed.authType()).isEqualTo(fromTree.authType());
+      assertThat(streamed.baseUrl()).isEqualTo(fromTree.baseUrl());
+      assertThat(streamed.methods()).containsExactlyElementsIn(fromTree.methods()).inOrder();
+      assertThat(streamed.resources()).containsExactlyEntriesIn(fromTree.resources()).inOrder();
+      for (Schema schema : streamed.schemas().values()) {
+        assertThat(schema.parent()).isSameAs(streamed);
+      }
+      for (Method method : streamed.methods()) {
+        assertThat(method.parent()).isSameAs(streamed);
+      }
+    }
+  }
+
+  @Test
+  public void testResourcesKeepDocumentOrder() throws IOException {
+    String json =
+        "{\"name\": \"test\", \"resources\": {"
+            + " \"zones\": {\"methods\": {\"get\": {\"id\": \"test.zones.get\"}}},"
+            + " \"addresses\": {\"resources\": {"
+            + "   \"global\": {\"methods\": {\"list\": {\"id\": \"test.addresses.global.list\"}}},"
+            + "   \"aggregated\": {\"methods\": {\"list\": {\"id\": \"test.addresses.list\"}}}}},"
+            + " \"instances\": {\"methods\": {\"start\": {\"id\": \"test.instances.start\"},"
+            + "   \"delete\": {\"id\": \"test.instances.delete\"}}}}}";
+    Document fromTree = Document.from(new DiscoveryNode(new ObjectMapper().readTree(json)));
+    Document streamed = Document.from(new StringReader(json));
+
+    assertThat(streamed.resources().keySet())
+        .containsExactly("zones", "addresses", "instances")
+        .inOrder();
+    assertThat(streamed.resources()).containsExactlyEntriesIn(fromTree.resources()).inOrder();
+    assertThat(streamed.resources().get("addresses"))
+        .containsExactlyElementsIn(fromTree.resources().get("addresses"))
+        .inOrder();
+  }
+
+  @Test
+  public void testUnusedFieldsAreSkipped() throws IOException {
+    Document document =
+        Document.from(
+            new StringReader(
+                "{\"kind\": \"discovery#restDescription\", \"parameters\": {\"alt\": {}},"
+                    + " \"name\": \"test\", \"icons\": [{\"x16\": \"a\"}],"
+                    + " \"schemas\": {\"A\": {\"id\": \"A\","
+                    + " \"annotations\": {\"required\": []}}}}"));
+
+    assertThat(document.name()).isEqualTo("test");
+    assertThat(document.canonicalName()).isEqualTo("test");
+    assertThat(document.schemas().get("A").getIdentifier()).isEqualTo("A");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidValueIsRejected() throws IOException {
+    Document.from(new StringReader("{\"name\": 1}"));
+  }
+}
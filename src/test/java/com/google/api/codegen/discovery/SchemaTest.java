@@ -51,4 +51,24 @@ public class SchemaTest {
     assertThat(appleToDogPath.get(4).getIdentifier()).isEqualTo("items");
     assertThat(appleToDogPath.get(5)).isEqualTo(dog);
   }
+
+  @Test
+  public void testReferencesAreResolvedOnce() throws IOException {
+    String file = "src/test/java/com/google/api/codegen/discovery/testdata/graph.json";
+    Reader reader = new InputStreamReader(new FileInputStream(new File(file)));
+
+    ObjectMapper mapper = new ObjectMapper();
+    JsonNode root = mapper.readTree(reader);
+
+    Document document = Document.from(new DiscoveryNode(root));
+
+    Schema apple = document.schemas().get("Apple");
+    Schema banana = document.schemas().get("Banana");
+    Schema bananaReference = apple.properties().get("items").additionalProperties();
+
+    assertThat(bananaReference.reference()).isEqualTo("Banana");
+    assertThat(bananaReference.dereference()).isSameAs(banana);
+    assertThat(apple.findChild("Dog")).isSameAs(apple.findChild("Dog"));
+    assertThat(apple.findChild("Unknown")).isEmpty();
+  }
 }
@@ -0,0 +1,148 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.gapic;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.common.CodeGenerator;
+import com.google.api.codegen.common.GeneratedResult;
+import com.google.api.tools.framework.model.SimpleDiagCollector;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class CodeGeneratorSchedulerTest {
+
+  @Test
+  public void mergesResultsInGeneratorOrder() throws IOException {
+    List<CodeGenerator<?>> generators = new ArrayList<>();
+    List<String> expectedPaths = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      Map<String, GeneratedResult<String>> output = new TreeMap<>();
+      for (int j = 0; j < 3; j++) {
+        String path = String.format("gen%02d/file%d.txt", 19 - i, j);
+        output.put(path, GeneratedResult.create(path, false));
+        expectedPaths.add(path);
+      }
+      generators.add(new FakeGenerator("gen" + i, output));
+    }
+
+    SimpleDiagCollector diagCollector = new SimpleDiagCollector();
+    Map<String, GeneratedResult<?>> sequential =
+        new CodeGeneratorScheduler(1).generate(generators, diagCollector);
+    Map<String, GeneratedResult<?>> concurrent =
+        new CodeGeneratorScheduler(8).generate(generators, diagCollector);
+
+    assertThat(diagCollector.getErrorCount()).isEqualTo(0);
+    assertThat(sequential.keySet()).containsExactlyElementsIn(expectedPaths).inOrder();
+    assertThat(concurrent.keySet()).containsExactlyElementsIn(expectedPaths).inOrder();
+  }
+
+  @Test
+  public void reportsDuplicateOutputPaths() throws IOException {
+    List<CodeGenerator<?>> generators =
+        ImmutableList.of(
+            new FakeGenerator("first", ImmutableMap.of("a.txt", GeneratedResult.create("", false))),
+            new FakeGenerator(
+                "second", ImmutableMap.of("a.txt", GeneratedResult.create("", false))));
+
+    SimpleDiagCollector diagCollector = new SimpleDiagCollector();
+    Map<String, GeneratedResult<?>> results =
+        new CodeGeneratorScheduler(2).generate(generators, diagCollector);
+
+    assertThat(results).isNull();
+    assertThat(diagCollector.getErrorCount()).isEqualTo(1);
+    assertThat(diagCollector.getDiags().get(0).getMessage())
+        .isEqualTo(
+            "Output file 'a.txt' is generated by both FakeGenerator(first) "
+                + "and FakeGenerator(second).");
+  }
+
+  @Test
+  public void streamsResultsAndReportsDuplicateOutputPaths() throws IOException {
+    List<CodeGenerator<?>> generators =
+        ImmutableList.of(
+            new FakeGenerator("first", ImmutableMap.of("a.txt", GeneratedResult.create("", false))),
+            new FakeGenerator(
+                "second",
+                ImmutableMap.of(
+                    "a.txt",
+                    GeneratedResult.create("", false),
+                    "b.txt",
+                    GeneratedResult.create("", false))));
+
+    Map<String, GeneratedResult<?>> written = new ConcurrentHashMap<>();
+    StreamingGapicWriter writer = Mockito.mock(StreamingGapicWriter.class);
+    Mockito.doAnswer(
+            invocation -> written.put(invocation.getArgument(0), invocation.getArgument(1)))
+        .when(writer)
+        .writeGeneratedFile(Mockito.anyString(), Mockito.any());
+
+    SimpleDiagCollector diagCollector = new SimpleDiagCollector();
+    boolean success =
+        new CodeGeneratorScheduler(2).generate(generators, writer, "java/", diagCollector);
+
+    assertThat(success).isFalse();
+    assertThat(written.keySet()).containsExactly("java/a.txt", "java/b.txt");
+    assertThat(diagCollector.getErrorCount()).isEqualTo(1);
+    assertThat(diagCollector.getDiags().get(0).getMessage())
+        .isEqualTo(
+            "Output file 'a.txt' is generated by both FakeGenerator(first) "
+                + "and FakeGenerator(second).");
+  }
+
+  @Test(expected = IOException.class)
+  public void rethrowsGeneratorFailures() throws IOException {
+    CodeGenerator<String> failingGenerator =
+        new FakeGenerator("failing", ImmutableMap.of()) {
+          @Override
+          public Map<String, GeneratedResult<String>> generate() throws IOException {
+            throw new IOException("cannot read template");
+          }
+        };
+    new CodeGeneratorScheduler(2)
+        .generate(
+            ImmutableList.of(new FakeGenerator("ok", ImmutableMap.of()), failingGenerator),
+            new SimpleDiagCollector());
+  }
+
+  private static class FakeGenerator implements CodeGenerator<String> {
+    private final String name;
+    private final Map<String, GeneratedResult<String>> output;
+
+    FakeGenerator(String name, Map<String, GeneratedResult<String>> output) {
+      this.name = name;
+      this.output = output;
+    }
+
+    @Override
+    public Collection<String> getInputFileNames() {
+      return ImmutableList.of(name);
+    }
+
+    @Override
+    public Map<String, GeneratedResult<String>> generate() throws IOException {
+      return output;
+    }
+  }
+}
@@ -14,18 +14,27 @@
  */
 package com.google.api.codegen.gapic;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import com.google.api.codegen.ArtifactType;
+import com.google.api.codegen.common.GeneratedResult;
 import com.google.api.tools.framework.model.DiagCollector;
+import com.google.api.tools.framework.model.SimpleDiagCollector;
 import com.google.api.tools.framework.snippet.Doc;
 import com.google.api.tools.framework.tools.ToolOptions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import com.google.common.io.CharStreams;
+import com.google.common.io.Files;
 import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.util.Collections;
 import java.util.Map;
+import java.util.jar.JarFile;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -65,4 +74,65 @@ public class GapicGeneratorAppTest {
     assertTrue(outputJar.exists());
     assertFalse((new File(outputJar.getPath(), "tmp3")).exists());
   }
+
+  @Test
+  public void writeStreamedOutput() throws Exception {
+    DiagCollector diagCollector = new SimpleDiagCollector();
+
+    // Verify that streamed files are written to a directory as they arrive.
+    String outputDir = tempDir.newFolder("streamed").getPath();
+    FileGapicWriter gapicWriter = new FileGapicWriter(outputDir);
+    gapicWriter.writeGeneratedFile(
+        "pkg/tmp.txt", GeneratedResult.create(Doc.text("Sample data"), false));
+    assertTrue((new File(outputDir, "pkg/tmp.txt")).exists());
+    gapicWriter.writeGeneratedFile("tmp3", GeneratedResult.create("Sample data", true));
+    gapicWriter.finishGeneratedFiles(diagCollector);
+    assertTrue(gapicWriter.isDone());
+    if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+      assertTrue((new File(outputDir, "tmp3")).canExecute());
+    }
+
+    // Verify that streamed files are written into a srcjar, and that the last file written to a
+    // path wins.
+    File outputJar = new File(tempDir.getRoot(), "output.srcjar");
+    gapicWriter = new FileGapicWriter(outputJar.getPath());
+    gapicWriter.writeGeneratedFile("a.txt", GeneratedResult.create(Doc.text("first"), false));
+    gapicWriter.writeGeneratedFile("b.txt", GeneratedResult.create("second", false));
+    gapicWriter.writeGeneratedFile("a.txt", GeneratedResult.create("third", false));
+    gapicWriter.finishGeneratedFiles(diagCollector);
+    assertEquals(0, diagCollector.getErrorCount());
+    try (JarFile jarFile = new JarFile(outputJar)) {
+      assertEquals(
+          "third",
+          CharStreams.toString(
+              new InputStreamReader(
+                  jarFile.getInputStream(jarFile.getEntry("a.txt")), StandardCharsets.UTF_8)));
+      assertEquals(2, jarFile.size());
+    }
+  }
+
+  @Test
+  public void writeOnlyChangedFiles() throws Exception {
+    String outputDir = tempDir.newFolder("skip_unchanged").getPath();
+    FileGapicWriter gapicWriter = new FileGapicWriter(outputDir);
+    gapicWriter.setSkipUnchangedFiles(true);
+    File unchanged = new File(outputDir, "unchanged.txt");
+    File changed = new File(outputDir, "changed.txt");
+    gapicWriter.writeCodeGenOutput(
+        ImmutableMap.of(
+            "unchanged.txt", GeneratedResult.create(Doc.text("same"), false),
+            "changed.txt", GeneratedResult.create(Doc.text("before"), false)),
+        new SimpleDiagCollector());
+    assertTrue(unchanged.setLastModified(1000));
+    assertTrue(changed.setLastModified(1000));
+
+    // Verify that only files whose content changed are rewritten.
+    gapicWriter.writeCodeGenOutput(
+        ImmutableMap.of(
+            "unchanged.txt", GeneratedResult.create(Doc.text("same"), false),
+            "changed.txt", GeneratedResult.create(Doc.text("after"), false)),
+        new SimpleDiagCollector());
+    assertEquals(1000, unchanged.lastModified());
+    assertEquals("after", Files.asCharSource(changed, StandardCharsets.UTF_8).read());
+  }
 }
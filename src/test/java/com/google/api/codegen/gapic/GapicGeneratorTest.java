@@ -0,0 +1,136 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.gapic;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.common.GeneratedResult;
+import com.google.api.codegen.config.GapicProductConfig;
+import com.google.api.codegen.config.ProtoApiModel;
+import com.google.api.codegen.rendering.CommonSnippetSetRunner;
+import com.google.api.codegen.transformer.ModelToViewTransformer;
+import com.google.api.codegen.viewmodel.ViewModel;
+import com.google.api.tools.framework.model.DiagReporter;
+import com.google.api.tools.framework.model.Model;
+import com.google.api.tools.framework.model.SimpleDiagCollector;
+import com.google.api.tools.framework.snippet.Doc;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class GapicGeneratorTest {
+  private static final int VIEW_MODEL_COUNT = 50;
+
+  @Test
+  public void parallelRenderingMatchesSequentialRendering() {
+    Map<String, GeneratedResult<Doc>> sequential = newGenerator(1).generate();
+    Map<String, GeneratedResult<Doc>> parallel = newGenerator(8).generate();
+
+    assertThat(parallel.keySet()).containsExactlyElementsIn(sequential.keySet()).inOrder();
+    for (Map.Entry<String, GeneratedResult<Doc>> entry : sequential.entrySet()) {
+      assertThat(parallel.get(entry.getKey()).getBody().prettyPrint())
+          .isEqualTo(entry.getValue().getBody().prettyPrint());
+    }
+    // Later view models with the same output path win, as in sequential rendering.
+    assertThat(parallel.get("shared.txt").getBody().prettyPrint())
+        .isEqualTo("view" + (VIEW_MODEL_COUNT - 1));
+  }
+
+  @Test
+  public void streamedRenderingMatchesRendering() throws IOException {
+    Map<String, GeneratedResult<Doc>> expected = newGenerator(1).generate();
+    for (int renderThreads : new int[] {1, 8}) {
+      List<String> streamedPaths = new ArrayList<>();
+      Map<String, GeneratedResult<Doc>> streamed = new TreeMap<>();
+      boolean success =
+          newGenerator(renderThreads)
+              .generate(
+                  (path, result) -> {
+                    streamedPaths.add(path);
+                    streamed.put(path, result);
+                  });
+
+      assertThat(success).isTrue();
+      // Files are streamed in view model order.
+      assertThat(streamedPaths.subList(0, 4))
+          .containsExactly("file0.txt", "shared.txt", "file1.txt", "shared.txt")
+          .inOrder();
+      assertThat(streamed.keySet()).containsExactlyElementsIn(expected.keySet()).inOrder();
+      assertThat(streamed.get("shared.txt").getBody().prettyPrint())
+          .isEqualTo(expected.get("shared.txt").getBody().prettyPrint());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void parallelRenderingRethrowsRenderFailures() {
+    CommonSnippetSetRunner failingRunner = Mockito.mock(CommonSnippetSetRunner.class);
+    Mockito.doThrow(new IllegalArgumentException("bad template"))
+        .when(failingRunner)
+        .generate(Mockito.any());
+    newGenerator(failingRunner, 4).generate();
+  }
+
+  private static GapicGenerator newGenerator(int renderThreads) {
+    CommonSnippetSetRunner snippetSetRunner = Mockito.mock(CommonSnippetSetRunner.class);
+    Mockito.doAnswer(
+            invocation -> {
+              ViewModel viewModel = invocation.getArgument(0);
+              Doc body = Doc.text(viewModel.templateFileName());
+              return ImmutableMap.of(
+                  viewModel.outputPath(),
+                  GeneratedResult.create(body, false),
+                  "shared.txt",
+                  GeneratedResult.create(body, false));
+            })
+        .when(snippetSetRunner)
+        .generate(Mockito.any());
+    return newGenerator(snippetSetRunner, renderThreads);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static GapicGenerator newGenerator(
+      CommonSnippetSetRunner snippetSetRunner, int renderThreads) {
+    List<ViewModel> viewModels = new ArrayList<>();
+    for (int i = 0; i < VIEW_MODEL_COUNT; i++) {
+      ViewModel viewModel = Mockito.mock(ViewModel.class);
+      Mockito.doReturn("view" + i).when(viewModel).templateFileName();
+      Mockito.doReturn("file" + i + ".txt").when(viewModel).outputPath();
+      viewModels.add(viewModel);
+    }
+    ModelToViewTransformer<ProtoApiModel> transformer = Mockito.mock(ModelToViewTransformer.class);
+    Mockito.doReturn(ImmutableList.copyOf(viewModels))
+        .when(transformer)
+        .transform(Mockito.any(), Mockito.any());
+
+    DiagReporter diagReporter = Mockito.mock(DiagReporter.class);
+    Mockito.doReturn(new SimpleDiagCollector()).when(diagReporter).getDiagCollector();
+    Model model = Mockito.mock(Model.class);
+    Mockito.doReturn(diagReporter).when(model).getDiagReporter();
+
+    return GapicGenerator.newBuilder()
+        .setModel(model)
+        .setProductConfig(GapicProductConfig.createDummyInstance())
+        .setSnippetSetRunner(snippetSetRunner)
+        .setModelToViewTransformer(transformer)
+        .setRenderThreads(renderThreads)
+        .build();
+  }
+}
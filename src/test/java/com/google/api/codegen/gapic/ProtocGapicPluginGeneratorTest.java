@@ -20,7 +20,10 @@ import com.google.api.codegen.protoannotations.GapicCodeGeneratorAnnotationsTest
 import com.google.api.tools.framework.model.Model;
 import com.google.api.tools.framework.model.ProtoFile;
 import com.google.api.tools.framework.model.testing.TestDataLocator;
+import com.google.api.tools.framework.tools.ToolOptions;
 import com.google.common.truth.Truth;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
 import com.google.protobuf.compiler.PluginProtos.CodeGeneratorRequest;
 import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
 import java.util.stream.Collectors;
@@ -80,4 +83,31 @@ public class ProtocGapicPluginGeneratorTest {
     Truth.assertThat(response).isNotNull();
     Truth.assertThat(response.getError()).isNotEmpty();
   }
+
+  @Test
+  public void testDescriptorSetIsPassedInMemory() throws Exception {
+    CodeGeneratorRequest codeGeneratorRequest =
+        CodeGeneratorRequest.newBuilder()
+            .addAllProtoFile(
+                model.getFiles().stream().map(ProtoFile::getProto).collect(Collectors.toList()))
+            .addFileToGenerate("multiple_services.proto")
+            .setParameter("language=java")
+            .build();
+
+    ToolOptions options = ProtocGeneratorMain.parseOptions(codeGeneratorRequest);
+
+    Truth.assertThat(options.get(ToolOptions.DESCRIPTOR_SET)).isEmpty();
+    FileDescriptorSet descriptorSet =
+        FileDescriptorSet.parseFrom(
+            options.get(ToolOptions.DESCRIPTOR_SET_CONTENTS).getFileContents());
+    Truth.assertThat(
+            descriptorSet
+                .getFileList()
+                .stream()
+                .map(FileDescriptorProto::getName)
+                .collect(Collectors.toList()))
+        .containsExactlyElementsIn(
+            model.getFiles().stream().map(f -> f.getProto().getName()).collect(Collectors.toList()))
+        .inOrder();
+  }
 }
@@ -0,0 +1,58 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.rendering;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.util.java.JavaRenderingUtil;
+import com.google.api.tools.framework.snippet.Doc;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+public class SnippetSetCacheTest {
+  private static final String RESOURCE_ROOT = "com/google/api/codegen";
+
+  @Test
+  public void templatesAreParsedOnce() {
+    Object first =
+        SnippetSetCache.createSnippetInterface(
+            TestSnippetSet.class,
+            RESOURCE_ROOT,
+            "java/settings.snip",
+            ImmutableMap.of("util", new JavaRenderingUtil()));
+    int size = SnippetSetCache.size();
+
+    Object second =
+        SnippetSetCache.createSnippetInterface(
+            TestSnippetSet.class,
+            RESOURCE_ROOT,
+            "java/settings.snip",
+            ImmutableMap.of("util", new JavaRenderingUtil()));
+
+    assertThat(SnippetSetCache.size()).isEqualTo(size);
+    // Bound interfaces carry evaluation state, so each call gets its own.
+    assertThat(second).isNotSameAs(first);
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void missingTemplateFails() {
+    SnippetSetCache.createSnippetInterface(
+        TestSnippetSet.class, RESOURCE_ROOT, "java/does_not_exist.snip", ImmutableMap.of());
+  }
+
+  private interface TestSnippetSet {
+    Doc generate(Object input);
+  }
+}
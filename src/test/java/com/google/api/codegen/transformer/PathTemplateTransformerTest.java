@@ -0,0 +1,61 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.transformer;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.viewmodel.PathTemplatePartView;
+import java.util.List;
+import org.junit.Test;
+
+public class PathTemplateTransformerTest {
+  private final PathTemplateTransformer transformer = new PathTemplateTransformer();
+
+  @Test
+  public void testPathTemplateParts() {
+    List<PathTemplatePartView> parts =
+        transformer.generatePathTemplateParts("projects/{project}/zones/{zone=*}/disks/{disk}");
+    assertThat(parts).hasSize(6);
+    assertThat(parts.get(0).literal()).isEqualTo("projects/");
+    assertThat(parts.get(1).variable()).isEqualTo("project");
+    assertThat(parts.get(2).literal()).isEqualTo("/zones/");
+    assertThat(parts.get(3).variable()).isEqualTo("zone");
+    assertThat(parts.get(4).literal()).isEqualTo("/disks/");
+    assertThat(parts.get(5).variable()).isEqualTo("disk");
+    assertThat(parts.get(4).isLast()).isFalse();
+    assertThat(parts.get(5).isLast()).isTrue();
+  }
+
+  @Test
+  public void testPathTemplatePartsJoinAdjacentLiterals() {
+    List<PathTemplatePartView> parts =
+        transformer.generatePathTemplateParts("{project}/global/addresses/{address}/info");
+    assertThat(parts).hasSize(4);
+    assertThat(parts.get(1).literal()).isEqualTo("/global/addresses/");
+    assertThat(parts.get(1).literalLength()).isEqualTo(18);
+    assertThat(parts.get(3).literal()).isEqualTo("/info");
+    assertThat(parts.get(3).isLast()).isTrue();
+  }
+
+  @Test
+  public void testPathTemplatePartsNotSpecializable() {
+    assertThat(transformer.generatePathTemplateParts("projects/{project=**}")).isEmpty();
+    assertThat(transformer.generatePathTemplateParts("projects/*/zones/{zone}")).isEmpty();
+    assertThat(transformer.generatePathTemplateParts("projects/{project}:publish")).isEmpty();
+    assertThat(transformer.generatePathTemplateParts("projects/{project}/{project}")).isEmpty();
+    assertThat(transformer.generatePathTemplateParts("projects//{project}")).isEmpty();
+    assertThat(transformer.generatePathTemplateParts("projects/default")).isEmpty();
+  }
+}
@@ -0,0 +1,160 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ArchiveWriterTest {
+  @Rule public TemporaryFolder tempDir = new TemporaryFolder();
+
+  @Test
+  public void isArchive() {
+    assertThat(ArchiveWriter.isArchive("out.zip")).isTrue();
+    assertThat(ArchiveWriter.isArchive("out.jar")).isTrue();
+    assertThat(ArchiveWriter.isArchive("out.srcjar")).isTrue();
+    assertThat(ArchiveWriter.isArchive("out.tar.gz")).isTrue();
+    assertThat(ArchiveWriter.isArchive("out")).isFalse();
+    assertThat(ArchiveWriter.isArchive("")).isFalse();
+  }
+
+  @Test
+  public void zipIsSortedAndReproducible() throws IOException {
+    File first = writeArchive("first.zip", 1, "b/two.txt", "a/one.txt", "run.sh");
+    File second = writeArchive("second.zip", 8, "run.sh", "a/one.txt", "b/two.txt");
+
+    assertThat(Files.toByteArray(second)).isEqualTo(Files.toByteArray(first));
+    try (ZipFile zipFile = new ZipFile(first)) {
+      List<String> names = new ArrayList<>();
+      for (Enumeration<? extends ZipEntry> entries = zipFile.entries();
+          entries.hasMoreElements(); ) {
+        ZipEntry entry = entries.nextElement();
+        names.add(entry.getName());
+        assertThat(readFully(zipFile.getInputStream(entry)))
+            .isEqualTo(contentOf(entry.getName()).getBytes(StandardCharsets.UTF_8));
+      }
+      assertThat(names).containsExactly("a/one.txt", "b/two.txt", "run.sh").inOrder();
+    }
+  }
+
+  @Test
+  public void jarStartsWithManifest() throws IOException {
+    File archive = writeArchive("out.srcjar", 4, "b/two.txt", "a/one.txt");
+
+    try (JarFile jarFile = new JarFile(archive)) {
+      assertThat(jarFile.getManifest().getMainAttributes().getValue("Manifest-Version"))
+          .isEqualTo("1.0");
+      assertThat(jarFile.entries().nextElement().getName()).isEqualTo(JarFile.MANIFEST_NAME);
+      assertThat(readFully(jarFile.getInputStream(jarFile.getEntry("a/one.txt"))))
+          .isEqualTo(contentOf("a/one.txt").getBytes(StandardCharsets.UTF_8));
+      assertThat(jarFile.size()).isEqualTo(3);
+    }
+  }
+
+  @Test
+  public void zipWithMoreThan65535EntriesUsesZip64() throws IOException {
+    int entryCount = 70000;
+    File archive = new File(tempDir.getRoot(), "many.jar");
+    try (ArchiveWriter writer = new ArchiveWriter(archive.getPath())) {
+      for (int i = 0; i < entryCount; i++) {
+        String path = "f" + i + ".txt";
+        writer.add(path, contentOf(path).getBytes(StandardCharsets.UTF_8), false);
+      }
+    }
+
+    try (JarFile jarFile = new JarFile(archive)) {
+      assertThat(jarFile.size()).isEqualTo(entryCount + 1);
+      assertThat(jarFile.getManifest()).isNotNull();
+      assertThat(readFully(jarFile.getInputStream(jarFile.getEntry("f69999.txt"))))
+          .isEqualTo(contentOf("f69999.txt").getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  public void tarGzIsSortedAndKeepsExecutableBit() throws IOException {
+    File first = writeArchive("first.tar.gz", 1, "b/two.txt", "a/one.txt", "run.sh");
+    File second = writeArchive("second.tar.gz", 8, "run.sh", "b/two.txt", "a/one.txt");
+
+    assertThat(Files.toByteArray(second)).isEqualTo(Files.toByteArray(first));
+    byte[] tar = readFully(new GZIPInputStream(new FileInputStream(first)));
+    List<String> names = new ArrayList<>();
+    int offset = 0;
+    while (tar[offset] != 0) {
+      String name = new String(tar, offset, 100, StandardCharsets.UTF_8).trim();
+      int mode = Integer.parseInt(new String(tar, offset + 100, 7, StandardCharsets.US_ASCII), 8);
+      int size = Integer.parseInt(new String(tar, offset + 124, 11, StandardCharsets.US_ASCII), 8);
+      names.add(name.replace("\0", ""));
+      assertThat(mode).isEqualTo(name.startsWith("run.sh") ? 0755 : 0644);
+      assertThat(new String(tar, offset + 512, size, StandardCharsets.UTF_8))
+          .isEqualTo(contentOf(names.get(names.size() - 1)));
+      offset += 512 + (size + 511) / 512 * 512;
+    }
+    assertThat(names).containsExactly("a/one.txt", "b/two.txt", "run.sh").inOrder();
+  }
+
+  @Test
+  public void laterEntriesReplaceEarlierOnes() throws IOException {
+    File archive = tempDir.newFile("out.zip");
+    try (ArchiveWriter writer = new ArchiveWriter(archive.getPath(), 2)) {
+      writer.add("a.txt", "first".getBytes(StandardCharsets.UTF_8), false);
+      writer.add("a.txt", "second".getBytes(StandardCharsets.UTF_8), false);
+    }
+    try (ZipFile zipFile = new ZipFile(archive)) {
+      assertThat(zipFile.size()).isEqualTo(1);
+      assertThat(new String(readFully(zipFile.getInputStream(zipFile.getEntry("a.txt")))))
+          .isEqualTo("second");
+    }
+  }
+
+  private File writeArchive(String fileName, int threads, String... paths) throws IOException {
+    File archive = new File(tempDir.getRoot(), fileName);
+    try (ArchiveWriter writer = new ArchiveWriter(archive.getPath(), threads)) {
+      for (String path : paths) {
+        writer.add(path, contentOf(path).getBytes(StandardCharsets.UTF_8), path.endsWith(".sh"));
+      }
+    }
+    return archive;
+  }
+
+  private static String contentOf(String path) {
+    return "content of " + path + "\n";
+  }
+
+  private static byte[] readFully(InputStream in) throws IOException {
+    try (InputStream input = in) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      ByteStreams.copy(input, out);
+      return out.toByteArray();
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.util.go.GoCommentReformatter;
+import com.google.api.codegen.util.java.JavaCommentReformatter;
+import java.util.List;
+import org.junit.Test;
+
+public class CommentCacheTest {
+
+  @Test
+  public void docLinesAreReformattedOncePerReformatterClass() {
+    String comment = "The `name` of the <b>resource</b>.\nSee [docs](https://cloud.google.com).";
+    long hits = CommentCache.docLinesStats().hitCount();
+
+    List<String> javaLines = CommentCache.getDocLines(new JavaCommentReformatter(), comment);
+    List<String> javaLinesAgain = CommentCache.getDocLines(new JavaCommentReformatter(), comment);
+    List<String> goLines = CommentCache.getDocLines(new GoCommentReformatter(), comment);
+
+    assertThat(javaLines)
+        .isEqualTo(CommonRenderingUtil.getDocLines(new JavaCommentReformatter().reformat(comment)));
+    assertThat(goLines)
+        .isEqualTo(CommonRenderingUtil.getDocLines(new GoCommentReformatter().reformat(comment)));
+    assertThat(javaLinesAgain).isSameAs(javaLines);
+    assertThat(CommentCache.docLinesStats().hitCount()).isAtLeast(hits + 1);
+  }
+
+  @Test
+  public void wrappedDocLinesAreKeyedByWidth() {
+    String comment = "one two three four five six seven eight nine ten";
+    JavaCommentReformatter reformatter = new JavaCommentReformatter();
+
+    assertThat(CommentCache.getDocLines(reformatter, comment, 20))
+        .isEqualTo(CommonRenderingUtil.getDocLines(comment, 20));
+    assertThat(CommentCache.getDocLines(reformatter, comment, 100))
+        .isEqualTo(CommonRenderingUtil.getDocLines(comment, 100));
+  }
+
+  @Test
+  public void markdownIsParsedOnce() {
+    long misses = CommentCache.markdownStats().missCount();
+
+    Object first = CommentCache.parseMarkdown("A *markdown* comment.");
+    Object second = CommentCache.parseMarkdown("A *markdown* comment.");
+
+    assertThat(second).isSameAs(first);
+    assertThat(CommentCache.markdownStats().missCount()).isAtMost(misses + 1);
+  }
+}
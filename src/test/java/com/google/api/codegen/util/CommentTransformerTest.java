@@ -0,0 +1,106 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.util.CommentTransformer.Transformation;
+import com.google.api.codegen.util.js.JSCommentReformatter;
+import com.google.api.codegen.util.php.PhpCommentReformatter;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.junit.Test;
+
+public class CommentTransformerTest {
+
+  @Test
+  public void requiredCharsOfCommentPatterns() {
+    assertThat(CommentTransformer.requiredChar(CommentPatterns.BACK_QUOTE_PATTERN)).isEqualTo('`');
+    assertThat(CommentTransformer.requiredChar(CommentPatterns.ABSOLUTE_LINK_PATTERN))
+        .isEqualTo('[');
+    assertThat(CommentTransformer.requiredChar(CommentPatterns.RELATIVE_LINK_PATTERN))
+        .isEqualTo('[');
+    assertThat(CommentTransformer.requiredChar(CommentPatterns.PROTO_LINK_PATTERN)).isEqualTo('[');
+    assertThat(CommentTransformer.requiredChar(CommentPatterns.HEADLINE_PATTERN)).isEqualTo('#');
+    assertThat(CommentTransformer.requiredChar(JSCommentReformatter.CLOSE_COMMENT_PATTERN))
+        .isEqualTo('*');
+    assertThat(CommentTransformer.requiredChar(PhpCommentReformatter.AT_SYMBOL_PATTERN))
+        .isEqualTo('@');
+  }
+
+  @Test
+  public void patternsWithoutRequiredChars() {
+    List<Pattern> patterns =
+        ImmutableList.of(
+            CommentPatterns.CODE_BLOCK_PATTERN,
+            Pattern.compile("a|b"),
+            Pattern.compile("x?y"),
+            Pattern.compile("x*"),
+            Pattern.compile("x{0,2}"),
+            Pattern.compile("(?i)x"),
+            Pattern.compile("x", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("\\Q|\\E"),
+            Pattern.compile("[xy]"),
+            Pattern.compile("\\wx"),
+            Pattern.compile("(?=x)"));
+    for (Pattern pattern : patterns) {
+      assertThat(CommentTransformer.requiredChar(pattern)).isEqualTo((char) 0);
+    }
+  }
+
+  @Test
+  public void transformationsSeeEarlierReplacements() {
+    Pattern word = Pattern.compile("word");
+    CommentTransformer transformer =
+        CommentTransformer.newBuilder()
+            .replace(word, "[word](/docs)")
+            .transform(LinkPattern.RELATIVE.withUrlPrefix("https://x.com").toFormat("$TITLE: $URL"))
+            .build();
+
+    assertThat(transformer.transform("a word")).isEqualTo("a word: https://x.com/docs");
+    assertThat(transformer.transform("no match")).isEqualTo("no match");
+  }
+
+  @Test
+  public void transformMatchesSequentialApplication() {
+    List<Transformation> transformations =
+        ImmutableList.of(
+            LinkPattern.PROTO.toFormat("$TITLE"),
+            LinkPattern.RELATIVE
+                .withUrlPrefix("https://cloud.google.com")
+                .toFormat("[$TITLE]($URL)"),
+            new Transformation(CommentPatterns.HEADLINE_PATTERN, s -> s.replace("#", "=")),
+            new Transformation(JSCommentReformatter.CLOSE_COMMENT_PATTERN, s -> "* /"));
+    CommentTransformer.Builder builder = CommentTransformer.newBuilder();
+    transformations.forEach(builder::transform);
+    CommentTransformer transformer = builder.build();
+
+    List<String> comments =
+        ImmutableList.of(
+            "",
+            "Plain text without markup.",
+            "See [Book][google.example.library.v1.Book] and [docs](/library/docs).",
+            "# Heading\n## Subheading */\nText with [absolute](https://example.com).",
+            "Unclosed [link and ## not a heading");
+    for (String comment : comments) {
+      String expected = comment;
+      for (Transformation transformation : transformations) {
+        expected = transformation.apply(expected);
+      }
+      assertThat(transformer.transform(comment)).isEqualTo(expected);
+    }
+  }
+}
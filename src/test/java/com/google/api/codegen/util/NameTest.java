@@ -157,4 +157,17 @@ public class NameTest {
     assertThat(name.toLowerCamel()).isEqualTo("iamHTTPXML");
     assertThat(name.toUpperCamel()).isEqualTo("IAMHTTPXML");
   }
+
+  @Test
+  public void sharedPiecesKeepTheirCasing() {
+    // Both names contain the piece "IAM", once rendered as an acronym and once in camel case.
+    Name keepAcronyms = Name.upperCamelKeepUpperAcronyms("IAMPolicy");
+    Name camelAcronyms = Name.upperCamel("IAMPolicy");
+    for (int i = 0; i < 2; i++) {
+      assertThat(keepAcronyms.toUpperCamel()).isEqualTo("IAMPolicy");
+      assertThat(camelAcronyms.toUpperCamel()).isEqualTo("IamPolicy");
+    }
+    assertThat(keepAcronyms).isEqualTo(camelAcronyms);
+    assertThat(keepAcronyms.join("v1").toLowerCamel()).isEqualTo("iamPolicyV1");
+  }
 }
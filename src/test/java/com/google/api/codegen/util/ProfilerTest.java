@@ -0,0 +1,90 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.codegen.util.Profiler.Measurement;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import org.junit.Test;
+
+public class ProfilerTest {
+
+  @Test
+  public void sumsSpansWithTheSameName() {
+    Profiler profiler = Profiler.create();
+    for (int i = 0; i < 3; i++) {
+      try (Profiler.Span span = profiler.start(Profiler.RENDER, "Foo.java")) {
+        allocate();
+      }
+    }
+    try (Profiler.Span span = profiler.start(Profiler.STAGE, "establish_stage")) {
+      allocate();
+    }
+
+    List<Measurement> measurements = profiler.getMeasurements();
+    assertThat(measurements).hasSize(2);
+    Measurement render = measurements.get(0);
+    assertThat(render.category()).isEqualTo(Profiler.RENDER);
+    assertThat(render.name()).isEqualTo("Foo.java");
+    assertThat(render.count()).isEqualTo(3);
+    assertThat(render.wallNanos()).isAtLeast(0L);
+    assertThat(measurements.get(1).name()).isEqualTo("establish_stage");
+  }
+
+  @Test
+  public void disabledProfilerRecordsNothing() {
+    Profiler profiler = Profiler.disabled();
+    try (Profiler.Span span = profiler.start(Profiler.STAGE, "write_output")) {
+      allocate();
+    }
+    assertThat(profiler.isEnabled()).isFalse();
+    assertThat(profiler.getMeasurements()).isEmpty();
+  }
+
+  @Test
+  public void writesJsonReport() throws IOException {
+    Profiler profiler = Profiler.create();
+    profiler.record(Profiler.STAGE, "establish_stage", 2_000_000, 1_000_000, 4096);
+    profiler.record(Profiler.WRITE, "Foo.java", 10, -1, -1);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    profiler.writeReport(out);
+
+    JsonNode report = new ObjectMapper().readTree(out.toByteArray());
+    assertThat(report.get("wallNanos").asLong()).isAtLeast(0L);
+    JsonNode stage = report.get("measurements").get(0);
+    assertThat(stage.get("category").asText()).isEqualTo("stage");
+    assertThat(stage.get("name").asText()).isEqualTo("establish_stage");
+    assertThat(stage.get("count").asInt()).isEqualTo(1);
+    assertThat(stage.get("wallNanos").asLong()).isEqualTo(2_000_000L);
+    assertThat(stage.get("threadCpuNanos").asLong()).isEqualTo(1_000_000L);
+    assertThat(stage.get("threadAllocatedBytes").asLong()).isEqualTo(4096L);
+    // Quantities the JVM could not measure are left out.
+    JsonNode write = report.get("measurements").get(1);
+    assertThat(write.has("threadCpuNanos")).isFalse();
+    assertThat(write.has("threadAllocatedBytes")).isFalse();
+
+    assertThat(profiler.summary()).contains("establish_stage");
+  }
+
+  private static int[] allocate() {
+    return new int[1024];
+  }
+}
@@ -239,4 +239,23 @@ public class ProtoParserTest {
     ImmutableSet<String> publishHeaderParams = protoParser.getHeaderParams(publishMethod);
     assertThat(publishHeaderParams).containsExactly("shelf.name");
   }
+
+  @Test
+  public void testAnnotationsAreSharedByParsers() {
+    Method publishMethod = libraryService.lookupMethod("PublishSeries");
+    ProtoParser otherParser = new ProtoParser(true);
+    assertThat(otherParser.getMethodSignatures(publishMethod))
+        .isSameAs(protoParser.getMethodSignatures(publishMethod));
+    assertThat(otherParser.getRequiredFields(publishMethod))
+        .isSameAs(protoParser.getRequiredFields(publishMethod));
+    assertThat(otherParser.getHeaderParams(publishMethod))
+        .isSameAs(protoParser.getHeaderParams(publishMethod));
+
+    // Parsers without annotations enabled ignore the shared annotations.
+    ProtoParser disabledParser = new ProtoParser(false);
+    assertThat(disabledParser.getMethodSignatures(publishMethod)).isEmpty();
+    assertThat(disabledParser.getRequiredFields(publishMethod)).isEmpty();
+    assertThat(disabledParser.getHeaderParams(publishMethod)).isEmpty();
+    assertThat(disabledParser.getAuthScopes(libraryService)).isEmpty();
+  }
 }
@@ -0,0 +1,108 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.ConfigProto;
+import com.google.api.tools.framework.model.ConfigSource;
+import com.google.api.tools.framework.model.SimpleDiagCollector;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.Message;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class YamlConfigCacheTest {
+  private static final Map<String, Message> CONFIG_TYPES =
+      ImmutableMap.of(ConfigProto.getDescriptor().getFullName(), ConfigProto.getDefaultInstance());
+  private static final String CONFIG_YAML =
+      "type: com.google.api.codegen.ConfigProto\n"
+          + "config_schema_version: 1.0.0\n"
+          + "language_settings:\n"
+          + "  java:\n"
+          + "    package_name: com.google.example.library.v1\n";
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void parsedConfigsAreReused() throws IOException {
+    YamlConfigCache cache = new YamlConfigCache(tempFolder.getRoot().toPath());
+    SimpleDiagCollector diagCollector = new SimpleDiagCollector();
+
+    ConfigSource parsed = read(diagCollector, cache);
+    assertThat(entries()).hasSize(1);
+    ConfigSource cached = read(diagCollector, cache);
+
+    assertThat(diagCollector.getDiags()).isEmpty();
+    assertThat(cache.get(CONFIG_YAML, CONFIG_TYPES)).isEqualTo(parsed.getConfig());
+    assertThat(cached.getConfig()).isEqualTo(parsed.getConfig());
+    assertThat(
+            ((ConfigProto) cached.getConfig())
+                .getLanguageSettingsMap()
+                .get("java")
+                .getPackageName())
+        .isEqualTo("com.google.example.library.v1");
+  }
+
+  @Test
+  public void corruptEntriesAreIgnored() throws IOException {
+    YamlConfigCache cache = new YamlConfigCache(tempFolder.getRoot().toPath());
+    SimpleDiagCollector diagCollector = new SimpleDiagCollector();
+    ConfigSource parsed = read(diagCollector, cache);
+    for (Path entry : entries()) {
+      Files.write(entry, new byte[] {1, 2, 3});
+    }
+
+    assertThat(cache.get(CONFIG_YAML, CONFIG_TYPES)).isNull();
+    assertThat(read(diagCollector, cache).getConfig()).isEqualTo(parsed.getConfig());
+    assertThat(cache.get(CONFIG_YAML, CONFIG_TYPES)).isEqualTo(parsed.getConfig());
+  }
+
+  @Test
+  public void missingCacheDirectoryIsCreated() {
+    File cacheDir = new File(tempFolder.getRoot(), "nested/cache");
+    YamlConfigCache cache = new YamlConfigCache(cacheDir.toPath());
+
+    assertThat(cache.get(CONFIG_YAML, CONFIG_TYPES)).isNull();
+    cache.put(CONFIG_YAML, CONFIG_TYPES, ConfigProto.getDefaultInstance());
+
+    assertThat(cache.get(CONFIG_YAML, CONFIG_TYPES)).isEqualTo(ConfigProto.getDefaultInstance());
+  }
+
+  private static ConfigSource read(SimpleDiagCollector diagCollector, YamlConfigCache cache) {
+    return MultiYamlReader.read(
+        diagCollector,
+        ImmutableList.of("library_gapic.yaml"),
+        ImmutableList.of(CONFIG_YAML),
+        CONFIG_TYPES,
+        cache);
+  }
+
+  private List<Path> entries() throws IOException {
+    try (Stream<Path> files = Files.list(tempFolder.getRoot().toPath())) {
+      return files.collect(Collectors.toList());
+    }
+  }
+}
@@ -38,4 +38,31 @@ public class JavaTypeTableTest {
     assertThat(imports.size()).isEqualTo(1);
     assertThat(imports.get(implicitPackage + ".qux.Corge").getNickname()).isEqualTo("Corge");
   }
+
+  @Test
+  public void testJavaLangClashIsEscaped() {
+    JavaTypeTable typeTable = new JavaTypeTable("foo.bar");
+    assertThat(typeTable.getAndSaveNicknameFor("java.lang.Integer")).isEqualTo("Integer");
+    assertThat(typeTable.getAndSaveNicknameFor("com.example.Override"))
+        .isEqualTo("com.example.Override");
+    assertThat(typeTable.getAndSaveNicknameFor("com.example.Book")).isEqualTo("Book");
+    // Types in java.lang that are not public are not implicitly imported.
+    assertThat(typeTable.getAndSaveNicknameFor("com.example.Shutdown")).isEqualTo("Shutdown");
+
+    assertThat(JavaTypeTable.isJavaLangImport("String")).isTrue();
+    assertThat(JavaTypeTable.isJavaLangImport("Book")).isFalse();
+    assertThat(JavaTypeTable.isJavaLangImport("Character.UnicodeBlock")).isFalse();
+  }
+
+  @Test
+  public void testTypesAddedToJavaLangAfterJava7AreNotEscaped() {
+    JavaTypeTable typeTable = new JavaTypeTable("foo.bar");
+    assertThat(typeTable.getAndSaveNicknameFor("com.example.Record")).isEqualTo("Record");
+    assertThat(typeTable.getAndSaveNicknameFor("com.example.Module")).isEqualTo("Module");
+    assertThat(typeTable.getAndSaveNicknameFor("com.example.FunctionalInterface"))
+        .isEqualTo("FunctionalInterface");
+    assertThat(typeTable.getImports().keySet())
+        .containsExactly(
+            "com.example.Record", "com.example.Module", "com.example.FunctionalInterface");
+  }
 }